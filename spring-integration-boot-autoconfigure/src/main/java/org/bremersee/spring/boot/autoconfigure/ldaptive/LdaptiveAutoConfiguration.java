@@ -165,7 +165,9 @@ public class LdaptiveAutoConfiguration {
   @ConditionalOnMissingBean(ReactiveLdaptiveOperations.class)
   @Bean
   public ReactiveLdaptiveTemplate reactiveLdaptiveTemplate(ConnectionFactory connectionFactory) {
-    return new ReactiveLdaptiveTemplate(connectionFactory);
+    ReactiveLdaptiveTemplate template = new ReactiveLdaptiveTemplate(connectionFactory);
+    template.setBindTimeout(properties.getBindTimeout());
+    return template;
   }
 
   /**
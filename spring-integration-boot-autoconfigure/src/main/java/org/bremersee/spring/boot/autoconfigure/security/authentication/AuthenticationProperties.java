@@ -16,6 +16,7 @@
 
 package org.bremersee.spring.boot.autoconfigure.security.authentication;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -247,6 +248,36 @@ public class AuthenticationProperties {
      */
     private String passwordLastSetAttribute;
 
+    /**
+     * Applies only for simple bind. The pool of connections that is used to verify the credentials
+     * of the user.
+     */
+    private BindPoolProperties bindPool = new BindPoolProperties();
+
+    /**
+     * Specifies whether the optimized login is used. The user is searched by username or email
+     * with one search of the application ldaptive template. Without bind pool, the credentials are
+     * verified by opening a single connection of the user, that is also used to fetch the groups.
+     * Default is {@code false}.
+     */
+    private boolean optimizedLogin;
+
+    /**
+     * The login throttle, that rejects login attempts locally after too many failures.
+     */
+    private LoginThrottleProperties loginThrottle = new LoginThrottleProperties();
+
+    /**
+     * The cache of verified credentials, that serves repeated logins with the same credentials
+     * (like HTTP Basic authentication) from memory.
+     */
+    private CredentialCacheProperties credentialCache = new CredentialCacheProperties();
+
+    /**
+     * The cache of the user details, that are loaded by the remember-me services.
+     */
+    private RememberMeCacheProperties rememberMeCache = new RememberMeCacheProperties();
+
     /**
      * The filter to find the user. If it is empty, it will be generated from 'userObjectClass' and
      * 'usernameAttribute' like this '(&(objectClass=inetOrgPerson)(uid={0}))'.
@@ -273,11 +304,40 @@ public class AuthenticationProperties {
      */
     private String emailAttribute;
 
+    /**
+     * The cache of the usernames by email. It's used, if a user logs in with the email instead of
+     * the username.
+     */
+    private EmailCacheProperties emailCache = new EmailCacheProperties();
+
+    /**
+     * The attributes of the user, that are retained in the authenticated principal (like 'uid',
+     * 'cn' or 'memberOf'). If it is empty, all attributes are requested and retained. Otherwise,
+     * only these attributes and the attributes, that are required for the authentication, are
+     * requested, but only these attributes are retained.
+     */
+    private List<String> retainedAttributes;
+
     /**
      * The account control evaluator.
      */
     private AccountControlEvaluatorProperty accountControlEvaluator;
 
+    /**
+     * The lockout duration of the domain, that is used by the account control evaluator of the
+     * Active Directory to decide, whether the lockout time of a user is still valid. A value of
+     * zero means, that the account is locked, until an administrator unlocks it. Default is 30
+     * minutes.
+     */
+    private Duration lockoutDuration = Duration.ofMinutes(30);
+
+    /**
+     * The maximum password age of the domain, that is used by the account control evaluator of the
+     * Active Directory. If it is not set (or zero), only a password, that must be changed, is
+     * expired.
+     */
+    private Duration maxPasswordAge;
+
     /**
      * The group fetch strategy.
      */
@@ -290,40 +350,56 @@ public class AuthenticationProperties {
 
     /**
      * The group base dn (like 'ou=groups,dc=example,dc=org'). It's only required, if
-     * {@code groupFetchStrategy} is set to {@code GROUP_CONTAINS_USERS}.
+     * {@code groupFetchStrategy} is set to {@code GROUP_CONTAINS_USERS} or
+     * {@code NESTED_GROUPS}.
      */
     private String groupBaseDn;
 
     /**
      * The group search scope. It's only required, if {@code groupFetchStrategy} is set to
-     * {@code GROUP_CONTAINS_USERS},
+     * {@code GROUP_CONTAINS_USERS} or {@code NESTED_GROUPS}.
      */
     private SearchScope groupSearchScope;
 
     /**
      * The group object class. It's only required, if {@code groupFetchStrategy} is set to
-     * {@code GROUP_CONTAINS_USERS}
+     * {@code GROUP_CONTAINS_USERS} or {@code NESTED_GROUPS}.
      */
     private String groupObjectClass;
 
     /**
      * The group id attribute. It's only required, if {@code groupFetchStrategy} is set to
-     * {@code GROUP_CONTAINS_USERS}
+     * {@code GROUP_CONTAINS_USERS} or {@code NESTED_GROUPS}.
      */
     private String groupIdAttribute;
 
     /**
      * The group member attribute. It's only required, if {@code groupFetchStrategy} is set to
-     * {@code GROUP_CONTAINS_USERS}
+     * {@code GROUP_CONTAINS_USERS} or {@code NESTED_GROUPS}.
      */
     private String groupMemberAttribute;
 
     /**
      * The group member format. It's only required, if {@code groupFetchStrategy} is set to
-     * {@code GROUP_CONTAINS_USERS}
+     * {@code GROUP_CONTAINS_USERS} or {@code NESTED_GROUPS}.
      */
     private String groupMemberFormat;
 
+    /**
+     * Specifies whether the transitive groups of a user are found with one search, that uses the
+     * matching rule {@code LDAP_MATCHING_RULE_IN_CHAIN} (1.2.840.113556.1.4.1941). It's only
+     * supported by Active Directory and only used, if {@code groupFetchStrategy} is set to
+     * {@code NESTED_GROUPS}. Default is {@code false}.
+     */
+    private boolean matchingRuleInChain;
+
+    /**
+     * The cache of the group memberships. It's only used, if {@code groupFetchStrategy} is set to
+     * {@code GROUP_CONTAINS_USERS}. With {@code NESTED_GROUPS} the max size and the time to live
+     * are used for the memoized group graph.
+     */
+    private GroupCacheProperties groupCache = new GroupCacheProperties();
+
     /**
      * The role mappings.
      */
@@ -349,6 +425,223 @@ public class AuthenticationProperties {
      */
     private List<StringReplacement> roleStringReplacements;
 
+    /**
+     * The bind pool properties.
+     */
+    @Data
+    public static class BindPoolProperties {
+
+      /**
+       * Specifies whether the credentials of the user are verified by a bind on a pooled
+       * connection, which is re-bound to the application identity afterwards. Default is
+       * {@code false}.
+       */
+      private boolean enabled = false;
+
+      /**
+       * Minimum pool size.
+       */
+      private int minPoolSize = 1;
+
+      /**
+       * Maximum pool size.
+       */
+      private int maxPoolSize = 5;
+
+      /**
+       * Duration to wait for an available connection.
+       */
+      private Duration blockWaitTime = Duration.ofSeconds(10);
+
+      /**
+       * Duration to wait for the response of a bind. The reactive authentication manager applies
+       * it to the binds of the users also, if the bind pool is disabled.
+       */
+      private Duration bindTimeout = Duration.ofSeconds(10);
+
+      /**
+       * Prune period.
+       */
+      private Duration prunePeriod = Duration.ofMinutes(5);
+
+      /**
+       * Idle time.
+       */
+      private Duration idleTime = Duration.ofMinutes(10);
+    }
+
+    /**
+     * The login throttle properties.
+     */
+    @Data
+    public static class LoginThrottleProperties {
+
+      /**
+       * Specifies whether the login throttle is enabled or not. Default is {@code false}.
+       */
+      private boolean enabled = false;
+
+      /**
+       * The number of failed login attempts of a username, after which the delay starts.
+       */
+      private int freeAttempts = 3;
+
+      /**
+       * The number of failed login attempts of a client address, after which the delay starts.
+       */
+      private int freeAttemptsPerClientAddress = 20;
+
+      /**
+       * The delay after the free attempts. It doubles with every further failure.
+       */
+      private Duration initialDelay = Duration.ofSeconds(1);
+
+      /**
+       * The maximum delay.
+       */
+      private Duration maxDelay = Duration.ofMinutes(5);
+
+      /**
+       * The time after the last failure, after which the failures are forgotten.
+       */
+      private Duration failureTimeToLive = Duration.ofMinutes(15);
+
+      /**
+       * The maximum number of usernames and client addresses, whose failures are kept in memory.
+       */
+      private int maxSize = 100000;
+    }
+
+    /**
+     * The credential cache properties.
+     */
+    @Data
+    public static class CredentialCacheProperties {
+
+      /**
+       * Specifies whether the credential cache is enabled or not. Default is {@code false}.
+       */
+      private boolean enabled = false;
+
+      /**
+       * The maximum number of cached logins.
+       */
+      private int maxSize = 10000;
+
+      /**
+       * The time to live of a cached login. If the remember-me token isn't verified, a disabled,
+       * locked or expired account and an old password are accepted until this time has expired, so
+       * it should be kept short.
+       */
+      private Duration timeToLive = Duration.ofMinutes(5);
+
+      /**
+       * Specifies whether the remember-me token of the user is verified, before a cached login is
+       * returned. Default is {@code true}. The verification reads only the attributes, that are
+       * required by the remember-me token provider, from the entry of the user with an object scope
+       * search; if the token has changed, the cached login is removed and the user is authenticated
+       * against the ldap server. A changed account control is always detected, but a changed
+       * password only with a configured password last set attribute (like {@code pwdLastSet}).
+       * Therefore, with verification, a login is only cached, if the password last set attribute is
+       * configured and present in the entry of the user. Turning it off caches every login without
+       * the read, but a changed account or password is accepted until the time to live has expired.
+       */
+      private boolean verifyRememberMeToken = true;
+
+      /**
+       * The interval after which the secret of the hmac is replaced; this invalidates all cached
+       * logins.
+       */
+      private Duration secretRotationInterval = Duration.ofHours(24);
+    }
+
+    /**
+     * The remember-me cache properties.
+     */
+    @Data
+    public static class RememberMeCacheProperties {
+
+      /**
+       * Specifies whether the remember-me cache is enabled or not. Default is {@code false}.
+       */
+      private boolean enabled = false;
+
+      /**
+       * The maximum number of cached users.
+       */
+      private int maxSize = 10000;
+
+      /**
+       * The time to live of cached user details. Changes of the authorities (like group
+       * memberships) are only recognized after this time.
+       */
+      private Duration timeToLive = Duration.ofMinutes(5);
+    }
+
+    /**
+     * The email cache properties.
+     */
+    @Data
+    public static class EmailCacheProperties {
+
+      /**
+       * Specifies whether the usernames, that are resolved by email, are cached. Default is
+       * {@code false}.
+       */
+      private boolean enabled = false;
+
+      /**
+       * The maximum number of cached emails.
+       */
+      private int maxSize = 10000;
+
+      /**
+       * The time to live of a resolved username.
+       */
+      private Duration timeToLive = Duration.ofMinutes(5);
+
+      /**
+       * The time to live of an email, that cannot be resolved.
+       */
+      private Duration negativeTimeToLive = Duration.ofSeconds(30);
+    }
+
+    /**
+     * The group cache properties.
+     */
+    @Data
+    public static class GroupCacheProperties {
+
+      /**
+       * Specifies whether the names of the groups of a member are cached. Default is
+       * {@code false}.
+       */
+      private boolean enabled = false;
+
+      /**
+       * The maximum number of cached members.
+       */
+      private int maxSize = 10000;
+
+      /**
+       * The time to live of the cached groups of a member.
+       */
+      private Duration timeToLive = Duration.ofMinutes(5);
+
+      /**
+       * The interval to load all groups with their members in the background. If it is not set,
+       * the groups of a member are searched on demand.
+       */
+      private Duration refreshInterval;
+
+      /**
+       * The page size of the search, that loads all groups with their members in the background.
+       * It must not exceed the maximum page size of the server (like {@code MaxPageSize} of the
+       * Active Directory, which is 1000 by default).
+       */
+      private int pageSize = 500;
+    }
+
     /**
      * The search scope.
      */
@@ -425,7 +718,13 @@ public class AuthenticationProperties {
       /**
        * Group contains users group-fetch strategy.
        */
-      GROUP_CONTAINS_USERS
+      GROUP_CONTAINS_USERS,
+
+      /**
+       * Nested groups group-fetch strategy: the groups, that contain the user, and all groups, that
+       * contain these groups, are fetched.
+       */
+      NESTED_GROUPS
     }
 
     /**
@@ -21,6 +21,7 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.ldaptive.reactive.ReactiveLdaptiveTemplate;
 import org.bremersee.spring.boot.autoconfigure.ldaptive.LdaptiveAutoConfiguration;
 import org.bremersee.spring.security.core.EmailToUsernameResolver;
 import org.bremersee.spring.security.core.authority.mapping.NormalizedGrantedAuthoritiesMapper;
@@ -124,7 +125,7 @@ public class LdaptiveAuthenticationAutoConfiguration {
       ObjectProvider<AccountControlEvaluator> accountControlEvaluator) {
 
     AccountControlEvaluator evaluator = accountControlEvaluator
-        .getIfAvailable(() -> properties.getAccountControlEvaluator().get());
+        .getIfAvailable(() -> properties.getAccountControlEvaluator().apply(properties));
     if (!isEmpty(properties.getPasswordLastSetAttribute())) {
       return new LdaptivePwdLastSetRememberMeTokenProvider(
           evaluator, properties.getPasswordLastSetAttribute());
@@ -180,6 +181,7 @@ public class LdaptiveAuthenticationAutoConfiguration {
    * @param connectionConfig the connection config
    * @param connectionFactoryProvider the connection factory provider
    * @param ldaptiveTemplateProvider the ldaptive template provider
+   * @param reactiveLdaptiveTemplateProvider the reactive ldaptive template provider
    * @param ldaptivePasswordEncoderProvider the ldaptive password encoder provider
    * @param ldaptiveRememberMeTokenProvider the ldaptive remember-me token provider
    * @param emailToUsernameResolver the email to username resolver
@@ -195,6 +197,7 @@ public class LdaptiveAuthenticationAutoConfiguration {
       ConnectionConfig connectionConfig,
       ObjectProvider<ConnectionFactory> connectionFactoryProvider,
       ObjectProvider<LdaptiveTemplate> ldaptiveTemplateProvider,
+      ObjectProvider<ReactiveLdaptiveTemplate> reactiveLdaptiveTemplateProvider,
       LdaptivePasswordEncoderProvider ldaptivePasswordEncoderProvider,
       LdaptiveRememberMeTokenProvider ldaptiveRememberMeTokenProvider,
       ObjectProvider<EmailToUsernameResolver> emailToUsernameResolver,
@@ -202,18 +205,21 @@ public class LdaptiveAuthenticationAutoConfiguration {
       ObjectProvider<AccountControlEvaluator> accountControlEvaluator,
       ObjectProvider<GrantedAuthoritiesMapper> grantedAuthoritiesMapper,
       ObjectProvider<Converter<LdaptiveUserDetails, LdaptiveAuthentication>> tokenConverter) {
+    LdaptiveAuthenticationManager manager = ldaptiveAuthenticationManager(
+        connectionConfig,
+        connectionFactoryProvider,
+        ldaptiveTemplateProvider,
+        ldaptivePasswordEncoderProvider,
+        ldaptiveRememberMeTokenProvider,
+        emailToUsernameResolver,
+        usernameToBindDnConverter,
+        accountControlEvaluator,
+        grantedAuthoritiesMapper,
+        tokenConverter);
+    manager.init();
     return new ReactiveLdaptiveAuthenticationManager(
-        ldaptiveAuthenticationManager(
-            connectionConfig,
-            connectionFactoryProvider,
-            ldaptiveTemplateProvider,
-            ldaptivePasswordEncoderProvider,
-            ldaptiveRememberMeTokenProvider,
-            emailToUsernameResolver,
-            usernameToBindDnConverter,
-            accountControlEvaluator,
-            grantedAuthoritiesMapper,
-            tokenConverter));
+        manager,
+        reactiveLdaptiveTemplateProvider.getIfAvailable());
   }
 
   private LdaptiveTemplate getLdaptiveTemplate(
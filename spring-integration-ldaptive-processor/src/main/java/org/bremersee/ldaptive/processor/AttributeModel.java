@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.processor;
+
+/**
+ * The resolved mapping of a field to an ldap attribute.
+ *
+ * @param fieldName the name of the field
+ * @param attributeName the name of the ldap attribute
+ * @param kind the kind of the field
+ * @param transcoderClassName the qualified class name of the value transcoder
+ * @param binary specifies whether the attribute is binary
+ * @param defaultValue the default value of a primitive field or {@code null}
+ * @param getterName the name of the getter or {@code null}, if the field is accessed directly
+ * @param setterName the name of the setter or {@code null}, if the field is accessed directly
+ * @param modificationStrategy the name of the modification strategy
+ * @author Christian Bremer
+ */
+record AttributeModel(
+    String fieldName,
+    String attributeName,
+    Kind kind,
+    String transcoderClassName,
+    boolean binary,
+    String defaultValue,
+    String getterName,
+    String setterName,
+    String modificationStrategy) {
+
+  /**
+   * Determines whether the field is accessed directly.
+   *
+   * @return {@code true} if the field is accessed directly, otherwise {@code false}
+   */
+  boolean isDirectAccess() {
+    return getterName == null;
+  }
+
+  /**
+   * The kind of the field.
+   */
+  enum Kind {
+
+    /**
+     * A single value.
+     */
+    SINGLE,
+
+    /**
+     * A list of values.
+     */
+    LIST,
+
+    /**
+     * A set of values.
+     */
+    SET,
+
+    /**
+     * A collection of values.
+     */
+    COLLECTION
+  }
+
+}
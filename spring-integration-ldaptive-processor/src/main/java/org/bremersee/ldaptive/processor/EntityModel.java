@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.processor;
+
+import java.util.List;
+
+/**
+ * The resolved mapping of a domain class to an ldap entry.
+ *
+ * @param packageName the package name of the domain class
+ * @param typeName the canonical name of the domain class
+ * @param mapperName the simple name of the generated mapper
+ * @param objectClasses the object classes
+ * @param rdnAttribute the rdn attribute
+ * @param baseDn the base dn (can be empty)
+ * @param attributes the mapped attributes
+ * @author Christian Bremer
+ */
+record EntityModel(
+    String packageName,
+    String typeName,
+    String mapperName,
+    List<String> objectClasses,
+    AttributeModel rdnAttribute,
+    String baseDn,
+    List<AttributeModel> attributes) {
+
+}
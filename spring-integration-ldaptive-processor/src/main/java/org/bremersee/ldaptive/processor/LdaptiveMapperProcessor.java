@@ -0,0 +1,314 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import org.bremersee.ldaptive.processor.AttributeModel.Kind;
+
+/**
+ * The annotation processor, that generates an ldaptive entry mapper for every class, that is
+ * annotated with {@code org.bremersee.ldaptive.mapping.LdaptiveEntity}.
+ *
+ * <p>The generated mapper doesn't use reflection: the attribute names are resolved at compile time,
+ * the value transcoders are singletons and the fields are accessed directly, if they are not
+ * private. Private fields are accessed by their getters and setters, that must follow the java
+ * beans naming conventions (for example generated by Lombok).
+ *
+ * <p>The processor must be added to the annotation processor paths of the compiler, for example:
+ * <pre>
+ * &lt;path&gt;
+ *   &lt;groupId&gt;org.bremersee&lt;/groupId&gt;
+ *   &lt;artifactId&gt;spring-integration-ldaptive-processor&lt;/artifactId&gt;
+ *   &lt;version&gt;${spring-integration.version}&lt;/version&gt;
+ * &lt;/path&gt;
+ * </pre>
+ *
+ * @author Christian Bremer
+ */
+@SupportedAnnotationTypes({
+    LdaptiveMapperProcessor.ENTITY_ANNOTATION,
+    LdaptiveMapperProcessor.ATTRIBUTE_ANNOTATION
+})
+public class LdaptiveMapperProcessor extends AbstractProcessor {
+
+  static final String ENTITY_ANNOTATION = "org.bremersee.ldaptive.mapping.LdaptiveEntity";
+
+  static final String ATTRIBUTE_ANNOTATION = "org.bremersee.ldaptive.mapping.LdaptiveAttribute";
+
+  private static final String VALUE_TRANSCODER = "org.ldaptive.transcode.ValueTranscoder";
+
+  static final String REPLACE = "REPLACE";
+
+  private static final String TRANSCODE_PACKAGE = "org.ldaptive.transcode.";
+
+  private static final Map<String, String> TRANSCODERS = Map.ofEntries(
+      Map.entry("java.lang.String", TRANSCODE_PACKAGE + "StringValueTranscoder"),
+      Map.entry("java.lang.Integer", TRANSCODE_PACKAGE + "IntegerValueTranscoder"),
+      Map.entry("java.lang.Long", TRANSCODE_PACKAGE + "LongValueTranscoder"),
+      Map.entry("java.lang.Short", TRANSCODE_PACKAGE + "ShortValueTranscoder"),
+      Map.entry("java.lang.Double", TRANSCODE_PACKAGE + "DoubleValueTranscoder"),
+      Map.entry("java.lang.Float", TRANSCODE_PACKAGE + "FloatValueTranscoder"),
+      Map.entry("java.lang.Boolean", TRANSCODE_PACKAGE + "BooleanValueTranscoder"),
+      Map.entry("java.util.UUID", TRANSCODE_PACKAGE + "UUIDValueTranscoder"),
+      Map.entry("java.time.ZonedDateTime", TRANSCODE_PACKAGE + "GeneralizedTimeValueTranscoder"));
+
+  private static final Map<TypeKind, String> PRIMITIVE_TYPES = Map.of(
+      TypeKind.INT, "java.lang.Integer",
+      TypeKind.LONG, "java.lang.Long",
+      TypeKind.SHORT, "java.lang.Short",
+      TypeKind.DOUBLE, "java.lang.Double",
+      TypeKind.FLOAT, "java.lang.Float",
+      TypeKind.BOOLEAN, "java.lang.Boolean");
+
+  private static final Map<TypeKind, String> PRIMITIVE_DEFAULTS = Map.of(
+      TypeKind.INT, "0",
+      TypeKind.LONG, "0L",
+      TypeKind.SHORT, "(short) 0",
+      TypeKind.DOUBLE, "0.0D",
+      TypeKind.FLOAT, "0.0F",
+      TypeKind.BOOLEAN, "false");
+
+  private static final Map<String, Kind> COLLECTION_TYPES = Map.of(
+      "java.util.List", Kind.LIST,
+      "java.util.Set", Kind.SET,
+      "java.util.Collection", Kind.COLLECTION);
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      boolean isAttribute = annotation.getQualifiedName().contentEquals(ATTRIBUTE_ANNOTATION);
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (isAttribute) {
+          if (findAnnotation(element.getEnclosingElement(), ENTITY_ANNOTATION).isEmpty()) {
+            error(element, "Fields can only be mapped to ldap attributes, if their class is "
+                + "annotated with " + ENTITY_ANNOTATION + ".");
+          }
+        } else if (element.getKind() != ElementKind.CLASS
+            || element.getModifiers().contains(Modifier.ABSTRACT)) {
+          error(element, "Only concrete classes can be mapped to ldap entries.");
+        } else {
+          createEntityModel((TypeElement) element)
+              .ifPresent(entity -> writeMapper(entity, element));
+        }
+      }
+    }
+    return true;
+  }
+
+  private Optional<EntityModel> createEntityModel(TypeElement type) {
+    if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)) {
+      error(type, "Inner classes must be static to be mapped to ldap entries.");
+      return Optional.empty();
+    }
+    AnnotationMirror entity = findAnnotation(type, ENTITY_ANNOTATION).orElseThrow();
+    List<AttributeModel> attributes = new ArrayList<>();
+    boolean valid = true;
+    if (ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+        .noneMatch(constructor -> constructor.getParameters().isEmpty()
+            && !constructor.getModifiers().contains(Modifier.PRIVATE))) {
+      error(type, "There must be a no-arg constructor, that is not private, to create instances "
+          + "of " + type.getSimpleName() + ".");
+      valid = false;
+    }
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      Optional<AnnotationMirror> attribute = findAnnotation(field, ATTRIBUTE_ANNOTATION);
+      if (attribute.isPresent()) {
+        Optional<AttributeModel> model = createAttributeModel(field, attribute.get());
+        model.ifPresent(attributes::add);
+        valid = valid && model.isPresent();
+      }
+    }
+    String rdn = (String) getValue(entity, "rdn");
+    Optional<AttributeModel> rdnAttribute = attributes.stream()
+        .filter(attribute -> attribute.attributeName().equalsIgnoreCase(rdn))
+        .filter(attribute -> attribute.kind() == Kind.SINGLE)
+        .filter(attribute -> attribute.transcoderClassName()
+            .equals(TRANSCODERS.get("java.lang.String")))
+        .findFirst();
+    if (rdnAttribute.isEmpty()) {
+      error(type, "There must be a string field, that is mapped to the rdn attribute '"
+          + rdn + "'.");
+      valid = false;
+    }
+    if (!valid) {
+      return Optional.empty();
+    }
+    List<String> objectClasses = new ArrayList<>();
+    for (Object objectClass : (List<?>) getValue(entity, "objectClasses")) {
+      objectClasses.add((String) ((AnnotationValue) objectClass).getValue());
+    }
+    return Optional.of(new EntityModel(
+        processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString(),
+        type.getQualifiedName().toString(),
+        getMapperName(type),
+        objectClasses,
+        rdnAttribute.get(),
+        (String) getValue(entity, "baseDn"),
+        attributes));
+  }
+
+  private Optional<AttributeModel> createAttributeModel(
+      VariableElement field,
+      AnnotationMirror attribute) {
+    Set<Modifier> modifiers = field.getModifiers();
+    if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+      error(field, "Static or final fields can't be mapped to ldap attributes.");
+      return Optional.empty();
+    }
+    String fieldName = field.getSimpleName().toString();
+    String attributeName = (String) getValue(attribute, "value");
+    TypeMirror fieldType = field.asType();
+    Kind kind = Kind.SINGLE;
+    TypeMirror valueType = fieldType;
+    if (fieldType instanceof DeclaredType declaredType
+        && declaredType.getTypeArguments().size() == 1) {
+      String name = ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+      if (COLLECTION_TYPES.containsKey(name)) {
+        kind = COLLECTION_TYPES.get(name);
+        valueType = declaredType.getTypeArguments().get(0);
+      }
+    }
+    boolean isByteArray = valueType instanceof ArrayType arrayType
+        && arrayType.getComponentType().getKind() == TypeKind.BYTE;
+    String transcoder = ((TypeElement) ((DeclaredType) getValue(attribute, "transcoder"))
+        .asElement()).getQualifiedName().toString();
+    if (VALUE_TRANSCODER.equals(transcoder)) {
+      transcoder = findTranscoder(valueType).orElse(null);
+      if (transcoder == null) {
+        error(field, "There is no value transcoder for type " + valueType
+            + ", it must be specified.");
+        return Optional.empty();
+      }
+    }
+    String modificationStrategy = ((VariableElement) getValue(attribute, "modificationStrategy"))
+        .getSimpleName().toString();
+    if (kind == Kind.SINGLE && !REPLACE.equals(modificationStrategy)) {
+      warning(field, "The modification strategy is ignored for fields with a single value.");
+    }
+    String getterPrefix = fieldType.getKind() == TypeKind.BOOLEAN ? "is" : "get";
+    String capitalizedFieldName = Character.toUpperCase(fieldName.charAt(0))
+        + fieldName.substring(1);
+    boolean isPrivate = modifiers.contains(Modifier.PRIVATE);
+    return Optional.of(new AttributeModel(
+        fieldName,
+        attributeName.isEmpty() ? fieldName : attributeName,
+        kind,
+        transcoder,
+        isByteArray || (Boolean) getValue(attribute, "binary"),
+        PRIMITIVE_DEFAULTS.getOrDefault(fieldType.getKind(), "null"),
+        isPrivate ? getterPrefix + capitalizedFieldName : null,
+        isPrivate ? "set" + capitalizedFieldName : null,
+        modificationStrategy));
+  }
+
+  private static Optional<String> findTranscoder(TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return Optional.ofNullable(PRIMITIVE_TYPES.get(type.getKind()))
+          .map(TRANSCODERS::get);
+    }
+    if (type instanceof ArrayType arrayType) {
+      return switch (arrayType.getComponentType().getKind()) {
+        case BYTE -> Optional.of(TRANSCODE_PACKAGE + "ByteArrayValueTranscoder");
+        case CHAR -> Optional.of(TRANSCODE_PACKAGE + "CharArrayValueTranscoder");
+        default -> Optional.empty();
+      };
+    }
+    if (type instanceof DeclaredType declaredType) {
+      return Optional.ofNullable(TRANSCODERS.get(
+          ((TypeElement) declaredType.asElement()).getQualifiedName().toString()));
+    }
+    return Optional.empty();
+  }
+
+  private static String getMapperName(TypeElement type) {
+    StringBuilder name = new StringBuilder(type.getSimpleName());
+    Element enclosing = type.getEnclosingElement();
+    while (enclosing instanceof TypeElement enclosingType) {
+      name.insert(0, enclosingType.getSimpleName() + "_");
+      enclosing = enclosingType.getEnclosingElement();
+    }
+    return name.append("LdaptiveMapper").toString();
+  }
+
+  private static Optional<AnnotationMirror> findAnnotation(Element element, String name) {
+    return element.getAnnotationMirrors().stream()
+        .filter(mirror -> ((TypeElement) mirror.getAnnotationType().asElement())
+            .getQualifiedName().contentEquals(name))
+        .map(mirror -> (AnnotationMirror) mirror)
+        .findFirst();
+  }
+
+  private Object getValue(AnnotationMirror annotation, String name) {
+    Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv
+        .getElementUtils()
+        .getElementValuesWithDefaults(annotation);
+    return values.entrySet().stream()
+        .filter(entry -> entry.getKey().getSimpleName().contentEquals(name))
+        .map(entry -> entry.getValue().getValue())
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private void writeMapper(EntityModel entity, Element element) {
+    String name = entity.packageName().isEmpty()
+        ? entity.mapperName()
+        : entity.packageName() + "." + entity.mapperName();
+    try (Writer writer = processingEnv.getFiler().createSourceFile(name, element).openWriter()) {
+      writer.write(new MapperSourceWriter(entity).write());
+    } catch (IOException e) {
+      error(element, "Writing mapper " + name + " failed: " + e.getMessage());
+    }
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private void warning(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+  }
+
+}
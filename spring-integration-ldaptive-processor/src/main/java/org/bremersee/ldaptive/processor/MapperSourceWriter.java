@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.processor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.bremersee.ldaptive.processor.AttributeModel.Kind;
+
+/**
+ * Writes the source code of a generated ldaptive entry mapper. The attribute names are constants
+ * and every value transcoder is instantiated only once, so that mapping doesn't resolve anything
+ * at runtime.
+ *
+ * @author Christian Bremer
+ */
+final class MapperSourceWriter {
+
+  private static final String MAPPER = "org.bremersee.ldaptive.LdaptiveEntryMapper";
+
+  private static final String MODIFICATION_STRATEGY = MAPPER + ".ModificationStrategy";
+
+  private final EntityModel entity;
+
+  private final Map<String, String> transcoderConstants = new LinkedHashMap<>();
+
+  /**
+   * Instantiates a new mapper source writer.
+   *
+   * @param entity the entity
+   */
+  MapperSourceWriter(EntityModel entity) {
+    this.entity = entity;
+    for (AttributeModel attribute : entity.attributes()) {
+      String className = attribute.transcoderClassName();
+      if (!transcoderConstants.containsKey(className)) {
+        String constant = toConstantName(className.substring(className.lastIndexOf('.') + 1));
+        if (transcoderConstants.containsValue(constant)) {
+          constant = constant + "_" + transcoderConstants.size();
+        }
+        transcoderConstants.put(className, constant);
+      }
+    }
+  }
+
+  /**
+   * Writes the source code.
+   *
+   * @return the source code
+   */
+  String write() {
+    StringBuilder sb = new StringBuilder();
+    if (!entity.packageName().isEmpty()) {
+      sb.append("package ").append(entity.packageName()).append(";\n\n");
+    }
+    sb.append("@javax.annotation.processing.Generated(\"")
+        .append(LdaptiveMapperProcessor.class.getName()).append("\")\n");
+    sb.append("public class ").append(entity.mapperName())
+        .append(" implements ").append(MAPPER).append('<').append(entity.typeName())
+        .append("> {\n\n");
+    writeConstants(sb);
+    writeConstructors(sb);
+    writeGetObjectClasses(sb);
+    writeGetModificationStrategy(sb);
+    writeMapDn(sb);
+    writeMapToDomainObject(sb);
+    writeMapToLdapEntry(sb);
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  private void writeConstants(StringBuilder sb) {
+    sb.append("  private static final String[] OBJECT_CLASSES = {")
+        .append(entity.objectClasses().stream()
+            .map(MapperSourceWriter::literal)
+            .collect(Collectors.joining(", ")))
+        .append("};\n\n");
+    for (AttributeModel attribute : entity.attributes()) {
+      sb.append("  private static final String ").append(attributeConstant(attribute))
+          .append(" = ").append(literal(attribute.attributeName())).append(";\n\n");
+    }
+    transcoderConstants.forEach((className, constant) -> sb
+        .append("  private static final ").append(className).append(' ').append(constant)
+        .append(" = new ").append(className).append("();\n\n"));
+    sb.append("  private final String baseDn;\n\n");
+  }
+
+  private void writeConstructors(StringBuilder sb) {
+    if (!entity.baseDn().isEmpty()) {
+      sb.append("  public ").append(entity.mapperName()).append("() {\n")
+          .append("    this(").append(literal(entity.baseDn())).append(");\n")
+          .append("  }\n\n");
+    }
+    sb.append("  public ").append(entity.mapperName()).append("(String baseDn) {\n")
+        .append("    this.baseDn = java.util.Objects.requireNonNull(baseDn, ")
+        .append("\"Base dn is required.\");\n")
+        .append("  }\n\n");
+  }
+
+  private void writeGetObjectClasses(StringBuilder sb) {
+    sb.append("  @Override\n")
+        .append("  public String[] getObjectClasses() {\n")
+        .append("    return OBJECT_CLASSES.clone();\n")
+        .append("  }\n\n");
+  }
+
+  private void writeGetModificationStrategy(StringBuilder sb) {
+    List<AttributeModel> attributes = entity.attributes().stream()
+        .filter(attribute -> attribute.kind() != Kind.SINGLE)
+        .filter(attribute -> !LdaptiveMapperProcessor.REPLACE
+            .equals(attribute.modificationStrategy()))
+        .toList();
+    if (attributes.isEmpty()) {
+      return;
+    }
+    sb.append("  @Override\n")
+        .append("  public ").append(MODIFICATION_STRATEGY)
+        .append(" getModificationStrategy(String attributeName) {\n");
+    for (AttributeModel attribute : attributes) {
+      sb.append("    if (").append(attributeConstant(attribute))
+          .append(".equalsIgnoreCase(attributeName)) {\n")
+          .append("      return ").append(MODIFICATION_STRATEGY).append('.')
+          .append(attribute.modificationStrategy()).append(";\n")
+          .append("    }\n");
+    }
+    sb.append("    return ").append(MAPPER)
+        .append(".super.getModificationStrategy(attributeName);\n")
+        .append("  }\n\n");
+  }
+
+  private void writeMapDn(StringBuilder sb) {
+    sb.append("  @Override\n")
+        .append("  public String mapDn(").append(entity.typeName()).append(" domainObject) {\n")
+        .append("    if (domainObject == null) {\n")
+        .append("      return null;\n")
+        .append("    }\n")
+        .append("    String rdnValue = ").append(read("domainObject", entity.rdnAttribute()))
+        .append(";\n")
+        .append("    if (rdnValue == null || rdnValue.isBlank()) {\n")
+        .append("      return null;\n")
+        .append("    }\n")
+        .append("    return ").append(MAPPER).append(".createDn(")
+        .append(attributeConstant(entity.rdnAttribute())).append(", rdnValue, baseDn);\n")
+        .append("  }\n\n");
+  }
+
+  private void writeMapToDomainObject(StringBuilder sb) {
+    sb.append("  @Override\n")
+        .append("  public ").append(entity.typeName())
+        .append(" map(org.ldaptive.LdapEntry ldapEntry) {\n")
+        .append("    if (ldapEntry == null) {\n")
+        .append("      return null;\n")
+        .append("    }\n")
+        .append("    ").append(entity.typeName()).append(" domainObject = new ")
+        .append(entity.typeName()).append("();\n")
+        .append("    map(ldapEntry, domainObject);\n")
+        .append("    return domainObject;\n")
+        .append("  }\n\n");
+    sb.append("  @Override\n")
+        .append("  public void map(org.ldaptive.LdapEntry source, ").append(entity.typeName())
+        .append(" destination) {\n");
+    for (AttributeModel attribute : entity.attributes()) {
+      String value = switch (attribute.kind()) {
+        case SINGLE -> MAPPER + ".getAttributeValue(source, " + attributeConstant(attribute)
+            + ", " + transcoderConstant(attribute) + ", " + attribute.defaultValue() + ")";
+        case LIST -> MAPPER + ".getAttributeValuesAsList(source, "
+            + attributeConstant(attribute) + ", " + transcoderConstant(attribute) + ")";
+        case SET -> MAPPER + ".getAttributeValuesAsSet(source, "
+            + attributeConstant(attribute) + ", " + transcoderConstant(attribute) + ")";
+        case COLLECTION -> MAPPER + ".getAttributeValues(source, "
+            + attributeConstant(attribute) + ", " + transcoderConstant(attribute) + ")";
+      };
+      sb.append("    ").append(write("destination", attribute, value)).append(";\n");
+    }
+    sb.append("  }\n\n");
+  }
+
+  private void writeMapToLdapEntry(StringBuilder sb) {
+    sb.append("  @Override\n")
+        .append("  public org.ldaptive.AttributeModification[] mapAndComputeModifications(\n")
+        .append("      ").append(entity.typeName()).append(" source,\n")
+        .append("      org.ldaptive.LdapEntry destination) {\n")
+        .append("    java.util.List<org.ldaptive.AttributeModification> modifications")
+        .append(" = new java.util.ArrayList<>();\n");
+    for (AttributeModel attribute : entity.attributes()) {
+      String name = attributeConstant(attribute);
+      sb.append("    ").append(MAPPER);
+      if (attribute.kind() == Kind.SINGLE) {
+        sb.append(".setAttribute(destination, ").append(name).append(", ")
+            .append(read("source", attribute)).append(", ").append(attribute.binary())
+            .append(", ").append(transcoderConstant(attribute)).append(", modifications);\n");
+      } else {
+        sb.append(".setAttributes(destination, ").append(name).append(", ")
+            .append(read("source", attribute)).append(", ").append(attribute.binary())
+            .append(", ").append(transcoderConstant(attribute))
+            .append(", getModificationStrategy(").append(name).append("), modifications);\n");
+      }
+    }
+    sb.append("    return modifications.toArray(new org.ldaptive.AttributeModification[0]);\n")
+        .append("  }\n\n");
+  }
+
+  private String transcoderConstant(AttributeModel attribute) {
+    return transcoderConstants.get(attribute.transcoderClassName());
+  }
+
+  private static String attributeConstant(AttributeModel attribute) {
+    return "ATTRIBUTE_" + toConstantName(attribute.fieldName());
+  }
+
+  private static String read(String variable, AttributeModel attribute) {
+    return attribute.isDirectAccess()
+        ? variable + "." + attribute.fieldName()
+        : variable + "." + attribute.getterName() + "()";
+  }
+
+  private static String write(String variable, AttributeModel attribute, String value) {
+    return attribute.isDirectAccess()
+        ? variable + "." + attribute.fieldName() + " = " + value
+        : variable + "." + attribute.setterName() + "(" + value + ")";
+  }
+
+  private static String toConstantName(String name) {
+    return name
+        .replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+        .toUpperCase(Locale.ROOT);
+  }
+
+  private static String literal(String value) {
+    StringBuilder sb = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+        }
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+}
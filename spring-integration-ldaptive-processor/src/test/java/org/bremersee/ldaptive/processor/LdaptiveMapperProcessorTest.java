@@ -0,0 +1,264 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.bremersee.ldaptive.LdaptiveEntryMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.ldaptive.AttributeModification;
+import org.ldaptive.AttributeModification.Type;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+
+/**
+ * The ldaptive mapper processor test.
+ *
+ * @author Christian Bremer
+ */
+class LdaptiveMapperProcessorTest {
+
+  private static final String EMPLOYEE_SOURCE = """
+      package org.example;
+
+      import java.util.List;
+      import org.bremersee.ldaptive.LdaptiveEntryMapper.ModificationStrategy;
+      import org.bremersee.ldaptive.mapping.LdaptiveAttribute;
+      import org.bremersee.ldaptive.mapping.LdaptiveEntity;
+
+      @LdaptiveEntity(
+          objectClasses = {"top", "inetOrgPerson"},
+          rdn = "uid",
+          baseDn = "ou=people,dc=bremersee,dc=org")
+      public class Employee {
+
+        @LdaptiveAttribute
+        String uid;
+
+        @LdaptiveAttribute("cn")
+        private String name;
+
+        @LdaptiveAttribute("employeeNumber")
+        int number;
+
+        @LdaptiveAttribute(value = "mail", modificationStrategy = ModificationStrategy.DELTA)
+        List<String> mails;
+
+        @LdaptiveAttribute("jpegPhoto")
+        byte[] photo;
+
+        String notMapped;
+
+        public String getName() {
+          return name;
+        }
+
+        public void setName(String name) {
+          this.name = name;
+        }
+      }
+      """;
+
+  @TempDir
+  Path outputDir;
+
+  /**
+   * Generates a mapper.
+   *
+   * @throws Exception if loading of the mapper fails
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void generateMapper() throws Exception {
+    DiagnosticCollector<JavaFileObject> diagnostics = compile(
+        "org.example.Employee", EMPLOYEE_SOURCE);
+    assertThat(diagnostics.getDiagnostics())
+        .noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR);
+
+    String source = Files.readString(
+        outputDir.resolve("generated/org/example/EmployeeLdaptiveMapper.java"));
+    assertThat(source)
+        .contains("destination.uid = ")
+        .contains("destination.setName(")
+        .doesNotContain("notMapped");
+
+    try (URLClassLoader classLoader = new URLClassLoader(
+        new URL[]{outputDir.resolve("classes").toUri().toURL()},
+        getClass().getClassLoader())) {
+      LdaptiveEntryMapper<Object> mapper = (LdaptiveEntryMapper<Object>) classLoader
+          .loadClass("org.example.EmployeeLdaptiveMapper")
+          .getConstructor()
+          .newInstance();
+      assertThat(mapper.getObjectClasses()).containsExactly("top", "inetOrgPerson");
+      assertThat(mapper.getModificationStrategy("MAIL"))
+          .isEqualTo(LdaptiveEntryMapper.ModificationStrategy.DELTA);
+      assertThat(mapper.getModificationStrategy("cn"))
+          .isEqualTo(LdaptiveEntryMapper.ModificationStrategy.REPLACE);
+
+      LdapEntry ldapEntry = LdapEntry.builder()
+          .dn("uid=anna,ou=people,dc=bremersee,dc=org")
+          .attributes(
+              new LdapAttribute("uid", "anna"),
+              new LdapAttribute("cn", "Anna Livia Plurabelle"),
+              new LdapAttribute("employeeNumber", "42"),
+              new LdapAttribute("mail", "anna@example.org", "livia@example.org"),
+              new LdapAttribute("jpegPhoto", new byte[]{1, 2, 3}))
+          .build();
+      Object employee = mapper.map(ldapEntry);
+      assertThat(mapper.mapDn(employee)).isEqualTo("uid=anna,ou=people,dc=bremersee,dc=org");
+
+      // mapping back into the same entry doesn't change anything
+      assertThat(mapper.mapAndComputeModifications(employee, ldapEntry)).isEmpty();
+
+      // the mails are changed with value-level modifications
+      LdapEntry changedEntry = LdapEntry.builder()
+          .dn(ldapEntry.getDn())
+          .attributes(ldapEntry.getAttributes())
+          .build();
+      changedEntry.removeAttribute("mail");
+      changedEntry.addAttributes(
+          new LdapAttribute("mail", "anna@example.org", "plurabelle@example.org"));
+      Object changedEmployee = mapper.map(changedEntry);
+      assertThat(mapper.mapAndComputeModifications(changedEmployee, ldapEntry))
+          .extracting(AttributeModification::getOperation)
+          .containsExactlyInAnyOrder(Type.ADD, Type.DELETE);
+
+      LdapEntry destination = new LdapEntry();
+      AttributeModification[] modifications = mapper
+          .mapAndComputeModifications(employee, destination);
+      assertThat(modifications)
+          .hasSize(5)
+          .allMatch(modification -> modification.getOperation() == Type.ADD);
+      assertThat(destination.getAttribute("cn").getStringValue())
+          .isEqualTo("Anna Livia Plurabelle");
+      assertThat(destination.getAttribute("employeeNumber").getStringValue())
+          .isEqualTo("42");
+      assertThat(destination.getAttribute("mail").getStringValues())
+          .containsExactly("anna@example.org", "livia@example.org");
+      assertThat(destination.getAttribute("jpegPhoto").isBinary())
+          .isTrue();
+      assertThat(destination.getAttribute("jpegPhoto").getBinaryValue())
+          .containsExactly(1, 2, 3);
+
+      // primitives get their default value
+      Object emptyEmployee = mapper.map(new LdapEntry());
+      assertThat(mapper.mapDn(emptyEmployee)).isNull();
+      destination = new LdapEntry();
+      mapper.mapAndComputeModifications(emptyEmployee, destination);
+      assertThat(destination.getAttributes())
+          .extracting(LdapAttribute::getStringValue)
+          .containsExactly("0");
+    }
+  }
+
+  /**
+   * Invalid mappings are reported as errors.
+   */
+  @Test
+  void reportErrors() {
+    DiagnosticCollector<JavaFileObject> diagnostics = compile("org.example.Invalid", """
+        package org.example;
+
+        import org.bremersee.ldaptive.mapping.LdaptiveAttribute;
+        import org.bremersee.ldaptive.mapping.LdaptiveEntity;
+
+        @LdaptiveEntity(objectClasses = "top", rdn = "cn")
+        public class Invalid {
+
+          @LdaptiveAttribute
+          Object uid;
+
+          @LdaptiveAttribute
+          final String sn = "";
+
+          Invalid(String cn) {
+          }
+        }
+
+        class NotAnEntity {
+
+          @LdaptiveAttribute
+          String cn;
+        }
+        """);
+    assertThat(diagnostics.getDiagnostics())
+        .filteredOn(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+        .extracting(diagnostic -> diagnostic.getMessage(Locale.ENGLISH))
+        .anyMatch(message -> message.contains("There is no value transcoder"))
+        .anyMatch(message -> message.contains("Static or final fields"))
+        .anyMatch(message -> message.contains("rdn attribute 'cn'"))
+        .anyMatch(message -> message.contains("no-arg constructor"))
+        .anyMatch(message -> message.contains("annotated with org.bremersee.ldaptive.mapping"
+            + ".LdaptiveEntity"));
+  }
+
+  private DiagnosticCollector<JavaFileObject> compile(String className, String source) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager = compiler
+        .getStandardFileManager(diagnostics, Locale.ENGLISH, null)) {
+      Path classes = Files.createDirectories(outputDir.resolve("classes"));
+      Path generated = Files.createDirectories(outputDir.resolve("generated"));
+      List<String> options = List.of(
+          "-classpath", System.getProperty("java.class.path"),
+          "-d", classes.toString(),
+          "-s", generated.toString());
+      JavaCompiler.CompilationTask task = compiler.getTask(
+          null, fileManager, diagnostics, options, null,
+          List.of(new SourceFile(className, source)));
+      task.setProcessors(List.of(new LdaptiveMapperProcessor()));
+      task.call();
+      return diagnostics;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class SourceFile extends SimpleJavaFileObject {
+
+    private final String source;
+
+    SourceFile(String className, String source) {
+      super(
+          URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension),
+          Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return source;
+    }
+  }
+
+}
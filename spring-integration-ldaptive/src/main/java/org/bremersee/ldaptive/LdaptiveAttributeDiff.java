@@ -0,0 +1,293 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.ldaptive.AttributeModification;
+import org.ldaptive.AttributeModification.Type;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.transcode.ValueTranscoder;
+
+/**
+ * The attribute diff computes the modifications of an attribute by comparing the encoded values of
+ * the ldap entry with the encoded new values. Existing values are never decoded.
+ *
+ * <p>Values can be compared as an ordered list or as a set. The changes can be sent as a
+ * replacement of the whole attribute or as minimal deltas, that only add the new values and delete
+ * the obsolete ones.
+ *
+ * @author Christian Bremer
+ */
+public final class LdaptiveAttributeDiff {
+
+  private LdaptiveAttributeDiff() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Encodes the given values. {@code null} values and empty character sequences are ignored.
+   *
+   * @param <T> the type of the values
+   * @param values the values
+   * @param valueTranscoder the value transcoder (can be null if values is also null or empty)
+   * @return the encoded values
+   */
+  public static <T> List<byte[]> encode(Collection<T> values, ValueTranscoder<T> valueTranscoder) {
+    if (values == null || values.isEmpty()) {
+      return List.of();
+    }
+    List<byte[]> encoded = new ArrayList<>(values.size());
+    for (T value : values) {
+      if (value != null && !(value instanceof CharSequence cs && cs.isEmpty())) {
+        encoded.add(valueTranscoder.encodeBinaryValue(value));
+      }
+    }
+    return encoded;
+  }
+
+  /**
+   * Determines whether the attribute contains exactly the given values.
+   *
+   * @param attribute the attribute (can be null)
+   * @param values the encoded values
+   * @param ordered specifies whether the order of the values is significant
+   * @return {@code true} if the attribute contains exactly the given values, otherwise
+   *     {@code false}
+   */
+  public static boolean hasSameValues(
+      LdapAttribute attribute,
+      List<byte[]> values,
+      boolean ordered) {
+    Collection<byte[]> existingValues = attribute != null
+        ? attribute.getBinaryValues()
+        : Collections.emptyList();
+    if (ordered) {
+      if (existingValues.size() != values.size()) {
+        return false;
+      }
+      Iterator<byte[]> iterator = values.iterator();
+      for (byte[] existingValue : existingValues) {
+        if (!Arrays.equals(existingValue, iterator.next())) {
+          return false;
+        }
+      }
+      return true;
+    }
+    Set<ByteBuffer> newValues = toSet(values);
+    return existingValues.size() == newValues.size()
+        && toSet(existingValues).equals(newValues);
+  }
+
+  /**
+   * Replaces the values of the attribute. If the ldap entry doesn't contain the attribute, it is
+   * added. If there are no values, the attribute is deleted. If the values are different, the whole
+   * attribute is replaced.
+   *
+   * @param ldapEntry the ldap entry; required
+   * @param name the attribute name; required
+   * @param values the encoded values; required
+   * @param isBinary specifies whether the attribute value is binary or not
+   * @param ordered specifies whether the order of the values is significant
+   * @param modifications the list of modifications; required
+   */
+  public static void replace(
+      LdapEntry ldapEntry,
+      String name,
+      List<byte[]> values,
+      boolean isBinary,
+      boolean ordered,
+      List<AttributeModification> modifications) {
+    LdapAttribute attr = ldapEntry.getAttribute(name);
+    if (attr == null) {
+      if (!values.isEmpty()) {
+        modifications.add(new AttributeModification(
+            Type.ADD,
+            putAttribute(ldapEntry, name, isBinary, values)));
+      }
+    } else if (values.isEmpty()) {
+      ldapEntry.removeAttribute(name);
+      modifications.add(new AttributeModification(Type.DELETE, attr));
+    } else if (!hasSameValues(attr, values, ordered)) {
+      modifications.add(new AttributeModification(
+          Type.REPLACE,
+          putAttribute(ldapEntry, name, isBinary, values)));
+    }
+  }
+
+  /**
+   * Sets the values of the attribute with set semantics and minimal deltas: only the values, that
+   * are not present, are added and only the values, that are obsolete, are deleted. If there are
+   * no values, the attribute is deleted.
+   *
+   * @param ldapEntry the ldap entry; required
+   * @param name the attribute name; required
+   * @param values the encoded values; required
+   * @param isBinary specifies whether the attribute value is binary or not
+   * @param modifications the list of modifications; required
+   */
+  public static void delta(
+      LdapEntry ldapEntry,
+      String name,
+      List<byte[]> values,
+      boolean isBinary,
+      List<AttributeModification> modifications) {
+    LdapAttribute attr = ldapEntry.getAttribute(name);
+    if (attr == null || values.isEmpty()) {
+      replace(ldapEntry, name, values, isBinary, false, modifications);
+      return;
+    }
+    Set<ByteBuffer> newValues = toSet(values);
+    List<byte[]> deletedValues = new ArrayList<>();
+    Set<ByteBuffer> existingValues = new HashSet<>();
+    for (byte[] existingValue : attr.getBinaryValues()) {
+      ByteBuffer buffer = ByteBuffer.wrap(existingValue);
+      existingValues.add(buffer);
+      if (!newValues.contains(buffer)) {
+        deletedValues.add(existingValue);
+      }
+    }
+    List<byte[]> addedValues = newValues.stream()
+        .filter(value -> !existingValues.contains(value))
+        .map(ByteBuffer::array)
+        .toList();
+    if (!deletedValues.isEmpty()) {
+      modifications.add(new AttributeModification(
+          Type.DELETE,
+          createAttribute(name, attr.isBinary(), deletedValues)));
+    }
+    if (!addedValues.isEmpty()) {
+      modifications.add(new AttributeModification(
+          Type.ADD,
+          createAttribute(name, isBinary, addedValues)));
+    }
+    if (!deletedValues.isEmpty() || !addedValues.isEmpty()) {
+      putAttribute(ldapEntry, name, isBinary, values);
+    }
+  }
+
+  /**
+   * Adds the values, that are not present, to the attribute.
+   *
+   * @param ldapEntry the ldap entry; required
+   * @param name the attribute name; required
+   * @param values the encoded values; required
+   * @param isBinary specifies whether the attribute value is binary or not
+   * @param modifications the list of modifications; required
+   */
+  public static void add(
+      LdapEntry ldapEntry,
+      String name,
+      List<byte[]> values,
+      boolean isBinary,
+      List<AttributeModification> modifications) {
+    LdapAttribute attr = ldapEntry.getAttribute(name);
+    if (attr == null) {
+      replace(ldapEntry, name, values, isBinary, false, modifications);
+      return;
+    }
+    Set<ByteBuffer> existingValues = toSet(attr.getBinaryValues());
+    List<byte[]> addedValues = toSet(values).stream()
+        .filter(value -> !existingValues.contains(value))
+        .map(ByteBuffer::array)
+        .toList();
+    if (!addedValues.isEmpty()) {
+      attr.addBinaryValues(addedValues);
+      modifications.add(new AttributeModification(
+          Type.ADD,
+          createAttribute(name, attr.isBinary(), addedValues)));
+    }
+  }
+
+  /**
+   * Deletes the given values from the attribute. If no value is left, the whole attribute is
+   * deleted.
+   *
+   * @param ldapEntry the ldap entry; required
+   * @param name the attribute name; required
+   * @param values the encoded values; required
+   * @param modifications the list of modifications; required
+   */
+  public static void remove(
+      LdapEntry ldapEntry,
+      String name,
+      List<byte[]> values,
+      List<AttributeModification> modifications) {
+    LdapAttribute attr = ldapEntry.getAttribute(name);
+    if (attr == null || values.isEmpty()) {
+      return;
+    }
+    Set<ByteBuffer> removedValues = toSet(values);
+    List<byte[]> deletedValues = new ArrayList<>();
+    List<byte[]> remainingValues = new ArrayList<>();
+    for (byte[] existingValue : attr.getBinaryValues()) {
+      if (removedValues.contains(ByteBuffer.wrap(existingValue))) {
+        deletedValues.add(existingValue);
+      } else {
+        remainingValues.add(existingValue);
+      }
+    }
+    if (remainingValues.isEmpty()) {
+      ldapEntry.removeAttribute(name);
+      modifications.add(new AttributeModification(Type.DELETE, attr));
+    } else if (!deletedValues.isEmpty()) {
+      putAttribute(ldapEntry, name, attr.isBinary(), remainingValues);
+      modifications.add(new AttributeModification(
+          Type.DELETE,
+          createAttribute(name, attr.isBinary(), deletedValues)));
+    }
+  }
+
+  private static Set<ByteBuffer> toSet(Collection<byte[]> values) {
+    Set<ByteBuffer> set = new LinkedHashSet<>();
+    for (byte[] value : values) {
+      set.add(ByteBuffer.wrap(value));
+    }
+    return set;
+  }
+
+  private static LdapAttribute createAttribute(
+      String name,
+      boolean isBinary,
+      Collection<byte[]> values) {
+    LdapAttribute attr = new LdapAttribute();
+    attr.setBinary(isBinary);
+    attr.setName(name);
+    attr.addBinaryValues(values);
+    return attr;
+  }
+
+  private static LdapAttribute putAttribute(
+      LdapEntry ldapEntry,
+      String name,
+      boolean isBinary,
+      Collection<byte[]> values) {
+    LdapAttribute attr = createAttribute(name, isBinary, values);
+    ldapEntry.addAttributes(attr);
+    return attr;
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The result of a single entry of a bulk write operation.
+ *
+ * @param <T> the type of the domain object
+ * @author Christian Bremer
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LdaptiveBulkResult<T> {
+
+  /**
+   * The domain object that was written.
+   */
+  private final T domainObject;
+
+  /**
+   * The dn of the domain object (can be {@code null}, if the dn couldn't be determined).
+   */
+  private final String dn;
+
+  /**
+   * The executed action.
+   */
+  private final Action action;
+
+  /**
+   * The saved domain object (mapped from the written ldap entry); {@code null} if the action is a
+   * delete or if it failed.
+   */
+  private final T value;
+
+  /**
+   * The error, if the action failed.
+   */
+  private final RuntimeException error;
+
+  /**
+   * Determines whether the action was successful.
+   *
+   * @return {@code true} if the action was successful, otherwise {@code false}
+   */
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  /**
+   * Creates a successful result.
+   *
+   * @param <T> the type of the domain object
+   * @param domainObject the domain object
+   * @param dn the dn
+   * @param action the action
+   * @param value the saved domain object
+   * @return the bulk result
+   */
+  public static <T> LdaptiveBulkResult<T> success(
+      T domainObject,
+      String dn,
+      Action action,
+      T value) {
+    return new LdaptiveBulkResult<>(domainObject, dn, action, value, null);
+  }
+
+  /**
+   * Creates a failed result.
+   *
+   * @param <T> the type of the domain object
+   * @param domainObject the domain object
+   * @param dn the dn
+   * @param action the action
+   * @param error the error
+   * @return the bulk result
+   */
+  public static <T> LdaptiveBulkResult<T> failure(
+      T domainObject,
+      String dn,
+      Action action,
+      RuntimeException error) {
+    return new LdaptiveBulkResult<>(domainObject, dn, action, null, error);
+  }
+
+  /**
+   * The action of a bulk write.
+   */
+  public enum Action {
+
+    /**
+     * The entry was added.
+     */
+    ADD,
+
+    /**
+     * The entry was modified.
+     */
+    MODIFY,
+
+    /**
+     * The entry exists and there was nothing to modify.
+     */
+    NONE,
+
+    /**
+     * The entry was added or modified.
+     */
+    SAVE,
+
+    /**
+     * The entry was deleted.
+     */
+    DELETE,
+
+    /**
+     * The action couldn't be determined, because the existence lookup failed.
+     */
+    UNKNOWN
+  }
+
+}
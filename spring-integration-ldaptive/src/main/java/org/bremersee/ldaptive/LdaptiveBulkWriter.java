@@ -0,0 +1,294 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.exception.ServiceException;
+import org.bremersee.ldaptive.LdaptiveBulkResult.Action;
+import org.ldaptive.AddRequest;
+import org.ldaptive.AttributeModification;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.DeleteRequest;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
+import org.ldaptive.ModifyRequest;
+import org.ldaptive.OperationHandle;
+import org.ldaptive.Result;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.handler.ResultPredicate;
+
+/**
+ * The bulk writer saves or removes many domain objects with pipelined requests. The domain objects
+ * are distributed over a fixed number of connections and the requests are sent asynchronously
+ * without waiting for the response of the previous one. The number of domain objects that are
+ * processed at the same time is limited by the in-flight window.
+ *
+ * <p>A failure of one domain object doesn't stop the bulk operation; it is reported in the
+ * corresponding {@link LdaptiveBulkResult}.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class LdaptiveBulkWriter {
+
+  private static final ResultPredicate NOT_FIND_RESULT = result -> !result.isSuccess()
+      && result.getResultCode() != ResultCode.NO_SUCH_OBJECT;
+
+  private final ConnectionFactory connectionFactory;
+
+  private final LdaptiveErrorHandler errorHandler;
+
+  private final int connections;
+
+  private final int maxInFlight;
+
+  private final Executor executor;
+
+  /**
+   * Instantiates a new ldaptive bulk writer.
+   *
+   * @param connectionFactory the connection factory
+   * @param errorHandler the error handler
+   * @param connections the number of connections that are used
+   * @param maxInFlight the maximum number of domain objects that are processed at the same time
+   * @param executor the executor that maps the domain objects and sends the resulting add or
+   *     modify requests, when the existence lookups have completed
+   */
+  public LdaptiveBulkWriter(
+      ConnectionFactory connectionFactory,
+      LdaptiveErrorHandler errorHandler,
+      int connections,
+      int maxInFlight,
+      Executor executor) {
+    if (connections <= 0 || maxInFlight <= 0) {
+      throw new IllegalArgumentException(
+          "Number of connections and in-flight window must be greater than zero.");
+    }
+    this.connectionFactory = Objects.requireNonNull(connectionFactory);
+    this.errorHandler = errorHandler != null ? errorHandler : new DefaultLdaptiveErrorHandler();
+    this.connections = connections;
+    this.maxInFlight = maxInFlight;
+    this.executor = Objects.requireNonNull(executor, "Executor must be present.");
+  }
+
+  /**
+   * Saves all domain objects. For each domain object the existence lookup and the resulting add or
+   * modify request are pipelined.
+   *
+   * @param <T> the type of the domain objects
+   * @param domainObjects the domain objects
+   * @param entryMapper the entry mapper
+   * @return the results in the order of the domain objects
+   */
+  public <T> List<LdaptiveBulkResult<T>> saveAll(
+      Collection<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper) {
+    return execute(domainObjects, (connection, domainObject) -> {
+      String dn = entryMapper.mapDn(domainObject);
+      AtomicReference<Action> action = new AtomicReference<>(Action.UNKNOWN);
+      return findOne(connection, dn)
+          .thenComposeAsync(entry -> {
+            if (entry != null) {
+              action.set(Action.MODIFY);
+              return modify(connection, domainObject, dn, entry, entryMapper);
+            }
+            action.set(Action.ADD);
+            return add(connection, domainObject, dn, entryMapper);
+          }, executor)
+          .exceptionally(throwable -> LdaptiveBulkResult.failure(
+              domainObject, dn, action.get(), toRuntimeException(throwable)));
+    });
+  }
+
+  /**
+   * Removes all domain objects. Domain objects that don't exist are reported as failures with the
+   * mapped 'no such object' error.
+   *
+   * @param <T> the type of the domain objects
+   * @param domainObjects the domain objects
+   * @param entryMapper the entry mapper
+   * @return the results in the order of the domain objects
+   */
+  public <T> List<LdaptiveBulkResult<T>> removeAll(
+      Collection<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper) {
+    return execute(domainObjects, (connection, domainObject) -> {
+      String dn = entryMapper.mapDn(domainObject);
+      return send(
+          connection.operation(DeleteRequest.builder().dn(dn).build()),
+          ResultPredicate.NOT_SUCCESS)
+          .thenApply(result -> LdaptiveBulkResult.success(domainObject, dn, Action.DELETE, null))
+          .exceptionally(throwable -> LdaptiveBulkResult.failure(
+              domainObject, dn, Action.DELETE, toRuntimeException(throwable)));
+    });
+  }
+
+  private <T> List<LdaptiveBulkResult<T>> execute(
+      Collection<T> domainObjects,
+      BiFunction<Connection, T, CompletableFuture<LdaptiveBulkResult<T>>> action) {
+
+    List<T> objects = Stream.ofNullable(domainObjects)
+        .flatMap(Collection::stream)
+        .filter(Objects::nonNull)
+        .toList();
+    if (objects.isEmpty()) {
+      return List.of();
+    }
+    List<Connection> openConnections = new ArrayList<>();
+    List<CompletableFuture<LdaptiveBulkResult<T>>> futures = new ArrayList<>(objects.size());
+    Semaphore window = new Semaphore(maxInFlight);
+    try {
+      int size = Math.min(connections, objects.size());
+      for (int i = 0; i < size; i++) {
+        openConnections.add(openConnection());
+      }
+      int index = 0;
+      for (T domainObject : objects) {
+        window.acquire();
+        Connection connection = openConnections.get(index++ % size);
+        CompletableFuture<LdaptiveBulkResult<T>> future;
+        try {
+          future = action.apply(connection, domainObject);
+        } catch (RuntimeException e) {
+          future = CompletableFuture.completedFuture(
+              LdaptiveBulkResult.failure(domainObject, null, Action.UNKNOWN, e));
+        }
+        futures.add(future.whenComplete((result, throwable) -> window.release()));
+      }
+      return futures.stream()
+          .map(CompletableFuture::join)
+          .toList();
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw ServiceException.internalServerError("Bulk write was interrupted.", e);
+    } finally {
+      openConnections.forEach(Connection::close);
+    }
+  }
+
+  private Connection openConnection() {
+    Connection connection = null;
+    try {
+      connection = connectionFactory.getConnection();
+      connection.open();
+      return connection;
+
+    } catch (LdapException e) {
+      if (connection != null) {
+        connection.close();
+      }
+      throw errorHandler.map(e);
+    }
+  }
+
+  private CompletableFuture<LdapEntry> findOne(Connection connection, String dn) {
+    AtomicReference<LdapEntry> entry = new AtomicReference<>();
+    return send(
+        connection.operation(SearchRequest.objectScopeSearchRequest(dn))
+            .onEntry(ldapEntry -> {
+              entry.set(ldapEntry);
+              return ldapEntry;
+            }),
+        NOT_FIND_RESULT)
+        .thenApply(result -> entry.get());
+  }
+
+  private <T> CompletableFuture<LdaptiveBulkResult<T>> modify(
+      Connection connection,
+      T domainObject,
+      String dn,
+      LdapEntry entry,
+      LdaptiveEntryMapper<T> entryMapper) {
+    AttributeModification[] modifications = entryMapper
+        .mapAndComputeModifications(domainObject, entry);
+    if (modifications == null || modifications.length == 0) {
+      return CompletableFuture.completedFuture(LdaptiveBulkResult
+          .success(domainObject, dn, Action.NONE, entryMapper.map(entry)));
+    }
+    return send(connection.operation(new ModifyRequest(dn, modifications)),
+        ResultPredicate.NOT_SUCCESS)
+        .thenApply(result -> LdaptiveBulkResult
+            .success(domainObject, dn, Action.MODIFY, entryMapper.map(entry)));
+  }
+
+  private <T> CompletableFuture<LdaptiveBulkResult<T>> add(
+      Connection connection,
+      T domainObject,
+      String dn,
+      LdaptiveEntryMapper<T> entryMapper) {
+    String[] objectClasses = entryMapper.getObjectClasses();
+    if (objectClasses == null || objectClasses.length == 0) {
+      return CompletableFuture.failedFuture(ServiceException.internalServerError(
+          "Object classes must be specified to save a new ldap entry.",
+          "org.bremersee:ldaptive-integration:d7aa5699-fd2e-45df-a863-97960e8095b8"));
+    }
+    LdapEntry entry = new LdapEntry();
+    entryMapper.map(domainObject, entry);
+    entry.setDn(dn);
+    entry.addAttributes(new LdapAttribute("objectclass", objectClasses));
+    return send(connection.operation(new AddRequest(dn, entry.getAttributes())),
+        ResultPredicate.NOT_SUCCESS)
+        .thenApply(result -> LdaptiveBulkResult
+            .success(domainObject, dn, Action.ADD, entryMapper.map(entry)));
+  }
+
+  private CompletableFuture<Result> send(
+      OperationHandle<?, ?> handle,
+      ResultPredicate throwErrorPredicate) {
+    CompletableFuture<Result> future = new CompletableFuture<>();
+    handle
+        .onResult(result -> {
+          if (throwErrorPredicate.test(result)) {
+            future.completeExceptionally(new LdapException(result));
+          } else {
+            future.complete(result);
+          }
+        })
+        .onException(future::completeExceptionally)
+        .send();
+    return future;
+  }
+
+  private RuntimeException toRuntimeException(Throwable throwable) {
+    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+        ? throwable.getCause()
+        : throwable;
+    if (cause instanceof LdapException ldapException) {
+      return errorHandler.map(ldapException);
+    }
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    return ServiceException.internalServerError("Bulk write failed.", cause);
+  }
+
+}
@@ -22,8 +22,6 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.ldaptive.AttributeModification;
 import org.ldaptive.AttributeModification.Type;
 import org.ldaptive.LdapAttribute;
@@ -82,6 +80,19 @@ public interface LdaptiveEntryMapper<T> extends LdapEntryMapper<T> {
       T source,
       LdapEntry destination);
 
+  /**
+   * Gets the modification strategy of the attribute with the given name. Mappers can pass it to
+   * {@link #setAttributes(LdapEntry, String, Collection, boolean, ValueTranscoder,
+   * ModificationStrategy, List)}, for example to send only the changed members of a large group
+   * instead of all members. The default is {@link ModificationStrategy#REPLACE}.
+   *
+   * @param attributeName the attribute name
+   * @return the modification strategy
+   */
+  default ModificationStrategy getModificationStrategy(String attributeName) {
+    return ModificationStrategy.REPLACE;
+  }
+
   /**
    * Map and compute modify request.
    *
@@ -194,7 +205,9 @@ public interface LdaptiveEntryMapper<T> extends LdapEntryMapper<T> {
   }
 
   /**
-   * Replaces the values of the attribute with the specified values.
+   * Replaces the values of the attribute with the specified values. The values are compared in
+   * their encoded form with the existing values. If the specified values are a {@link Set}, the
+   * order of the values is ignored.
    *
    * @param <T> the type of the domain object
    * @param ldapEntry the ldap entry; required
@@ -212,37 +225,45 @@ public interface LdaptiveEntryMapper<T> extends LdapEntryMapper<T> {
       ValueTranscoder<T> valueTranscoder,
       List<AttributeModification> modifications) {
 
-    Collection<T> realValues = Stream.ofNullable(values)
-        .flatMap(Collection::stream)
-        .filter(value -> {
-          if (value instanceof CharSequence cs) {
-            return !cs.isEmpty();
-          }
-          return value != null;
-        })
-        .collect(Collectors.toList());
-    LdapAttribute attr = ldapEntry.getAttribute(name);
-    if (attr == null && !realValues.isEmpty()) {
-      addAttributes(ldapEntry, name, realValues, isBinary, valueTranscoder, modifications);
-    } else if (attr != null) {
-      if (realValues.isEmpty()) {
-        ldapEntry.removeAttribute(name);
-        modifications.add(
-            new AttributeModification(
-                Type.DELETE,
-                attr));
-      } else if (!new ArrayList<>(realValues)
-          .equals(new ArrayList<>(attr.getValues(valueTranscoder.decoder())))) {
-        LdapAttribute newAttr = new LdapAttribute();
-        newAttr.setBinary(isBinary);
-        newAttr.setName(name);
-        newAttr.addValues(valueTranscoder.encoder(), realValues);
-        ldapEntry.addAttributes(newAttr);
-        modifications.add(
-            new AttributeModification(
-                Type.REPLACE,
-                newAttr));
-      }
+    LdaptiveAttributeDiff.replace(
+        ldapEntry,
+        name,
+        LdaptiveAttributeDiff.encode(values, valueTranscoder),
+        isBinary,
+        !(values instanceof Set),
+        modifications);
+  }
+
+  /**
+   * Sets the values of the attribute with the specified modification strategy.
+   *
+   * @param <T> the type of the domain object
+   * @param ldapEntry the ldap entry; required
+   * @param name the attribute name; required
+   * @param values the values of the attribute
+   * @param isBinary specifies whether the attribute value is binary or not
+   * @param valueTranscoder the value transcoder (can be null if values is also null)
+   * @param strategy the modification strategy; if it is {@code null}, the values will be replaced
+   * @param modifications the list of modifications; required
+   */
+  static <T> void setAttributes(
+      LdapEntry ldapEntry,
+      String name,
+      Collection<T> values,
+      boolean isBinary,
+      ValueTranscoder<T> valueTranscoder,
+      ModificationStrategy strategy,
+      List<AttributeModification> modifications) {
+
+    if (strategy == ModificationStrategy.DELTA) {
+      LdaptiveAttributeDiff.delta(
+          ldapEntry,
+          name,
+          LdaptiveAttributeDiff.encode(values, valueTranscoder),
+          isBinary,
+          modifications);
+    } else {
+      setAttributes(ldapEntry, name, values, isBinary, valueTranscoder, modifications);
     }
   }
 
@@ -274,7 +295,8 @@ public interface LdaptiveEntryMapper<T> extends LdapEntryMapper<T> {
   }
 
   /**
-   * Adds the specified values to the attribute with the specified name.
+   * Adds the specified values to the attribute with the specified name. Only the values, that are
+   * not present yet, are added with a value-level add modification.
    *
    * @param <T> the type of the domain object
    * @param ldapEntry the ldap entry; required
@@ -291,35 +313,11 @@ public interface LdaptiveEntryMapper<T> extends LdapEntryMapper<T> {
       boolean isBinary,
       ValueTranscoder<T> valueTranscoder,
       List<AttributeModification> modifications) {
-    Collection<T> realValues = Stream.ofNullable(values)
-        .flatMap(Collection::stream)
-        .filter(value -> {
-          if (value instanceof CharSequence cs) {
-            return !cs.isEmpty();
-          }
-          return value != null;
-        })
-        .collect(Collectors.toList());
+    List<byte[]> realValues = LdaptiveAttributeDiff.encode(values, valueTranscoder);
     if (realValues.isEmpty()) {
       return;
     }
-    LdapAttribute attr = ldapEntry.getAttribute(name);
-    if (attr == null) {
-      LdapAttribute newAttr = new LdapAttribute();
-      newAttr.setBinary(isBinary);
-      newAttr.setName(name);
-      newAttr.addValues(valueTranscoder.encoder(), realValues);
-      ldapEntry.addAttributes(newAttr);
-      modifications.add(
-          new AttributeModification(
-              Type.ADD,
-              newAttr));
-    } else {
-      List<T> newValues = new ArrayList<>(
-          getAttributeValues(ldapEntry, name, valueTranscoder));
-      newValues.addAll(realValues);
-      setAttributes(ldapEntry, name, newValues, attr.isBinary(), valueTranscoder, modifications);
-    }
+    LdaptiveAttributeDiff.add(ldapEntry, name, realValues, isBinary, modifications);
   }
 
   /**
@@ -375,7 +373,8 @@ public interface LdaptiveEntryMapper<T> extends LdapEntryMapper<T> {
 
   /**
    * Remove attributes with the specified values. If values are empty or {@code null}, no attributes
-   * will be removed.
+   * will be removed. The values are removed with a value-level delete modification; if no value is
+   * left, the whole attribute is deleted.
    *
    * @param <T> the type of the domain object
    * @param ldapEntry the ldap entry; required
@@ -391,13 +390,11 @@ public interface LdaptiveEntryMapper<T> extends LdapEntryMapper<T> {
       ValueTranscoder<T> valueTranscoder,
       List<AttributeModification> modifications) {
 
-    LdapAttribute attr = ldapEntry.getAttribute(name);
-    if (attr == null || values == null || values.isEmpty()) {
+    if (values == null || values.isEmpty()) {
       return;
     }
-    List<T> newValues = new ArrayList<>(getAttributeValues(ldapEntry, name, valueTranscoder));
-    newValues.removeAll(values);
-    setAttributes(ldapEntry, name, newValues, attr.isBinary(), valueTranscoder, modifications);
+    LdaptiveAttributeDiff.remove(
+        ldapEntry, name, LdaptiveAttributeDiff.encode(values, valueTranscoder), modifications);
   }
 
   /**
@@ -441,4 +438,22 @@ public interface LdaptiveEntryMapper<T> extends LdapEntryMapper<T> {
     }
   }
 
+  /**
+   * The strategy how the changed values of an attribute are sent to the ldap server.
+   */
+  enum ModificationStrategy {
+
+    /**
+     * The whole attribute is replaced with all values.
+     */
+    REPLACE,
+
+    /**
+     * The values are compared as a set and only the added values and the deleted values are sent
+     * (value-level add and delete modifications). This is useful for large multi-valued
+     * attributes like the members of a group.
+     */
+    DELTA
+  }
+
 }
@@ -18,9 +18,14 @@ package org.bremersee.ldaptive;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Stream;
+import org.bremersee.exception.ServiceException;
+import org.bremersee.ldaptive.LdaptiveBulkResult.Action;
 import org.ldaptive.AddRequest;
 import org.ldaptive.BindRequest;
 import org.ldaptive.CompareRequest;
@@ -31,6 +36,7 @@ import org.ldaptive.ModifyDnRequest;
 import org.ldaptive.ModifyRequest;
 import org.ldaptive.SearchRequest;
 import org.ldaptive.SearchResponse;
+import org.ldaptive.control.SortKey;
 import org.ldaptive.extended.ExtendedRequest;
 import org.ldaptive.extended.ExtendedResponse;
 import org.ldaptive.extended.PasswordModifyRequest;
@@ -190,6 +196,61 @@ public interface LdaptiveOperations {
         .map(entryMapper::map);
   }
 
+  /**
+   * Find all page by page with the simple paged results control (RFC 2696). The returned stream is
+   * evaluated lazily: the next page is only searched, when all entries of the current page have
+   * been consumed. The stream should be closed (e.g. with try-with-resources), if it is not
+   * consumed completely, to release the paged results cookie and the connection.
+   *
+   * <p>The default implementation doesn't page, it returns the entries of
+   * {@link #findAll(SearchRequest)}.
+   *
+   * @param request the request
+   * @param pageSize the page size
+   * @return the stream
+   */
+  default Stream<LdapEntry> findAllPaged(SearchRequest request, int pageSize) {
+    return findAll(request).stream();
+  }
+
+  /**
+   * Find all page by page with the simple paged results control (RFC 2696).
+   *
+   * @param <T> the type parameter
+   * @param request the request
+   * @param pageSize the page size
+   * @param entryMapper the entry mapper
+   * @return the stream
+   * @see #findAllPaged(SearchRequest, int)
+   */
+  default <T> Stream<T> findAllPaged(
+      SearchRequest request,
+      int pageSize,
+      LdaptiveEntryMapper<T> entryMapper) {
+    return findAllPaged(request, pageSize)
+        .map(entryMapper::map);
+  }
+
+  /**
+   * Find all page by page with the virtual list view control. The server must support the
+   * server side sorting control, too. Like {@link #findAllPaged(SearchRequest, int)} the returned
+   * stream is evaluated lazily and should be closed.
+   *
+   * <p>The default implementation ignores the sort keys and delegates to
+   * {@link #findAllPaged(SearchRequest, int)}.
+   *
+   * @param request the request
+   * @param pageSize the page size
+   * @param sortKeys the sort keys
+   * @return the stream
+   */
+  default Stream<LdapEntry> findAllByVirtualListView(
+      SearchRequest request,
+      int pageSize,
+      SortKey... sortKeys) {
+    return findAllPaged(request, pageSize);
+  }
+
   /**
    * Exists.
    *
@@ -265,4 +326,87 @@ public interface LdaptiveOperations {
         .ifPresent(col -> col.forEach(domainObject -> remove(domainObject, entryMapper)));
   }
 
+  /**
+   * Saves all domain objects with pipelined requests. The existence lookups and the resulting add
+   * or modify requests are sent asynchronously over the given number of connections; at most
+   * {@code maxInFlight} domain objects are processed at the same time. A failure of one domain
+   * object doesn't stop the others, it is reported in the result.
+   *
+   * <p>The default implementation saves the domain objects one after another with
+   * {@link #save(Object, LdaptiveEntryMapper)} and ignores the connections, the in-flight window
+   * and the executor.
+   *
+   * @param <T> the type parameter
+   * @param domainObjects the domain objects
+   * @param entryMapper the entry mapper
+   * @param connections the number of connections
+   * @param maxInFlight the in-flight window
+   * @param executor the executor that processes the results of the existence lookups
+   * @return the results in the order of the domain objects
+   */
+  default <T> List<LdaptiveBulkResult<T>> bulkSave(
+      Collection<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper,
+      int connections,
+      int maxInFlight,
+      Executor executor) {
+
+    return Stream.ofNullable(domainObjects)
+        .flatMap(Collection::stream)
+        .filter(Objects::nonNull)
+        .map(domainObject -> writeBulkEntry(domainObject, entryMapper, Action.SAVE,
+            dn -> save(domainObject, entryMapper)))
+        .toList();
+  }
+
+  /**
+   * Removes all domain objects with pipelined delete requests. Domain objects that don't exist are
+   * reported as failures.
+   *
+   * <p>The default implementation removes the domain objects one after another and ignores the
+   * connections, the in-flight window and the executor.
+   *
+   * @param <T> the type parameter
+   * @param domainObjects the domain objects
+   * @param entryMapper the entry mapper
+   * @param connections the number of connections
+   * @param maxInFlight the in-flight window
+   * @param executor the executor
+   * @return the results in the order of the domain objects
+   * @see #bulkSave(Collection, LdaptiveEntryMapper, int, int, Executor)
+   */
+  default <T> List<LdaptiveBulkResult<T>> bulkRemove(
+      Collection<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper,
+      int connections,
+      int maxInFlight,
+      Executor executor) {
+
+    return Stream.ofNullable(domainObjects)
+        .flatMap(Collection::stream)
+        .filter(Objects::nonNull)
+        .map(domainObject -> writeBulkEntry(domainObject, entryMapper, Action.DELETE, dn -> {
+          if (!exists(dn)) {
+            throw ServiceException.notFound("Ldap entry", dn);
+          }
+          delete(DeleteRequest.builder().dn(dn).build());
+          return null;
+        }))
+        .toList();
+  }
+
+  private <T> LdaptiveBulkResult<T> writeBulkEntry(
+      T domainObject,
+      LdaptiveEntryMapper<T> entryMapper,
+      Action action,
+      Function<String, T> writer) {
+    String dn = null;
+    try {
+      dn = entryMapper.mapDn(domainObject);
+      return LdaptiveBulkResult.success(domainObject, dn, action, writer.apply(dn));
+    } catch (RuntimeException e) {
+      return LdaptiveBulkResult.failure(domainObject, dn, action, e);
+    }
+  }
+
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.exception.ServiceException;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.control.PagedResultsControl;
+import org.ldaptive.control.RequestControl;
+import org.ldaptive.control.SortKey;
+import org.ldaptive.control.SortRequestControl;
+import org.ldaptive.control.VirtualListViewRequestControl;
+import org.ldaptive.control.VirtualListViewResponseControl;
+
+/**
+ * An iterator over the entries of a search, that fetches the entries page by page on one
+ * connection. The pages are requested with the simple paged results control (RFC 2696) or, if
+ * sort keys are given, with the virtual list view control. The next page is only requested, when
+ * all entries of the current page have been consumed.
+ *
+ * <p>If the server doesn't return the corresponding response control, the search fails instead of
+ * returning an incomplete result.
+ *
+ * <p>The iterator must be closed, if it is not consumed completely. Closing releases the paged
+ * results cookie on the server and the connection.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class LdaptivePagedSearchIterator implements Iterator<LdapEntry>, AutoCloseable {
+
+  private final ConnectionFactory connectionFactory;
+
+  private final SearchRequest searchRequest;
+
+  private final int pageSize;
+
+  private final SortKey[] sortKeys;
+
+  private final LdaptiveErrorHandler errorHandler;
+
+  private final Deque<LdapEntry> page = new ArrayDeque<>();
+
+  private Connection connection;
+
+  private byte[] cookie;
+
+  private int targetOffset = 1;
+
+  private int contentCount;
+
+  private boolean done;
+
+  /**
+   * Instantiates a new ldaptive paged search iterator.
+   *
+   * @param connectionFactory the connection factory
+   * @param searchRequest the search request
+   * @param pageSize the page size
+   * @param sortKeys the sort keys; if there are any, the virtual list view control is used instead
+   *     of the simple paged results control
+   * @param errorHandler the error handler
+   */
+  public LdaptivePagedSearchIterator(
+      ConnectionFactory connectionFactory,
+      SearchRequest searchRequest,
+      int pageSize,
+      SortKey[] sortKeys,
+      LdaptiveErrorHandler errorHandler) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size must be greater than zero.");
+    }
+    this.connectionFactory = Objects.requireNonNull(connectionFactory);
+    this.searchRequest = Objects.requireNonNull(searchRequest);
+    this.pageSize = pageSize;
+    this.sortKeys = sortKeys != null && sortKeys.length > 0 ? sortKeys : null;
+    this.errorHandler = errorHandler != null ? errorHandler : new DefaultLdaptiveErrorHandler();
+  }
+
+  /**
+   * Returns a sequential stream of this iterator. Closing the stream closes the iterator.
+   *
+   * @return the stream
+   */
+  public Stream<LdapEntry> stream() {
+    return StreamSupport
+        .stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(this::close);
+  }
+
+  private boolean isVirtualListView() {
+    return sortKeys != null;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (page.isEmpty() && !done) {
+      fetchNextPage();
+    }
+    return !page.isEmpty();
+  }
+
+  @Override
+  public LdapEntry next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return page.poll();
+  }
+
+  private void fetchNextPage() {
+    try {
+      if (connection == null) {
+        connection = connectionFactory.getConnection();
+        connection.open();
+      }
+      SearchResponse response = connection.operation(createPageRequest(pageSize)).execute();
+      if (!response.isSuccess() && response.getResultCode() != ResultCode.NO_SUCH_OBJECT) {
+        throw new LdapException(response);
+      }
+      page.addAll(response.getEntries());
+      if (response.getResultCode() == ResultCode.NO_SUCH_OBJECT) {
+        done = true;
+      } else if (isVirtualListView()) {
+        if (!(response.getControl(VirtualListViewResponseControl.OID)
+            instanceof VirtualListViewResponseControl control)) {
+          throw ServiceException.internalServerError(
+              "The ldap server didn't return a virtual list view response control.",
+              "org.bremersee:ldaptive-integration:6b0f2a4e-3c1d-4f7a-9e55-1d8c2b7a4f10");
+        }
+        cookie = control.getContextID();
+        contentCount = control.getContentCount();
+        targetOffset += response.getEntries().size();
+        done = response.getEntries().isEmpty() || targetOffset > contentCount;
+      } else {
+        if (!(response.getControl(PagedResultsControl.OID)
+            instanceof PagedResultsControl control)) {
+          throw ServiceException.internalServerError(
+              "The ldap server didn't return a paged results response control.",
+              "org.bremersee:ldaptive-integration:0e7c9d31-8a4b-4b62-b0f3-5a2e6c1d9b84");
+        }
+        cookie = control.getCookie();
+        done = cookie == null || cookie.length == 0;
+      }
+      if (done) {
+        closeConnection();
+      }
+
+    } catch (LdapException e) {
+      close();
+      throw errorHandler.map(e);
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  private SearchRequest createPageRequest(int size) {
+    Stream<RequestControl> pageControls = isVirtualListView()
+        ? Stream.of(
+            new SortRequestControl(sortKeys, true),
+            new VirtualListViewRequestControl(
+                targetOffset, 0, size - 1, contentCount, cookie, true))
+        : Stream.of(new PagedResultsControl(size, cookie, true));
+    SearchRequest request = SearchRequest.copy(searchRequest);
+    request.setControls(Stream
+        .concat(
+            Stream.ofNullable(searchRequest.getControls())
+                .flatMap(Arrays::stream)
+                .filter(control -> !PagedResultsControl.OID.equals(control.getOID())
+                    && !SortRequestControl.OID.equals(control.getOID())
+                    && !VirtualListViewRequestControl.OID.equals(control.getOID())),
+            pageControls)
+        .toArray(RequestControl[]::new));
+    return request;
+  }
+
+  private void closeConnection() {
+    if (connection != null) {
+      connection.close();
+      connection = null;
+    }
+  }
+
+  /**
+   * Closes the iterator. If there are more pages of a simple paged results search, the server is
+   * told to release the cookie by requesting a page of size zero.
+   */
+  @Override
+  public void close() {
+    if (!done && connection != null && !isVirtualListView()
+        && cookie != null && cookie.length > 0) {
+      try {
+        connection.operation(createPageRequest(0)).execute();
+      } catch (Exception e) {
+        log.debug("Releasing paged results cookie failed.", e);
+      }
+    }
+    done = true;
+    page.clear();
+    closeConnection();
+  }
+
+}
@@ -87,6 +87,12 @@ public class LdaptiveProperties {
    */
   private Duration responseTimeout = Duration.ofMinutes(1);
 
+  /**
+   * Duration of time to wait for bind responses of the reactive ldaptive template. A value of
+   * {@code null} means no timeout.
+   */
+  private Duration bindTimeout = Duration.ofMinutes(1);
+
   /**
    * Duration of time that operations will block on reconnects, should generally be longer than
    * connect timeout.
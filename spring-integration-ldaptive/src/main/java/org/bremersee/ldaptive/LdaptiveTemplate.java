@@ -16,8 +16,12 @@
 
 package org.bremersee.ldaptive;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.exception.ServiceException;
 import org.ldaptive.AddOperation;
@@ -46,6 +50,7 @@ import org.ldaptive.ResultCode;
 import org.ldaptive.SearchOperation;
 import org.ldaptive.SearchRequest;
 import org.ldaptive.SearchResponse;
+import org.ldaptive.control.SortKey;
 import org.ldaptive.extended.ExtendedOperation;
 import org.ldaptive.extended.ExtendedRequest;
 import org.ldaptive.extended.ExtendedResponse;
@@ -164,6 +169,26 @@ public class LdaptiveTemplate implements LdaptiveOperations, Cloneable {
         .orElse(false);
   }
 
+  @Override
+  public Stream<LdapEntry> findAllPaged(SearchRequest request, int pageSize) {
+    return new LdaptivePagedSearchIterator(
+        getConnectionFactory(), request, pageSize, null, errorHandler)
+        .stream();
+  }
+
+  @Override
+  public Stream<LdapEntry> findAllByVirtualListView(
+      SearchRequest request,
+      int pageSize,
+      SortKey... sortKeys) {
+    if (sortKeys == null || sortKeys.length == 0) {
+      throw new IllegalArgumentException("Sort keys are required for a virtual list view.");
+    }
+    return new LdaptivePagedSearchIterator(
+        getConnectionFactory(), request, pageSize, sortKeys, errorHandler)
+        .stream();
+  }
+
   @Override
   public void delete(DeleteRequest request) {
     execute(
@@ -269,4 +294,28 @@ public class LdaptiveTemplate implements LdaptiveOperations, Cloneable {
         });
   }
 
+  @Override
+  public <T> List<LdaptiveBulkResult<T>> bulkSave(
+      Collection<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper,
+      int connections,
+      int maxInFlight,
+      Executor executor) {
+    return new LdaptiveBulkWriter(
+        getConnectionFactory(), errorHandler, connections, maxInFlight, executor)
+        .saveAll(domainObjects, entryMapper);
+  }
+
+  @Override
+  public <T> List<LdaptiveBulkResult<T>> bulkRemove(
+      Collection<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper,
+      int connections,
+      int maxInFlight,
+      Executor executor) {
+    return new LdaptiveBulkWriter(
+        getConnectionFactory(), errorHandler, connections, maxInFlight, executor)
+        .removeAll(domainObjects, entryMapper);
+  }
+
 }
@@ -0,0 +1,536 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.cache;
+
+import static org.bremersee.ldaptive.cache.LdaptiveCacheUtils.copy;
+import static org.bremersee.ldaptive.cache.LdaptiveCacheUtils.getParentDn;
+import static org.bremersee.ldaptive.cache.LdaptiveCacheUtils.isSameOrDescendant;
+import static org.bremersee.ldaptive.cache.LdaptiveCacheUtils.normalizeAttributes;
+import static org.bremersee.ldaptive.cache.LdaptiveCacheUtils.normalizeDn;
+import static org.bremersee.ldaptive.cache.LdaptiveCacheUtils.normalizeFilter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bremersee.ldaptive.LdaptiveBulkResult;
+import org.bremersee.ldaptive.LdaptiveEntryMapper;
+import org.bremersee.ldaptive.LdaptiveOperations;
+import org.ldaptive.AddRequest;
+import org.ldaptive.AttributeModification;
+import org.ldaptive.BindRequest;
+import org.ldaptive.CompareRequest;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.DeleteRequest;
+import org.ldaptive.DerefAliases;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.ModifyDnRequest;
+import org.ldaptive.ModifyRequest;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.SearchScope;
+import org.ldaptive.control.SortKey;
+import org.ldaptive.extended.ExtendedRequest;
+import org.ldaptive.extended.ExtendedResponse;
+import org.ldaptive.filter.PresenceFilter;
+
+/**
+ * Ldaptive operations that cache the lookups of entries by dn. A lookup by dn is an object scope
+ * search without controls and with the filter {@code (objectClass=*)}, like the searches of
+ * {@link #exists(String)}, {@link #save(Object, LdaptiveEntryMapper)} and
+ * {@link SearchRequest#objectScopeSearchRequest(String, String[])}. The found entries (and the
+ * information, that an entry doesn't exist) are cached by normalized dn and requested attributes.
+ *
+ * <p>If a search cache is set, the responses of all other searches without controls are cached,
+ * too. They are cached by normalized base dn, scope, normalized filter, requested attributes, size
+ * limit, types only and deref aliases. The time to live can be configured per base dn.
+ *
+ * <p>Adding, modifying, renaming and deleting an entry through these operations removes the
+ * affected entries and all search responses, whose base dn is the same as or an ancestor of the
+ * changed entry, from the caches. Changes, that are made by others, are only visible after the
+ * time to live has expired. All other operations are passed to the delegate.
+ *
+ * <p>A search, that was sent to the delegate before a concurrent change and whose response
+ * arrives after the eviction, may contain stale data. Therefore every eviction is counted and a
+ * response is removed from the cache again right after it was put, if an eviction happened since
+ * its search was started.
+ *
+ * @author Christian Bremer
+ */
+public class CachingLdaptiveOperations implements LdaptiveOperations {
+
+  /**
+   * The delegate.
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final LdaptiveOperations delegate;
+
+  /**
+   * The entry cache.
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final LdaptiveCache<EntryKey, Optional<LdapEntry>> entryCache;
+
+  /**
+   * The search cache (can be {@code null}).
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private LdaptiveCache<SearchKey, SearchResponse> searchCache;
+
+  private Map<String, Duration> timeToLives = Map.of();
+
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Instantiates new caching ldaptive operations with an in-process lru cache.
+   *
+   * @param delegate the delegate
+   * @param maxEntries the maximum number of cached entries
+   * @param timeToLive the time to live of a cached entry
+   */
+  public CachingLdaptiveOperations(
+      LdaptiveOperations delegate,
+      int maxEntries,
+      Duration timeToLive) {
+    this(delegate, new LruLdaptiveCache<>(maxEntries, timeToLive));
+  }
+
+  /**
+   * Instantiates new caching ldaptive operations.
+   *
+   * @param delegate the delegate
+   * @param entryCache the entry cache
+   */
+  public CachingLdaptiveOperations(
+      LdaptiveOperations delegate,
+      LdaptiveCache<EntryKey, Optional<LdapEntry>> entryCache) {
+    this.delegate = Objects.requireNonNull(delegate, "Delegate is required.");
+    this.entryCache = Objects.requireNonNull(entryCache, "Entry cache is required.");
+  }
+
+  /**
+   * Sets the search cache. Without a search cache only the lookups by dn are cached.
+   *
+   * @param searchCache the search cache
+   */
+  public void setSearchCache(LdaptiveCache<SearchKey, SearchResponse> searchCache) {
+    if (searchCache != null) {
+      this.searchCache = searchCache;
+    }
+  }
+
+  /**
+   * Sets the times to live per base dn. The time to live of the most specific base dn, that is the
+   * same as or an ancestor of the dn of a lookup or of the base dn of a search, is used. If there
+   * is none, the default time to live of the cache is used.
+   *
+   * @param timeToLives the times to live per base dn
+   */
+  public void setTimeToLives(Map<String, Duration> timeToLives) {
+    if (timeToLives != null) {
+      this.timeToLives = timeToLives.entrySet().stream()
+          .filter(entry -> entry.getKey() != null && entry.getValue() != null)
+          .collect(Collectors.toUnmodifiableMap(
+              entry -> normalizeDn(entry.getKey()),
+              Map.Entry::getValue,
+              (first, second) -> second));
+    }
+  }
+
+  /**
+   * Gets the time to live of the given normalized dn.
+   *
+   * @param normalizedDn the normalized dn
+   * @return the time to live or {@code null}, if the default time to live of the cache should be
+   *     used
+   */
+  protected Duration getTimeToLive(String normalizedDn) {
+    return timeToLives.entrySet().stream()
+        .filter(entry -> isSameOrDescendant(normalizedDn, entry.getKey()))
+        .max(Comparator.comparingInt(entry -> entry.getKey().length()))
+        .map(Map.Entry::getValue)
+        .orElse(null);
+  }
+
+  /**
+   * Removes all entries and search responses from the caches.
+   */
+  public void clearCache() {
+    evictions.incrementAndGet();
+    entryCache.clear();
+    if (searchCache != null) {
+      searchCache.clear();
+    }
+  }
+
+  /**
+   * Removes the entry with the given dn and all search responses, that may contain it, from the
+   * caches.
+   *
+   * @param dn the dn
+   */
+  public void evict(String dn) {
+    evictions.incrementAndGet();
+    String normalizedDn = normalizeDn(dn);
+    entryCache.evictIf(key -> key.dn().equals(normalizedDn));
+    if (searchCache != null) {
+      searchCache.evictIf(key -> isSameOrDescendant(normalizedDn, key.baseDn()));
+    }
+  }
+
+  /**
+   * Removes the entry with the given dn, all of its descendants and all search responses, that may
+   * contain one of them, from the caches.
+   *
+   * @param dn the dn
+   */
+  public void evictSubtree(String dn) {
+    evictions.incrementAndGet();
+    String normalizedDn = normalizeDn(dn);
+    entryCache.evictIf(key -> isSameOrDescendant(key.dn(), normalizedDn));
+    if (searchCache != null) {
+      searchCache.evictIf(key -> isSameOrDescendant(normalizedDn, key.baseDn())
+          || isSameOrDescendant(key.baseDn(), normalizedDn));
+    }
+  }
+
+  @Override
+  public ConnectionFactory getConnectionFactory() {
+    return delegate.getConnectionFactory();
+  }
+
+  @Override
+  public void add(AddRequest addRequest) {
+    try {
+      delegate.add(addRequest);
+    } finally {
+      evict(addRequest.getDn());
+    }
+  }
+
+  @Override
+  public boolean bind(BindRequest request) {
+    return delegate.bind(request);
+  }
+
+  @Override
+  public boolean compare(CompareRequest request) {
+    return delegate.compare(request);
+  }
+
+  @Override
+  public void delete(DeleteRequest request) {
+    try {
+      delegate.delete(request);
+    } finally {
+      evictSubtree(request.getDn());
+    }
+  }
+
+  /**
+   * Executes an extended request. As it is unknown, which entries are changed by the extended
+   * operation, the whole cache is cleared.
+   *
+   * @param request the request
+   * @return the extended response
+   */
+  @Override
+  public ExtendedResponse executeExtension(ExtendedRequest request) {
+    try {
+      return delegate.executeExtension(request);
+    } finally {
+      clearCache();
+    }
+  }
+
+  @Override
+  public String generateUserPassword(String dn) {
+    try {
+      return delegate.generateUserPassword(dn);
+    } finally {
+      evict(dn);
+    }
+  }
+
+  @Override
+  public void modify(ModifyRequest request) {
+    if (request.getModifications() == null || request.getModifications().length == 0) {
+      return;
+    }
+    try {
+      delegate.modify(request);
+    } finally {
+      evict(request.getDn());
+    }
+  }
+
+  @Override
+  public void modifyDn(ModifyDnRequest request) {
+    try {
+      delegate.modifyDn(request);
+    } finally {
+      evictSubtree(request.getOldDn());
+      evictSubtree(getNewDn(request));
+    }
+  }
+
+  private static String getNewDn(ModifyDnRequest request) {
+    String parent = Optional.ofNullable(request.getNewSuperiorDn())
+        .filter(dn -> !dn.isBlank())
+        .orElseGet(() -> getParentDn(request.getOldDn()));
+    return parent.isEmpty() ? request.getNewRDn() : request.getNewRDn() + "," + parent;
+  }
+
+  @Override
+  public void modifyUserPassword(String dn, String oldPass, String newPass) {
+    try {
+      delegate.modifyUserPassword(dn, oldPass, newPass);
+    } finally {
+      evict(dn);
+    }
+  }
+
+  /**
+   * Executes the search. If it is a lookup by dn or if there is a search cache and the search is
+   * cacheable, the result is taken from the cache or it is put into the cache.
+   *
+   * @param request the request
+   * @return the search response
+   */
+  @Override
+  public SearchResponse search(SearchRequest request) {
+    if (isLookupByDn(request)) {
+      return lookupByDn(request);
+    }
+    if (searchCache == null || !isCacheable(request)) {
+      return delegate.search(request);
+    }
+    String filter = normalizeFilter(request.getFilter());
+    if (filter == null) {
+      return delegate.search(request);
+    }
+    SearchKey key = new SearchKey(
+        normalizeDn(request.getBaseDn()),
+        request.getSearchScope(),
+        filter,
+        normalizeAttributes(request.getReturnAttributes()),
+        request.getSizeLimit(),
+        request.isTypesOnly(),
+        request.getDerefAliases());
+    SearchResponse cachedResponse = searchCache.get(key);
+    if (cachedResponse != null) {
+      return copy(cachedResponse);
+    }
+    long evictionCount = evictions.get();
+    SearchResponse response = delegate.search(request);
+    if (response != null && response.referenceSize() == 0 && (response.isSuccess()
+        || response.getResultCode() == ResultCode.NO_SUCH_OBJECT)) {
+      put(searchCache, key, copy(response), getTimeToLive(key.baseDn()), evictionCount);
+    }
+    return response;
+  }
+
+  private SearchResponse lookupByDn(SearchRequest request) {
+    EntryKey key = new EntryKey(
+        normalizeDn(request.getBaseDn()),
+        normalizeAttributes(request.getReturnAttributes()));
+    Optional<LdapEntry> cachedEntry = entryCache.get(key);
+    if (cachedEntry != null) {
+      return cachedEntry
+          .map(entry -> SearchResponse.builder()
+              .resultCode(ResultCode.SUCCESS)
+              .entry(copy(entry))
+              .build())
+          .orElseGet(() -> SearchResponse.builder()
+              .resultCode(ResultCode.NO_SUCH_OBJECT)
+              .build());
+    }
+    long evictionCount = evictions.get();
+    SearchResponse response = delegate.search(request);
+    if (response != null && (response.isSuccess()
+        || response.getResultCode() == ResultCode.NO_SUCH_OBJECT)) {
+      put(
+          entryCache,
+          key,
+          Optional.ofNullable(copy(response.getEntry())),
+          getTimeToLive(key.dn()),
+          evictionCount);
+    }
+    return response;
+  }
+
+  private <K, V> void put(
+      LdaptiveCache<K, V> cache,
+      K key,
+      V value,
+      Duration timeToLive,
+      long evictionCount) {
+    cache.put(key, value, timeToLive);
+    if (evictions.get() != evictionCount) {
+      cache.evict(key);
+    }
+  }
+
+  /**
+   * Determines whether the given search request is a lookup of an entry by dn, whose result can be
+   * cached.
+   *
+   * @param request the request
+   * @return {@code true} if the search request is a lookup by dn, otherwise {@code false}
+   */
+  protected boolean isLookupByDn(SearchRequest request) {
+    return isCacheable(request)
+        && request.getSearchScope() == SearchScope.OBJECT
+        && !request.isTypesOnly()
+        && request.getFilter() instanceof PresenceFilter filter
+        && "objectclass".equalsIgnoreCase(filter.getAttributeDesc());
+  }
+
+  /**
+   * Determines whether the response of the given search request can be cached. Searches with
+   * controls (like paged results or sorting) or with binary attributes are never cached.
+   *
+   * @param request the request
+   * @return {@code true} if the response can be cached, otherwise {@code false}
+   */
+  protected boolean isCacheable(SearchRequest request) {
+    return request != null
+        && (request.getControls() == null || request.getControls().length == 0)
+        && (request.getBinaryAttributes() == null || request.getBinaryAttributes().length == 0);
+  }
+
+  @Override
+  public Stream<LdapEntry> findAllPaged(SearchRequest request, int pageSize) {
+    return delegate.findAllPaged(request, pageSize);
+  }
+
+  @Override
+  public Stream<LdapEntry> findAllByVirtualListView(
+      SearchRequest request,
+      int pageSize,
+      SortKey... sortKeys) {
+    return delegate.findAllByVirtualListView(request, pageSize, sortKeys);
+  }
+
+  @Override
+  public boolean exists(String dn) {
+    return Optional.ofNullable(search(SearchRequest.objectScopeSearchRequest(dn)))
+        .map(SearchResponse::isSuccess)
+        .orElse(false);
+  }
+
+  @Override
+  public <T> T save(T domainObject, LdaptiveEntryMapper<T> entryMapper) {
+    String dn = entryMapper.mapDn(domainObject);
+    Optional<LdapEntry> entry = findOne(SearchRequest.objectScopeSearchRequest(dn));
+    if (entry.isPresent()) {
+      AttributeModification[] modifications = entryMapper
+          .mapAndComputeModifications(domainObject, entry.get());
+      modify(new ModifyRequest(dn, modifications));
+      return entryMapper.map(entry.get());
+    }
+    try {
+      return delegate.save(domainObject, entryMapper);
+    } finally {
+      evict(dn);
+    }
+  }
+
+  @Override
+  public <T> List<LdaptiveBulkResult<T>> bulkSave(
+      Collection<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper,
+      int connections,
+      int maxInFlight,
+      Executor executor) {
+    return evict(
+        delegate.bulkSave(domainObjects, entryMapper, connections, maxInFlight, executor));
+  }
+
+  @Override
+  public <T> List<LdaptiveBulkResult<T>> bulkRemove(
+      Collection<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper,
+      int connections,
+      int maxInFlight,
+      Executor executor) {
+    return evict(
+        delegate.bulkRemove(domainObjects, entryMapper, connections, maxInFlight, executor));
+  }
+
+  private <T> List<LdaptiveBulkResult<T>> evict(List<LdaptiveBulkResult<T>> results) {
+    Set<String> dns = Stream.ofNullable(results)
+        .flatMap(Collection::stream)
+        .map(LdaptiveBulkResult::getDn)
+        .filter(Objects::nonNull)
+        .map(LdaptiveCacheUtils::normalizeDn)
+        .collect(Collectors.toSet());
+    if (!dns.isEmpty()) {
+      evictions.incrementAndGet();
+      entryCache.evictIf(key -> dns.contains(key.dn()));
+      if (searchCache != null) {
+        searchCache.evictIf(key -> dns.stream()
+            .anyMatch(dn -> isSameOrDescendant(dn, key.baseDn())));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * The key of a cached entry.
+   *
+   * @param dn the normalized dn
+   * @param attributes the normalized requested attributes
+   */
+  public record EntryKey(String dn, List<String> attributes) {
+
+  }
+
+  /**
+   * The key of a cached search response.
+   *
+   * @param baseDn the normalized base dn
+   * @param scope the search scope
+   * @param filter the normalized filter
+   * @param attributes the normalized requested attributes
+   * @param sizeLimit the size limit
+   * @param typesOnly the types only flag
+   * @param derefAliases the deref aliases
+   */
+  public record SearchKey(
+      String baseDn,
+      SearchScope scope,
+      String filter,
+      List<String> attributes,
+      int sizeLimit,
+      boolean typesOnly,
+      DerefAliases derefAliases) {
+
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.cache;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * The interface of the caches that are used by the caching ldaptive operations.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Christian Bremer
+ */
+public interface LdaptiveCache<K, V> {
+
+  /**
+   * Gets the value of the given key.
+   *
+   * @param key the key
+   * @return the value or {@code null}, if there is no value or if it is expired
+   */
+  V get(K key);
+
+  /**
+   * Puts the value with the default time to live into the cache.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  void put(K key, V value);
+
+  /**
+   * Puts the value with the given time to live into the cache. If the time to live is zero or
+   * negative, the value is not cached.
+   *
+   * @param key the key
+   * @param value the value
+   * @param timeToLive the time to live (if it is {@code null}, the default is used)
+   */
+  void put(K key, V value, Duration timeToLive);
+
+  /**
+   * Removes the value of the given key.
+   *
+   * @param key the key
+   */
+  void evict(K key);
+
+  /**
+   * Removes all values whose key matches the given predicate.
+   *
+   * @param predicate the predicate
+   */
+  void evictIf(Predicate<? super K> predicate);
+
+  /**
+   * Removes all values.
+   */
+  void clear();
+
+}
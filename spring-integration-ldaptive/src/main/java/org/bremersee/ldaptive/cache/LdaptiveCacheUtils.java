@@ -0,0 +1,264 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.ReturnAttributes;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.dn.DefaultRDnNormalizer;
+import org.ldaptive.dn.Dn;
+import org.ldaptive.filter.AbstractAttributeValueAssertionFilter;
+import org.ldaptive.filter.AndFilter;
+import org.ldaptive.filter.ApproximateFilter;
+import org.ldaptive.filter.EqualityFilter;
+import org.ldaptive.filter.ExtensibleFilter;
+import org.ldaptive.filter.Filter;
+import org.ldaptive.filter.GreaterOrEqualFilter;
+import org.ldaptive.filter.LessOrEqualFilter;
+import org.ldaptive.filter.NotFilter;
+import org.ldaptive.filter.OrFilter;
+import org.ldaptive.filter.PresenceFilter;
+import org.ldaptive.filter.SubstringFilter;
+
+/**
+ * Helper methods for building cache keys and cache values.
+ *
+ * @author Christian Bremer
+ */
+final class LdaptiveCacheUtils {
+
+  private LdaptiveCacheUtils() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Normalizes the given dn: attribute names and values are lower case and there are no spaces
+   * around the separators.
+   *
+   * @param dn the dn
+   * @return the normalized dn
+   */
+  static String normalizeDn(String dn) {
+    if (dn == null) {
+      return "";
+    }
+    try {
+      return new Dn(dn).format(new DefaultRDnNormalizer());
+
+    } catch (RuntimeException e) {
+      return dn.trim().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /**
+   * Gets the normalized parent of the given dn.
+   *
+   * @param dn the dn
+   * @return the normalized parent dn or an empty string, if there is no parent
+   */
+  static String getParentDn(String dn) {
+    if (dn == null) {
+      return "";
+    }
+    try {
+      Dn parent = new Dn(dn).getParent();
+      return parent == null ? "" : parent.format(new DefaultRDnNormalizer());
+
+    } catch (RuntimeException e) {
+      return "";
+    }
+  }
+
+  /**
+   * Determines whether the normalized dn is the same as or a descendant of the normalized parent.
+   *
+   * @param normalizedDn the normalized dn
+   * @param normalizedParent the normalized parent
+   * @return {@code true} if the dn is the same or a descendant, otherwise {@code false}
+   */
+  static boolean isSameOrDescendant(String normalizedDn, String normalizedParent) {
+    return normalizedDn.equals(normalizedParent)
+        || (!normalizedParent.isEmpty() && normalizedDn.endsWith("," + normalizedParent));
+  }
+
+  /**
+   * Normalizes the requested attributes: they are lower case, sorted and without duplicates. No
+   * attributes means all user attributes.
+   *
+   * @param attributes the attributes
+   * @return the normalized attributes
+   */
+  static List<String> normalizeAttributes(String[] attributes) {
+    List<String> normalized = Stream.ofNullable(attributes)
+        .flatMap(Arrays::stream)
+        .filter(attribute -> attribute != null && !attribute.isBlank())
+        .map(attribute -> attribute.trim().toLowerCase(Locale.ROOT))
+        .distinct()
+        .sorted()
+        .toList();
+    return normalized.isEmpty() ? List.of(ReturnAttributes.ALL_USER.value()) : normalized;
+  }
+
+  /**
+   * Normalizes the given filter: attribute descriptions are lower case, the components of and and
+   * or filters are sorted and without duplicates and the assertion values are escaped in a uniform
+   * way. The assertion values are not changed, because it depends on the matching rule of the
+   * attribute, whether the case is significant.
+   *
+   * @param filter the filter
+   * @return the normalized filter or {@code null}, if the filter type is unknown
+   */
+  static String normalizeFilter(Filter filter) {
+    if (filter instanceof AndFilter andFilter) {
+      return normalizeFilterSet("&", andFilter.getComponents());
+    }
+    if (filter instanceof OrFilter orFilter) {
+      return normalizeFilterSet("|", orFilter.getComponents());
+    }
+    if (filter instanceof NotFilter notFilter) {
+      String component = normalizeFilter(notFilter.getComponent());
+      return component == null ? null : "(!" + component + ")";
+    }
+    if (filter instanceof PresenceFilter presenceFilter) {
+      return "(" + normalizeAttribute(presenceFilter.getAttributeDesc()) + "=*)";
+    }
+    if (filter instanceof SubstringFilter substringFilter) {
+      StringBuilder sb = new StringBuilder("(")
+          .append(normalizeAttribute(substringFilter.getAttributeDesc()))
+          .append('=')
+          .append(escape(substringFilter.getSubInitial()))
+          .append('*');
+      Stream.ofNullable(substringFilter.getSubAny())
+          .flatMap(Arrays::stream)
+          .forEach(value -> sb.append(escape(value)).append('*'));
+      return sb.append(escape(substringFilter.getSubFinal())).append(')').toString();
+    }
+    if (filter instanceof ExtensibleFilter extensibleFilter) {
+      return "("
+          + normalizeAttribute(extensibleFilter.getAttributeDesc())
+          + (extensibleFilter.getDnAttributes() ? ":dn" : "")
+          + (extensibleFilter.getMatchingRuleID() != null
+          ? ":" + extensibleFilter.getMatchingRuleID().toLowerCase(Locale.ROOT)
+          : "")
+          + ":=" + escape(extensibleFilter.getAssertionValue()) + ")";
+    }
+    if (filter instanceof AbstractAttributeValueAssertionFilter avaFilter) {
+      String operator;
+      if (avaFilter instanceof EqualityFilter) {
+        operator = "=";
+      } else if (avaFilter instanceof ApproximateFilter) {
+        operator = "~=";
+      } else if (avaFilter instanceof GreaterOrEqualFilter) {
+        operator = ">=";
+      } else if (avaFilter instanceof LessOrEqualFilter) {
+        operator = "<=";
+      } else {
+        return null;
+      }
+      return "(" + normalizeAttribute(avaFilter.getAttributeDesc()) + operator
+          + escape(avaFilter.getAssertionValue()) + ")";
+    }
+    return null;
+  }
+
+  private static String normalizeFilterSet(String operator, List<Filter> components) {
+    List<String> normalized = new ArrayList<>();
+    for (Filter component : components) {
+      String normalizedComponent = normalizeFilter(component);
+      if (normalizedComponent == null) {
+        return null;
+      }
+      normalized.add(normalizedComponent);
+    }
+    return normalized.stream()
+        .distinct()
+        .sorted()
+        .collect(Collectors.joining("", "(" + operator, ")"));
+  }
+
+  private static String normalizeAttribute(String attribute) {
+    return attribute == null ? "" : attribute.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static String escape(byte[] value) {
+    if (value == null) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(value.length);
+    for (byte b : value) {
+      int c = b & 0xff;
+      if (c >= 0x20 && c < 0x7f && c != '(' && c != ')' && c != '*' && c != '\\') {
+        sb.append((char) c);
+      } else {
+        sb.append('\\')
+            .append(Character.forDigit(c >> 4, 16))
+            .append(Character.forDigit(c & 0xf, 16));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Creates a deep copy of the given search response with the result code and the entries.
+   *
+   * @param response the search response
+   * @return the copy
+   */
+  static SearchResponse copy(SearchResponse response) {
+    if (response == null) {
+      return null;
+    }
+    return SearchResponse.builder()
+        .resultCode(response.getResultCode())
+        .entry(response.getEntries().stream()
+            .map(LdaptiveCacheUtils::copy)
+            .toArray(LdapEntry[]::new))
+        .build();
+  }
+
+  /**
+   * Creates a deep copy of the given ldap entry, so that cached entries can't be changed by the
+   * caller.
+   *
+   * @param entry the ldap entry
+   * @return the copy
+   */
+  static LdapEntry copy(LdapEntry entry) {
+    if (entry == null) {
+      return null;
+    }
+    LdapEntry copy = new LdapEntry();
+    copy.setDn(entry.getDn());
+    entry.getAttributes().forEach(attribute -> {
+      LdapAttribute attributeCopy = new LdapAttribute(attribute.getName());
+      attributeCopy.setBinary(attribute.isBinary());
+      attributeCopy.addBinaryValues(attribute.getBinaryValues().stream()
+          .map(byte[]::clone)
+          .toList());
+      copy.addAttributes(attributeCopy);
+    });
+    return copy;
+  }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * An in-process cache with a maximum number of values. If the maximum is reached, the least
+ * recently used value is removed. Every value expires after its time to live.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Christian Bremer
+ */
+public class LruLdaptiveCache<K, V> implements LdaptiveCache<K, V> {
+
+  private final Duration defaultTimeToLive;
+
+  private final Clock clock;
+
+  private final Map<K, Expiring<V>> values;
+
+  /**
+   * Instantiates a new lru ldaptive cache.
+   *
+   * @param maxSize the maximum number of values
+   * @param defaultTimeToLive the default time to live
+   */
+  public LruLdaptiveCache(int maxSize, Duration defaultTimeToLive) {
+    this(maxSize, defaultTimeToLive, Clock.systemUTC());
+  }
+
+  /**
+   * Instantiates a new lru ldaptive cache.
+   *
+   * @param maxSize the maximum number of values
+   * @param defaultTimeToLive the default time to live
+   * @param clock the clock
+   */
+  public LruLdaptiveCache(int maxSize, Duration defaultTimeToLive, Clock clock) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Max size must be greater than zero.");
+    }
+    this.defaultTimeToLive = Objects.requireNonNull(defaultTimeToLive);
+    this.clock = Objects.requireNonNull(clock);
+    this.values = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Expiring<V>> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  @Override
+  public synchronized V get(K key) {
+    Expiring<V> value = values.get(key);
+    if (value == null) {
+      return null;
+    }
+    if (value.isExpired(clock.instant())) {
+      values.remove(key);
+      return null;
+    }
+    return value.value();
+  }
+
+  @Override
+  public void put(K key, V value) {
+    put(key, value, null);
+  }
+
+  @Override
+  public synchronized void put(K key, V value, Duration timeToLive) {
+    Duration ttl = timeToLive != null ? timeToLive : defaultTimeToLive;
+    if (value == null || ttl.isZero() || ttl.isNegative()) {
+      values.remove(key);
+      return;
+    }
+    values.put(key, new Expiring<>(value, clock.instant().plus(ttl)));
+  }
+
+  @Override
+  public synchronized void evict(K key) {
+    values.remove(key);
+  }
+
+  @Override
+  public synchronized void evictIf(Predicate<? super K> predicate) {
+    values.keySet().removeIf(predicate);
+  }
+
+  @Override
+  public synchronized void clear() {
+    values.clear();
+  }
+
+  /**
+   * Returns the number of cached values (including the expired ones, that are not removed yet).
+   *
+   * @return the number of cached values
+   */
+  public synchronized int size() {
+    return values.size();
+  }
+
+  private record Expiring<V>(V value, Instant expiresAt) {
+
+    boolean isExpired(Instant now) {
+      return !now.isBefore(expiresAt);
+    }
+  }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
+
+/**
+ * An ldaptive cache that stores the values in a cache of a Spring cache manager, for example a
+ * Caffeine cache with its W-TinyLFU eviction. The time to live of the values is checked by this
+ * adapter, the cache itself may have its own expiry and size limits. The ldap entries are not
+ * serializable, so the cache must hold the values in memory.
+ *
+ * <p>Spring caches can't be iterated, so the keys are tracked with their expiry to support
+ * {@link #evictIf(Predicate)}. The cache may drop values without notice (because of its own
+ * expiry or size limit), so the tracked keys are purged, whenever their number has doubled since
+ * the last purge: keys of expired or dropped values are removed then.
+ *
+ * <p>A value and its tracked key are put and evicted together within a compute of the key map,
+ * so a concurrent eviction can't leave a value in the cache, whose key isn't tracked anymore.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Christian Bremer
+ */
+public class SpringLdaptiveCache<K, V> implements LdaptiveCache<K, V> {
+
+  /**
+   * The minimum number of tracked keys, that triggers a purge.
+   */
+  static final int MIN_PURGE_THRESHOLD = 1024;
+
+  private final Cache cache;
+
+  private final Duration defaultTimeToLive;
+
+  private final Clock clock;
+
+  private final ConcurrentMap<K, Instant> keys = new ConcurrentHashMap<>();
+
+  private final AtomicInteger purgeThreshold = new AtomicInteger(MIN_PURGE_THRESHOLD);
+
+  private final AtomicBoolean purging = new AtomicBoolean(false);
+
+  /**
+   * Instantiates a new spring ldaptive cache.
+   *
+   * @param cacheManager the cache manager
+   * @param cacheName the cache name
+   * @param defaultTimeToLive the default time to live
+   */
+  public SpringLdaptiveCache(
+      CacheManager cacheManager,
+      String cacheName,
+      Duration defaultTimeToLive) {
+    this(getCache(cacheManager, cacheName), defaultTimeToLive, Clock.systemUTC());
+  }
+
+  /**
+   * Instantiates a new spring ldaptive cache.
+   *
+   * @param cache the cache
+   * @param defaultTimeToLive the default time to live
+   * @param clock the clock
+   */
+  public SpringLdaptiveCache(Cache cache, Duration defaultTimeToLive, Clock clock) {
+    this.cache = Objects.requireNonNull(cache, "Cache is required.");
+    this.defaultTimeToLive = Objects.requireNonNull(defaultTimeToLive);
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  private static Cache getCache(CacheManager cacheManager, String cacheName) {
+    Objects.requireNonNull(cacheManager, "Cache manager is required.");
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache == null) {
+      throw new IllegalArgumentException(String.format("There is no cache '%s'.", cacheName));
+    }
+    return cache;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public V get(K key) {
+    ValueWrapper valueWrapper = cache.get(key);
+    if (valueWrapper == null || !(valueWrapper.get() instanceof Expiring value)) {
+      keys.computeIfPresent(key, (k, expiresAt) -> cache.get(k) == null ? null : expiresAt);
+      return null;
+    }
+    if (!clock.instant().isBefore(value.expiresAt())) {
+      keys.compute(key, (k, expiresAt) -> {
+        if (expiresAt == null || expiresAt.equals(value.expiresAt())) {
+          cache.evict(k);
+          return null;
+        }
+        return expiresAt;
+      });
+      return null;
+    }
+    return (V) value.value();
+  }
+
+  @Override
+  public void put(K key, V value) {
+    put(key, value, null);
+  }
+
+  @Override
+  public void put(K key, V value, Duration timeToLive) {
+    Duration ttl = timeToLive != null ? timeToLive : defaultTimeToLive;
+    if (value == null || ttl.isZero() || ttl.isNegative()) {
+      evict(key);
+      return;
+    }
+    Instant expiresAt = clock.instant().plus(ttl);
+    keys.compute(key, (k, oldExpiresAt) -> {
+      cache.put(k, new Expiring(value, expiresAt));
+      return expiresAt;
+    });
+    if (keys.size() > purgeThreshold.get()) {
+      purge();
+    }
+  }
+
+  /**
+   * Removes the tracked keys, whose values are expired or were dropped by the cache.
+   */
+  void purge() {
+    if (!purging.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      Instant now = clock.instant();
+      for (K key : keys.keySet()) {
+        keys.computeIfPresent(key, (k, expiresAt) -> {
+          if (!now.isBefore(expiresAt)) {
+            cache.evict(k);
+            return null;
+          }
+          return cache.get(k) == null ? null : expiresAt;
+        });
+      }
+      purgeThreshold.set(Math.max(MIN_PURGE_THRESHOLD, 2 * keys.size()));
+    } finally {
+      purging.set(false);
+    }
+  }
+
+  /**
+   * Gets the number of tracked keys.
+   *
+   * @return the number of tracked keys
+   */
+  int getTrackedKeys() {
+    return keys.size();
+  }
+
+  @Override
+  public void evict(K key) {
+    keys.compute(key, (k, expiresAt) -> {
+      cache.evict(k);
+      return null;
+    });
+  }
+
+  @Override
+  public void evictIf(Predicate<? super K> predicate) {
+    for (K key : keys.keySet()) {
+      keys.computeIfPresent(key, (k, expiresAt) -> {
+        if (predicate.test(k) || cache.get(k) == null) {
+          cache.evict(k);
+          return null;
+        }
+        return expiresAt;
+      });
+    }
+  }
+
+  @Override
+  public void clear() {
+    cache.clear();
+    keys.clear();
+  }
+
+  private record Expiring(Object value, Instant expiresAt) {
+
+  }
+
+}
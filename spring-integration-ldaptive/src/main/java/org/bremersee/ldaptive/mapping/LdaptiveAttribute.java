@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.bremersee.ldaptive.LdaptiveEntryMapper.ModificationStrategy;
+import org.ldaptive.transcode.ValueTranscoder;
+
+/**
+ * Maps a field of a domain class, that is annotated with {@link LdaptiveEntity}, to an attribute
+ * of the ldap entry.
+ *
+ * <p>Fields of type {@code List}, {@code Set} or {@code Collection} are mapped to multi-valued
+ * attributes. If no value transcoder is specified, it is derived from the (element) type of the
+ * field: {@code String}, {@code Integer}, {@code Long}, {@code Short}, {@code Double},
+ * {@code Float}, {@code Boolean} (and their primitives), {@code byte[]}, {@code char[]},
+ * {@code UUID} and {@code ZonedDateTime} (generalized time) are supported.
+ *
+ * @author Christian Bremer
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface LdaptiveAttribute {
+
+  /**
+   * The name of the attribute. The default is the name of the field.
+   *
+   * @return the name of the attribute
+   */
+  String value() default "";
+
+  /**
+   * Specifies whether the attribute is binary. Fields of type {@code byte[]} are always binary.
+   *
+   * @return {@code true} if the attribute is binary, otherwise {@code false}
+   */
+  boolean binary() default false;
+
+  /**
+   * The value transcoder. It must have a public no-arg constructor. The default
+   * ({@code ValueTranscoder.class}) means, that the transcoder is derived from the type of the
+   * field.
+   *
+   * @return the value transcoder
+   */
+  @SuppressWarnings("rawtypes")
+  Class<? extends ValueTranscoder> transcoder() default ValueTranscoder.class;
+
+  /**
+   * The strategy how the changed values of a multi-valued attribute are sent to the ldap server.
+   * It is ignored for fields with a single value.
+   *
+   * @return the modification strategy
+   */
+  ModificationStrategy modificationStrategy() default ModificationStrategy.REPLACE;
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a domain class, for which the annotation processor of the module
+ * {@code spring-integration-ldaptive-processor} generates an
+ * {@link org.bremersee.ldaptive.LdaptiveEntryMapper} at compile time. The generated mapper has
+ * the name of the domain class with the suffix {@code LdaptiveMapper} and is placed in the same
+ * package.
+ *
+ * <p>Only the fields, that are annotated with {@link LdaptiveAttribute}, are mapped. The domain
+ * class must have a no-arg constructor, that is not private.
+ *
+ * @author Christian Bremer
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface LdaptiveEntity {
+
+  /**
+   * The object classes of the ldap entry.
+   *
+   * @return the object classes
+   */
+  String[] objectClasses();
+
+  /**
+   * The name of the attribute, that is the relative distinguished name of the ldap entry. A field
+   * must be mapped to this attribute.
+   *
+   * @return the name of the rdn attribute
+   */
+  String rdn();
+
+  /**
+   * The base dn of the ldap entries. If it is empty, the base dn must be passed to the
+   * constructor of the generated mapper.
+   *
+   * @return the base dn
+   */
+  String baseDn() default "";
+
+}
@@ -20,6 +20,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import org.bremersee.ldaptive.LdaptiveBulkResult;
+import org.bremersee.ldaptive.LdaptiveBulkResult.Action;
 import org.bremersee.ldaptive.LdaptiveEntryMapper;
 import org.ldaptive.AddRequest;
 import org.ldaptive.BindRequest;
@@ -178,6 +181,33 @@ public interface ReactiveLdaptiveOperations {
         .map(ldapEntry -> Objects.requireNonNull(entryMapper.map(ldapEntry)));
   }
 
+  /**
+   * Find all page by page with the simple paged results control (RFC 2696). All pages are searched
+   * on the same connection. The next page is requested from the ldap server only when the current
+   * page has been consumed by the subscriber, so that at most one page is held in memory.
+   *
+   * @param searchRequest the search request
+   * @param pageSize the page size
+   * @return the flux
+   */
+  Flux<LdapEntry> findAllPaged(SearchRequest searchRequest, int pageSize);
+
+  /**
+   * Find all page by page with the simple paged results control (RFC 2696).
+   *
+   * @param <T> the type parameter
+   * @param searchRequest the search request
+   * @param pageSize the page size
+   * @param entryMapper the entry mapper
+   * @return the flux
+   * @see #findAllPaged(SearchRequest, int)
+   */
+  default <T> Flux<T> findAllPaged(SearchRequest searchRequest, int pageSize,
+      LdaptiveEntryMapper<T> entryMapper) {
+    return findAllPaged(searchRequest, pageSize)
+        .map(ldapEntry -> Objects.requireNonNull(entryMapper.map(ldapEntry)));
+  }
+
   /**
    * Exists.
    *
@@ -262,4 +292,78 @@ public interface ReactiveLdaptiveOperations {
         .count();
   }
 
+  /**
+   * Saves all domain objects of the given flux with at most {@code concurrency} concurrent save
+   * operations. A failed save doesn't terminate the returned flux; the error is reported in the
+   * result of the domain object, that also contains its dn.
+   *
+   * @param <T> the type parameter
+   * @param domainObjects the domain objects
+   * @param entryMapper the entry mapper
+   * @param concurrency the maximum number of concurrent save operations
+   * @param ordered if {@code true}, the results are emitted in the order of the domain objects,
+   *     otherwise in the order of completion
+   * @return the results
+   */
+  default <T> Flux<LdaptiveBulkResult<T>> saveAll(
+      Flux<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper,
+      int concurrency,
+      boolean ordered) {
+    Function<T, Mono<LdaptiveBulkResult<T>>> saveFn = domainObject -> {
+      String dn = findDn(domainObject, entryMapper);
+      return Mono.defer(() -> save(domainObject, entryMapper))
+          .map(value -> LdaptiveBulkResult.success(domainObject, dn, Action.SAVE, value))
+          .onErrorResume(throwable -> Mono.just(LdaptiveBulkResult.failure(
+              domainObject, dn, Action.SAVE, toRuntimeException(throwable))));
+    };
+    return ordered
+        ? domainObjects.flatMapSequential(saveFn, concurrency)
+        : domainObjects.flatMap(saveFn, concurrency);
+  }
+
+  /**
+   * Removes all domain objects of the given flux with at most {@code concurrency} concurrent delete
+   * operations. A failed delete doesn't terminate the returned flux; the error is reported in the
+   * result of the domain object, that also contains its dn.
+   *
+   * @param <T> the type parameter
+   * @param domainObjects the domain objects
+   * @param entryMapper the entry mapper
+   * @param concurrency the maximum number of concurrent delete operations
+   * @param ordered if {@code true}, the results are emitted in the order of the domain objects,
+   *     otherwise in the order of completion
+   * @return the results
+   */
+  default <T> Flux<LdaptiveBulkResult<T>> removeAll(
+      Flux<T> domainObjects,
+      LdaptiveEntryMapper<T> entryMapper,
+      int concurrency,
+      boolean ordered) {
+    Function<T, Mono<LdaptiveBulkResult<T>>> removeFn = domainObject -> {
+      String dn = findDn(domainObject, entryMapper);
+      return Mono.defer(() -> remove(domainObject, entryMapper))
+          .map(result -> LdaptiveBulkResult.success(domainObject, dn, Action.DELETE, (T) null))
+          .onErrorResume(throwable -> Mono.just(LdaptiveBulkResult.failure(
+              domainObject, dn, Action.DELETE, toRuntimeException(throwable))));
+    };
+    return ordered
+        ? domainObjects.flatMapSequential(removeFn, concurrency)
+        : domainObjects.flatMap(removeFn, concurrency);
+  }
+
+  private static <T> String findDn(T domainObject, LdaptiveEntryMapper<T> entryMapper) {
+    try {
+      return entryMapper.mapDn(domainObject);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static RuntimeException toRuntimeException(Throwable throwable) {
+    return throwable instanceof RuntimeException runtimeException
+        ? runtimeException
+        : new IllegalStateException(throwable);
+  }
+
 }
@@ -18,21 +18,27 @@ package org.bremersee.ldaptive.reactive;
 
 import static org.ldaptive.handler.ResultPredicate.NOT_SUCCESS;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.exception.ServiceException;
 import org.bremersee.ldaptive.DefaultLdaptiveErrorHandler;
 import org.bremersee.ldaptive.LdaptiveEntryMapper;
 import org.bremersee.ldaptive.LdaptiveErrorHandler;
-import org.bremersee.ldaptive.LdaptiveTemplate;
 import org.ldaptive.AddOperation;
 import org.ldaptive.AddRequest;
 import org.ldaptive.AttributeModification;
+import org.ldaptive.BindOperation;
 import org.ldaptive.BindRequest;
 import org.ldaptive.CompareOperation;
 import org.ldaptive.CompareRequest;
+import org.ldaptive.Connection;
 import org.ldaptive.ConnectionFactory;
 import org.ldaptive.DeleteOperation;
 import org.ldaptive.DeleteRequest;
@@ -47,6 +53,8 @@ import org.ldaptive.Result;
 import org.ldaptive.ResultCode;
 import org.ldaptive.SearchOperation;
 import org.ldaptive.SearchRequest;
+import org.ldaptive.control.PagedResultsControl;
+import org.ldaptive.control.RequestControl;
 import org.ldaptive.extended.ExtendedOperation;
 import org.ldaptive.extended.ExtendedRequest;
 import org.ldaptive.extended.ExtendedResponse;
@@ -77,6 +85,8 @@ public class ReactiveLdaptiveTemplate implements ReactiveLdaptiveOperations, Clo
 
   private LdaptiveErrorHandler errorHandler = new DefaultLdaptiveErrorHandler();
 
+  private Duration bindTimeout;
+
   /**
    * Instantiates a new Reactive ldaptive template.
    *
@@ -102,6 +112,18 @@ public class ReactiveLdaptiveTemplate implements ReactiveLdaptiveOperations, Clo
     }
   }
 
+  /**
+   * Sets the maximum duration of a bind operation. If the bind doesn't complete in time, the
+   * returned mono signals a {@link java.util.concurrent.TimeoutException}. A value of {@code null}
+   * (the default) means no timeout, then only the response timeout of the connection config
+   * applies.
+   *
+   * @param bindTimeout the bind timeout
+   */
+  public void setBindTimeout(Duration bindTimeout) {
+    this.bindTimeout = bindTimeout;
+  }
+
   /**
    * Returns a new instance of this ldaptive template with the same connection factory and error
    * handler.
@@ -124,6 +146,7 @@ public class ReactiveLdaptiveTemplate implements ReactiveLdaptiveOperations, Clo
   public ReactiveLdaptiveTemplate clone(final LdaptiveErrorHandler errorHandler) {
     final ReactiveLdaptiveTemplate template = new ReactiveLdaptiveTemplate(connectionFactory);
     template.setErrorHandler(errorHandler);
+    template.setBindTimeout(bindTimeout);
     return template;
   }
 
@@ -165,10 +188,24 @@ public class ReactiveLdaptiveTemplate implements ReactiveLdaptiveOperations, Clo
 
   @Override
   public Mono<Boolean> bind(BindRequest bindRequest) {
-    // Bind requests are synchronous
-    LdaptiveTemplate template = new LdaptiveTemplate(getConnectionFactory());
-    template.setErrorHandler(errorHandler);
-    return Mono.just(template.bind(bindRequest));
+    Mono<Boolean> bindResult = Mono.defer(() -> {
+      CompletableFuture<Boolean> future = new CompletableFuture<>();
+      try {
+        BindOperation.builder()
+            .factory(connectionFactory)
+            .onResult(new FutureAwareResultHandler<>(future, null, errorHandler,
+                Result::isSuccess))
+            .onException(
+                ldapException -> future.completeExceptionally(errorHandler.map(ldapException)))
+            .build()
+            .send(bindRequest);
+
+      } catch (LdapException e) {
+        future.completeExceptionally(errorHandler.map(e));
+      }
+      return Mono.fromFuture(future);
+    });
+    return bindTimeout != null ? bindResult.timeout(bindTimeout) : bindResult;
   }
 
   @Override
@@ -325,11 +362,93 @@ public class ReactiveLdaptiveTemplate implements ReactiveLdaptiveOperations, Clo
     });
   }
 
+  @Override
+  public Flux<LdapEntry> findAllPaged(SearchRequest searchRequest, int pageSize) {
+    if (pageSize <= 0) {
+      return Flux.error(new IllegalArgumentException("Page size must be greater than zero."));
+    }
+    return Flux.using(
+        this::openConnection,
+        connection -> findPage(connection, searchRequest, pageSize, null)
+            .expand(page -> page.hasMore()
+                ? findPage(connection, searchRequest, pageSize, page.cookie())
+                : Mono.empty())
+            .concatMap(page -> Flux.fromIterable(page.entries()), 0),
+        Connection::close);
+  }
+
+  private Connection openConnection() {
+    Connection connection = null;
+    try {
+      connection = connectionFactory.getConnection();
+      connection.open();
+      return connection;
+
+    } catch (LdapException e) {
+      if (connection != null) {
+        connection.close();
+      }
+      throw errorHandler.map(e);
+    }
+  }
+
+  private Mono<Page> findPage(
+      Connection connection,
+      SearchRequest searchRequest,
+      int pageSize,
+      byte[] cookie) {
+
+    // Mono.just emits on request, so the page is only searched, if there is demand.
+    return Mono.just(pageSize).flatMap(size -> {
+      SearchRequest pageRequest = SearchRequest.copy(searchRequest);
+      RequestControl[] controls = Stream
+          .concat(
+              Stream.ofNullable(searchRequest.getControls())
+                  .flatMap(Arrays::stream)
+                  .filter(control -> !PagedResultsControl.OID.equals(control.getOID())),
+              Stream.of(new PagedResultsControl(size, cookie, true)))
+          .toArray(RequestControl[]::new);
+      pageRequest.setControls(controls);
+      List<LdapEntry> entries = new ArrayList<>();
+      CompletableFuture<Page> future = new CompletableFuture<>();
+      connection.operation(pageRequest)
+          .onEntry(ldapEntry -> {
+            entries.add(ldapEntry);
+            return ldapEntry;
+          })
+          .onResult(result -> {
+            if (NOT_FIND_RESULT.test(result)) {
+              future.completeExceptionally(errorHandler.map(new LdapException(result)));
+            } else if (result.getResultCode() == ResultCode.NO_SUCH_OBJECT) {
+              future.complete(new Page(entries, null));
+            } else if (result.getControl(PagedResultsControl.OID)
+                instanceof PagedResultsControl responseControl) {
+              future.complete(new Page(entries, responseControl.getCookie()));
+            } else {
+              future.completeExceptionally(ServiceException.internalServerError(
+                  "The ldap server didn't return a paged results response control.",
+                  "org.bremersee:ldaptive-integration:0e7c9d31-8a4b-4b62-b0f3-5a2e6c1d9b84"));
+            }
+          })
+          .onException(ldapException -> future
+              .completeExceptionally(errorHandler.map(ldapException)))
+          .send();
+      return Mono.fromFuture(future);
+    });
+  }
+
   @Override
   public <T> Mono<T> save(T domainObject, LdaptiveEntryMapper<T> entryMapper) {
     return findOne(SearchRequest.objectScopeSearchRequest(entryMapper.mapDn(domainObject)))
         .flatMap(entry -> modify(domainObject, entry, entryMapper))
-        .switchIfEmpty(add(domainObject, entryMapper));
+        .switchIfEmpty(Mono.defer(() -> add(domainObject, entryMapper)));
+  }
+
+  private record Page(List<LdapEntry> entries, byte[] cookie) {
+
+    boolean hasMore() {
+      return cookie != null && cookie.length > 0;
+    }
   }
 
   private static class FutureAwareResultHandler<T> implements ResultHandler {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.serializable;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Normalizes attribute names: attribute names are case-insensitive, and well known attribute
+ * types can also be named by their oid (like {@code 2.5.4.3} or {@code OID.2.5.4.3} for
+ * {@code cn}).
+ *
+ * @author Christian Bremer
+ */
+final class AttributeNames {
+
+  private static final String OID_PREFIX = "oid.";
+
+  private static final Map<String, String> OID_ALIASES = Map.ofEntries(
+      Map.entry("2.5.4.0", "objectclass"),
+      Map.entry("2.5.4.3", "cn"),
+      Map.entry("2.5.4.4", "sn"),
+      Map.entry("2.5.4.10", "o"),
+      Map.entry("2.5.4.11", "ou"),
+      Map.entry("2.5.4.12", "title"),
+      Map.entry("2.5.4.13", "description"),
+      Map.entry("2.5.4.20", "telephonenumber"),
+      Map.entry("2.5.4.31", "member"),
+      Map.entry("2.5.4.35", "userpassword"),
+      Map.entry("2.5.4.36", "usercertificate"),
+      Map.entry("2.5.4.42", "givenname"),
+      Map.entry("2.5.4.49", "distinguishedname"),
+      Map.entry("2.5.4.50", "uniquemember"),
+      Map.entry("0.9.2342.19200300.100.1.1", "uid"),
+      Map.entry("0.9.2342.19200300.100.1.3", "mail"),
+      Map.entry("0.9.2342.19200300.100.1.25", "dc"),
+      Map.entry("0.9.2342.19200300.100.1.60", "jpegphoto"),
+      Map.entry("2.16.840.1.113730.3.1.3", "employeenumber"),
+      Map.entry("2.16.840.1.113730.3.1.241", "displayname"),
+      Map.entry("1.2.840.113556.1.2.102", "memberof"),
+      Map.entry("1.2.840.113556.1.4.8", "useraccountcontrol"),
+      Map.entry("1.2.840.113556.1.4.96", "pwdlastset"),
+      Map.entry("1.2.840.113556.1.4.159", "accountexpires"),
+      Map.entry("1.2.840.113556.1.4.221", "samaccountname"),
+      Map.entry("1.2.840.113556.1.4.656", "userprincipalname"),
+      Map.entry("1.2.840.113556.1.4.662", "lockouttime"),
+      Map.entry("1.2.840.113556.1.4.1301", "tokengroups"),
+      Map.entry("1.2.840.113556.1.4.1460", "msds-user-account-control-computed"));
+
+  private AttributeNames() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Normalizes the given attribute name: it is converted to lower case and an oid of a well known
+   * attribute type is replaced by its name.
+   *
+   * @param attributeName the attribute name
+   * @return the normalized attribute name
+   */
+  static String normalize(String attributeName) {
+    String name = attributeName.toLowerCase(Locale.ROOT);
+    if (name.startsWith(OID_PREFIX)) {
+      name = name.substring(OID_PREFIX.length());
+    }
+    if (!name.isEmpty() && Character.isDigit(name.charAt(0))) {
+      return OID_ALIASES.getOrDefault(name, name);
+    }
+    return name;
+  }
+
+}
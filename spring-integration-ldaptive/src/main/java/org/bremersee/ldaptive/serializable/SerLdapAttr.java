@@ -20,7 +20,11 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.ToString;
 import org.ldaptive.LdapAttribute;
@@ -29,6 +33,10 @@ import org.ldaptive.LdapUtils;
 /**
  * A serializable ldap attribute.
  *
+ * <p>The values are kept in an immutable list (in the order of the ldap attribute) and in an
+ * immutable hash set, so that the lookup of a value and the comparison of two attributes don't
+ * depend on the number of values. The string representations of the values are decoded only once.
+ *
  * @author Christian Bremer
  */
 @ToString(onlyExplicitlyIncluded = true)
@@ -56,15 +64,52 @@ public class SerLdapAttr implements Serializable {
   @Getter
   private final boolean binary;
 
+  /**
+   * The hashed attribute values. It is created lazily, because it is not serialized.
+   */
+  private transient Set<ByteArrayKey> valueSet;
+
+  /**
+   * The string representations of the attribute values. It is created lazily.
+   */
+  private transient List<String> stringValues;
+
   /**
    * Instantiates a new serializable ldap attribute.
    *
    * @param ldapAttribute the ldap attribute
    */
   public SerLdapAttr(LdapAttribute ldapAttribute) {
-    this.attributeName = ldapAttribute.getName();
-    this.attributeValues = ldapAttribute.getBinaryValues();
-    this.binary = ldapAttribute.isBinary();
+    this(ldapAttribute.getName(), ldapAttribute.getBinaryValues(), ldapAttribute.isBinary());
+  }
+
+  /**
+   * Instantiates a new serializable ldap attribute.
+   *
+   * @param attributeName the attribute name
+   * @param attributeValues the attribute values
+   * @param binary specifies whether the attribute is binary
+   */
+  SerLdapAttr(String attributeName, Collection<byte[]> attributeValues, boolean binary) {
+    this.attributeName = attributeName;
+    this.attributeValues = List.copyOf(attributeValues);
+    this.binary = binary;
+    this.valueSet = createValueSet(this.attributeValues);
+  }
+
+  private static Set<ByteArrayKey> createValueSet(Collection<byte[]> attributeValues) {
+    return attributeValues.stream()
+        .map(ByteArrayKey::new)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  private Set<ByteArrayKey> getValueSet() {
+    Set<ByteArrayKey> values = valueSet;
+    if (values == null) {
+      values = createValueSet(attributeValues);
+      valueSet = values;
+    }
+    return values;
   }
 
   @Override
@@ -77,19 +122,14 @@ public class SerLdapAttr implements Serializable {
     }
     SerLdapAttr that = (SerLdapAttr) o;
     return binary == that.binary
-        && Objects.equals(attributeName.toLowerCase(), that.attributeName.toLowerCase())
+        && attributeName.equalsIgnoreCase(that.attributeName)
         && attributeValues.size() == that.attributeValues.size()
-        && attributeValues.stream().allMatch(that::hasValue);
+        && getValueSet().equals(that.getValueSet());
   }
 
   @Override
   public int hashCode() {
-    int hash = 10223;
-    int index = 1;
-    for (byte[] b : attributeValues) {
-      hash = (hash * 113 + Arrays.hashCode(b)) + index++;
-    }
-    return hash * 113 + Objects.hash(attributeName, binary);
+    return Objects.hash(attributeName.toLowerCase(Locale.ROOT), binary, getValueSet());
   }
 
   /**
@@ -107,11 +147,8 @@ public class SerLdapAttr implements Serializable {
    * @return single string attribute value or null if this attribute is empty
    */
   public String getStringValue() {
-    if (attributeValues.isEmpty()) {
-      return null;
-    }
-    final byte[] val = attributeValues.iterator().next();
-    return binary ? LdapUtils.base64Encode(val) : LdapUtils.utf8Encode(val);
+    List<String> values = stringValues();
+    return values.isEmpty() ? null : values.get(0);
   }
 
 
@@ -123,33 +160,60 @@ public class SerLdapAttr implements Serializable {
    */
   @ToString.Include
   public Collection<String> getStringValues() {
-    return attributeValues.stream()
-        .map(v -> {
-          if (binary) {
-            return LdapUtils.base64Encode(v);
-          }
-          return LdapUtils.utf8Encode(v, false);
-        })
-        .toList();
+    return stringValues();
+  }
+
+  /**
+   * Returns the values of this attribute as strings in the order of the ldap attribute.
+   *
+   * @return the unmodifiable list of string attribute values
+   */
+  List<String> stringValues() {
+    List<String> values = stringValues;
+    if (values == null) {
+      values = attributeValues.stream()
+          .map(v -> {
+            if (binary) {
+              return LdapUtils.base64Encode(v);
+            }
+            return LdapUtils.utf8Encode(v, false);
+          })
+          .toList();
+      stringValues = values;
+    }
+    return values;
   }
 
   /**
-   * Returns a single byte array value of this attribute.
+   * Returns a single byte array value of this attribute. The returned array is a copy.
    *
    * @return single byte array attribute value or null if this attribute is empty
    */
   public byte[] getBinaryValue() {
-    return attributeValues.isEmpty() ? null : attributeValues.iterator().next();
+    return attributeValues.isEmpty() ? null : attributeValues.iterator().next().clone();
   }
 
 
   /**
-   * Returns the values of this attribute as byte arrays. The return collection cannot be modified.
+   * Returns the values of this attribute as byte arrays. The return collection cannot be modified;
+   * the arrays are copies, because the hashes of the values are cached.
    *
    * @return collection of string attribute values
    */
   public Collection<byte[]> getBinaryValues() {
-    return attributeValues.stream().toList();
+    return attributeValues.stream()
+        .map(byte[]::clone)
+        .toList();
+  }
+
+  /**
+   * Returns the values of this attribute as byte arrays without copying them. The arrays must not
+   * be modified.
+   *
+   * @return the unmodifiable collection of the byte array attribute values
+   */
+  Collection<byte[]> binaryValues() {
+    return attributeValues;
   }
 
   /**
@@ -159,7 +223,7 @@ public class SerLdapAttr implements Serializable {
    * @return whether value exists
    */
   public boolean hasValue(final byte[] value) {
-    return attributeValues.stream().anyMatch(bb -> Arrays.equals(bb, value));
+    return value != null && getValueSet().contains(new ByteArrayKey(value));
   }
 
 
@@ -170,7 +234,7 @@ public class SerLdapAttr implements Serializable {
    * @return whether value exists
    */
   public boolean hasValue(String value) {
-    return attributeValues.stream().anyMatch(bb -> Arrays.equals(bb, toByteArray(value)));
+    return value != null && hasValue(toByteArray(value));
   }
 
   private byte[] toByteArray(String value) {
@@ -184,4 +248,31 @@ public class SerLdapAttr implements Serializable {
     return LdapUtils.utf8Encode(value, false);
   }
 
+  /**
+   * A byte array with a cached hash code, that can be used in hash based collections.
+   */
+  private static final class ByteArrayKey {
+
+    private final byte[] value;
+
+    private final int hash;
+
+    private ByteArrayKey(byte[] value) {
+      this.value = value;
+      this.hash = Arrays.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o
+          || (o instanceof ByteArrayKey that && hash == that.hash
+          && Arrays.equals(value, that.value));
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
 }
@@ -16,22 +16,43 @@
 
 package org.bremersee.ldaptive.serializable;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import org.ldaptive.LdapEntry;
+import org.ldaptive.transcode.ValueTranscoder;
 
 /**
  * The serializable ldap entry.
  *
+ * <p>The entry is serialized with the compact binary encoding of {@link SerLdapEntryCodec}
+ * instead of the default serialization of its fields. Subclasses still serialize their own fields
+ * as usual.
+ *
+ * <p>Besides the attributes by their names as returned by the server (see
+ * {@link #getAttributes()}), the entry contains an index, that is built once: attributes can be
+ * found case-insensitive and well known attribute types also by their oid (see
+ * {@link #findAttribute(String)}). Typed values (see {@link #findValue(String, ValueTranscoder)})
+ * are decoded on the first access and then remembered.
+ *
  * @author Christian Bremer
  */
 @Getter
@@ -40,17 +61,39 @@ import org.ldaptive.LdapEntry;
 public class SerLdapEntry implements Serializable {
 
   @Serial
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L;
+
+  /**
+   * The fields are written by {@link #writeObject(ObjectOutputStream)}.
+   */
+  @Serial
+  private static final ObjectStreamField[] serialPersistentFields = {};
+
+  private static final SerLdapEntryCodec CODEC = new SerLdapEntryCodec();
 
   /**
    * The distinguished name.
    */
-  private final String dn;
+  private String dn;
 
   /**
    * The attributes.
    */
-  private final Map<String, SerLdapAttr> attributes;
+  private Map<String, SerLdapAttr> attributes;
+
+  /**
+   * The attributes by their normalized names.
+   */
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private transient Map<String, SerLdapAttr> attributeIndex;
+
+  /**
+   * The decoded values.
+   */
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private transient Map<DecodedValuesKey, List<?>> decodedValues;
 
   /**
    * Instantiates a new serializable ldap entry.
@@ -58,15 +101,176 @@ public class SerLdapEntry implements Serializable {
    * @param ldapEntry the ldap entry
    */
   public SerLdapEntry(LdapEntry ldapEntry) {
+    this(ldapEntry, null);
+  }
+
+  /**
+   * Instantiates a new serializable ldap entry, that contains only the given attributes.
+   *
+   * @param ldapEntry the ldap entry
+   * @param retainedAttributes the names of the attributes to retain (case-insensitive); if it is
+   *     {@code null} or empty, all attributes are retained
+   */
+  public SerLdapEntry(LdapEntry ldapEntry, Collection<String> retainedAttributes) {
+    Set<String> retained = Stream.ofNullable(retainedAttributes)
+        .flatMap(Collection::stream)
+        .filter(Objects::nonNull)
+        .map(AttributeNames::normalize)
+        .collect(Collectors.toSet());
     this.dn = Optional.ofNullable(ldapEntry)
         .map(LdapEntry::getDn)
         .orElse(null);
     this.attributes = Stream.ofNullable(ldapEntry)
         .map(LdapEntry::getAttributes)
         .flatMap(Collection::stream)
+        .filter(attribute -> retained.isEmpty()
+            || retained.contains(AttributeNames.normalize(attribute.getName())))
         .map(SerLdapAttr::new)
         .collect(Collectors
             .toUnmodifiableMap(SerLdapAttr::getAttributeName, Function.identity()));
+    this.attributeIndex = createAttributeIndex(this.attributes);
+    this.decodedValues = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Instantiates a new serializable ldap entry.
+   *
+   * @param dn the distinguished name
+   * @param attributes the attributes
+   */
+  SerLdapEntry(String dn, Collection<SerLdapAttr> attributes) {
+    this.dn = dn;
+    this.attributes = attributes.stream()
+        .collect(Collectors
+            .toUnmodifiableMap(SerLdapAttr::getAttributeName, Function.identity()));
+    this.attributeIndex = createAttributeIndex(this.attributes);
+    this.decodedValues = new ConcurrentHashMap<>();
+  }
+
+  private static Map<String, SerLdapAttr> createAttributeIndex(
+      Map<String, SerLdapAttr> attributes) {
+    Map<String, SerLdapAttr> index = new HashMap<>();
+    attributes.values().forEach(attribute -> index
+        .putIfAbsent(AttributeNames.normalize(attribute.getAttributeName()), attribute));
+    return Map.copyOf(index);
+  }
+
+  /**
+   * Finds the attribute with the given name. The name is case-insensitive and well known
+   * attribute types can also be found by their oid.
+   *
+   * @param name the attribute name
+   * @return the attribute
+   */
+  public Optional<SerLdapAttr> findAttribute(String name) {
+    return Optional.ofNullable(name)
+        .map(AttributeNames::normalize)
+        .map(attributeIndex::get);
+  }
+
+  /**
+   * Determines whether the attribute with the given name exists and contains the given value.
+   *
+   * @param name the attribute name
+   * @param value the value
+   * @return {@code true} if the attribute contains the value, otherwise {@code false}
+   */
+  public boolean hasValue(String name, String value) {
+    return findAttribute(name)
+        .map(attribute -> attribute.hasValue(value))
+        .orElse(false);
+  }
+
+  /**
+   * Finds the string value of the attribute with the given name.
+   *
+   * @param name the attribute name
+   * @return the string value
+   */
+  public Optional<String> findStringValue(String name) {
+    return findAttribute(name).map(SerLdapAttr::getStringValue);
+  }
+
+  /**
+   * Gets the string values of the attribute with the given name.
+   *
+   * @param name the attribute name
+   * @return the string values (can be empty, but never {@code null})
+   */
+  public List<String> getStringValues(String name) {
+    return findAttribute(name)
+        .map(SerLdapAttr::stringValues)
+        .orElseGet(List::of);
+  }
+
+  /**
+   * Finds the decoded value of the attribute with the given name. The value is decoded on the
+   * first call and then remembered for the given value transcoder instance, so the value
+   * transcoder should be reused instead of being created for each call.
+   *
+   * @param <T> the type of the value
+   * @param name the attribute name
+   * @param valueTranscoder the value transcoder
+   * @return the decoded value
+   */
+  public <T> Optional<T> findValue(String name, ValueTranscoder<T> valueTranscoder) {
+    List<T> values = getValues(name, valueTranscoder);
+    return values.isEmpty() ? Optional.empty() : Optional.of(values.get(0));
+  }
+
+  /**
+   * Gets the decoded values of the attribute with the given name. The values are decoded on the
+   * first call and then remembered for the given value transcoder instance, so the value
+   * transcoder should be reused instead of being created for each call.
+   *
+   * @param <T> the type of the values
+   * @param name the attribute name
+   * @param valueTranscoder the value transcoder
+   * @return the decoded values (can be empty, but never {@code null})
+   */
+  @SuppressWarnings("unchecked")
+  public <T> List<T> getValues(String name, ValueTranscoder<T> valueTranscoder) {
+    Objects.requireNonNull(valueTranscoder, "Value transcoder is required.");
+    SerLdapAttr attribute = findAttribute(name).orElse(null);
+    if (attribute == null) {
+      return List.of();
+    }
+    DecodedValuesKey key = new DecodedValuesKey(
+        AttributeNames.normalize(attribute.getAttributeName()), valueTranscoder);
+    return (List<T>) decodedValues.computeIfAbsent(key, k -> attribute.binaryValues()
+        .stream()
+        .map(valueTranscoder::decodeBinaryValue)
+        .filter(Objects::nonNull)
+        .toList());
+  }
+
+  @Serial
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    CODEC.write(this, out);
+  }
+
+  @Serial
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    SerLdapEntry entry = CODEC.read(in);
+    this.dn = entry.dn;
+    this.attributes = entry.attributes;
+    this.attributeIndex = entry.attributeIndex;
+    this.decodedValues = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * The key of decoded values: the normalized attribute name and the value transcoder. The value
+   * transcoders of ldaptive don't implement {@code equals}, so they are compared by identity and
+   * two transcoders of the same class, but with a different configuration, don't share their
+   * values.
+   *
+   * @param name the normalized attribute name
+   * @param transcoder the value transcoder
+   */
+  private record DecodedValuesKey(String name, ValueTranscoder<?> transcoder) {
+
   }
 
 }
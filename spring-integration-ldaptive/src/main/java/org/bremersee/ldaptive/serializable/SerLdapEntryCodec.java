@@ -0,0 +1,330 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.serializable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.ToString;
+
+/**
+ * A compact, versioned binary encoding of a {@link SerLdapEntry}.
+ *
+ * <p>The format (version {@value #FORMAT_VERSION}) is:
+ * <pre>
+ * entry     = version dn count attribute*
+ * attribute = name flags count value*
+ * name      = varint (index + 1 into the attribute name dictionary) | 0x00 string
+ * flags     = byte (bit 0: binary)
+ * value     = varint (length) byte*
+ * string    = varint (length + 1, 0 is null) utf-8 byte*
+ * </pre>
+ *
+ * <p>Well known attribute names (like {@code objectClass} or {@code memberOf}) are written as
+ * an index into a fixed dictionary. The dictionary belongs to the format version, it must never be
+ * changed without increasing the version.
+ *
+ * <p>If an attribute whitelist is given, only the attributes of the whitelist are encoded.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class SerLdapEntryCodec {
+
+  /**
+   * The current format version.
+   */
+  public static final int FORMAT_VERSION = 1;
+
+  private static final int BINARY_FLAG = 1;
+
+  /**
+   * The maximum capacity, that is allocated in advance for a count or a length read from the
+   * input. Larger counts and lengths are only allocated as far as the input really contains the
+   * data, so a corrupted or malicious input can't allocate huge arrays.
+   */
+  private static final int MAX_INITIAL_CAPACITY = 8192;
+
+  private static final List<String> DICTIONARY = List.of(
+      "objectClass",
+      "cn",
+      "sn",
+      "givenName",
+      "displayName",
+      "uid",
+      "mail",
+      "memberOf",
+      "member",
+      "uniqueMember",
+      "ou",
+      "o",
+      "dc",
+      "description",
+      "telephoneNumber",
+      "mobile",
+      "title",
+      "employeeNumber",
+      "userPassword",
+      "entryUUID",
+      "createTimestamp",
+      "modifyTimestamp",
+      "sAMAccountName",
+      "userPrincipalName",
+      "userAccountControl",
+      "msDS-User-Account-Control-Computed",
+      "accountExpires",
+      "lockoutTime",
+      "pwdLastSet",
+      "objectGUID",
+      "objectSid",
+      "distinguishedName",
+      "name",
+      "whenCreated",
+      "whenChanged",
+      "uSNCreated",
+      "uSNChanged",
+      "primaryGroupID",
+      "sAMAccountType",
+      "objectCategory",
+      "instanceType",
+      "badPwdCount",
+      "badPasswordTime",
+      "lastLogon",
+      "lastLogonTimestamp",
+      "logonCount",
+      "codePage",
+      "countryCode",
+      "thumbnailPhoto",
+      "jpegPhoto",
+      "userCertificate",
+      "preferredLanguage");
+
+  private static final Map<String, Integer> DICTIONARY_INDEX = createDictionaryIndex();
+
+  private final Set<String> attributeWhitelist;
+
+  /**
+   * Instantiates a new codec, that encodes all attributes.
+   */
+  public SerLdapEntryCodec() {
+    this(null);
+  }
+
+  /**
+   * Instantiates a new codec.
+   *
+   * @param attributeWhitelist the names of the attributes to encode (case-insensitive); if it is
+   *     {@code null} or empty, all attributes are encoded
+   */
+  public SerLdapEntryCodec(Collection<String> attributeWhitelist) {
+    this.attributeWhitelist = attributeWhitelist == null
+        ? Set.of()
+        : attributeWhitelist.stream()
+            .map(AttributeNames::normalize)
+            .collect(Collectors.toUnmodifiableSet());
+  }
+
+  private static Map<String, Integer> createDictionaryIndex() {
+    Map<String, Integer> index = new HashMap<>();
+    for (int i = 0; i < DICTIONARY.size(); i++) {
+      index.put(DICTIONARY.get(i), i + 1);
+    }
+    return Map.copyOf(index);
+  }
+
+  /**
+   * Encodes the given entry.
+   *
+   * @param entry the entry
+   * @return the encoded entry
+   */
+  public byte[] encode(SerLdapEntry entry) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      write(entry, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes the given bytes.
+   *
+   * @param bytes the encoded entry
+   * @return the entry
+   * @throws IllegalArgumentException if the bytes are not a valid encoded entry
+   */
+  public SerLdapEntry decode(byte[] bytes) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      return read(in);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Bytes are not a valid encoded ldap entry.", e);
+    }
+  }
+
+  /**
+   * Writes the given entry.
+   *
+   * @param entry the entry
+   * @param out the output
+   * @throws IOException if writing fails
+   */
+  public void write(SerLdapEntry entry, DataOutput out) throws IOException {
+    List<SerLdapAttr> attributes = entry.getAttributes().values().stream()
+        .filter(this::isIncluded)
+        .toList();
+    out.writeByte(FORMAT_VERSION);
+    writeString(entry.getDn(), out);
+    writeVarInt(attributes.size(), out);
+    for (SerLdapAttr attribute : attributes) {
+      Integer index = DICTIONARY_INDEX.get(attribute.getAttributeName());
+      if (index != null) {
+        writeVarInt(index, out);
+      } else {
+        writeVarInt(0, out);
+        writeString(attribute.getAttributeName(), out);
+      }
+      out.writeByte(attribute.isBinary() ? BINARY_FLAG : 0);
+      Collection<byte[]> values = attribute.binaryValues();
+      writeVarInt(values.size(), out);
+      for (byte[] value : values) {
+        writeVarInt(value.length, out);
+        out.write(value);
+      }
+    }
+  }
+
+  /**
+   * Reads an entry.
+   *
+   * @param in the input
+   * @return the entry
+   * @throws IOException if reading fails or the input is not a valid encoded entry
+   */
+  public SerLdapEntry read(DataInput in) throws IOException {
+    int version = in.readUnsignedByte();
+    if (version != FORMAT_VERSION) {
+      throw new StreamCorruptedException(String.format(
+          "Format version %s of ldap entry is not supported.", version));
+    }
+    String dn = readString(in);
+    int size = readVarInt(in);
+    List<SerLdapAttr> attributes = new ArrayList<>(Math.min(size, MAX_INITIAL_CAPACITY));
+    for (int i = 0; i < size; i++) {
+      int index = readVarInt(in);
+      String name;
+      if (index == 0) {
+        name = readString(in);
+      } else if (index <= DICTIONARY.size()) {
+        name = DICTIONARY.get(index - 1);
+      } else {
+        throw new StreamCorruptedException(String.format(
+            "Attribute name index %s is not in dictionary.", index));
+      }
+      boolean binary = (in.readUnsignedByte() & BINARY_FLAG) != 0;
+      int count = readVarInt(in);
+      List<byte[]> values = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+      for (int j = 0; j < count; j++) {
+        values.add(readBytes(in, readVarInt(in)));
+      }
+      attributes.add(new SerLdapAttr(name, values, binary));
+    }
+    return new SerLdapEntry(dn, attributes);
+  }
+
+  private boolean isIncluded(SerLdapAttr attribute) {
+    return attributeWhitelist.isEmpty()
+        || attributeWhitelist.contains(AttributeNames.normalize(attribute.getAttributeName()));
+  }
+
+  private static void writeString(String value, DataOutput out) throws IOException {
+    if (value == null) {
+      writeVarInt(0, out);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(bytes.length + 1, out);
+      out.write(bytes);
+    }
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    int length = readVarInt(in);
+    if (length == 0) {
+      return null;
+    }
+    return new String(readBytes(in, length - 1), StandardCharsets.UTF_8);
+  }
+
+  private static byte[] readBytes(DataInput in, int length) throws IOException {
+    if (length <= MAX_INITIAL_CAPACITY) {
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return bytes;
+    }
+    // the length is not trusted: the buffer grows only with the bytes, that are really read
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(MAX_INITIAL_CAPACITY);
+    byte[] chunk = new byte[MAX_INITIAL_CAPACITY];
+    int remaining = length;
+    while (remaining > 0) {
+      int n = Math.min(remaining, chunk.length);
+      in.readFully(chunk, 0, n);
+      bytes.write(chunk, 0, n);
+      remaining -= n;
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeVarInt(int value, DataOutput out) throws IOException {
+    int v = value;
+    while ((v & ~0x7F) != 0) {
+      out.writeByte((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    out.writeByte(v);
+  }
+
+  private static int readVarInt(DataInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          break;
+        }
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Invalid length.");
+  }
+
+}
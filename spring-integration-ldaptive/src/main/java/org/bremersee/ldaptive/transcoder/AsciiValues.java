@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.transcoder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses the ascii encoded values of ldap attributes directly from their bytes, without creating
+ * strings or boxed numbers.
+ *
+ * @author Christian Bremer
+ */
+final class AsciiValues {
+
+  private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+  private static final long MILLIS_PER_MINUTE = 60_000L;
+
+  private static final long MILLIS_PER_DAY = 24L * MILLIS_PER_HOUR;
+
+  private AsciiValues() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Determines whether the value is null or empty.
+   *
+   * @param value the value
+   * @return {@code true} if the value is null or empty, otherwise {@code false}
+   */
+  static boolean isEmpty(byte[] value) {
+    return value == null || value.length == 0;
+  }
+
+  /**
+   * Parses a decimal number.
+   *
+   * @param value the ascii encoded value
+   * @param defaultValue the default value, that is returned, if the value is null or empty
+   * @return the number
+   * @throws NumberFormatException if the value is not a valid number
+   */
+  static long parseLong(byte[] value, long defaultValue) {
+    if (isEmpty(value)) {
+      return defaultValue;
+    }
+    int i = 0;
+    boolean negative = false;
+    if (value[0] == '-' || value[0] == '+') {
+      negative = value[0] == '-';
+      i++;
+    }
+    if (i == value.length) {
+      throw invalidNumber(value);
+    }
+    // accumulate negatively to be able to parse Long.MIN_VALUE
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long result = 0;
+    for (; i < value.length; i++) {
+      int digit = value[i] - '0';
+      if (digit < 0 || digit > 9 || result < limit / 10) {
+        throw invalidNumber(value);
+      }
+      result = result * 10;
+      if (result < limit + digit) {
+        throw invalidNumber(value);
+      }
+      result = result - digit;
+    }
+    return negative ? result : -result;
+  }
+
+  /**
+   * Parses a decimal number, that must fit into an int.
+   *
+   * @param value the ascii encoded value
+   * @param defaultValue the default value, that is returned, if the value is null or empty
+   * @return the number
+   * @throws NumberFormatException if the value is not a valid int
+   */
+  static int parseInt(byte[] value, int defaultValue) {
+    long result = parseLong(value, defaultValue);
+    if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+      throw invalidNumber(value);
+    }
+    return (int) result;
+  }
+
+  /**
+   * Compares the value with the given ascii string ignoring case.
+   *
+   * @param value the ascii encoded value
+   * @param ascii the ascii string
+   * @return {@code true} if the value is equal to the ascii string ignoring case, otherwise
+   *     {@code false}
+   */
+  static boolean equalsIgnoreCase(byte[] value, String ascii) {
+    if (value == null || value.length != ascii.length()) {
+      return false;
+    }
+    for (int i = 0; i < value.length; i++) {
+      if (toLowerCase(value[i]) != toLowerCase((byte) ascii.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parses a generalized time ({@code YYYYMMDDHH[MM[SS]][(.|,)fraction](Z|(+|-)HH[MM])}, see
+   * RFC 4517) into milliseconds since the epoch.
+   *
+   * @param value the ascii encoded generalized time
+   * @return the milliseconds since the epoch
+   * @throws IllegalArgumentException if the value is not a valid generalized time
+   */
+  static long parseGeneralizedTime(byte[] value) {
+    if (value == null || value.length < 11) {
+      throw invalidTime(value);
+    }
+    int year = digits(value, 0, 4);
+    int month = digits(value, 4, 2);
+    int day = digits(value, 6, 2);
+    int hour = digits(value, 8, 2);
+    int pos = 10;
+    long unit = MILLIS_PER_HOUR;
+    int minute = 0;
+    int second = 0;
+    if (isDigit(value, pos)) {
+      minute = digits(value, pos, 2);
+      pos += 2;
+      unit = MILLIS_PER_MINUTE;
+      if (isDigit(value, pos)) {
+        second = digits(value, pos, 2);
+        pos += 2;
+        unit = 1000L;
+      }
+    }
+    if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59
+        || second > 60) {
+      throw invalidTime(value);
+    }
+    long fraction = 0;
+    if (pos < value.length && (value[pos] == '.' || value[pos] == ',')) {
+      pos++;
+      long divisor = 1;
+      long numerator = 0;
+      int start = pos;
+      while (isDigit(value, pos)) {
+        if (divisor < 1_000_000_000_000L) {
+          numerator = numerator * 10 + (value[pos] - '0');
+          divisor = divisor * 10;
+        }
+        pos++;
+      }
+      if (pos == start) {
+        throw invalidTime(value);
+      }
+      fraction = numerator * unit / divisor;
+    }
+    long offset;
+    if (pos == value.length - 1 && value[pos] == 'Z') {
+      offset = 0;
+    } else if (pos < value.length && (value[pos] == '+' || value[pos] == '-')
+        && (value.length - pos == 3 || value.length - pos == 5)) {
+      long offsetMillis = digits(value, pos + 1, 2) * MILLIS_PER_HOUR;
+      if (value.length - pos == 5) {
+        offsetMillis += digits(value, pos + 3, 2) * MILLIS_PER_MINUTE;
+      }
+      offset = value[pos] == '-' ? -offsetMillis : offsetMillis;
+    } else {
+      throw invalidTime(value);
+    }
+    return daysSinceEpoch(year, month, day) * MILLIS_PER_DAY
+        + hour * MILLIS_PER_HOUR
+        + minute * MILLIS_PER_MINUTE
+        + second * 1000L
+        + fraction
+        - offset;
+  }
+
+  /**
+   * Calculates the days since the epoch of the given date of the proleptic gregorian calendar.
+   *
+   * @param year the year
+   * @param month the month (1 to 12)
+   * @param day the day of the month
+   * @return the days since the epoch
+   */
+  static long daysSinceEpoch(int year, int month, int day) {
+    long y = month <= 2 ? year - 1 : year;
+    long era = (y >= 0 ? y : y - 399) / 400;
+    long yearOfEra = y - era * 400;
+    long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  private static boolean isDigit(byte[] value, int pos) {
+    return pos < value.length && value[pos] >= '0' && value[pos] <= '9';
+  }
+
+  private static int digits(byte[] value, int pos, int length) {
+    if (pos + length > value.length) {
+      throw invalidTime(value);
+    }
+    int result = 0;
+    for (int i = pos; i < pos + length; i++) {
+      if (!isDigit(value, i)) {
+        throw invalidTime(value);
+      }
+      result = result * 10 + (value[i] - '0');
+    }
+    return result;
+  }
+
+  private static byte toLowerCase(byte b) {
+    return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+  }
+
+  private static NumberFormatException invalidNumber(byte[] value) {
+    return new NumberFormatException(
+        "Value '" + new String(value, StandardCharsets.UTF_8)
+            + "' is not a valid number.");
+  }
+
+  private static IllegalArgumentException invalidTime(byte[] value) {
+    return new IllegalArgumentException("Value '"
+        + (value != null ? new String(value, StandardCharsets.UTF_8) : null)
+        + "' is not a valid generalized time.");
+  }
+
+}
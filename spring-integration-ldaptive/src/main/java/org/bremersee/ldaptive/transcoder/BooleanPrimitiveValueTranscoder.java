@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import lombok.ToString;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.transcode.AbstractStringValueTranscoder;
+
+/**
+ * The boolean value transcoder decodes the ascii encoded value ({@code TRUE} or {@code FALSE})
+ * directly into a primitive boolean (see {@link #decodeBoolean(byte[], boolean)}) without
+ * creating a string.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class BooleanPrimitiveValueTranscoder extends AbstractStringValueTranscoder<Boolean> {
+
+  /**
+   * Decodes the first value of the attribute.
+   *
+   * @param attribute the attribute (can be null)
+   * @param defaultValue the default value, that is returned, if there is no value
+   * @return the decoded value
+   */
+  public boolean decodeBoolean(LdapAttribute attribute, boolean defaultValue) {
+    return decodeBoolean(attribute != null ? attribute.getBinaryValue() : null, defaultValue);
+  }
+
+  /**
+   * Decodes the value. Like {@link Boolean#parseBoolean(String)} every value other than
+   * {@code true} (ignoring case) is {@code false}.
+   *
+   * @param value the ascii encoded value (can be null)
+   * @param defaultValue the default value, that is returned, if the value is null or empty
+   * @return the decoded value
+   */
+  public boolean decodeBoolean(byte[] value, boolean defaultValue) {
+    return AsciiValues.isEmpty(value)
+        ? defaultValue
+        : AsciiValues.equalsIgnoreCase(value, "true");
+  }
+
+  @Override
+  public Boolean decodeBinaryValue(byte[] value) {
+    return AsciiValues.isEmpty(value) ? null : decodeBoolean(value, false);
+  }
+
+  @Override
+  public Boolean decodeStringValue(String value) {
+    return value == null || value.isEmpty() ? null : Boolean.valueOf(value);
+  }
+
+  @Override
+  public String encodeStringValue(Boolean value) {
+    if (value == null) {
+      return null;
+    }
+    return value ? "TRUE" : "FALSE";
+  }
+
+  @Override
+  public Class<Boolean> getType() {
+    return Boolean.class;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import lombok.ToString;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.transcode.AbstractStringValueTranscoder;
+
+/**
+ * The file time value transcoder decodes Active Directory timestamps like {@code pwdLastSet},
+ * {@code accountExpires} or {@code lockoutTime}. These are the number of 100-nanosecond intervals
+ * since January 1, 1601 (UTC), encoded as ascii decimal number. The value is decoded directly into
+ * a primitive long (see {@link #decodeFileTime(byte[], long)} and
+ * {@link #decodeEpochMillis(byte[], long)}) without creating a string or a date object. The boxed
+ * type is {@link Instant}.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class FileTimePrimitiveValueTranscoder extends AbstractStringValueTranscoder<Instant> {
+
+  /**
+   * The file time, that means never (for example an account, that never expires).
+   */
+  public static final long NEVER = Long.MAX_VALUE;
+
+  /**
+   * The number of 100-nanosecond intervals between January 1, 1601 and January 1, 1970.
+   */
+  public static final long EPOCH_OFFSET = 116_444_736_000_000_000L;
+
+  private static final long INTERVALS_PER_MILLI = 10_000L;
+
+  /**
+   * Converts the file time into the milliseconds since the epoch. {@link #NEVER} is converted to
+   * {@link Long#MAX_VALUE}.
+   *
+   * @param fileTime the file time
+   * @return the milliseconds since the epoch
+   */
+  public static long toEpochMillis(long fileTime) {
+    return fileTime == NEVER
+        ? Long.MAX_VALUE
+        : Math.floorDiv(fileTime - EPOCH_OFFSET, INTERVALS_PER_MILLI);
+  }
+
+  /**
+   * Converts the milliseconds since the epoch into the file time. {@link Long#MAX_VALUE} is
+   * converted to {@link #NEVER}.
+   *
+   * @param epochMillis the milliseconds since the epoch
+   * @return the file time
+   */
+  public static long toFileTime(long epochMillis) {
+    return epochMillis == Long.MAX_VALUE
+        ? NEVER
+        : Math.addExact(Math.multiplyExact(epochMillis, INTERVALS_PER_MILLI), EPOCH_OFFSET);
+  }
+
+  /**
+   * Decodes the first value of the attribute into the file time.
+   *
+   * @param attribute the attribute (can be null)
+   * @param defaultValue the default value, that is returned, if there is no value
+   * @return the file time
+   */
+  public long decodeFileTime(LdapAttribute attribute, long defaultValue) {
+    return decodeFileTime(attribute != null ? attribute.getBinaryValue() : null, defaultValue);
+  }
+
+  /**
+   * Decodes the value into the file time.
+   *
+   * @param value the ascii encoded value (can be null)
+   * @param defaultValue the default value, that is returned, if the value is null or empty
+   * @return the file time
+   * @throws NumberFormatException if the value is not a valid number
+   */
+  public long decodeFileTime(byte[] value, long defaultValue) {
+    return AsciiValues.parseLong(value, defaultValue);
+  }
+
+  /**
+   * Decodes the value into the milliseconds since the epoch.
+   *
+   * @param value the ascii encoded value (can be null)
+   * @param defaultValue the default value, that is returned, if the value is null or empty
+   * @return the milliseconds since the epoch
+   * @throws NumberFormatException if the value is not a valid number
+   */
+  public long decodeEpochMillis(byte[] value, long defaultValue) {
+    return AsciiValues.isEmpty(value)
+        ? defaultValue
+        : toEpochMillis(AsciiValues.parseLong(value, 0L));
+  }
+
+  @Override
+  public Instant decodeBinaryValue(byte[] value) {
+    if (AsciiValues.isEmpty(value)) {
+      return null;
+    }
+    long fileTime = AsciiValues.parseLong(value, 0L);
+    return fileTime == NEVER ? Instant.MAX : Instant.ofEpochMilli(toEpochMillis(fileTime));
+  }
+
+  @Override
+  public Instant decodeStringValue(String value) {
+    return value == null || value.isEmpty()
+        ? null
+        : decodeBinaryValue(value.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Override
+  public String encodeStringValue(Instant value) {
+    if (value == null) {
+      return null;
+    }
+    return Instant.MAX.equals(value)
+        ? String.valueOf(NEVER)
+        : String.valueOf(toFileTime(value.toEpochMilli()));
+  }
+
+  @Override
+  public Class<Instant> getType() {
+    return Instant.class;
+  }
+}
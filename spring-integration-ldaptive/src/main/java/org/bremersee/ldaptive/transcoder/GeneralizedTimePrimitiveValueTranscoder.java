@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import lombok.ToString;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.transcode.AbstractStringValueTranscoder;
+
+/**
+ * The generalized time value transcoder decodes the ascii encoded value directly into the
+ * milliseconds since the epoch (see {@link #decodeEpochMillis(byte[], long)}) without creating a
+ * string or a date object. The boxed type is {@link Instant}.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class GeneralizedTimePrimitiveValueTranscoder
+    extends AbstractStringValueTranscoder<Instant> {
+
+  private static final DateTimeFormatter FORMATTER = DateTimeFormatter
+      .ofPattern("yyyyMMddHHmmss.SSS'Z'")
+      .withZone(ZoneOffset.UTC);
+
+  /**
+   * Decodes the first value of the attribute.
+   *
+   * @param attribute the attribute (can be null)
+   * @param defaultValue the default value, that is returned, if there is no value
+   * @return the milliseconds since the epoch
+   */
+  public long decodeEpochMillis(LdapAttribute attribute, long defaultValue) {
+    return decodeEpochMillis(
+        attribute != null ? attribute.getBinaryValue() : null,
+        defaultValue);
+  }
+
+  /**
+   * Decodes the value.
+   *
+   * @param value the ascii encoded generalized time (can be null)
+   * @param defaultValue the default value, that is returned, if the value is null or empty
+   * @return the milliseconds since the epoch
+   * @throws IllegalArgumentException if the value is not a valid generalized time
+   */
+  public long decodeEpochMillis(byte[] value, long defaultValue) {
+    return AsciiValues.isEmpty(value) ? defaultValue : AsciiValues.parseGeneralizedTime(value);
+  }
+
+  @Override
+  public Instant decodeBinaryValue(byte[] value) {
+    return AsciiValues.isEmpty(value)
+        ? null
+        : Instant.ofEpochMilli(AsciiValues.parseGeneralizedTime(value));
+  }
+
+  @Override
+  public Instant decodeStringValue(String value) {
+    return value == null || value.isEmpty()
+        ? null
+        : decodeBinaryValue(value.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Override
+  public String encodeStringValue(Instant value) {
+    return value != null ? FORMATTER.format(value) : null;
+  }
+
+  @Override
+  public Class<Instant> getType() {
+    return Instant.class;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import lombok.ToString;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.transcode.AbstractStringValueTranscoder;
+
+/**
+ * The long value transcoder decodes the ascii encoded value directly into a primitive long (see
+ * {@link #decodeLong(byte[], long)}) without creating a string or a boxed long.
+ *
+ * @author Christian Bremer
+ */
+@ToString
+public class LongPrimitiveValueTranscoder extends AbstractStringValueTranscoder<Long> {
+
+  /**
+   * Decodes the first value of the attribute.
+   *
+   * @param attribute the attribute (can be null)
+   * @param defaultValue the default value, that is returned, if there is no value
+   * @return the decoded value
+   */
+  public long decodeLong(LdapAttribute attribute, long defaultValue) {
+    return decodeLong(attribute != null ? attribute.getBinaryValue() : null, defaultValue);
+  }
+
+  /**
+   * Decodes the value.
+   *
+   * @param value the ascii encoded value (can be null)
+   * @param defaultValue the default value, that is returned, if the value is null or empty
+   * @return the decoded value
+   * @throws NumberFormatException if the value is not a valid long
+   */
+  public long decodeLong(byte[] value, long defaultValue) {
+    return AsciiValues.parseLong(value, defaultValue);
+  }
+
+  @Override
+  public Long decodeBinaryValue(byte[] value) {
+    return AsciiValues.isEmpty(value) ? null : decodeLong(value, 0L);
+  }
+
+  @Override
+  public Long decodeStringValue(String value) {
+    return value == null || value.isEmpty() ? null : Long.valueOf(value);
+  }
+
+  @Override
+  public String encodeStringValue(Long value) {
+    return value != null ? value.toString() : null;
+  }
+
+  @Override
+  public Class<Long> getType() {
+    return Long.class;
+  }
+}
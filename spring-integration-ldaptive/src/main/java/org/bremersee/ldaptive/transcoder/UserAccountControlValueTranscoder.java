@@ -37,11 +37,23 @@ public class UserAccountControlValueTranscoder extends AbstractStringValueTransc
    */
   public static final String ATTRIBUTE_NAME = "userAccountControl";
 
+  /**
+   * The name of the constructed attribute in an active directory controller, that contains the
+   * flags {@link #LOCKOUT} and {@link #PASSWORD_EXPIRED} computed by the server. It is only
+   * returned, if it is requested explicitly.
+   */
+  public static final String COMPUTED_ATTRIBUTE_NAME = "msDS-User-Account-Control-Computed";
+
   /**
    * The bit map value of a disabled account.
    */
   public static final int ACCOUNT_DISABLED = 1 << 1;
 
+  /**
+   * The bit map value of a locked account.
+   */
+  public static final int LOCKOUT = 1 << 4;
+
   /**
    * The bit map value of a normal account.
    */
@@ -52,6 +64,11 @@ public class UserAccountControlValueTranscoder extends AbstractStringValueTransc
    */
   public static final int DONT_EXPIRE_PASSWORD = 1 << 16;
 
+  /**
+   * The bit map value of an expired password.
+   */
+  public static final int PASSWORD_EXPIRED = 1 << 23;
+
   /**
    * Gets user account control value.
    *
@@ -107,6 +124,37 @@ public class UserAccountControlValueTranscoder extends AbstractStringValueTransc
         : ((userAccountControlValue & ACCOUNT_DISABLED) != ACCOUNT_DISABLED);
   }
 
+  /**
+   * Determines whether the given flag is set in the user account control value.
+   *
+   * @param userAccountControlValue the user account control value
+   * @param flag the flag, for example {@link #ACCOUNT_DISABLED}
+   * @return {@code true} if the flag is set, otherwise {@code false}
+   */
+  public static boolean isSet(int userAccountControlValue, int flag) {
+    return (userAccountControlValue & flag) == flag;
+  }
+
+  /**
+   * Decodes the ascii encoded user account control value directly from the bytes without creating
+   * a string or a boxed integer. If the value is {@code null} or empty, the value of an enabled
+   * normal account is returned.
+   *
+   * @param value the ascii encoded value (can be {@code null})
+   * @return the user account control value
+   * @throws NumberFormatException if the value is not a valid int
+   */
+  public static int decodeUserAccountControlValue(byte[] value) {
+    return AsciiValues.isEmpty(value)
+        ? getUserAccountControlValue(true, 0)
+        : AsciiValues.parseInt(value, 0);
+  }
+
+  @Override
+  public Integer decodeBinaryValue(byte[] value) {
+    return decodeUserAccountControlValue(value);
+  }
+
   @Override
   public Integer decodeStringValue(String value) {
     return nonNull(value) && !value.isBlank()
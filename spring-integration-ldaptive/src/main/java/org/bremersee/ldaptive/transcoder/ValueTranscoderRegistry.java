@@ -0,0 +1,234 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.transcoder;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.ldaptive.transcode.ByteArrayValueTranscoder;
+import org.ldaptive.transcode.DoubleValueTranscoder;
+import org.ldaptive.transcode.FloatValueTranscoder;
+import org.ldaptive.transcode.GeneralizedTimeValueTranscoder;
+import org.ldaptive.transcode.ShortValueTranscoder;
+import org.ldaptive.transcode.StringValueTranscoder;
+import org.ldaptive.transcode.UUIDValueTranscoder;
+import org.ldaptive.transcode.ValueTranscoder;
+
+/**
+ * A thread-safe registry of value transcoders. The value transcoders are stateless, so one
+ * instance can be shared instead of creating a new one on every call.
+ *
+ * <p>Value transcoders can be looked up by the type of the value, by the syntax of the attribute
+ * (the oid of the attribute type's syntax, an optional length like {@code {128}} is ignored) and
+ * by their class (see {@link #getInstance(Class)}).
+ *
+ * @author Christian Bremer
+ */
+public class ValueTranscoderRegistry {
+
+  /**
+   * The syntax of a boolean.
+   */
+  public static final String BOOLEAN_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.7";
+
+  /**
+   * The syntax of a distinguished name.
+   */
+  public static final String DN_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.12";
+
+  /**
+   * The syntax of a directory string.
+   */
+  public static final String DIRECTORY_STRING_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.15";
+
+  /**
+   * The syntax of a generalized time.
+   */
+  public static final String GENERALIZED_TIME_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.24";
+
+  /**
+   * The syntax of an IA5 string.
+   */
+  public static final String IA5_STRING_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.26";
+
+  /**
+   * The syntax of an integer.
+   */
+  public static final String INTEGER_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.27";
+
+  /**
+   * The syntax of a numeric string.
+   */
+  public static final String NUMERIC_STRING_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.36";
+
+  /**
+   * The syntax of an object identifier.
+   */
+  public static final String OID_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.38";
+
+  /**
+   * The syntax of an octet string.
+   */
+  public static final String OCTET_STRING_SYNTAX = "1.3.6.1.4.1.1466.115.121.1.40";
+
+  /**
+   * The syntax of a large integer of an Active Directory (like {@code pwdLastSet}).
+   */
+  public static final String LARGE_INTEGER_SYNTAX = "1.2.840.113556.1.4.906";
+
+  private static final ValueTranscoderRegistry DEFAULT = createDefault();
+
+  private final Map<Class<?>, ValueTranscoder<?>> byType = new ConcurrentHashMap<>();
+
+  private final Map<String, ValueTranscoder<?>> bySyntax = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, ValueTranscoder<?>> byClass = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the shared default registry. It contains value transcoders for strings, numbers,
+   * booleans, generalized times ({@link Instant} and {@link ZonedDateTime}), uuids and byte
+   * arrays and for the corresponding syntaxes.
+   *
+   * @return the default registry
+   */
+  public static ValueTranscoderRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  private static ValueTranscoderRegistry createDefault() {
+    StringValueTranscoder stringTranscoder = new StringValueTranscoder();
+    LongPrimitiveValueTranscoder longTranscoder = new LongPrimitiveValueTranscoder();
+    BooleanPrimitiveValueTranscoder booleanTranscoder = new BooleanPrimitiveValueTranscoder();
+    GeneralizedTimePrimitiveValueTranscoder timeTranscoder
+        = new GeneralizedTimePrimitiveValueTranscoder();
+    ByteArrayValueTranscoder byteArrayTranscoder = new ByteArrayValueTranscoder();
+    return new ValueTranscoderRegistry()
+        .register(String.class, stringTranscoder)
+        .register(Integer.class, new IntPrimitiveValueTranscoder())
+        .register(Long.class, longTranscoder)
+        .register(Short.class, new ShortValueTranscoder())
+        .register(Double.class, new DoubleValueTranscoder())
+        .register(Float.class, new FloatValueTranscoder())
+        .register(Boolean.class, booleanTranscoder)
+        .register(Instant.class, timeTranscoder)
+        .register(ZonedDateTime.class, new GeneralizedTimeValueTranscoder())
+        .register(UUID.class, new UUIDValueTranscoder())
+        .register(byte[].class, byteArrayTranscoder)
+        .registerSyntax(BOOLEAN_SYNTAX, booleanTranscoder)
+        .registerSyntax(DN_SYNTAX, stringTranscoder)
+        .registerSyntax(DIRECTORY_STRING_SYNTAX, stringTranscoder)
+        .registerSyntax(GENERALIZED_TIME_SYNTAX, timeTranscoder)
+        .registerSyntax(IA5_STRING_SYNTAX, stringTranscoder)
+        .registerSyntax(INTEGER_SYNTAX, longTranscoder)
+        .registerSyntax(NUMERIC_STRING_SYNTAX, stringTranscoder)
+        .registerSyntax(OID_SYNTAX, stringTranscoder)
+        .registerSyntax(OCTET_STRING_SYNTAX, byteArrayTranscoder)
+        .registerSyntax(LARGE_INTEGER_SYNTAX, longTranscoder);
+  }
+
+  /**
+   * Registers the value transcoder for the given type. An existing registration is replaced.
+   *
+   * @param <T> the type of the values
+   * @param type the type of the values
+   * @param valueTranscoder the value transcoder
+   * @return this registry
+   */
+  public <T> ValueTranscoderRegistry register(Class<T> type, ValueTranscoder<T> valueTranscoder) {
+    Objects.requireNonNull(type, "Type is required.");
+    Objects.requireNonNull(valueTranscoder, "Value transcoder is required.");
+    byType.put(type, valueTranscoder);
+    byClass.putIfAbsent(valueTranscoder.getClass(), valueTranscoder);
+    return this;
+  }
+
+  /**
+   * Registers the value transcoder for the given attribute syntax. An existing registration is
+   * replaced.
+   *
+   * @param syntaxOid the oid of the attribute syntax
+   * @param valueTranscoder the value transcoder
+   * @return this registry
+   */
+  public ValueTranscoderRegistry registerSyntax(
+      String syntaxOid,
+      ValueTranscoder<?> valueTranscoder) {
+    Objects.requireNonNull(syntaxOid, "Syntax oid is required.");
+    Objects.requireNonNull(valueTranscoder, "Value transcoder is required.");
+    bySyntax.put(normalizeSyntax(syntaxOid), valueTranscoder);
+    byClass.putIfAbsent(valueTranscoder.getClass(), valueTranscoder);
+    return this;
+  }
+
+  /**
+   * Finds the value transcoder for the given type.
+   *
+   * @param <T> the type of the values
+   * @param type the type of the values
+   * @return the value transcoder
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Optional<ValueTranscoder<T>> findByType(Class<T> type) {
+    return Optional.ofNullable(type)
+        .map(byType::get)
+        .map(valueTranscoder -> (ValueTranscoder<T>) valueTranscoder);
+  }
+
+  /**
+   * Finds the value transcoder for the given attribute syntax.
+   *
+   * @param syntaxOid the oid of the attribute syntax, optionally with a length like
+   *     {@code 1.3.6.1.4.1.1466.115.121.1.15{128}}
+   * @return the value transcoder
+   */
+  public Optional<ValueTranscoder<?>> findBySyntax(String syntaxOid) {
+    return Optional.ofNullable(syntaxOid)
+        .map(ValueTranscoderRegistry::normalizeSyntax)
+        .map(bySyntax::get);
+  }
+
+  /**
+   * Gets the shared instance of the given value transcoder class. If there is no instance yet, it
+   * is created with the no-arg constructor.
+   *
+   * @param <V> the type of the value transcoder
+   * @param valueTranscoderClass the value transcoder class
+   * @return the shared instance
+   * @throws IllegalArgumentException if the value transcoder can't be instantiated
+   */
+  public <V extends ValueTranscoder<?>> V getInstance(Class<V> valueTranscoderClass) {
+    Objects.requireNonNull(valueTranscoderClass, "Value transcoder class is required.");
+    return valueTranscoderClass.cast(byClass.computeIfAbsent(valueTranscoderClass, clazz -> {
+      try {
+        return valueTranscoderClass.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalArgumentException(String.format(
+            "Value transcoder %s can't be instantiated.", clazz.getName()), e);
+      }
+    }));
+  }
+
+  private static String normalizeSyntax(String syntaxOid) {
+    int index = syntaxOid.indexOf('{');
+    return (index < 0 ? syntaxOid : syntaxOid.substring(0, index)).trim();
+  }
+
+}
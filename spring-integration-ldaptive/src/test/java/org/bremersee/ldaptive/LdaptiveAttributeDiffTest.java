@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.ldaptive.AttributeModification;
+import org.ldaptive.AttributeModification.Type;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.transcode.StringValueTranscoder;
+
+/**
+ * The ldaptive attribute diff test.
+ *
+ * @author Christian Bremer
+ */
+class LdaptiveAttributeDiffTest {
+
+  private static final StringValueTranscoder STRING_TRANSCODER = new StringValueTranscoder();
+
+  private static List<byte[]> encode(String... values) {
+    return LdaptiveAttributeDiff.encode(Arrays.asList(values), STRING_TRANSCODER);
+  }
+
+  /**
+   * Encode ignores null and empty values.
+   */
+  @Test
+  void encodeSkipsNullAndEmptyValues() {
+    assertThat(LdaptiveAttributeDiff.encode(Arrays.asList("a", null, "", "b"), STRING_TRANSCODER))
+        .hasSize(2);
+    assertThat(LdaptiveAttributeDiff.encode(null, null))
+        .isEmpty();
+  }
+
+  /**
+   * Has same values.
+   */
+  @Test
+  void hasSameValues() {
+    LdapAttribute attr = new LdapAttribute("member", "a", "b", "c");
+    assertThat(LdaptiveAttributeDiff.hasSameValues(attr, encode("a", "b", "c"), true))
+        .isTrue();
+    assertThat(LdaptiveAttributeDiff.hasSameValues(attr, encode("c", "b", "a"), true))
+        .isFalse();
+    assertThat(LdaptiveAttributeDiff.hasSameValues(attr, encode("c", "b", "a"), false))
+        .isTrue();
+    assertThat(LdaptiveAttributeDiff.hasSameValues(attr, encode("c", "b"), false))
+        .isFalse();
+    assertThat(LdaptiveAttributeDiff.hasSameValues(null, encode(), false))
+        .isTrue();
+  }
+
+  /**
+   * Replace with set semantics doesn't replace values in another order.
+   */
+  @Test
+  void replace() {
+    List<AttributeModification> modifications = new ArrayList<>();
+    LdapEntry entry = new LdapEntry();
+    entry.addAttributes(new LdapAttribute("member", "a", "b", "c"));
+
+    LdaptiveAttributeDiff.replace(
+        entry, "member", encode("c", "a", "b"), false, false, modifications);
+    assertThat(modifications).isEmpty();
+
+    LdaptiveAttributeDiff.replace(
+        entry, "member", encode("c", "a", "b"), false, true, modifications);
+    assertThat(modifications)
+        .extracting(AttributeModification::getOperation)
+        .containsExactly(Type.REPLACE);
+    assertThat(entry.getAttribute("member").getStringValues())
+        .containsExactly("c", "a", "b");
+  }
+
+  /**
+   * Delta emits only the added and deleted values.
+   */
+  @Test
+  void delta() {
+    List<AttributeModification> modifications = new ArrayList<>();
+    LdapEntry entry = new LdapEntry();
+    entry.addAttributes(new LdapAttribute("member", "a", "b", "c"));
+
+    LdaptiveAttributeDiff.delta(entry, "member", encode("b", "c", "d"), false, modifications);
+    assertThat(modifications).hasSize(2);
+    assertThat(modifications.get(0).getOperation()).isEqualTo(Type.DELETE);
+    assertThat(modifications.get(0).getAttribute().getStringValues()).containsExactly("a");
+    assertThat(modifications.get(1).getOperation()).isEqualTo(Type.ADD);
+    assertThat(modifications.get(1).getAttribute().getStringValues()).containsExactly("d");
+    assertThat(entry.getAttribute("member").getStringValues())
+        .containsExactlyInAnyOrder("b", "c", "d");
+    modifications.clear();
+
+    // same values in another order
+    LdaptiveAttributeDiff.delta(entry, "member", encode("d", "c", "b"), false, modifications);
+    assertThat(modifications).isEmpty();
+
+    // no values
+    LdaptiveAttributeDiff.delta(entry, "member", encode(), false, modifications);
+    assertThat(modifications)
+        .extracting(AttributeModification::getOperation)
+        .containsExactly(Type.DELETE);
+    assertThat(entry.getAttribute("member")).isNull();
+    modifications.clear();
+
+    // no attribute
+    LdaptiveAttributeDiff.delta(entry, "member", encode("a"), false, modifications);
+    assertThat(modifications)
+        .extracting(AttributeModification::getOperation)
+        .containsExactly(Type.ADD);
+  }
+
+  /**
+   * Add and remove values.
+   */
+  @Test
+  void addAndRemove() {
+    List<AttributeModification> modifications = new ArrayList<>();
+    LdapEntry entry = new LdapEntry();
+    entry.addAttributes(new LdapAttribute("member", "a", "b"));
+
+    LdaptiveAttributeDiff.add(entry, "member", encode("b", "c"), false, modifications);
+    assertThat(modifications).hasSize(1);
+    assertThat(modifications.get(0).getOperation()).isEqualTo(Type.ADD);
+    assertThat(modifications.get(0).getAttribute().getStringValues()).containsExactly("c");
+    assertThat(entry.getAttribute("member").getStringValues())
+        .containsExactly("a", "b", "c");
+    modifications.clear();
+
+    LdaptiveAttributeDiff.remove(entry, "member", encode("a", "x"), modifications);
+    assertThat(modifications).hasSize(1);
+    assertThat(modifications.get(0).getOperation()).isEqualTo(Type.DELETE);
+    assertThat(modifications.get(0).getAttribute().getStringValues()).containsExactly("a");
+    assertThat(entry.getAttribute("member").getStringValues())
+        .containsExactly("b", "c");
+    modifications.clear();
+
+    LdaptiveAttributeDiff.remove(entry, "member", encode("b", "c"), modifications);
+    assertThat(modifications).hasSize(1);
+    assertThat(entry.getAttribute("member")).isNull();
+  }
+
+  /**
+   * The entry mapper compares sets without order.
+   */
+  @Test
+  void setAttributesWithSet() {
+    List<AttributeModification> modifications = new ArrayList<>();
+    LdapEntry entry = new LdapEntry();
+    entry.addAttributes(new LdapAttribute("member", "a", "b", "c"));
+
+    LdaptiveEntryMapper.setAttributes(
+        entry, "member", new LinkedHashSet<>(List.of("c", "b", "a")), false, STRING_TRANSCODER,
+        modifications);
+    assertThat(modifications).isEmpty();
+
+    LdaptiveEntryMapper.setAttributes(
+        entry, "member", List.of("c", "b", "a"), false, STRING_TRANSCODER, modifications);
+    assertThat(modifications)
+        .extracting(AttributeModification::getOperation)
+        .containsExactly(Type.REPLACE);
+  }
+
+}
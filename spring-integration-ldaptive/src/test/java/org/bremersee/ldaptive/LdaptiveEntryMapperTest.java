@@ -249,8 +249,11 @@ class LdaptiveEntryMapperTest {
         .containsAll(Arrays.asList("anna", "livia")));
     assertEquals(1, modifications.size());
     assertEquals(
-        Type.REPLACE,
+        Type.ADD,
         modifications.get(0).getOperation());
+    assertEquals(
+        List.of("livia"),
+        modifications.get(0).getAttribute().getStringValues());
     modifications.clear();
 
     // add null
@@ -297,8 +300,9 @@ class LdaptiveEntryMapperTest {
     assertTrue(entry.getAttribute("foo").getBinaryValues().contains(castorpBytes));
     assertEquals(1, modifications.size());
     assertEquals(
-        Type.REPLACE,
+        Type.ADD,
         modifications.get(0).getOperation());
+    assertEquals(2, modifications.get(0).getAttribute().size());
     modifications.clear();
   }
 
@@ -326,8 +330,11 @@ class LdaptiveEntryMapperTest {
     assertTrue(entry.getAttribute("foo").getStringValues().contains("livia"));
     assertEquals(1, modifications.size());
     assertEquals(
-        Type.REPLACE,
+        Type.DELETE,
         modifications.get(0).getOperation());
+    assertEquals(
+        List.of("anna"),
+        modifications.get(0).getAttribute().getStringValues());
     modifications.clear();
 
     LdaptiveEntryMapper
@@ -358,8 +365,11 @@ class LdaptiveEntryMapperTest {
     assertTrue(entry.getAttribute("foo").getStringValues().contains("hans"));
     assertEquals(1, modifications.size());
     assertEquals(
-        Type.REPLACE,
+        Type.DELETE,
         modifications.get(0).getOperation());
+    assertTrue(modifications.get(0).getAttribute().getStringValues()
+        .containsAll(Arrays.asList("livia", "castorp")));
+    assertEquals(2, modifications.get(0).getAttribute().size());
   }
 
   /**
@@ -26,9 +26,16 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.exception.ServiceException;
 import org.bremersee.ldaptive.app.Group;
@@ -49,6 +56,7 @@ import org.ldaptive.ModifyRequest;
 import org.ldaptive.SearchRequest;
 import org.ldaptive.SearchScope;
 import org.ldaptive.SimpleBindRequest;
+import org.ldaptive.control.SortKey;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -131,6 +139,72 @@ class LdaptiveTemplateTest {
             .equalsIgnoreCase(entry.getCn())));
   }
 
+  /**
+   * Find existing persons page by page.
+   */
+  @Test
+  void findExistingPersonsPaged() {
+    SearchRequest searchRequest = SearchRequest.builder()
+        .dn("ou=people," + baseDn)
+        .filter("(objectclass=inetOrgPerson)")
+        .scope(SearchScope.ONELEVEL)
+        .build();
+
+    // without mapper
+    Set<String> names;
+    try (Stream<LdapEntry> entries = ldaptiveTemplate.findAllPaged(searchRequest, 1)) {
+      names = entries
+          .map(ldapEntry -> ldapEntry.getAttribute("cn").getStringValue())
+          .collect(Collectors.toSet());
+    }
+    assertTrue(names.containsAll(
+        Set.of("Anna Livia Plurabelle", "Gustav Anias Horn", "Hans Castorp")));
+
+    // with mapper
+    try (Stream<Person> persons = ldaptiveTemplate.findAllPaged(searchRequest, 2, personMapper)) {
+      assertEquals(names.size(), persons.count());
+    }
+
+    // closing a partially consumed stream releases the cookie and the connection
+    try (Stream<LdapEntry> entries = ldaptiveTemplate.findAllPaged(searchRequest, 1)) {
+      assertTrue(entries.findFirst().isPresent());
+    }
+  }
+
+  /**
+   * Find existing persons with the virtual list view.
+   */
+  @Test
+  void findExistingPersonsByVirtualListView() {
+    SearchRequest searchRequest = SearchRequest.builder()
+        .dn("ou=people," + baseDn)
+        .filter("(objectclass=inetOrgPerson)")
+        .scope(SearchScope.ONELEVEL)
+        .build();
+
+    List<String> uids;
+    try (Stream<LdapEntry> entries = ldaptiveTemplate
+        .findAllByVirtualListView(searchRequest, 1, new SortKey("uid"))) {
+      uids = entries
+          .map(ldapEntry -> ldapEntry.getAttribute("uid").getStringValue())
+          .toList();
+    }
+    assertTrue(uids.containsAll(List.of("anna", "gustav", "hans")));
+    assertEquals(uids.stream().sorted(String.CASE_INSENSITIVE_ORDER).toList(), uids);
+
+    // reverse order
+    try (Stream<LdapEntry> entries = ldaptiveTemplate
+        .findAllByVirtualListView(searchRequest, 2, new SortKey("uid", null, true))) {
+      assertEquals(
+          uids.stream().sorted(String.CASE_INSENSITIVE_ORDER.reversed()).toList(),
+          entries.map(ldapEntry -> ldapEntry.getAttribute("uid").getStringValue()).toList());
+    }
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ldaptiveTemplate.findAllByVirtualListView(searchRequest, 1));
+  }
+
   /**
    * Find existing groups.
    */
@@ -444,6 +518,66 @@ class LdaptiveTemplateTest {
     assertFalse(ldaptiveTemplate.exists(p2, personMapper));
   }
 
+  /**
+   * Bulk save and remove persons.
+   */
+  @Test
+  void bulkSaveAndRemovePersons() {
+    List<Person> persons = IntStream.range(0, 10)
+        .mapToObj(i -> {
+          Person person = new Person();
+          person.setCn("Bulk Person " + i);
+          person.setSn("Bulk " + i);
+          person.setUid("bulk" + i);
+          return person;
+        })
+        .toList();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      bulkSaveAndRemovePersons(persons, executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void bulkSaveAndRemovePersons(List<Person> persons, Executor executor) {
+    List<LdaptiveBulkResult<Person>> results = ldaptiveTemplate
+        .bulkSave(persons, personMapper, 2, 4, executor);
+    assertEquals(persons.size(), results.size());
+    for (int i = 0; i < persons.size(); i++) {
+      LdaptiveBulkResult<Person> result = results.get(i);
+      assertTrue(result.isSuccess());
+      assertEquals(LdaptiveBulkResult.Action.ADD, result.getAction());
+      assertEquals(persons.get(i).getUid(), result.getValue().getUid());
+    }
+    assertTrue(ldaptiveTemplate.exists(persons.get(9), personMapper));
+
+    // save again: entries exist
+    persons.get(0).setSn("Changed");
+    results = ldaptiveTemplate.bulkSave(persons, personMapper, 2, 4, executor);
+    assertEquals(LdaptiveBulkResult.Action.MODIFY, results.get(0).getAction());
+    assertTrue(results.stream().allMatch(LdaptiveBulkResult::isSuccess));
+    assertEquals("Changed", ldaptiveTemplate
+        .findOne(SearchRequest.objectScopeSearchRequest(personMapper.mapDn(persons.get(0))),
+            personMapper)
+        .map(Person::getSn)
+        .orElse(null));
+
+    results = ldaptiveTemplate.bulkRemove(persons, personMapper, 2, 4, executor);
+    assertTrue(results.stream().allMatch(LdaptiveBulkResult::isSuccess));
+    assertTrue(results.stream()
+        .allMatch(result -> result.getAction() == LdaptiveBulkResult.Action.DELETE));
+    assertFalse(ldaptiveTemplate.exists(persons.get(0), personMapper));
+    assertFalse(ldaptiveTemplate.exists(persons.get(9), personMapper));
+
+    // remove again: entries don't exist
+    results = ldaptiveTemplate.bulkRemove(persons.subList(0, 1), personMapper, 2, 4, executor);
+    assertEquals(1, results.size());
+    assertFalse(results.get(0).isSuccess());
+    assertEquals(LdaptiveBulkResult.Action.DELETE, results.get(0).getAction());
+  }
+
   /**
    * Modify dn.
    */
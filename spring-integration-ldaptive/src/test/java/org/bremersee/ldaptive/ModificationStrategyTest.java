@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.bremersee.ldaptive.LdaptiveEntryMapper.ModificationStrategy;
+import org.junit.jupiter.api.Test;
+import org.ldaptive.AttributeModification;
+import org.ldaptive.AttributeModification.Type;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.transcode.StringValueTranscoder;
+
+/**
+ * Tests the modifications of the modification strategies for a group, where one member is removed
+ * and one is added.
+ *
+ * @author Christian Bremer
+ */
+class ModificationStrategyTest {
+
+  private static final StringValueTranscoder STRING_TRANSCODER = new StringValueTranscoder();
+
+  private static final String GROUP_DN = "cn=group,ou=groups,dc=bremersee,dc=org";
+
+  private static final int MEMBERS = 5;
+
+  private static String member(int i) {
+    return "uid=member" + i + ",ou=people,dc=bremersee,dc=org";
+  }
+
+  private static LdapEntry createGroupEntry() {
+    LdapEntry entry = new LdapEntry();
+    entry.setDn(GROUP_DN);
+    entry.addAttributes(new LdapAttribute(
+        "uniqueMember",
+        IntStream.range(0, MEMBERS)
+            .mapToObj(ModificationStrategyTest::member)
+            .toArray(String[]::new)));
+    return entry;
+  }
+
+  private static Set<String> createNewMembers() {
+    return IntStream.range(1, MEMBERS + 1)
+        .mapToObj(ModificationStrategyTest::member)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * Replace sends all members with one replace modification.
+   */
+  @Test
+  void replace() {
+    LdapEntry entry = createGroupEntry();
+    List<AttributeModification> modifications = new ArrayList<>();
+    LdaptiveEntryMapper.setAttributes(
+        entry, "uniqueMember", createNewMembers(), false, STRING_TRANSCODER,
+        ModificationStrategy.REPLACE, modifications);
+
+    assertThat(modifications)
+        .hasSize(1)
+        .allSatisfy(modification -> {
+          assertThat(modification.getOperation()).isEqualTo(Type.REPLACE);
+          assertThat(modification.getAttribute().getStringValues())
+              .containsExactlyInAnyOrderElementsOf(createNewMembers());
+        });
+    assertThat(entry.getAttribute("uniqueMember").getStringValues())
+        .containsExactlyInAnyOrderElementsOf(createNewMembers());
+  }
+
+  /**
+   * Delta sends only the removed and the added member.
+   */
+  @Test
+  void delta() {
+    LdapEntry entry = createGroupEntry();
+    List<AttributeModification> modifications = new ArrayList<>();
+    LdaptiveEntryMapper.setAttributes(
+        entry, "uniqueMember", createNewMembers(), false, STRING_TRANSCODER,
+        ModificationStrategy.DELTA, modifications);
+
+    assertThat(modifications)
+        .hasSize(2)
+        .anySatisfy(modification -> {
+          assertThat(modification.getOperation()).isEqualTo(Type.DELETE);
+          assertThat(modification.getAttribute().getStringValues()).containsExactly(member(0));
+        })
+        .anySatisfy(modification -> {
+          assertThat(modification.getOperation()).isEqualTo(Type.ADD);
+          assertThat(modification.getAttribute().getStringValues())
+              .containsExactly(member(MEMBERS));
+        });
+    assertThat(entry.getAttribute("uniqueMember").getStringValues())
+        .containsExactlyInAnyOrderElementsOf(createNewMembers());
+  }
+
+  /**
+   * Delta sends nothing, if the members are the same.
+   */
+  @Test
+  void deltaWithoutChanges() {
+    LdapEntry entry = createGroupEntry();
+    List<AttributeModification> modifications = new ArrayList<>();
+    LdaptiveEntryMapper.setAttributes(
+        entry, "uniqueMember", entry.getAttribute("uniqueMember").getStringValues(), false,
+        STRING_TRANSCODER, ModificationStrategy.DELTA, modifications);
+
+    assertThat(modifications)
+        .isEmpty();
+  }
+
+}
@@ -21,11 +21,15 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.time.Duration;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.exception.ServiceException;
 import org.bremersee.ldaptive.app.Group;
@@ -55,6 +59,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.test.util.TestSocketUtils;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 /**
@@ -135,6 +140,40 @@ class ReactiveLdaptiveTemplateTest {
         .verifyComplete();
   }
 
+  /**
+   * Find existing persons page by page.
+   */
+  @Test
+  void findExistingPersonsPaged() {
+    SearchRequest searchRequest = SearchRequest.builder()
+        .dn("ou=people," + baseDn)
+        .filter("(objectclass=inetOrgPerson)")
+        .scope(SearchScope.ONELEVEL)
+        .build();
+
+    Set<String> names = Set.of("Anna Livia Plurabelle", "Gustav Anias Horn", "Hans Castorp");
+    StepVerifier.create(ldaptiveTemplate.findAllPaged(searchRequest, 1), 1)
+        .assertNext(
+            ldapEntry -> assertTrue(names.contains(ldapEntry.getAttribute("cn").getStringValue())))
+        .thenRequest(2)
+        .assertNext(
+            ldapEntry -> assertTrue(names.contains(ldapEntry.getAttribute("cn").getStringValue())))
+        .assertNext(
+            ldapEntry -> assertTrue(names.contains(ldapEntry.getAttribute("cn").getStringValue())))
+        .thenRequest(1)
+        .verifyComplete();
+
+    StepVerifier.create(ldaptiveTemplate.findAllPaged(searchRequest, 2, personMapper))
+        .assertNext(person -> assertTrue(names.contains(person.getCn())))
+        .assertNext(person -> assertTrue(names.contains(person.getCn())))
+        .assertNext(person -> assertTrue(names.contains(person.getCn())))
+        .verifyComplete();
+
+    StepVerifier.create(ldaptiveTemplate.findAllPaged(searchRequest, 1).take(1))
+        .expectNextCount(1)
+        .verifyComplete();
+  }
+
   /**
    * Find existing groups.
    */
@@ -251,6 +290,28 @@ class ReactiveLdaptiveTemplateTest {
         .verifyComplete();
   }
 
+  /**
+   * Bind is deferred until subscription and fails with wrong password.
+   */
+  @Test
+  void bindIsDeferredAndFailsWithWrongPassword() {
+    String dn = "uid=gustav,ou=people," + baseDn;
+    SimpleBindRequest bindRequest = SimpleBindRequest.builder()
+        .dn(dn)
+        .password("wrong")
+        .build();
+
+    ConnectionFactory factory = mock(ConnectionFactory.class);
+    new ReactiveLdaptiveTemplate(factory).bind(bindRequest);
+    verifyNoInteractions(factory);
+
+    ReactiveLdaptiveTemplate template = ldaptiveTemplate.clone();
+    template.setBindTimeout(Duration.ofSeconds(30));
+    StepVerifier.create(template.bind(bindRequest))
+        .expectNext(false)
+        .verifyComplete();
+  }
+
   /**
    * Exists group.
    */
@@ -479,6 +540,42 @@ class ReactiveLdaptiveTemplateTest {
         .verifyComplete();
   }
 
+  /**
+   * Save and remove persons of a flux with bounded concurrency.
+   */
+  @Test
+  void saveAndRemovePersonsWithConcurrency() {
+    List<Person> persons = IntStream.range(0, 6)
+        .mapToObj(i -> {
+          Person person = new Person();
+          person.setCn("Concurrent Person " + i);
+          person.setSn("Concurrent " + i);
+          person.setUid("concurrent" + i);
+          return person;
+        })
+        .toList();
+
+    StepVerifier
+        .create(ldaptiveTemplate.saveAll(Flux.fromIterable(persons), personMapper, 2, true)
+            .map(result -> {
+              assertTrue(result.isSuccess());
+              return result.getValue().getUid();
+            }))
+        .expectNext("concurrent0", "concurrent1", "concurrent2")
+        .expectNext("concurrent3", "concurrent4", "concurrent5")
+        .verifyComplete();
+
+    StepVerifier
+        .create(ldaptiveTemplate.removeAll(Flux.fromIterable(persons), personMapper, 3, false)
+            .filter(LdaptiveBulkResult::isSuccess))
+        .expectNextCount(6L)
+        .verifyComplete();
+
+    StepVerifier.create(ldaptiveTemplate.exists(persons.get(0), personMapper))
+        .expectNext(false)
+        .verifyComplete();
+  }
+
   /**
    * Modify dn.
    */
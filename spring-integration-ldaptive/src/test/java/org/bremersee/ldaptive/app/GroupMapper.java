@@ -82,13 +82,20 @@ public class GroupMapper implements LdaptiveEntryMapper<Group> {
         "uniqueMember", STRING_TRANSCODER));
   }
 
+  @Override
+  public ModificationStrategy getModificationStrategy(String attributeName) {
+    return "uniqueMember".equalsIgnoreCase(attributeName)
+        ? ModificationStrategy.DELTA
+        : ModificationStrategy.REPLACE;
+  }
+
   @Override
   public AttributeModification[] mapAndComputeModifications(Group source, LdapEntry destination) {
     List<AttributeModification> modifications = new ArrayList<>();
     setAttribute(destination, "cn", source.getCn(), false, STRING_TRANSCODER, modifications);
     setAttribute(destination, "ou", source.getOu(), false, STRING_TRANSCODER, modifications);
     setAttributes(destination, "uniqueMember", source.getMembers(), false, STRING_TRANSCODER,
-        modifications);
+        getModificationStrategy("uniqueMember"), modifications);
     return modifications.toArray(new AttributeModification[0]);
   }
 
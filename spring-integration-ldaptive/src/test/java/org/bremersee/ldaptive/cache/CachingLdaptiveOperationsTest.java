@@ -0,0 +1,253 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.ldaptive.app.Person;
+import org.bremersee.ldaptive.app.PersonMapper;
+import org.bremersee.ldaptive.app.TestConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ldaptive.AttributeModification;
+import org.ldaptive.AttributeModification.Type;
+import org.ldaptive.DeleteRequest;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.ModifyDnRequest;
+import org.ldaptive.ModifyRequest;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.util.TestSocketUtils;
+
+/**
+ * The caching ldaptive operations test.
+ *
+ * @author Christian Bremer
+ */
+@SpringBootTest(
+    classes = {TestConfiguration.class},
+    webEnvironment = WebEnvironment.NONE,
+    properties = {
+        "spring.ldap.embedded.base-dn=dc=bremersee,dc=org",
+        "spring.ldap.embedded.credential.username=uid=admin",
+        "spring.ldap.embedded.credential.password=secret",
+        "spring.ldap.embedded.ldif=classpath:schema.ldif",
+        "spring.ldap.embedded.validation.enabled=false"
+    })
+class CachingLdaptiveOperationsTest {
+
+  @Value("${spring.ldap.embedded.base-dn}")
+  private String baseDn;
+
+  @Autowired
+  private LdaptiveTemplate ldaptiveTemplate;
+
+  @Autowired
+  private PersonMapper personMapper;
+
+  private LdaptiveTemplate delegate;
+
+  private CachingLdaptiveOperations cachingOperations;
+
+  /**
+   * Sets embedded ldap port.
+   */
+  @BeforeAll
+  static void setEmbeddedLdapPort() {
+    int embeddedLdapPort = TestSocketUtils.findAvailableTcpPort();
+    System.setProperty("spring.ldap.embedded.port", String.valueOf(embeddedLdapPort));
+  }
+
+  /**
+   * Sets up the caching operations.
+   */
+  @BeforeEach
+  void setUp() {
+    delegate = spy(ldaptiveTemplate.clone());
+    cachingOperations = new CachingLdaptiveOperations(delegate, 100, Duration.ofMinutes(5));
+  }
+
+  /**
+   * Lookups by dn are cached.
+   */
+  @Test
+  void findByDnIsCached() {
+    String dn = "uid=anna,ou=people," + baseDn;
+    assertThat(cachingOperations.exists(dn)).isTrue();
+    assertThat(cachingOperations.exists("UID=Anna, OU=People, DC=Bremersee, DC=Org")).isTrue();
+    Optional<LdapEntry> entry = cachingOperations
+        .findOne(SearchRequest.objectScopeSearchRequest(dn));
+    assertThat(entry)
+        .map(ldapEntry -> ldapEntry.getAttribute("uid").getStringValue())
+        .hasValue("anna");
+    verify(delegate, times(1)).search(any());
+
+    // changing the returned entry doesn't change the cached one
+    entry.get().removeAttribute("uid");
+    assertThat(cachingOperations.findOne(SearchRequest.objectScopeSearchRequest(dn)))
+        .map(ldapEntry -> ldapEntry.getAttribute("uid"))
+        .isPresent();
+
+    // other attributes are another cache entry
+    assertThat(cachingOperations
+        .findOne(SearchRequest.objectScopeSearchRequest(dn, new String[]{"cn", "uid"})))
+        .map(ldapEntry -> ldapEntry.getAttribute("sn"))
+        .isEmpty();
+    verify(delegate, times(2)).search(any());
+
+    // other searches are not cached
+    SearchRequest searchRequest = SearchRequest.builder()
+        .dn("ou=people," + baseDn)
+        .filter("(uid=anna)")
+        .build();
+    cachingOperations.findOne(searchRequest);
+    cachingOperations.findOne(searchRequest);
+    verify(delegate, times(4)).search(any());
+  }
+
+  /**
+   * The response of a lookup, that overlaps a concurrent eviction, is not cached.
+   */
+  @Test
+  void lookupOverlappingAnEvictionIsNotCached() {
+    String dn = "uid=anna,ou=people," + baseDn;
+    doAnswer(invocation -> {
+      Object response = invocation.callRealMethod();
+      cachingOperations.evict(dn);
+      return response;
+    }).when(delegate).search(any());
+    assertThat(cachingOperations.exists(dn)).isTrue();
+    assertThat(cachingOperations.exists(dn)).isTrue();
+    verify(delegate, times(2)).search(any());
+  }
+
+  /**
+   * Add, modify, modify dn and delete evict the cached entries.
+   */
+  @Test
+  void writesEvictCachedEntries() {
+    Person person = new Person();
+    person.setUid("cached");
+    person.setCn("Cached Person");
+    person.setSn("Cached");
+    String dn = personMapper.mapDn(person);
+
+    assertThat(cachingOperations.exists(dn)).isFalse();
+    assertThat(cachingOperations.exists(dn)).isFalse();
+    verify(delegate, times(1)).search(any());
+
+    person = cachingOperations.save(person, personMapper);
+    assertThat(cachingOperations.exists(dn)).isTrue();
+
+    cachingOperations.modify(new ModifyRequest(dn, new AttributeModification(
+        Type.REPLACE, new LdapAttribute("sn", "Changed"))));
+    assertThat(cachingOperations
+        .findOne(SearchRequest.objectScopeSearchRequest(dn), personMapper))
+        .map(Person::getSn)
+        .hasValue("Changed");
+
+    // save of an existing entry uses the cached lookup
+    clearInvocations(delegate);
+    person.setSn("Saved");
+    cachingOperations.save(person, personMapper);
+    verify(delegate, times(0)).search(any());
+    assertThat(cachingOperations
+        .findOne(SearchRequest.objectScopeSearchRequest(dn), personMapper))
+        .map(Person::getSn)
+        .hasValue("Saved");
+
+    String newDn = "uid=cached2,ou=people," + baseDn;
+    assertThat(cachingOperations.exists(newDn)).isFalse();
+    cachingOperations.modifyDn(ModifyDnRequest.builder()
+        .oldDN(dn)
+        .newRDN("uid=cached2")
+        .delete(true)
+        .build());
+    assertThat(cachingOperations.exists(dn)).isFalse();
+    assertThat(cachingOperations.exists(newDn)).isTrue();
+
+    cachingOperations.delete(DeleteRequest.builder().dn(newDn).build());
+    assertThat(cachingOperations.exists(newDn)).isFalse();
+    assertThat(ldaptiveTemplate.exists(newDn)).isFalse();
+  }
+
+  /**
+   * Searches are cached by normalized request and evicted by writes below the base dn.
+   */
+  @Test
+  void searchesAreCached() {
+    cachingOperations.setSearchCache(new LruLdaptiveCache<>(100, Duration.ofMinutes(5)));
+    cachingOperations.setTimeToLives(Map.of("ou=groups," + baseDn, Duration.ZERO));
+
+    SearchRequest searchRequest = SearchRequest.builder()
+        .dn("ou=people," + baseDn)
+        .filter("(&(objectClass=inetOrgPerson)(sn=*))")
+        .scope(SearchScope.ONELEVEL)
+        .build();
+    SearchRequest equalSearchRequest = SearchRequest.builder()
+        .dn("OU=People, " + baseDn.toUpperCase())
+        .filter("(&(SN=*)(objectclass=inetOrgPerson))")
+        .scope(SearchScope.ONELEVEL)
+        .build();
+    assertThat(cachingOperations.findAll(searchRequest)).hasSize(3);
+    assertThat(cachingOperations.findAll(equalSearchRequest)).hasSize(3);
+    verify(delegate, times(1)).search(any());
+
+    // another size limit is another search
+    SearchRequest limitedSearchRequest = SearchRequest.copy(searchRequest);
+    limitedSearchRequest.setSizeLimit(1);
+    cachingOperations.findAll(limitedSearchRequest);
+    verify(delegate, times(2)).search(any());
+
+    // the time to live of the groups is zero
+    SearchRequest groupSearchRequest = SearchRequest.builder()
+        .dn("ou=groups," + baseDn)
+        .filter("(objectClass=*)")
+        .scope(SearchScope.ONELEVEL)
+        .build();
+    cachingOperations.findAll(groupSearchRequest);
+    cachingOperations.findAll(groupSearchRequest);
+    verify(delegate, times(4)).search(any());
+
+    // writes below the base dn evict the search
+    Person person = new Person();
+    person.setUid("searched");
+    person.setCn("Searched Person");
+    person.setSn("Searched");
+    cachingOperations.save(person, personMapper);
+    assertThat(cachingOperations.findAll(searchRequest)).hasSize(4);
+    cachingOperations.remove(person, personMapper);
+    assertThat(cachingOperations.findAll(equalSearchRequest)).hasSize(3);
+  }
+
+}
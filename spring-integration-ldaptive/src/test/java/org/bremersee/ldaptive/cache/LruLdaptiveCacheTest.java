@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The lru ldaptive cache test.
+ *
+ * @author Christian Bremer
+ */
+class LruLdaptiveCacheTest {
+
+  /**
+   * Values expire after their time to live.
+   */
+  @Test
+  void expire() {
+    Instant now = Instant.parse("2024-01-01T00:00:00Z");
+    Clock clock = mock(Clock.class);
+    when(clock.instant()).thenReturn(now);
+    LruLdaptiveCache<String, String> cache = new LruLdaptiveCache<>(
+        10, Duration.ofSeconds(10), clock);
+    cache.put("a", "A");
+    cache.put("b", "B", Duration.ofSeconds(30));
+    cache.put("c", "C", Duration.ZERO);
+    assertThat(cache.get("a")).isEqualTo("A");
+    assertThat(cache.get("b")).isEqualTo("B");
+    assertThat(cache.get("c")).isNull();
+
+    when(clock.instant()).thenReturn(now.plusSeconds(10));
+    assertThat(cache.get("a")).isNull();
+    assertThat(cache.get("b")).isEqualTo("B");
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  /**
+   * The least recently used value is removed, if the maximum size is reached.
+   */
+  @Test
+  void removeLeastRecentlyUsed() {
+    LruLdaptiveCache<String, String> cache = new LruLdaptiveCache<>(2, Duration.ofMinutes(1));
+    cache.put("a", "A");
+    cache.put("b", "B");
+    assertThat(cache.get("a")).isEqualTo("A");
+    cache.put("c", "C");
+    assertThat(cache.get("a")).isEqualTo("A");
+    assertThat(cache.get("b")).isNull();
+    assertThat(cache.get("c")).isEqualTo("C");
+  }
+
+  /**
+   * Evict.
+   */
+  @Test
+  void evict() {
+    LruLdaptiveCache<String, String> cache = new LruLdaptiveCache<>(10, Duration.ofMinutes(1));
+    cache.put("a", "A");
+    cache.put("ab", "AB");
+    cache.put("b", "B");
+    cache.evict("b");
+    assertThat(cache.get("b")).isNull();
+    cache.evictIf(key -> key.startsWith("a"));
+    assertThat(cache.size()).isZero();
+    cache.put("a", "A");
+    cache.clear();
+    assertThat(cache.get("a")).isNull();
+  }
+
+  /**
+   * Invalid max size.
+   */
+  @Test
+  void invalidMaxSize() {
+    assertThatThrownBy(() -> new LruLdaptiveCache<>(0, Duration.ofMinutes(1)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+}
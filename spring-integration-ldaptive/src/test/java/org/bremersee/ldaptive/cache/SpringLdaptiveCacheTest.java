@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * The spring ldaptive cache test.
+ *
+ * @author Christian Bremer
+ */
+class SpringLdaptiveCacheTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+  /**
+   * Values expire after their time to live.
+   */
+  @Test
+  void expire() {
+    Clock clock = mock(Clock.class);
+    when(clock.instant()).thenReturn(NOW);
+    SpringLdaptiveCache<String, String> cache = new SpringLdaptiveCache<>(
+        new ConcurrentMapCache("test"), Duration.ofSeconds(10), clock);
+    cache.put("a", "A");
+    cache.put("b", "B", Duration.ofSeconds(30));
+    cache.put("c", "C", Duration.ZERO);
+    assertThat(cache.get("a")).isEqualTo("A");
+    assertThat(cache.get("b")).isEqualTo("B");
+    assertThat(cache.get("c")).isNull();
+
+    when(clock.instant()).thenReturn(NOW.plusSeconds(10));
+    assertThat(cache.get("a")).isNull();
+    assertThat(cache.get("b")).isEqualTo("B");
+    assertThat(cache.getTrackedKeys()).isEqualTo(1);
+  }
+
+  /**
+   * Evict if.
+   */
+  @Test
+  void evictIf() {
+    ConcurrentMapCache nativeCache = new ConcurrentMapCache("test");
+    SpringLdaptiveCache<String, String> cache = new SpringLdaptiveCache<>(
+        nativeCache, Duration.ofMinutes(1), Clock.systemUTC());
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.put("c", "C");
+    nativeCache.evict("c");
+    cache.evictIf(key -> key.equals("a"));
+    assertThat(cache.get("a")).isNull();
+    assertThat(cache.get("b")).isEqualTo("B");
+    assertThat(cache.getTrackedKeys()).isEqualTo(1);
+  }
+
+  /**
+   * The keys of expired and dropped values are purged, if the number of tracked keys has doubled.
+   */
+  @Test
+  void purge() {
+    Clock clock = mock(Clock.class);
+    when(clock.instant()).thenReturn(NOW);
+    ConcurrentMapCache nativeCache = new ConcurrentMapCache("test");
+    SpringLdaptiveCache<Integer, String> cache = new SpringLdaptiveCache<>(
+        nativeCache, Duration.ofSeconds(10), clock);
+    int threshold = SpringLdaptiveCache.MIN_PURGE_THRESHOLD;
+    for (int i = 0; i < threshold; i++) {
+      cache.put(i, "value" + i, i % 2 == 0 ? Duration.ofSeconds(5) : Duration.ofSeconds(30));
+    }
+    nativeCache.evict(1);
+    assertThat(cache.getTrackedKeys()).isEqualTo(threshold);
+
+    when(clock.instant()).thenReturn(NOW.plusSeconds(5));
+    cache.put(threshold, "last");
+    assertThat(cache.getTrackedKeys()).isEqualTo(threshold / 2);
+    assertThat(nativeCache.getNativeCache()).hasSize(threshold / 2);
+    assertThat(cache.get(3)).isEqualTo("value3");
+    assertThat(cache.get(threshold)).isEqualTo("last");
+  }
+
+}
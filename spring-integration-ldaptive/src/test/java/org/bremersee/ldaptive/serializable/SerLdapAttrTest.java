@@ -7,6 +7,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -222,4 +223,44 @@ class SerLdapAttrTest {
           .isEqualTo(expected);
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Test many values.
+   */
+  @Test
+  void testManyValues() {
+    String[] values = IntStream.range(0, 10000)
+        .mapToObj(i -> "cn=group" + i + ",ou=groups,dc=bremersee,dc=org")
+        .toArray(String[]::new);
+    SerLdapAttr ldapAttr = new SerLdapAttr(new LdapAttribute("memberOf", values));
+    assertThat(ldapAttr.hasValue("cn=group9999,ou=groups,dc=bremersee,dc=org"))
+        .isTrue();
+    assertThat(ldapAttr.hasValue("cn=group10000,ou=groups,dc=bremersee,dc=org"))
+        .isFalse();
+    assertThat(ldapAttr.getStringValues())
+        .containsExactly(values)
+        .isSameAs(ldapAttr.getStringValues());
+
+    String[] reversed = IntStream.range(0, values.length)
+        .mapToObj(i -> values[values.length - 1 - i])
+        .toArray(String[]::new);
+    SerLdapAttr reversedAttr = new SerLdapAttr(new LdapAttribute("MEMBEROF", reversed));
+    assertThat(reversedAttr)
+        .isEqualTo(ldapAttr)
+        .hasSameHashCodeAs(ldapAttr);
+  }
+
+  /**
+   * Binary values are copies.
+   */
+  @Test
+  void binaryValuesAreCopies() {
+    SerLdapAttr ldapAttr = createSerLdapAttr(false);
+    ldapAttr.getBinaryValue()[0] = 'x';
+    ldapAttr.getBinaryValues().iterator().next()[0] = 'x';
+    assertThat(ldapAttr.hasValue("test"))
+        .isTrue();
+    assertThat(ldapAttr.getStringValue())
+        .isEqualTo("test");
+  }
+}
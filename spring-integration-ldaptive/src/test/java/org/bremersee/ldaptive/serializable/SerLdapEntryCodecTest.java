@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.ldaptive.serializable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+
+/**
+ * The serializable ldap entry codec test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith({SoftAssertionsExtension.class})
+class SerLdapEntryCodecTest {
+
+  private static SerLdapEntry createEntry() {
+    LdapEntry ldapEntry = new LdapEntry();
+    ldapEntry.setDn("uid=anna,ou=people,dc=bremersee,dc=org");
+    ldapEntry.addAttributes(
+        new LdapAttribute("uid", "anna"),
+        new LdapAttribute("cn", "Anna Livia Plurabelle"),
+        new LdapAttribute("mail", "anna@example.org", "livia@example.org"),
+        new LdapAttribute("customAttribute", "Grüße"),
+        new LdapAttribute("jpegPhoto", new byte[]{0, 1, 2, -1}),
+        new LdapAttribute("emptyAttribute"));
+    return new SerLdapEntry(ldapEntry);
+  }
+
+  /**
+   * Encode and decode.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void encodeAndDecode(SoftAssertions softly) {
+    SerLdapEntryCodec target = new SerLdapEntryCodec();
+    SerLdapEntry expected = createEntry();
+    SerLdapEntry actual = target.decode(target.encode(expected));
+    softly
+        .assertThat(actual)
+        .isEqualTo(expected);
+    softly
+        .assertThat(actual.getAttributes().get("customAttribute").getStringValue())
+        .isEqualTo("Grüße");
+    softly
+        .assertThat(actual.getAttributes().get("jpegPhoto").isBinary())
+        .isTrue();
+    softly
+        .assertThat(actual.getAttributes().get("jpegPhoto").getBinaryValue())
+        .containsExactly(0, 1, 2, -1);
+    softly
+        .assertThat(actual.getAttributes().get("emptyAttribute").size())
+        .isZero();
+
+    SerLdapEntry empty = new SerLdapEntry(null);
+    softly
+        .assertThat(target.decode(target.encode(empty)))
+        .isEqualTo(empty);
+  }
+
+  /**
+   * Encode with whitelist.
+   */
+  @Test
+  void encodeWithWhitelist() {
+    SerLdapEntryCodec target = new SerLdapEntryCodec(List.of("UID", "mail"));
+    SerLdapEntry actual = target.decode(target.encode(createEntry()));
+    assertThat(actual.getAttributes())
+        .containsOnlyKeys("uid", "mail");
+  }
+
+  /**
+   * Decode invalid bytes.
+   */
+  @Test
+  void decodeInvalid() {
+    SerLdapEntryCodec target = new SerLdapEntryCodec();
+    assertThatThrownBy(() -> target.decode(new byte[]{99}))
+        .isInstanceOf(IllegalArgumentException.class);
+    byte[] bytes = target.encode(createEntry());
+    byte[] truncated = new byte[bytes.length - 1];
+    System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+    assertThatThrownBy(() -> target.decode(truncated))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /**
+   * Encode is smaller than the default java serialization of the fields.
+   *
+   * @throws IOException if serialization fails
+   */
+  @Test
+  void encodeIsSmallerThanDefaultSerialization() throws IOException {
+    SerLdapEntry entry = createEntry();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new Object[]{entry.getDn(), new HashMap<>(entry.getAttributes())});
+    }
+    assertThat(new SerLdapEntryCodec().encode(entry))
+        .hasSizeLessThan(bytes.size());
+  }
+
+  /**
+   * Encode and decode large value.
+   */
+  @Test
+  void encodeAndDecodeLargeValue() {
+    byte[] photo = new byte[100000];
+    Arrays.fill(photo, (byte) 7);
+    LdapEntry ldapEntry = new LdapEntry();
+    ldapEntry.setDn("uid=anna,ou=people,dc=bremersee,dc=org");
+    ldapEntry.addAttributes(new LdapAttribute("jpegPhoto", photo));
+    SerLdapEntryCodec target = new SerLdapEntryCodec();
+    SerLdapEntry actual = target.decode(target.encode(new SerLdapEntry(ldapEntry)));
+    assertThat(actual.getAttributes().get("jpegPhoto").getBinaryValue())
+        .isEqualTo(photo);
+  }
+
+  /**
+   * Decode with counts and lengths, that exceed the input.
+   */
+  @Test
+  void decodeWithCountsAndLengthsExceedingInput() {
+    SerLdapEntryCodec target = new SerLdapEntryCodec();
+    // version 1, no dn, Integer.MAX_VALUE attributes
+    assertThatThrownBy(() -> target.decode(new byte[]{1, 0, -1, -1, -1, -1, 7}))
+        .isInstanceOf(IllegalArgumentException.class);
+    // version 1, no dn, one attribute 'cn', not binary, Integer.MAX_VALUE values
+    assertThatThrownBy(() -> target.decode(new byte[]{1, 0, 1, 2, 0, -1, -1, -1, -1, 7}))
+        .isInstanceOf(IllegalArgumentException.class);
+    // version 1, no dn, one attribute 'cn', not binary, one value of Integer.MAX_VALUE bytes
+    assertThatThrownBy(() -> target.decode(new byte[]{1, 0, 1, 2, 0, 1, -1, -1, -1, -1, 7}))
+        .isInstanceOf(IllegalArgumentException.class);
+    // version 1, dn of Integer.MAX_VALUE bytes
+    assertThatThrownBy(() -> target.decode(new byte[]{1, -1, -1, -1, -1, 7}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+}
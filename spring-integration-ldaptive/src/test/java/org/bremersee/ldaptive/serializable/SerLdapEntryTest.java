@@ -1,5 +1,10 @@
 package org.bremersee.ldaptive.serializable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
 import java.util.Map;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -7,6 +12,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
+import org.ldaptive.transcode.AbstractStringValueTranscoder;
+import org.ldaptive.transcode.IntegerValueTranscoder;
 
 /**
  * The serializable ldap entry test.
@@ -76,4 +83,156 @@ class SerLdapEntryTest {
         .containsAllEntriesOf(Map.of("say", new SerLdapAttr(la0)));
   }
 
-}
\ No newline at end of file
+  /**
+   * Gets retained attributes.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void getRetainedAttributes(SoftAssertions softly) {
+    LdapEntry le0 = new LdapEntry();
+    le0.setDn("dc=junit");
+    le0.addAttributes(
+        new LdapAttribute("memberOf", "cn=admins,dc=junit"),
+        new LdapAttribute("thumbnailPhoto", new byte[]{1, 2, 3}));
+    softly
+        .assertThat(new SerLdapEntry(le0, List.of("MEMBEROF")).getAttributes())
+        .containsOnlyKeys("memberOf");
+    softly
+        .assertThat(new SerLdapEntry(le0, List.of()).getAttributes())
+        .containsOnlyKeys("memberOf", "thumbnailPhoto");
+  }
+
+  /**
+   * Find attribute.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void findAttribute(SoftAssertions softly) {
+    LdapEntry le0 = new LdapEntry();
+    le0.setDn("uid=anna,dc=junit");
+    le0.addAttributes(
+        new LdapAttribute("memberOf", "cn=admins,dc=junit", "cn=users,dc=junit"),
+        new LdapAttribute("2.5.4.3", "Anna"),
+        new LdapAttribute("employeeNumber", "42"));
+    SerLdapEntry e0 = new SerLdapEntry(le0);
+    softly
+        .assertThat(e0.findAttribute("memberof"))
+        .contains(e0.getAttributes().get("memberOf"));
+    softly
+        .assertThat(e0.findAttribute("1.2.840.113556.1.2.102"))
+        .contains(e0.getAttributes().get("memberOf"));
+    softly
+        .assertThat(e0.findStringValue("CN"))
+        .contains("Anna");
+    softly
+        .assertThat(e0.findAttribute("sn"))
+        .isEmpty();
+    softly
+        .assertThat(e0.hasValue("MEMBEROF", "cn=users,dc=junit"))
+        .isTrue();
+    softly
+        .assertThat(e0.hasValue("sn", "Anna"))
+        .isFalse();
+    softly
+        .assertThat(e0.getStringValues("memberOf"))
+        .containsExactly("cn=admins,dc=junit", "cn=users,dc=junit");
+    softly
+        .assertThat(e0.getStringValues("sn"))
+        .isEmpty();
+  }
+
+  /**
+   * Find value.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void findValue(SoftAssertions softly) {
+    LdapEntry le0 = new LdapEntry();
+    le0.setDn("uid=anna,dc=junit");
+    le0.addAttributes(new LdapAttribute("employeeNumber", "42", "43"));
+    SerLdapEntry e0 = new SerLdapEntry(le0);
+    IntegerValueTranscoder transcoder = new IntegerValueTranscoder();
+    softly
+        .assertThat(e0.findValue("employeenumber", transcoder))
+        .contains(42);
+    softly
+        .assertThat(e0.getValues("employeeNumber", transcoder))
+        .containsExactly(42, 43)
+        .isSameAs(e0.getValues("EMPLOYEENUMBER", transcoder));
+    softly
+        .assertThat(e0.getValues("employeeNumber", new OffsetTranscoder(100)))
+        .containsExactly(142, 143);
+    softly
+        .assertThat(e0.getValues("employeeNumber", new OffsetTranscoder(200)))
+        .containsExactly(242, 243);
+    softly
+        .assertThat(e0.findValue("sn", transcoder))
+        .isEmpty();
+  }
+
+  /**
+   * A value transcoder with a configuration, that is not part of its class.
+   */
+  private static class OffsetTranscoder extends AbstractStringValueTranscoder<Integer> {
+
+    private final int offset;
+
+    OffsetTranscoder(int offset) {
+      this.offset = offset;
+    }
+
+    @Override
+    public Integer decodeStringValue(String value) {
+      return Integer.parseInt(value) + offset;
+    }
+
+    @Override
+    public String encodeStringValue(Integer value) {
+      return String.valueOf(value - offset);
+    }
+
+    @Override
+    public Class<Integer> getType() {
+      return Integer.class;
+    }
+  }
+
+  /**
+   * Serialize and deserialize.
+   *
+   * @param softly the softly
+   * @throws Exception if serialization fails
+   */
+  @Test
+  void serialize(SoftAssertions softly) throws Exception {
+    LdapEntry le0 = new LdapEntry();
+    le0.setDn("uid=anna,dc=junit");
+    le0.addAttributes(
+        new LdapAttribute("uid", "anna"),
+        new LdapAttribute("jpegPhoto", new byte[]{1, 2, 3}));
+    SerLdapEntry e0 = new SerLdapEntry(le0);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(e0);
+    }
+    Object e1;
+    try (ObjectInputStream in = new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()))) {
+      e1 = in.readObject();
+    }
+    softly
+        .assertThat(e1)
+        .isEqualTo(e0);
+    softly
+        .assertThat(((SerLdapEntry) e1).getAttributes().get("jpegPhoto").isBinary())
+        .isTrue();
+    softly
+        .assertThat(((SerLdapEntry) e1).findStringValue("UID"))
+        .contains("anna");
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.ldaptive.LdapAttribute;
+
+/**
+ * The boolean primitive value transcoder test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith({SoftAssertionsExtension.class})
+class BooleanPrimitiveValueTranscoderTest {
+
+  private static final BooleanPrimitiveValueTranscoder target
+      = new BooleanPrimitiveValueTranscoder();
+
+  /**
+   * Decode boolean.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void decodeBoolean(SoftAssertions softly) {
+    softly
+        .assertThat(target.decodeBoolean("TRUE".getBytes(StandardCharsets.UTF_8), false))
+        .isTrue();
+    softly
+        .assertThat(target.decodeBoolean(new LdapAttribute("pwdReset", "true"), false))
+        .isTrue();
+    softly
+        .assertThat(target.decodeBoolean("FALSE".getBytes(StandardCharsets.UTF_8), true))
+        .isFalse();
+    softly
+        .assertThat(target.decodeBoolean("yes".getBytes(StandardCharsets.UTF_8), true))
+        .isFalse();
+    softly
+        .assertThat(target.decodeBoolean((LdapAttribute) null, true))
+        .isTrue();
+    softly
+        .assertThat(target.decodeBinaryValue(null))
+        .isNull();
+    softly
+        .assertThat(target.decodeStringValue("TRUE"))
+        .isTrue();
+    softly
+        .assertThat(target.encodeStringValue(false))
+        .isEqualTo("FALSE");
+    softly
+        .assertThat(target.getType())
+        .isEqualTo(Boolean.class);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.ad.transcode.FileTimeValueTranscoder;
+
+/**
+ * The file time primitive value transcoder test.
+ *
+ * @author Christian Bremer
+ */
+class FileTimePrimitiveValueTranscoderTest {
+
+  private static final FileTimePrimitiveValueTranscoder target
+      = new FileTimePrimitiveValueTranscoder();
+
+  /**
+   * Decode epoch millis like the file time value transcoder of ldaptive.
+   */
+  @Test
+  void decodeEpochMillis() {
+    String value = "133736000000000000";
+    assertThat(target.decodeEpochMillis(value.getBytes(StandardCharsets.UTF_8), 0L))
+        .isEqualTo(new FileTimeValueTranscoder().decodeStringValue(value)
+            .toInstant()
+            .toEpochMilli());
+    assertThat(target.decodeEpochMillis(
+        String.valueOf(FileTimePrimitiveValueTranscoder.NEVER).getBytes(StandardCharsets.UTF_8),
+        0L))
+        .isEqualTo(Long.MAX_VALUE);
+    assertThat(FileTimePrimitiveValueTranscoder.toEpochMillis(
+        FileTimePrimitiveValueTranscoder.EPOCH_OFFSET))
+        .isZero();
+  }
+
+  /**
+   * Decode file time.
+   */
+  @Test
+  void decodeFileTime() {
+    assertThat(target.decodeFileTime(new LdapAttribute("lockoutTime", "0"), -1L))
+        .isZero();
+    assertThat(target.decodeFileTime((LdapAttribute) null, -1L))
+        .isEqualTo(-1L);
+  }
+
+  /**
+   * Decode and encode.
+   */
+  @Test
+  void decodeAndEncode() {
+    assertThat(target.encodeStringValue(target.decodeStringValue("133736000000000000")))
+        .isEqualTo("133736000000000000");
+    assertThat(target.decodeStringValue(String.valueOf(FileTimePrimitiveValueTranscoder.NEVER)))
+        .isEqualTo(Instant.MAX);
+    assertThat(target.encodeStringValue(Instant.MAX))
+        .isEqualTo(String.valueOf(FileTimePrimitiveValueTranscoder.NEVER));
+    assertThat(target.getType())
+        .isEqualTo(Instant.class);
+  }
+}
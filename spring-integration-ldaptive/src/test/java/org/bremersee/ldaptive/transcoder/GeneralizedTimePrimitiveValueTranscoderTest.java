@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.transcode.GeneralizedTimeValueTranscoder;
+
+/**
+ * The generalized time primitive value transcoder test.
+ *
+ * @author Christian Bremer
+ */
+class GeneralizedTimePrimitiveValueTranscoderTest {
+
+  private static final GeneralizedTimePrimitiveValueTranscoder target
+      = new GeneralizedTimePrimitiveValueTranscoder();
+
+  private static final GeneralizedTimeValueTranscoder reference
+      = new GeneralizedTimeValueTranscoder();
+
+  /**
+   * Decode epoch millis like the generalized time value transcoder of ldaptive.
+   *
+   * @param value the value
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "19700101000000Z",
+      "20240229235959Z",
+      "19000301000000Z",
+      "2024101812Z",
+      "2024101812.5Z",
+      "20241018120000.5Z",
+      "20991231235959,999Z",
+      "202410181230+0200",
+      "20241018123015.123-0130"
+  })
+  void decodeEpochMillis(String value) {
+    assertThat(target.decodeEpochMillis(value.getBytes(StandardCharsets.UTF_8), 0L))
+        .isEqualTo(reference.decodeStringValue(value).toInstant().toEpochMilli());
+  }
+
+  /**
+   * Decode invalid values.
+   *
+   * @param value the value
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"2024", "20241318120000Z", "20241018120000", "20241018120000.Z"})
+  void decodeInvalidValue(String value) {
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> target.decodeEpochMillis(value.getBytes(StandardCharsets.UTF_8), 0L));
+  }
+
+  /**
+   * Decode and encode.
+   */
+  @Test
+  void decodeAndEncode() {
+    Instant instant = Instant.ofEpochMilli(1729252800500L);
+    assertThat(target.encodeStringValue(instant))
+        .isEqualTo("20241018120000.500Z");
+    assertThat(target.decodeStringValue(target.encodeStringValue(instant)))
+        .isEqualTo(instant);
+    assertThat(target.decodeEpochMillis((LdapAttribute) null, -1L))
+        .isEqualTo(-1L);
+    assertThat(target.getType())
+        .isEqualTo(Instant.class);
+  }
+}
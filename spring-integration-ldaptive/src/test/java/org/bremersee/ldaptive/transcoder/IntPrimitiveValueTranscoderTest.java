@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.ldaptive.LdapAttribute;
+
+/**
+ * The int primitive value transcoder test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith({SoftAssertionsExtension.class})
+class IntPrimitiveValueTranscoderTest {
+
+  private static final IntPrimitiveValueTranscoder target = new IntPrimitiveValueTranscoder();
+
+  /**
+   * Decode int.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void decodeInt(SoftAssertions softly) {
+    softly
+        .assertThat(target.decodeInt("66048".getBytes(StandardCharsets.UTF_8), 0))
+        .isEqualTo(66048);
+    softly
+        .assertThat(target.decodeInt("-2147483648".getBytes(StandardCharsets.UTF_8), 0))
+        .isEqualTo(Integer.MIN_VALUE);
+    softly
+        .assertThat(target.decodeInt(new LdapAttribute("uidNumber", "+42"), 0))
+        .isEqualTo(42);
+    softly
+        .assertThat(target.decodeInt((LdapAttribute) null, 7))
+        .isEqualTo(7);
+    softly
+        .assertThat(target.decodeInt(new byte[0], 7))
+        .isEqualTo(7);
+  }
+
+  /**
+   * Decode invalid int.
+   */
+  @Test
+  void decodeInvalidInt() {
+    assertThatExceptionOfType(NumberFormatException.class)
+        .isThrownBy(() -> target.decodeInt("2147483648".getBytes(StandardCharsets.UTF_8), 0));
+    assertThatExceptionOfType(NumberFormatException.class)
+        .isThrownBy(() -> target.decodeInt("12a".getBytes(StandardCharsets.UTF_8), 0));
+    assertThatExceptionOfType(NumberFormatException.class)
+        .isThrownBy(() -> target.decodeInt("-".getBytes(StandardCharsets.UTF_8), 0));
+  }
+
+  /**
+   * Decode and encode boxed values.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void decodeAndEncode(SoftAssertions softly) {
+    softly
+        .assertThat(target.decodeBinaryValue("12".getBytes(StandardCharsets.UTF_8)))
+        .isEqualTo(12);
+    softly
+        .assertThat(target.decodeBinaryValue(null))
+        .isNull();
+    softly
+        .assertThat(target.decodeStringValue("12"))
+        .isEqualTo(12);
+    softly
+        .assertThat(target.encodeStringValue(12))
+        .isEqualTo("12");
+    softly
+        .assertThat(target.getType())
+        .isEqualTo(Integer.class);
+  }
+}
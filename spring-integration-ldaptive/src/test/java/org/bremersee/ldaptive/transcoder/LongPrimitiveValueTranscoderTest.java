@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.ldaptive.LdapAttribute;
+
+/**
+ * The long primitive value transcoder test.
+ *
+ * @author Christian Bremer
+ */
+@ExtendWith({SoftAssertionsExtension.class})
+class LongPrimitiveValueTranscoderTest {
+
+  private static final LongPrimitiveValueTranscoder target = new LongPrimitiveValueTranscoder();
+
+  /**
+   * Decode long.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void decodeLong(SoftAssertions softly) {
+    softly
+        .assertThat(target.decodeLong(
+            "9223372036854775807".getBytes(StandardCharsets.UTF_8), 0L))
+        .isEqualTo(Long.MAX_VALUE);
+    softly
+        .assertThat(target.decodeLong(
+            "-9223372036854775808".getBytes(StandardCharsets.UTF_8), 0L))
+        .isEqualTo(Long.MIN_VALUE);
+    softly
+        .assertThat(target.decodeLong(new LdapAttribute("pwdLastSet", "0"), -1L))
+        .isZero();
+    softly
+        .assertThat(target.decodeLong((LdapAttribute) null, -1L))
+        .isEqualTo(-1L);
+    softly
+        .assertThat(target.decodeBinaryValue("12".getBytes(StandardCharsets.UTF_8)))
+        .isEqualTo(12L);
+    softly
+        .assertThat(target.encodeStringValue(12L))
+        .isEqualTo("12");
+    softly
+        .assertThat(target.getType())
+        .isEqualTo(Long.class);
+  }
+
+  /**
+   * Decode invalid long.
+   */
+  @Test
+  void decodeInvalidLong() {
+    assertThatExceptionOfType(NumberFormatException.class)
+        .isThrownBy(() -> target.decodeLong(
+            "9223372036854775808".getBytes(StandardCharsets.UTF_8), 0L));
+  }
+}
@@ -107,6 +107,33 @@ class UserAccountControlValueTranscoderTest {
         .isEqualTo("66048");
   }
 
+  /**
+   * Decode user account control value from bytes.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void decodeUserAccountControlValue(SoftAssertions softly) {
+    softly
+        .assertThat(UserAccountControlValueTranscoder
+            .decodeUserAccountControlValue("66050".getBytes()))
+        .isEqualTo(66050);
+    softly
+        .assertThat(UserAccountControlValueTranscoder.decodeUserAccountControlValue(null))
+        .isEqualTo(66048);
+    softly
+        .assertThat(new UserAccountControlValueTranscoder().decodeBinaryValue("16".getBytes()))
+        .isEqualTo(16);
+    softly
+        .assertThat(UserAccountControlValueTranscoder
+            .isSet(66050, UserAccountControlValueTranscoder.ACCOUNT_DISABLED))
+        .isTrue();
+    softly
+        .assertThat(UserAccountControlValueTranscoder
+            .isSet(66048, UserAccountControlValueTranscoder.LOCKOUT))
+        .isFalse();
+  }
+
   /**
    * Gets type.
    */
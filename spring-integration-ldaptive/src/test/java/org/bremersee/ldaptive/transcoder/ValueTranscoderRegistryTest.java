@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bremersee.ldaptive.transcoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+import org.ldaptive.transcode.AbstractStringValueTranscoder;
+import org.ldaptive.transcode.GeneralizedTimeValueTranscoder;
+import org.ldaptive.transcode.StringValueTranscoder;
+
+/**
+ * The value transcoder registry test.
+ *
+ * @author Christian Bremer
+ */
+class ValueTranscoderRegistryTest {
+
+  /**
+   * Find by type.
+   */
+  @Test
+  void findByType() {
+    ValueTranscoderRegistry target = ValueTranscoderRegistry.getDefault();
+    assertThat(target.findByType(String.class))
+        .containsInstanceOf(StringValueTranscoder.class);
+    assertThat(target.findByType(Integer.class))
+        .containsInstanceOf(IntPrimitiveValueTranscoder.class);
+    assertThat(target.findByType(Instant.class))
+        .containsInstanceOf(GeneralizedTimePrimitiveValueTranscoder.class);
+    assertThat(target.findByType(ZonedDateTime.class))
+        .containsInstanceOf(GeneralizedTimeValueTranscoder.class);
+    assertThat(target.findByType(Object.class))
+        .isEmpty();
+  }
+
+  /**
+   * Find by syntax.
+   */
+  @Test
+  void findBySyntax() {
+    ValueTranscoderRegistry target = ValueTranscoderRegistry.getDefault();
+    assertThat(target.findBySyntax(ValueTranscoderRegistry.DIRECTORY_STRING_SYNTAX + "{128}"))
+        .containsInstanceOf(StringValueTranscoder.class);
+    assertThat(target.findBySyntax(ValueTranscoderRegistry.LARGE_INTEGER_SYNTAX))
+        .containsInstanceOf(LongPrimitiveValueTranscoder.class);
+    assertThat(target.findBySyntax("1.2.3"))
+        .isEmpty();
+    assertThat(target.findBySyntax(null))
+        .isEmpty();
+  }
+
+  /**
+   * Get instance returns shared instances.
+   */
+  @Test
+  void getInstance() {
+    ValueTranscoderRegistry target = new ValueTranscoderRegistry();
+    UserAccountControlValueTranscoder instance = target
+        .getInstance(UserAccountControlValueTranscoder.class);
+    assertThat(target.getInstance(UserAccountControlValueTranscoder.class))
+        .isSameAs(instance);
+
+    StringValueTranscoder stringTranscoder = new StringValueTranscoder();
+    target.register(String.class, stringTranscoder);
+    assertThat(target.getInstance(StringValueTranscoder.class))
+        .isSameAs(stringTranscoder);
+    assertThat(target.findByType(String.class))
+        .containsSame(stringTranscoder);
+    assertThat(ValueTranscoderRegistry.getDefault().findByType(Integer.class))
+        .containsSame(ValueTranscoderRegistry.getDefault()
+            .getInstance(IntPrimitiveValueTranscoder.class));
+
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> target.getInstance(NotInstantiable.class));
+  }
+
+  private abstract static class NotInstantiable extends AbstractStringValueTranscoder<String> {
+
+  }
+}
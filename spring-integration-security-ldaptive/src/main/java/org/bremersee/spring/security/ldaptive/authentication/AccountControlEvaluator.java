@@ -16,6 +16,8 @@
 
 package org.bremersee.spring.security.ldaptive.authentication;
 
+import java.util.Collection;
+import java.util.List;
 import org.ldaptive.LdapEntry;
 
 /**
@@ -60,4 +62,45 @@ public interface AccountControlEvaluator {
    */
   boolean isEnabled(LdapEntry ldapEntry);
 
+  /**
+   * Gets the names of the attributes, that are evaluated. They are requested, if the attributes of
+   * the user are limited (see {@link LdaptiveAuthenticationProperties#getRetainedAttributes()}).
+   *
+   * @return the names of the evaluated attributes
+   */
+  default Collection<String> getRequiredAttributes() {
+    return List.of();
+  }
+
+  /**
+   * Evaluates all states of the account at once. Implementations can override this to read the
+   * ldap entry only once.
+   *
+   * @param ldapEntry the ldap entry
+   * @return the account control
+   */
+  default AccountControl evaluate(LdapEntry ldapEntry) {
+    return new AccountControl(
+        isAccountNonExpired(ldapEntry),
+        isAccountNonLocked(ldapEntry),
+        isCredentialsNonExpired(ldapEntry),
+        isEnabled(ldapEntry));
+  }
+
+  /**
+   * The evaluated states of an account.
+   *
+   * @param accountNonExpired specifies whether the account is not expired
+   * @param accountNonLocked specifies whether the account is not locked
+   * @param credentialsNonExpired specifies whether the credentials are not expired
+   * @param enabled specifies whether the account is enabled
+   */
+  record AccountControl(
+      boolean accountNonExpired,
+      boolean accountNonLocked,
+      boolean credentialsNonExpired,
+      boolean enabled) {
+
+  }
+
 }
@@ -16,6 +16,9 @@
 
 package org.bremersee.spring.security.ldaptive.authentication;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.bremersee.spring.security.ldaptive.authentication.provider.ActiveDirectoryAccountControlEvaluator;
 import org.bremersee.spring.security.ldaptive.authentication.provider.NoAccountControlEvaluator;
@@ -25,26 +28,46 @@ import org.bremersee.spring.security.ldaptive.authentication.provider.NoAccountC
  *
  * @author Christian Bremer
  */
-public enum AccountControlEvaluatorProperty implements Supplier<AccountControlEvaluator> {
+public enum AccountControlEvaluatorProperty implements Supplier<AccountControlEvaluator>,
+    Function<LdaptiveAuthenticationProperties, AccountControlEvaluator> {
 
   /**
    * The None.
    */
-  NONE(new NoAccountControlEvaluator()),
+  NONE(properties -> new NoAccountControlEvaluator()),
 
   /**
-   * The Active directory.
+   * The Active directory. The lockout duration and the maximum password age of the domain are
+   * taken from the authentication properties.
    */
-  ACTIVE_DIRECTORY(new ActiveDirectoryAccountControlEvaluator());
+  ACTIVE_DIRECTORY(properties -> new ActiveDirectoryAccountControlEvaluator(
+      positiveOrNull(properties.getLockoutDuration()),
+      positiveOrNull(properties.getMaxPasswordAge()),
+      Clock.systemUTC()));
 
-  private final AccountControlEvaluator evaluator;
+  private final Function<LdaptiveAuthenticationProperties, AccountControlEvaluator> evaluatorFn;
 
-  AccountControlEvaluatorProperty(AccountControlEvaluator evaluator) {
-    this.evaluator = evaluator;
+  AccountControlEvaluatorProperty(
+      Function<LdaptiveAuthenticationProperties, AccountControlEvaluator> evaluatorFn) {
+    this.evaluatorFn = evaluatorFn;
   }
 
+  /**
+   * Creates the account control evaluator with the default authentication properties.
+   *
+   * @return the account control evaluator
+   */
   @Override
   public AccountControlEvaluator get() {
-    return evaluator;
+    return apply(new LdaptiveAuthenticationProperties());
+  }
+
+  @Override
+  public AccountControlEvaluator apply(LdaptiveAuthenticationProperties properties) {
+    return evaluatorFn.apply(properties);
+  }
+
+  private static Duration positiveOrNull(Duration duration) {
+    return duration == null || duration.isNegative() || duration.isZero() ? null : duration;
   }
 }
@@ -16,25 +16,36 @@
 
 package org.bremersee.spring.security.ldaptive.authentication;
 
+import static java.util.Objects.nonNull;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.bremersee.ldaptive.LdaptiveException;
 import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.ldaptive.cache.LdaptiveCache;
+import org.bremersee.ldaptive.cache.LruLdaptiveCache;
 import org.bremersee.spring.security.core.EmailToUsernameResolver;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.EmailCacheProperties;
 import org.ldaptive.FilterTemplate;
 import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.ResultCode;
 import org.ldaptive.SearchRequest;
 
 /**
  * The email to username resolver by ldap attribute.
  *
+ * <p>If the email cache is enabled (see {@link LdaptiveAuthenticationProperties#getEmailCache()}),
+ * the resolved usernames are cached. Emails, that cannot be resolved, are cached with a shorter
+ * time to live, so that repeated logins with unknown emails don't cause a search every time.
+ *
  * @author Christian Bremer
  */
 public class EmailToUsernameResolverByLdapAttribute implements EmailToUsernameResolver {
@@ -56,6 +67,13 @@ public class EmailToUsernameResolverByLdapAttribute implements EmailToUsernameRe
   @Getter(AccessLevel.PROTECTED)
   private final LdaptiveTemplate ldaptiveTemplate;
 
+  /**
+   * The cache of the usernames by email; an unresolvable email is cached with an empty username.
+   */
+  private final LdaptiveCache<String, String> cache;
+
+  private final Duration negativeTimeToLive;
+
   /**
    * Instantiates a new Email to username resolver by ldap attribute.
    *
@@ -67,6 +85,15 @@ public class EmailToUsernameResolverByLdapAttribute implements EmailToUsernameRe
       LdaptiveTemplate ldaptiveTemplate) {
     this.properties = properties;
     this.ldaptiveTemplate = ldaptiveTemplate;
+    EmailCacheProperties cacheProperties = properties.getEmailCache();
+    if (nonNull(cacheProperties) && cacheProperties.isEnabled()) {
+      this.cache = new LruLdaptiveCache<>(
+          cacheProperties.getMaxSize(), cacheProperties.getTimeToLive());
+      this.negativeTimeToLive = cacheProperties.getNegativeTimeToLive();
+    } else {
+      this.cache = null;
+      this.negativeTimeToLive = null;
+    }
   }
 
   @Override
@@ -74,7 +101,85 @@ public class EmailToUsernameResolverByLdapAttribute implements EmailToUsernameRe
     return Optional.ofNullable(email)
         .filter(mail -> isValidEmail(mail)
             && areRequiredPropertiesPresent())
-        .flatMap(this::findUsernameByEmail);
+        .flatMap(mail -> {
+          String cached = getCached(mail);
+          if (nonNull(cached)) {
+            return Optional.of(cached).filter(username -> !username.isEmpty());
+          }
+          return findUsernameByEmail(mail);
+        });
+  }
+
+  /**
+   * Finds the cached username of the given email.
+   *
+   * @param email the email
+   * @return the cached username; the email itself, if it is cached as unresolvable; or empty, if
+   *     nothing is cached
+   */
+  public Optional<String> findCachedUsername(String email) {
+    return Optional.ofNullable(email)
+        .map(this::getCached)
+        .map(username -> username.isEmpty() ? email : username);
+  }
+
+  /**
+   * Gets the username from the users, that were found by the given email, and caches it. The
+   * username is only present, if exactly one user was found.
+   *
+   * @param email the email
+   * @param users the found users
+   * @return the username
+   */
+  public Optional<String> getUsername(String email, Collection<LdapEntry> users) {
+    Optional<String> username = Optional.ofNullable(users)
+        .filter(entries -> entries.size() == 1)
+        .map(entries -> entries.iterator().next())
+        .map(ldapEntry -> ldapEntry.getAttribute(getProperties().getUsernameAttribute()))
+        .map(LdapAttribute::getStringValue)
+        .filter(value -> !value.isEmpty());
+    if (nonNull(cache)) {
+      username.ifPresentOrElse(
+          value -> cache.put(email.toLowerCase(Locale.ROOT), value),
+          () -> cacheUnknownEmail(email));
+    }
+    return username;
+  }
+
+  /**
+   * Caches the given email as unresolvable (for example, because it is not unique) with the
+   * negative time to live of the email cache. It does nothing, if the email cache is disabled.
+   *
+   * @param email the email
+   */
+  public void cacheUnknownEmail(String email) {
+    if (nonNull(cache) && nonNull(email)) {
+      cache.put(email.toLowerCase(Locale.ROOT), "", negativeTimeToLive);
+    }
+  }
+
+  /**
+   * Removes the cached username of the given email.
+   *
+   * @param email the email
+   */
+  public void evict(String email) {
+    if (nonNull(cache) && nonNull(email)) {
+      cache.evict(email.toLowerCase(Locale.ROOT));
+    }
+  }
+
+  /**
+   * Removes all cached usernames.
+   */
+  public void clear() {
+    if (nonNull(cache)) {
+      cache.clear();
+    }
+  }
+
+  private String getCached(String email) {
+    return nonNull(cache) ? cache.get(email.toLowerCase(Locale.ROOT)) : null;
   }
 
   /**
@@ -90,28 +195,42 @@ public class EmailToUsernameResolverByLdapAttribute implements EmailToUsernameRe
         && !isEmpty(getProperties().getUsernameAttribute());
   }
 
+  /**
+   * Creates the search request to find the user by email. Only the username attribute is
+   * requested and at most two entries are returned, which is enough to detect, that the email is
+   * not unique.
+   *
+   * @param email the email
+   * @return the search request
+   */
+  protected SearchRequest createSearchRequest(String email) {
+    String filter = String.format("(&(objectClass=%s)(%s={0}))",
+        getProperties().getUserObjectClass(), getProperties().getEmailAttribute());
+    return SearchRequest.builder()
+        .dn(getProperties().getUserBaseDn())
+        .filter(FilterTemplate.builder()
+            .filter(filter)
+            .parameters(email)
+            .build())
+        .scope(getProperties().getUserFindOneSearchScope())
+        .returnAttributes(getProperties().getUsernameAttribute())
+        .sizeLimit(2)
+        .build();
+  }
+
   private Optional<String> findUsernameByEmail(String email) {
     try {
-      String filter = String.format("(&(objectClass=%s)(%s={0}))",
-          getProperties().getUserObjectClass(), getProperties().getEmailAttribute());
-      SearchRequest searchRequest = SearchRequest.builder()
-          .dn(getProperties().getUserBaseDn())
-          .filter(FilterTemplate.builder()
-              .filter(filter)
-              .parameters(email)
-              .build())
-          .scope(getProperties().getUserFindOneSearchScope())
-          .build();
-      return Stream.ofNullable(getLdaptiveTemplate().findAll(searchRequest))
-          .filter(collection -> collection.size() == 1)
-          .flatMap(Collection::stream)
-          .findFirst()
-          .map(ldapEntry -> ldapEntry.getAttribute(getProperties().getUsernameAttribute()))
-          .map(LdapAttribute::getStringValue);
+      return getUsername(email, getLdaptiveTemplate().findAll(createSearchRequest(email)));
 
     } catch (LdaptiveException e) {
+      if (e.getResultCode() == ResultCode.SIZE_LIMIT_EXCEEDED) {
+        // more than two users have this email
+        cacheUnknownEmail(email);
+        return Optional.empty();
+      }
       logger.warn("Resolve username by email '" + email + "' failed.", e);
       return Optional.empty();
     }
   }
+
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import static java.util.Objects.isNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The in-memory store of the failed login attempts. The keys are distributed over stripes, so that
+ * concurrent logins of different users rarely wait for each other; each stripe has its own lock.
+ * The failures of a stripe are kept in a map, that is ordered by the time of the last failure. If
+ * the maximum size of a stripe is reached, the key with the least recent failure of this stripe is
+ * removed, so unique keys (like sprayed usernames) can't grow the store. Expired failures are
+ * removed from the head of the map of a stripe, when a failure is recorded; the maps are never
+ * scanned completely.
+ *
+ * @author Christian Bremer
+ */
+public class InMemoryLdaptiveLoginAttemptStore implements LdaptiveLoginAttemptStore {
+
+  /**
+   * The default number of stripes.
+   */
+  public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+  private final Stripe[] stripes;
+
+  /**
+   * Instantiates a new in-memory login attempt store with the default concurrency level.
+   *
+   * @param maxSize the maximum number of keys
+   */
+  public InMemoryLdaptiveLoginAttemptStore(int maxSize) {
+    this(maxSize, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Instantiates a new in-memory login attempt store. The maximum number of keys is divided
+   * among the stripes (rounded up), so the store holds at most the maximum size plus the number
+   * of stripes minus one keys.
+   *
+   * @param maxSize the maximum number of keys
+   * @param concurrencyLevel the number of stripes (it's reduced to the maximum size, if it's
+   *     greater)
+   */
+  public InMemoryLdaptiveLoginAttemptStore(int maxSize, int concurrencyLevel) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Max size must be greater than zero.");
+    }
+    if (concurrencyLevel <= 0) {
+      throw new IllegalArgumentException("Concurrency level must be greater than zero.");
+    }
+    int size = Math.min(maxSize, concurrencyLevel);
+    int maxStripeSize = (maxSize + size - 1) / size;
+    this.stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe(maxStripeSize);
+    }
+  }
+
+  private Stripe getStripe(String key) {
+    int hash = isNull(key) ? 0 : key.hashCode();
+    return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+  }
+
+  @Override
+  public Failures get(String key) {
+    return getStripe(key).get(key);
+  }
+
+  @Override
+  public Failures recordFailure(String key, Instant now, Duration timeToLive) {
+    return getStripe(key).recordFailure(key, now, timeToLive);
+  }
+
+  @Override
+  public void reset(String key) {
+    getStripe(key).reset(key);
+  }
+
+  /**
+   * Gets the number of keys with failures.
+   *
+   * @return the size
+   */
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  private static final class Stripe {
+
+    private final Map<String, Failures> failures;
+
+    private Stripe(int maxSize) {
+      this.failures = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Failures> eldest) {
+          return size() > maxSize;
+        }
+      };
+    }
+
+    private synchronized Failures get(String key) {
+      return failures.get(key);
+    }
+
+    private synchronized Failures recordFailure(String key, Instant now, Duration timeToLive) {
+      Failures current = failures.remove(key);
+      int count = isNull(current) || current.isExpired(now, timeToLive) ? 1 : current.count() + 1;
+      Failures updated = new Failures(count, now);
+      failures.put(key, updated);
+      removeExpired(now, timeToLive);
+      return updated;
+    }
+
+    private void removeExpired(Instant now, Duration timeToLive) {
+      Iterator<Failures> iterator = failures.values().iterator();
+      while (iterator.hasNext() && iterator.next().isExpired(now, timeToLive)) {
+        iterator.remove();
+      }
+    }
+
+    private synchronized void reset(String key) {
+      failures.remove(key);
+    }
+
+    private synchronized int size() {
+      return failures.size();
+    }
+  }
+
+}
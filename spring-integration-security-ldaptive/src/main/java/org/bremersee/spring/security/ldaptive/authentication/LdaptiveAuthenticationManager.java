@@ -20,17 +20,27 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNullElseGet;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.bremersee.ldaptive.DefaultLdaptiveErrorHandler;
 import org.bremersee.ldaptive.LdaptiveException;
 import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.ldaptive.cache.LdaptiveCache;
+import org.bremersee.ldaptive.cache.LruLdaptiveCache;
 import org.bremersee.spring.security.core.EmailToUsernameResolver;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupCacheProperties;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupFetchStrategy;
 import org.bremersee.spring.security.ldaptive.authentication.provider.NoAccountControlEvaluator;
+import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveGroupGraph;
+import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveGroupMembershipCache;
 import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveRememberMeTokenProvider;
 import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveUserDetails;
 import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveUserDetailsService;
@@ -39,8 +49,11 @@ import org.ldaptive.CompareRequest;
 import org.ldaptive.ConnectionConfig;
 import org.ldaptive.ConnectionFactory;
 import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
 import org.ldaptive.LdapException;
 import org.ldaptive.ResultCode;
+import org.ldaptive.SingleConnectionFactory;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.authentication.AccountExpiredException;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -53,8 +66,11 @@ import org.springframework.security.authentication.RememberMeAuthenticationToken
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.util.Assert;
 
 /**
@@ -82,6 +98,13 @@ public class LdaptiveAuthenticationManager
   @Getter(AccessLevel.PROTECTED)
   private final LdaptiveTemplate applicationLdaptiveTemplate;
 
+  /**
+   * The bind authenticator that verifies the credentials of the user on pooled connections (can be
+   * {@code null}).
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final LdaptiveBindAuthenticator bindAuthenticator;
+
   /**
    * The email to username resolver.
    */
@@ -128,6 +151,55 @@ public class LdaptiveAuthenticationManager
   @Setter
   private Converter<LdaptiveUserDetails, LdaptiveAuthentication> tokenConverter;
 
+  /**
+   * The group membership cache (can be {@code null}).
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final LdaptiveGroupMembershipCache groupMembershipCache;
+
+  /**
+   * The group graph, that is shared by the user details services (can be {@code null}).
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final LdaptiveGroupGraph groupGraph;
+
+  /**
+   * The cache of verified credentials (can be {@code null}).
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final LdaptiveCredentialCache credentialCache;
+
+  /**
+   * The cache of the user details, that are loaded by the remember-me services (can be
+   * {@code null}).
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final LdaptiveCache<String, LdaptiveUserDetails> rememberMeCache;
+
+  /**
+   * The login throttle (can be {@code null}).
+   */
+  @Getter(AccessLevel.PROTECTED)
+  @Setter
+  private LdaptiveLoginThrottle loginThrottle;
+
+  /**
+   * The converter, that gets the client address from the authentication request. The default
+   * returns the remote address of the web authentication details.
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private Converter<Authentication, String> clientAddressResolver = authentication ->
+      authentication.getDetails() instanceof WebAuthenticationDetails details
+          ? details.getRemoteAddress()
+          : null;
+
+  /**
+   * The consumer of the timings of the optimized login (can be {@code null}).
+   */
+  @Getter(AccessLevel.PROTECTED)
+  @Setter
+  private Consumer<LdaptiveLoginTimings> loginTimingsConsumer;
+
   /**
    * Instantiates a new ldaptive authentication manager.
    *
@@ -167,6 +239,17 @@ public class LdaptiveAuthenticationManager
     this.authenticationProperties = authenticationProperties;
     Assert.notNull(getAuthenticationProperties(), "Authentication properties are required.");
 
+    // bindAuthenticator
+    if (bindWithAuthentication()
+        && nonNull(getAuthenticationProperties().getBindPool())
+        && getAuthenticationProperties().getBindPool().isEnabled()) {
+      this.bindAuthenticator = new LdaptiveBindAuthenticator(
+          getApplicationLdaptiveTemplate().getConnectionFactory().getConnectionConfig(),
+          getAuthenticationProperties().getBindPool());
+    } else {
+      this.bindAuthenticator = null;
+    }
+
     // emailToUsernameResolver
     setEmailToUsernameResolver(new EmailToUsernameResolverByLdapAttribute(
         getAuthenticationProperties(), getApplicationLdaptiveTemplate()));
@@ -181,7 +264,53 @@ public class LdaptiveAuthenticationManager
     if (isNull(getAuthenticationProperties().getAccountControlEvaluator())) {
       setAccountControlEvaluator(new NoAccountControlEvaluator());
     } else {
-      setAccountControlEvaluator(getAuthenticationProperties().getAccountControlEvaluator().get());
+      setAccountControlEvaluator(getAuthenticationProperties().getAccountControlEvaluator()
+          .apply(getAuthenticationProperties()));
+    }
+
+    // groupMembershipCache
+    if (GroupFetchStrategy.GROUP_CONTAINS_USERS
+        .equals(getAuthenticationProperties().getGroupFetchStrategy())
+        && nonNull(getAuthenticationProperties().getGroupCache())
+        && getAuthenticationProperties().getGroupCache().isEnabled()) {
+      this.groupMembershipCache = new LdaptiveGroupMembershipCache(
+          getAuthenticationProperties().getGroupCache());
+    } else {
+      this.groupMembershipCache = null;
+    }
+
+    // groupGraph
+    if (GroupFetchStrategy.NESTED_GROUPS
+        .equals(getAuthenticationProperties().getGroupFetchStrategy())) {
+      this.groupGraph = new LdaptiveGroupGraph(requireNonNullElseGet(
+          getAuthenticationProperties().getGroupCache(), GroupCacheProperties::new));
+    } else {
+      this.groupGraph = null;
+    }
+
+    // credentialCache
+    if (nonNull(getAuthenticationProperties().getCredentialCache())
+        && getAuthenticationProperties().getCredentialCache().isEnabled()) {
+      this.credentialCache = new LdaptiveCredentialCache(
+          getAuthenticationProperties().getCredentialCache());
+    } else {
+      this.credentialCache = null;
+    }
+
+    // rememberMeCache
+    if (nonNull(getAuthenticationProperties().getRememberMeCache())
+        && getAuthenticationProperties().getRememberMeCache().isEnabled()) {
+      this.rememberMeCache = new LruLdaptiveCache<>(
+          getAuthenticationProperties().getRememberMeCache().getMaxSize(),
+          getAuthenticationProperties().getRememberMeCache().getTimeToLive());
+    } else {
+      this.rememberMeCache = null;
+    }
+
+    // loginThrottle
+    if (nonNull(getAuthenticationProperties().getLoginThrottle())
+        && getAuthenticationProperties().getLoginThrottle().isEnabled()) {
+      setLoginThrottle(new LdaptiveLoginThrottle(getAuthenticationProperties().getLoginThrottle()));
     }
   }
 
@@ -209,6 +338,18 @@ public class LdaptiveAuthenticationManager
     }
   }
 
+  /**
+   * Sets client address resolver.
+   *
+   * @param clientAddressResolver the client address resolver
+   */
+  public void setClientAddressResolver(
+      Converter<Authentication, String> clientAddressResolver) {
+    if (nonNull(clientAddressResolver)) {
+      this.clientAddressResolver = clientAddressResolver;
+    }
+  }
+
   /**
    * Sets account control evaluator.
    *
@@ -231,6 +372,28 @@ public class LdaptiveAuthenticationManager
               + "bind to authenticate or set a password encoder.",
           getAuthenticationProperties().getPasswordAttribute()));
     }
+    if (nonNull(getGroupMembershipCache())) {
+      Duration refreshInterval = getAuthenticationProperties().getGroupCache()
+          .getRefreshInterval();
+      if (nonNull(refreshInterval) && !refreshInterval.isNegative()
+          && !refreshInterval.isZero()) {
+        getGroupMembershipCache().startRefresher(
+            refreshInterval, () -> getUserDetailsService().findGroupMemberships());
+      }
+    }
+  }
+
+  /**
+   * Closes the pooled bind connections and stops the refresher of the group membership cache, if
+   * there are any.
+   */
+  public void close() {
+    if (nonNull(getBindAuthenticator())) {
+      getBindAuthenticator().close();
+    }
+    if (nonNull(getGroupMembershipCache())) {
+      getGroupMembershipCache().close();
+    }
   }
 
   @Override
@@ -254,22 +417,109 @@ public class LdaptiveAuthenticationManager
       throws AuthenticationException {
     String name = getName(authentication);
     logger.debug("Authenticating user '" + name + "' ...");
-    String username = getEmailToUsernameResolver()
-        .getUsernameByEmail(name)
-        .orElse(name);
     String password = Optional.ofNullable(authentication.getCredentials())
         .map(String::valueOf)
         .orElse(null);
-    LdaptiveTemplate ldaptiveTemplate = getLdapTemplate(username, password);
-    LdaptiveUserDetails userDetails = getUserDetails(ldaptiveTemplate, username);
-    checkPassword(ldaptiveTemplate, userDetails, password);
+    String clientAddress = getClientAddressResolver().convert(authentication);
+    if (nonNull(getLoginThrottle())) {
+      getLoginThrottle().checkAllowed(name, clientAddress);
+    }
+    LdaptiveUserDetails userDetails;
+    try {
+      userDetails = getVerifiedUserDetails(name, password);
+    } catch (BadCredentialsException | UsernameNotFoundException e) {
+      if (nonNull(getLoginThrottle())) {
+        getLoginThrottle().loginFailed(name, clientAddress);
+      }
+      throw e;
+    }
     checkAccountControl(userDetails);
+    if (nonNull(getLoginThrottle())) {
+      getLoginThrottle().loginSucceeded(name);
+    }
     if (nonNull(getTokenConverter())) {
       return getTokenConverter().convert(userDetails);
     }
     return new LdaptiveAuthenticationToken(userDetails);
   }
 
+  /**
+   * Gets the user details and verifies the credentials. If the credential cache is enabled and
+   * contains the credentials, the cached user details are returned without a bind.
+   *
+   * @param name the username or the email
+   * @param password the password
+   * @return the user details
+   */
+  protected LdaptiveUserDetails getVerifiedUserDetails(String name, String password) {
+    Optional<LdaptiveUserDetails> cached = findCachedUserDetails(name, password);
+    if (cached.isPresent()) {
+      logger.debug("Credentials of user '" + name + "' were found in cache.");
+      return cached.get();
+    }
+    LdaptiveUserDetails userDetails;
+    if (getAuthenticationProperties().isOptimizedLogin()) {
+      userDetails = getUserDetailsWithOptimizedLogin(name, password);
+    } else {
+      String username = getEmailToUsernameResolver()
+          .getUsernameByEmail(name)
+          .orElse(name);
+      LdaptiveTemplate ldaptiveTemplate = getLdapTemplate(username, password);
+      userDetails = getUserDetails(ldaptiveTemplate, username);
+      checkPassword(ldaptiveTemplate, userDetails, password);
+    }
+    if (nonNull(getCredentialCache()) && isCacheable(userDetails)) {
+      getCredentialCache().put(name, password, userDetails);
+    }
+    return userDetails;
+  }
+
+  /**
+   * Determines whether the login of the given user can be put into the credential cache. If the
+   * remember-me token is verified, the login is only cached, if a changed password can be
+   * detected by the remember-me token (this requires the pwdLastSet remember-me token provider
+   * and the attribute in the entry of the user); otherwise an old password would be accepted
+   * after a reset until the time to live has expired.
+   *
+   * @param userDetails the user details
+   * @return {@code true}, if the login can be cached, otherwise {@code false}
+   */
+  protected boolean isCacheable(LdaptiveUserDetails userDetails) {
+    return !getAuthenticationProperties().getCredentialCache().isVerifyRememberMeToken()
+        || getUserDetailsService().isPasswordChangeDetectable(userDetails);
+  }
+
+  /**
+   * Finds the cached user details, if the credential cache is enabled and contains the
+   * credentials. If the remember-me token should be verified, it's read from the entry of the user
+   * and the cached login is removed, if the token has changed (because the account control or the
+   * time, the password was set, has changed).
+   *
+   * @param name the username or the email
+   * @param password the password
+   * @return the cached user details or empty
+   */
+  protected Optional<LdaptiveUserDetails> findCachedUserDetails(String name, String password) {
+    if (isNull(getCredentialCache())) {
+      return Optional.empty();
+    }
+    Optional<LdaptiveUserDetails> cached = getCredentialCache().findUserDetails(name, password);
+    if (cached.isEmpty()
+        || !getAuthenticationProperties().getCredentialCache().isVerifyRememberMeToken()) {
+      return cached;
+    }
+    LdaptiveUserDetails userDetails = cached.get();
+    boolean valid = getUserDetailsService().findRememberMeToken(userDetails.getDn())
+        .filter(token -> token.equals(userDetails.getPassword()))
+        .isPresent();
+    if (valid) {
+      return cached;
+    }
+    logger.debug("Remember-me token of cached user '" + name + "' has changed.");
+    getCredentialCache().evict(name);
+    return Optional.empty();
+  }
+
   /**
    * Gets name.
    *
@@ -296,7 +546,8 @@ public class LdaptiveAuthenticationManager
   }
 
   /**
-   * Gets ldap template.
+   * Gets ldap template. If the bind pool is enabled, the credentials are verified with a bind on a
+   * pooled connection and the application ldaptive template is returned.
    *
    * @param username the username
    * @param password the password
@@ -304,12 +555,20 @@ public class LdaptiveAuthenticationManager
    */
   protected LdaptiveTemplate getLdapTemplate(String username, String password) {
     if (bindWithAuthentication()) {
-      if (isNull(password)) {
+      if (isNull(password) || password.isEmpty()) {
         throw new BadCredentialsException("Password is required.");
       }
+      String bindDn = getUsernameToBindDnConverter().convert(username);
+      if (nonNull(getBindAuthenticator())) {
+        try {
+          getBindAuthenticator().authenticate(bindDn, password);
+        } catch (LdaptiveException le) {
+          throw getBindException(le);
+        }
+        return getApplicationLdaptiveTemplate();
+      }
       ConnectionConfig authConfig = ConnectionConfig
           .copy(getApplicationLdaptiveTemplate().getConnectionFactory().getConnectionConfig());
-      String bindDn = getUsernameToBindDnConverter().convert(username);
       authConfig.setConnectionInitializers(BindConnectionInitializer.builder()
           .dn(bindDn)
           .credential(password)
@@ -334,6 +593,202 @@ public class LdaptiveAuthenticationManager
     }
   }
 
+  /**
+   * Gets the user details with the optimized login:
+   * <ul>
+   *   <li>the user is searched by username or email with one search of the application ldaptive
+   *   template,</li>
+   *   <li>the credentials are verified by a bind with the user (on a connection of the bind pool
+   *   or on a single connection, that is bound with the credentials of the user) or by a compare
+   *   of the password attribute,</li>
+   *   <li>the groups are searched (only, if the group fetch strategy requires it) on the single
+   *   connection of the user, if there is one, otherwise with the application ldaptive
+   *   template.</li>
+   * </ul>
+   *
+   * <p>A user, that doesn't exist or whose name is ambiguous, is reported as bad credentials, so
+   * that the usernames can't be enumerated. The timings of the steps are logged and passed to the
+   * login timings consumer, if there is one.
+   *
+   * @param name the username or the email
+   * @param password the password
+   * @return the user details
+   */
+  protected LdaptiveUserDetails getUserDetailsWithOptimizedLogin(String name, String password) {
+    if (isNull(password) || password.isEmpty()) {
+      throw new BadCredentialsException("Password is required.");
+    }
+    long start = System.nanoTime();
+    long[] laps = new long[4];
+    int step = 0;
+    boolean successful = false;
+    LdaptiveTemplate userLdaptiveTemplate = null;
+    try {
+      LdaptiveTemplate ldaptiveTemplate = getApplicationLdaptiveTemplate();
+      laps[step++] = System.nanoTime();
+      LdaptiveUserDetailsService userDetailsService = getUserDetailsService(ldaptiveTemplate);
+      LdapEntry user = findUserByName(ldaptiveTemplate, userDetailsService, name);
+      String username = Optional.ofNullable(getAuthenticationProperties().getUsernameAttribute())
+          .map(user::getAttribute)
+          .map(LdapAttribute::getStringValue)
+          .orElse(name);
+      laps[step++] = System.nanoTime();
+      userLdaptiveTemplate = verifyCredentials(ldaptiveTemplate, user, username, password);
+      if (nonNull(userLdaptiveTemplate)) {
+        userDetailsService = getUserDetailsService(userLdaptiveTemplate);
+      }
+      laps[step++] = System.nanoTime();
+      Collection<? extends GrantedAuthority> authorities = userDetailsService.getAuthorities(user);
+      laps[step++] = System.nanoTime();
+      LdaptiveUserDetails userDetails = userDetailsService
+          .createUserDetails(user, username, authorities);
+      successful = true;
+      return userDetails;
+
+    } catch (LdaptiveException le) {
+      throw getBindException(le);
+
+    } finally {
+      if (nonNull(userLdaptiveTemplate)) {
+        userLdaptiveTemplate.getConnectionFactory().close();
+      }
+      publishLoginTimings(name, successful, start, laps, step);
+    }
+  }
+
+  /**
+   * Creates the ldaptive template of the user for the optimized login. It uses a single
+   * connection, that is bound with the credentials of the user, so opening the connection
+   * verifies the credentials. The connection factory of the template is closed after the login.
+   *
+   * @param bindDn the bind dn of the user
+   * @param password the password
+   * @return the ldaptive template of the user
+   */
+  protected LdaptiveTemplate createUserLdaptiveTemplate(String bindDn, String password) {
+    ConnectionConfig config = ConnectionConfig
+        .copy(getApplicationLdaptiveTemplate().getConnectionFactory().getConnectionConfig());
+    config.setConnectionInitializers(BindConnectionInitializer.builder()
+        .dn(bindDn)
+        .credential(password)
+        .build());
+    SingleConnectionFactory connectionFactory = new SingleConnectionFactory(config);
+    try {
+      connectionFactory.initialize();
+    } catch (LdapException e) {
+      connectionFactory.close();
+      throw new DefaultLdaptiveErrorHandler().map(e);
+    }
+    return new LdaptiveTemplate(connectionFactory);
+  }
+
+  /**
+   * Finds the user by username or email. If the email to username resolver is the default one,
+   * the user is searched with one search, that matches the username or the email. Otherwise, the
+   * username is resolved by the custom resolver before the user is searched. The search by
+   * username or email returns at most two entries.
+   *
+   * @param ldaptiveTemplate the ldaptive template of the login
+   * @param userDetailsService the user details service
+   * @param name the username or the email
+   * @return the ldap entry of the user
+   * @throws BadCredentialsException if the user is not found or the name is ambiguous
+   */
+  protected LdapEntry findUserByName(
+      LdaptiveTemplate ldaptiveTemplate,
+      LdaptiveUserDetailsService userDetailsService,
+      String name) {
+
+    if (getEmailToUsernameResolver() instanceof EmailToUsernameResolverByLdapAttribute resolver
+        && resolver.isValidEmail(name)
+        && resolver.areRequiredPropertiesPresent()) {
+      Collection<LdapEntry> users;
+      try {
+        users = ldaptiveTemplate
+            .findAll(userDetailsService.createFindUserByUsernameOrEmailRequest(name));
+      } catch (LdaptiveException e) {
+        if (e.getResultCode() == ResultCode.SIZE_LIMIT_EXCEEDED) {
+          throw new BadCredentialsException("Password doesn't match.");
+        }
+        throw e;
+      }
+      String usernameAttribute = getAuthenticationProperties().getUsernameAttribute();
+      return users.stream()
+          .filter(user -> users.size() == 1 || Optional.ofNullable(usernameAttribute)
+              .map(user::getAttribute)
+              .map(LdapAttribute::getStringValue)
+              .filter(name::equalsIgnoreCase)
+              .isPresent())
+          .findFirst()
+          .orElseThrow(() -> new BadCredentialsException("Password doesn't match."));
+    }
+    String username = getEmailToUsernameResolver()
+        .getUsernameByEmail(name)
+        .orElse(name);
+    return ldaptiveTemplate.findOne(userDetailsService.createFindUserRequest(username))
+        .orElseThrow(() -> new BadCredentialsException("Password doesn't match."));
+  }
+
+  /**
+   * Verifies the credentials of the user of the optimized login. With a simple bind, the
+   * credentials are verified by a bind on a pooled connection, if the bind pool is enabled, or
+   * otherwise by opening a single connection, that is bound with the credentials of the user, so
+   * that the groups are searched with the identity of the user. With a password attribute, the
+   * password is compared.
+   *
+   * @param ldaptiveTemplate the ldaptive template of the login
+   * @param user the ldap entry of the user
+   * @param username the username
+   * @param password the password
+   * @return the ldaptive template of the user, that must be closed after the login, or
+   *     {@code null}, if the groups are searched with the given ldaptive template
+   */
+  protected LdaptiveTemplate verifyCredentials(
+      LdaptiveTemplate ldaptiveTemplate,
+      LdapEntry user,
+      String username,
+      String password) {
+
+    if (bindWithAuthentication()) {
+      String bindDn = getUsernameToBindDnConverter().convert(username);
+      if (isNull(getBindAuthenticator())) {
+        return createUserLdaptiveTemplate(bindDn, password);
+      }
+      getBindAuthenticator().authenticate(bindDn, password);
+    } else {
+      checkPassword(ldaptiveTemplate, user.getDn(), password);
+    }
+    return null;
+  }
+
+  private void publishLoginTimings(
+      String name,
+      boolean successful,
+      long start,
+      long[] laps,
+      int steps) {
+
+    long end = System.nanoTime();
+    Duration[] durations = new Duration[laps.length];
+    long previous = start;
+    for (int i = 0; i < laps.length; i++) {
+      if (i < steps) {
+        durations[i] = Duration.ofNanos(laps[i] - previous);
+        previous = laps[i];
+      } else {
+        durations[i] = Duration.ZERO;
+      }
+    }
+    LdaptiveLoginTimings timings = new LdaptiveLoginTimings(name, successful,
+        durations[0], durations[1], durations[2], durations[3], Duration.ofNanos(end - start));
+    if (logger.isDebugEnabled()) {
+      logger.debug("Login timings: " + timings);
+    }
+    if (nonNull(getLoginTimingsConsumer())) {
+      getLoginTimingsConsumer().accept(timings);
+    }
+  }
+
   /**
    * Gets user details service.
    *
@@ -355,10 +810,20 @@ public class LdaptiveAuthenticationManager
     userDetailsService.setAccountControlEvaluator(getAccountControlEvaluator());
     userDetailsService.setGrantedAuthoritiesMapper(getGrantedAuthoritiesMapper());
     userDetailsService.setRememberMeTokenProvider(getPasswordProvider());
+    userDetailsService.setGroupMembershipCache(getGroupMembershipCache());
+    userDetailsService.setGroupGraph(getGroupGraph());
+    userDetailsService.setCredentialCache(getCredentialCache());
     return userDetailsService;
   }
 
-  private RuntimeException getBindException(LdaptiveException exception) {
+  /**
+   * Gets bind exception.
+   *
+   * @param exception the ldaptive exception
+   * @return a bad credentials exception, if the credentials are invalid, otherwise the given
+   *     exception
+   */
+  protected RuntimeException getBindException(LdaptiveException exception) {
     BadCredentialsException badCredentials = new BadCredentialsException("Password doesn't match.");
     if (isInvalidCredentialsException(exception.getLdapException())) {
       return badCredentials;
@@ -398,10 +863,25 @@ public class LdaptiveAuthenticationManager
       LdaptiveUserDetails user,
       String password) {
 
+    checkPassword(ldaptiveTemplate, user.getDn(), password);
+  }
+
+  /**
+   * Checks password, if a password attribute is set.
+   *
+   * @param ldaptiveTemplate the ldaptive template
+   * @param dn the dn of the user
+   * @param password the password
+   */
+  protected void checkPassword(
+      LdaptiveTemplate ldaptiveTemplate,
+      String dn,
+      String password) {
+
     if (!bindWithAuthentication()) {
       Assert.notNull(getPasswordEncoder(), "No password encoder is present.");
       boolean matches = ldaptiveTemplate.compare(CompareRequest.builder()
-          .dn(user.getDn())
+          .dn(dn)
           .name(getAuthenticationProperties().getPasswordAttribute())
           .value(getPasswordEncoder().encode(password))
           .build());
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bremersee.ldaptive.DefaultLdaptiveErrorHandler;
+import org.bremersee.ldaptive.LdaptiveErrorHandler;
+import org.bremersee.ldaptive.LdaptiveException;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.BindPoolProperties;
+import org.ldaptive.AnonymousBindRequest;
+import org.ldaptive.BindConnectionInitializer;
+import org.ldaptive.BindRequest;
+import org.ldaptive.BindResponse;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.LdapException;
+import org.ldaptive.PooledConnectionFactory;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SimpleBindRequest;
+import org.ldaptive.pool.BindConnectionPassivator;
+import org.ldaptive.pool.IdlePruneStrategy;
+import org.springframework.util.Assert;
+
+/**
+ * The ldaptive bind authenticator verifies the credentials of a user with a bind on a pooled
+ * connection. Before the connection is returned into the pool, it is re-bound to the application
+ * identity (the bind connection initializer of the application connection configuration) or
+ * anonymously, if there is none.
+ *
+ * @author Christian Bremer
+ */
+public class LdaptiveBindAuthenticator implements AutoCloseable {
+
+  /**
+   * The Logger.
+   */
+  protected final Log logger = LogFactory.getLog(this.getClass());
+
+  /**
+   * The pooled connection factory.
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final PooledConnectionFactory connectionFactory;
+
+  /**
+   * The error handler.
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private LdaptiveErrorHandler errorHandler = new DefaultLdaptiveErrorHandler();
+
+  /**
+   * Instantiates a new ldaptive bind authenticator.
+   *
+   * @param applicationConnectionConfig the connection config of the application
+   * @param properties the bind pool properties
+   */
+  public LdaptiveBindAuthenticator(
+      ConnectionConfig applicationConnectionConfig,
+      BindPoolProperties properties) {
+
+    Assert.notNull(applicationConnectionConfig, "Application connection config is required.");
+    Assert.notNull(properties, "Bind pool properties are required.");
+    ConnectionConfig config = ConnectionConfig.copy(applicationConnectionConfig);
+    if (nonNull(properties.getBindTimeout())) {
+      config.setResponseTimeout(properties.getBindTimeout());
+    }
+    this.connectionFactory = PooledConnectionFactory.builder()
+        .config(config)
+        .min(properties.getMinPoolSize())
+        .max(properties.getMaxPoolSize())
+        .blockWaitTime(properties.getBlockWaitTime())
+        .connectOnCreate(true)
+        .failFastInitialize(false)
+        .passivator(new BindConnectionPassivator(getApplicationBindRequest(config)))
+        .pruneStrategy(
+            new IdlePruneStrategy(properties.getPrunePeriod(), properties.getIdleTime()))
+        .build();
+  }
+
+  /**
+   * Sets error handler.
+   *
+   * @param errorHandler the error handler
+   */
+  public void setErrorHandler(LdaptiveErrorHandler errorHandler) {
+    if (nonNull(errorHandler)) {
+      this.errorHandler = errorHandler;
+    }
+  }
+
+  /**
+   * Gets the bind request of the application identity, that is used to reset a connection before
+   * it is returned into the pool.
+   *
+   * @param config the connection config
+   * @return the bind request of the application identity
+   */
+  protected static BindRequest getApplicationBindRequest(ConnectionConfig config) {
+    return Stream.ofNullable(config.getConnectionInitializers())
+        .flatMap(Arrays::stream)
+        .filter(BindConnectionInitializer.class::isInstance)
+        .map(BindConnectionInitializer.class::cast)
+        .filter(initializer -> nonNull(initializer.getBindDn())
+            && nonNull(initializer.getBindCredential()))
+        .findFirst()
+        .map(initializer -> (BindRequest) new SimpleBindRequest(
+            initializer.getBindDn(),
+            initializer.getBindCredential()))
+        .orElseGet(AnonymousBindRequest::new);
+  }
+
+  /**
+   * Gets the initialized pooled connection factory.
+   *
+   * @return the initialized pooled connection factory
+   */
+  protected PooledConnectionFactory getInitializedConnectionFactory() {
+    if (!connectionFactory.isInitialized()) {
+      synchronized (connectionFactory) {
+        if (!connectionFactory.isInitialized()) {
+          connectionFactory.initialize();
+        }
+      }
+    }
+    return connectionFactory;
+  }
+
+  /**
+   * Verifies the credentials of the user with a bind. An empty password is rejected as invalid
+   * credentials without a bind, because the server would treat it as an unauthenticated bind.
+   *
+   * @param bindDn the bind dn of the user
+   * @param password the password of the user
+   * @throws LdaptiveException if the password is empty or if the bind fails
+   */
+  public void authenticate(String bindDn, String password) {
+    if (isNull(password) || password.isEmpty()) {
+      throw getErrorHandler().map(
+          new LdapException(ResultCode.INVALID_CREDENTIALS, "Password is required."));
+    }
+    logger.debug("Binding '" + bindDn + "' on a pooled connection ...");
+    try (Connection connection = getInitializedConnectionFactory().getConnection()) {
+      BindResponse response = connection
+          .operation(new SimpleBindRequest(bindDn, password))
+          .execute();
+      if (response.isSuccess()) {
+        return;
+      }
+      throw getErrorHandler().map(new LdapException(response));
+
+    } catch (LdapException e) {
+      throw getErrorHandler().map(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (connectionFactory.isInitialized()) {
+      connectionFactory.close();
+    }
+  }
+
+}
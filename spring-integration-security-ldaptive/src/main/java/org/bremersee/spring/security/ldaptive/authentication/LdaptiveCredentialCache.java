@@ -0,0 +1,227 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.bremersee.ldaptive.cache.LdaptiveCache;
+import org.bremersee.ldaptive.cache.LruLdaptiveCache;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.CredentialCacheProperties;
+import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveUserDetails;
+
+/**
+ * The cache of verified credentials. After a successful login, the user details are cached
+ * together with a salted HMAC of the password, so that repeated logins with the same credentials
+ * (like HTTP Basic authentication of api clients) are served from memory without a bind and
+ * without loading the groups. The password itself is never stored.
+ *
+ * <p>The secret of the HMAC is random and lives only in memory. It's replaced after the secret
+ * rotation interval, which invalidates all cached credentials. A cached login is also removed,
+ * if its remember-me token has changed. The authentication managers verify the token before a
+ * cached login is returned, unless this is turned off. Only the pwdLastSet remember-me token
+ * provider (with a configured password last set attribute) detects a changed password; so with
+ * verification, a login is only cached, if the entry of the user has this attribute. Without
+ * verification, every login is cached and a disabled account or an old password is accepted
+ * until the time to live has expired or the user is loaded again.
+ *
+ * @author Christian Bremer
+ */
+public class LdaptiveCredentialCache {
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private static final int SALT_LENGTH = 16;
+
+  private final SecureRandom random = new SecureRandom();
+
+  private final LdaptiveCache<String, Entry> cache;
+
+  private final Duration secretRotationInterval;
+
+  private final Clock clock;
+
+  private volatile Secret secret;
+
+  /**
+   * Instantiates a new credential cache.
+   *
+   * @param properties the credential cache properties
+   */
+  public LdaptiveCredentialCache(CredentialCacheProperties properties) {
+    this(properties, Clock.systemUTC());
+  }
+
+  /**
+   * Instantiates a new credential cache.
+   *
+   * @param properties the credential cache properties
+   * @param clock the clock
+   */
+  public LdaptiveCredentialCache(CredentialCacheProperties properties, Clock clock) {
+    Objects.requireNonNull(properties, "Properties are required.");
+    this.clock = Objects.requireNonNull(clock, "Clock is required.");
+    this.cache = new LruLdaptiveCache<>(properties.getMaxSize(), properties.getTimeToLive(), clock);
+    this.secretRotationInterval = properties.getSecretRotationInterval();
+    this.secret = newSecret();
+  }
+
+  /**
+   * Finds the cached user details of the given login name, if the password matches.
+   *
+   * @param name the username or the email, that is used to log in
+   * @param password the password
+   * @return the user details or empty, if nothing is cached or the password doesn't match
+   */
+  public Optional<LdaptiveUserDetails> findUserDetails(String name, String password) {
+    if (isNull(name) || isNull(password) || password.isEmpty()) {
+      return Optional.empty();
+    }
+    Secret current = getSecret();
+    Entry entry = cache.get(normalize(name));
+    if (isNull(entry) || entry.secret() != current) {
+      return Optional.empty();
+    }
+    byte[] hash = hash(current, entry.salt(), password);
+    return MessageDigest.isEqual(hash, entry.hash())
+        ? Optional.of(entry.userDetails())
+        : Optional.empty();
+  }
+
+  /**
+   * Puts the user details of a successful login into the cache.
+   *
+   * @param name the username or the email, that was used to log in
+   * @param password the password
+   * @param userDetails the user details
+   */
+  public void put(String name, String password, LdaptiveUserDetails userDetails) {
+    if (isNull(name) || isNull(password) || password.isEmpty() || isNull(userDetails)) {
+      return;
+    }
+    Secret current = getSecret();
+    byte[] salt = new byte[SALT_LENGTH];
+    random.nextBytes(salt);
+    byte[] hash = hash(current, salt, password);
+    cache.put(normalize(name), new Entry(current, salt, hash, userDetails));
+  }
+
+  /**
+   * Removes the cached logins of the given user, if its remember-me token has changed. The cached
+   * logins by username and by email are checked.
+   *
+   * @param userDetails the freshly loaded user details
+   */
+  public void evictIfChanged(LdaptiveUserDetails userDetails) {
+    if (isNull(userDetails)) {
+      return;
+    }
+    evictIfChanged(userDetails.getUsername(), userDetails.getPassword());
+    evictIfChanged(userDetails.getEmail(), userDetails.getPassword());
+  }
+
+  private void evictIfChanged(String name, String rememberMeToken) {
+    if (nonNull(name)) {
+      String key = normalize(name);
+      Entry entry = cache.get(key);
+      if (nonNull(entry)
+          && !Objects.equals(entry.userDetails().getPassword(), rememberMeToken)) {
+        cache.evict(key);
+      }
+    }
+  }
+
+  /**
+   * Removes the cached login of the given name.
+   *
+   * @param name the username or the email
+   */
+  public void evict(String name) {
+    if (nonNull(name)) {
+      cache.evict(normalize(name));
+    }
+  }
+
+  /**
+   * Removes all cached logins.
+   */
+  public void clear() {
+    cache.clear();
+  }
+
+  private Secret getSecret() {
+    Secret current = secret;
+    if (nonNull(secretRotationInterval)
+        && !current.createdAt().plus(secretRotationInterval).isAfter(clock.instant())) {
+      synchronized (this) {
+        current = secret;
+        if (!current.createdAt().plus(secretRotationInterval).isAfter(clock.instant())) {
+          current = newSecret();
+          secret = current;
+          cache.clear();
+        }
+      }
+    }
+    return current;
+  }
+
+  private Secret newSecret() {
+    byte[] key = new byte[32];
+    random.nextBytes(key);
+    return new Secret(new SecretKeySpec(key, ALGORITHM), clock.instant());
+  }
+
+  private static byte[] hash(Secret secret, byte[] salt, String password) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(secret.key());
+      mac.update(salt);
+      return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Creating hmac of password failed.", e);
+    }
+  }
+
+  private static String normalize(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  private record Secret(SecretKeySpec key, Instant createdAt) {
+
+  }
+
+  private record Entry(
+      Secret secret,
+      byte[] salt,
+      byte[] hash,
+      LdaptiveUserDetails userDetails) {
+
+  }
+
+}
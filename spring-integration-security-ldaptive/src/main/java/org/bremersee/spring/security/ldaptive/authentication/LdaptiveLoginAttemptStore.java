@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The store of the failed login attempts, that is used by the login throttle. The default
+ * implementation keeps the failures in memory (see {@link InMemoryLdaptiveLoginAttemptStore});
+ * for clustered deployments an implementation with a shared store can be used.
+ *
+ * @author Christian Bremer
+ */
+public interface LdaptiveLoginAttemptStore {
+
+  /**
+   * Gets the failures of the given key.
+   *
+   * @param key the key (the username or the client address)
+   * @return the failures or {@code null}, if there are none
+   */
+  Failures get(String key);
+
+  /**
+   * Records a failed login attempt of the given key. If the last failure is older than the given
+   * time to live, counting starts again.
+   *
+   * @param key the key (the username or the client address)
+   * @param now the time of the failure
+   * @param timeToLive the time to live of the failures
+   * @return the updated failures
+   */
+  Failures recordFailure(String key, Instant now, Duration timeToLive);
+
+  /**
+   * Removes the failures of the given key.
+   *
+   * @param key the key (the username or the client address)
+   */
+  void reset(String key);
+
+  /**
+   * The failed login attempts of a key.
+   *
+   * @param count the number of consecutive failures
+   * @param lastFailure the time of the last failure
+   */
+  record Failures(int count, Instant lastFailure) {
+
+    /**
+     * Determines whether the failures are expired.
+     *
+     * @param now the current time
+     * @param timeToLive the time to live of the failures
+     * @return the boolean
+     */
+    public boolean isExpired(Instant now, Duration timeToLive) {
+      return !lastFailure.plus(timeToLive).isAfter(now);
+    }
+  }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.LoginThrottleProperties;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveLoginAttemptStore.Failures;
+
+/**
+ * The login throttle, that rejects login attempts locally (without any ldap operation) after too
+ * many failures. The failures are counted by username and by client address. After the free
+ * attempts, every further attempt is only allowed after a delay, that doubles with every failure
+ * up to the maximum delay. A successful login resets the failures of the username.
+ *
+ * <p>The numbers of allowed and rejected attempts are counted, so that they can be exported as
+ * metrics.
+ *
+ * @author Christian Bremer
+ */
+public class LdaptiveLoginThrottle {
+
+  private static final String USERNAME_PREFIX = "username:";
+
+  private static final String CLIENT_ADDRESS_PREFIX = "address:";
+
+  private final LoginThrottleProperties properties;
+
+  private final LdaptiveLoginAttemptStore store;
+
+  private final Clock clock;
+
+  private final LongAdder allowedAttempts = new LongAdder();
+
+  private final LongAdder rejectedAttempts = new LongAdder();
+
+  /**
+   * Instantiates a new login throttle with an in-memory store.
+   *
+   * @param properties the login throttle properties
+   */
+  public LdaptiveLoginThrottle(LoginThrottleProperties properties) {
+    this(properties, new InMemoryLdaptiveLoginAttemptStore(properties.getMaxSize()));
+  }
+
+  /**
+   * Instantiates a new login throttle.
+   *
+   * @param properties the login throttle properties
+   * @param store the store of the failed login attempts
+   */
+  public LdaptiveLoginThrottle(
+      LoginThrottleProperties properties,
+      LdaptiveLoginAttemptStore store) {
+    this(properties, store, Clock.systemUTC());
+  }
+
+  /**
+   * Instantiates a new login throttle.
+   *
+   * @param properties the login throttle properties
+   * @param store the store of the failed login attempts
+   * @param clock the clock
+   */
+  public LdaptiveLoginThrottle(
+      LoginThrottleProperties properties,
+      LdaptiveLoginAttemptStore store,
+      Clock clock) {
+    this.properties = Objects.requireNonNull(properties, "Properties are required.");
+    this.store = Objects.requireNonNull(store, "Store is required.");
+    this.clock = Objects.requireNonNull(clock, "Clock is required.");
+  }
+
+  /**
+   * Checks whether a login attempt is allowed.
+   *
+   * @param username the username (or email), that is used to log in
+   * @param clientAddress the client address (can be {@code null})
+   * @throws LdaptiveLoginThrottledException if the login attempt is rejected
+   */
+  public void checkAllowed(String username, String clientAddress) {
+    Instant now = clock.instant();
+    Duration retryAfter = getRetryAfter(
+        getUsernameKey(username), properties.getFreeAttempts(), now);
+    if (nonNull(clientAddress)) {
+      Duration addressRetryAfter = getRetryAfter(
+          getClientAddressKey(clientAddress), properties.getFreeAttemptsPerClientAddress(), now);
+      if (addressRetryAfter.compareTo(retryAfter) > 0) {
+        retryAfter = addressRetryAfter;
+      }
+    }
+    if (!retryAfter.isZero()) {
+      rejectedAttempts.increment();
+      throw new LdaptiveLoginThrottledException(retryAfter);
+    }
+    allowedAttempts.increment();
+  }
+
+  /**
+   * Records a failed login attempt.
+   *
+   * @param username the username (or email), that was used to log in
+   * @param clientAddress the client address (can be {@code null})
+   */
+  public void loginFailed(String username, String clientAddress) {
+    Instant now = clock.instant();
+    store.recordFailure(getUsernameKey(username), now, properties.getFailureTimeToLive());
+    if (nonNull(clientAddress)) {
+      store.recordFailure(
+          getClientAddressKey(clientAddress), now, properties.getFailureTimeToLive());
+    }
+  }
+
+  /**
+   * Resets the failures of the username after a successful login. The failures of the client
+   * address are kept, so that a successful login doesn't open the door for guessing the
+   * passwords of other users.
+   *
+   * @param username the username (or email), that was used to log in
+   */
+  public void loginSucceeded(String username) {
+    store.reset(getUsernameKey(username));
+  }
+
+  /**
+   * Gets the number of allowed login attempts.
+   *
+   * @return the number of allowed login attempts
+   */
+  public long getAllowedAttempts() {
+    return allowedAttempts.sum();
+  }
+
+  /**
+   * Gets the number of rejected login attempts.
+   *
+   * @return the number of rejected login attempts
+   */
+  public long getRejectedAttempts() {
+    return rejectedAttempts.sum();
+  }
+
+  /**
+   * Calculates the delay after the given number of failures.
+   *
+   * @param failures the number of consecutive failures
+   * @param freeAttempts the number of failures, that are allowed without delay
+   * @return the delay
+   */
+  protected Duration getDelay(int failures, int freeAttempts) {
+    int exponent = failures - freeAttempts;
+    if (exponent < 0) {
+      return Duration.ZERO;
+    }
+    Duration maxDelay = properties.getMaxDelay();
+    Duration delay = properties.getInitialDelay();
+    for (int i = 0; i < exponent && delay.compareTo(maxDelay) < 0; i++) {
+      delay = delay.multipliedBy(2L);
+    }
+    return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+  }
+
+  private Duration getRetryAfter(String key, int freeAttempts, Instant now) {
+    Failures failures = store.get(key);
+    if (isNull(failures) || failures.isExpired(now, properties.getFailureTimeToLive())) {
+      return Duration.ZERO;
+    }
+    Instant allowedAt = failures.lastFailure().plus(getDelay(failures.count(), freeAttempts));
+    return allowedAt.isAfter(now) ? Duration.between(now, allowedAt) : Duration.ZERO;
+  }
+
+  private static String getUsernameKey(String username) {
+    return USERNAME_PREFIX + String.valueOf(username).toLowerCase(Locale.ROOT);
+  }
+
+  private static String getClientAddressKey(String clientAddress) {
+    return CLIENT_ADDRESS_PREFIX + clientAddress;
+  }
+
+}
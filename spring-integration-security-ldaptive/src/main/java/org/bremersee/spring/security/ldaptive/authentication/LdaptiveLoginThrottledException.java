@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import java.io.Serial;
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * The exception, that is thrown by the login throttle, if there were too many failed login
+ * attempts.
+ *
+ * @author Christian Bremer
+ */
+public class LdaptiveLoginThrottledException extends AuthenticationException {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The duration, after which the next login attempt is allowed.
+   */
+  @Getter
+  private final Duration retryAfter;
+
+  /**
+   * Instantiates a new ldaptive login throttled exception.
+   *
+   * @param retryAfter the duration, after which the next login attempt is allowed
+   */
+  public LdaptiveLoginThrottledException(Duration retryAfter) {
+    super("Too many failed login attempts.");
+    this.retryAfter = retryAfter;
+  }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import java.time.Duration;
+
+/**
+ * The timings of the steps of an optimized login. A step, that was not executed (because a
+ * previous step failed), has a duration of zero.
+ *
+ * @param name the name (username or email), that was used to log in
+ * @param successful specifies whether the login was successful
+ * @param connect the time to prepare the login (a connection of the user is opened while
+ *     verifying the credentials)
+ * @param findUser the time to find the user
+ * @param verifyCredentials the time to verify the credentials
+ * @param fetchAuthorities the time to fetch the authorities
+ * @param total the total time of the login
+ * @author Christian Bremer
+ */
+public record LdaptiveLoginTimings(
+    String name,
+    boolean successful,
+    Duration connect,
+    Duration findUser,
+    Duration verifyCredentials,
+    Duration fetchAuthorities,
+    Duration total) {
+
+}
@@ -18,6 +18,7 @@ package org.bremersee.spring.security.ldaptive.authentication;
 
 import jakarta.servlet.http.HttpServletRequest;
 import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveUserDetails;
+import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveUserDetailsService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -41,6 +42,9 @@ public class LdaptiveTokenBasedRememberMeServices extends TokenBasedRememberMeSe
       String key,
       LdaptiveAuthenticationManager authenticationManager) {
     super(key, authenticationManager.getUserDetailsService());
+    if (super.getUserDetailsService() instanceof LdaptiveUserDetailsService userDetailsService) {
+      userDetailsService.setRememberMeCache(authenticationManager.getRememberMeCache());
+    }
   }
 
   @Override
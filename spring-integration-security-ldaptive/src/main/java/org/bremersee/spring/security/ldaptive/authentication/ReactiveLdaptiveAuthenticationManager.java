@@ -16,23 +16,459 @@
 
 package org.bremersee.spring.security.ldaptive.authentication;
 
-import org.springframework.security.authentication.ReactiveAuthenticationManagerAdapter;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.Collection;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bremersee.ldaptive.LdaptiveException;
+import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.ldaptive.reactive.ReactiveLdaptiveTemplate;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupFetchStrategy;
+import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveUserDetails;
+import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveUserDetailsService;
+import org.ldaptive.BindConnectionInitializer;
+import org.ldaptive.CompareRequest;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SimpleBindRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
- * The type Reactive ldaptive authentication manager.
+ * The reactive ldaptive authentication manager. It uses the configuration of the given (blocking)
+ * ldaptive authentication manager, but executes the ldap operations (resolving the username by
+ * email, bind, compare and the searches for the user and its groups) with a reactive ldaptive
+ * template instead of wrapping the blocking authentication into a bounded elastic scheduler.
+ *
+ * <p>Like the blocking authentication manager, the user and its groups are searched with the
+ * identity of the user, if the credentials are verified by a bind and the bind pool is disabled.
+ * Otherwise, the searches are executed with the application ldaptive template.
  *
  * @author Christian Bremer
  */
-public class ReactiveLdaptiveAuthenticationManager extends ReactiveAuthenticationManagerAdapter {
+public class ReactiveLdaptiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+  /**
+   * The Logger.
+   */
+  protected final Log logger = LogFactory.getLog(this.getClass());
 
   /**
-   * Instantiates a new Reactive ldaptive authentication manager.
+   * The (blocking) authentication manager that provides the configuration.
+   */
+  @Getter(AccessLevel.PROTECTED)
+  private final LdaptiveAuthenticationManager authenticationManager;
+
+  private ReactiveLdaptiveTemplate applicationLdaptiveTemplate;
+
+  private ReactiveLdaptiveTemplate bindLdaptiveTemplate;
+
+  /**
+   * Instantiates a new reactive ldaptive authentication manager.
    *
    * @param authenticationManager the authentication manager
    */
   public ReactiveLdaptiveAuthenticationManager(
       LdaptiveAuthenticationManager authenticationManager) {
-    super(authenticationManager);
+    this(authenticationManager, null);
+  }
+
+  /**
+   * Instantiates a new reactive ldaptive authentication manager.
+   *
+   * @param authenticationManager the authentication manager
+   * @param applicationLdaptiveTemplate the reactive application ldaptive template (can be
+   *     {@code null}; then one is created with the connection factory of the authentication
+   *     manager)
+   */
+  public ReactiveLdaptiveAuthenticationManager(
+      LdaptiveAuthenticationManager authenticationManager,
+      ReactiveLdaptiveTemplate applicationLdaptiveTemplate) {
+    Assert.notNull(authenticationManager, "Authentication manager is required.");
+    this.authenticationManager = authenticationManager;
+    this.applicationLdaptiveTemplate = applicationLdaptiveTemplate;
+  }
+
+  /**
+   * Gets the reactive application ldaptive template.
+   *
+   * @return the reactive application ldaptive template
+   */
+  protected ReactiveLdaptiveTemplate getApplicationLdaptiveTemplate() {
+    if (isNull(applicationLdaptiveTemplate)) {
+      applicationLdaptiveTemplate = new ReactiveLdaptiveTemplate(getAuthenticationManager()
+          .getApplicationLdaptiveTemplate()
+          .getConnectionFactory());
+    }
+    return applicationLdaptiveTemplate;
+  }
+
+  /**
+   * Gets the reactive ldaptive template, that searches the user and its groups. If the credentials
+   * are verified by a bind and the bind pool is disabled, a template is created, whose connections
+   * are bound with the credentials of the user; otherwise the reactive application ldaptive
+   * template is returned.
+   *
+   * @param username the username
+   * @param password the password
+   * @return the reactive ldaptive template for the searches of the user and its groups
+   */
+  protected ReactiveLdaptiveTemplate getLdaptiveTemplate(String username, String password) {
+    if (getAuthenticationManager().bindWithAuthentication()
+        && isNull(getAuthenticationManager().getBindAuthenticator())) {
+      ConnectionConfig config = ConnectionConfig.copy(getAuthenticationManager()
+          .getApplicationLdaptiveTemplate()
+          .getConnectionFactory()
+          .getConnectionConfig());
+      config.setConnectionInitializers(BindConnectionInitializer.builder()
+          .dn(getAuthenticationManager().getUsernameToBindDnConverter().convert(username))
+          .credential(password)
+          .build());
+      return new ReactiveLdaptiveTemplate(new DefaultConnectionFactory(config));
+    }
+    return getApplicationLdaptiveTemplate();
+  }
+
+  /**
+   * Gets the user details service, that uses the connection factory of the given reactive ldaptive
+   * template for blocking searches (like the search of nested groups).
+   *
+   * @param ldaptiveTemplate the reactive ldaptive template
+   * @return the user details service
+   */
+  protected LdaptiveUserDetailsService getUserDetailsService(
+      ReactiveLdaptiveTemplate ldaptiveTemplate) {
+    if (ldaptiveTemplate == getApplicationLdaptiveTemplate()) {
+      return getAuthenticationManager().getUserDetailsService();
+    }
+    return getAuthenticationManager()
+        .getUserDetailsService(new LdaptiveTemplate(ldaptiveTemplate.getConnectionFactory()));
+  }
+
+  /**
+   * Gets the reactive ldaptive template that is used to bind with the credentials of the user. If
+   * the bind pool is enabled, it uses the pooled connections of the bind authenticator, otherwise a
+   * connection factory without the bind of the application identity. In both cases, a bind, that
+   * doesn't complete within the bind timeout of the bind pool properties, fails.
+   *
+   * @return the reactive ldaptive template for user binds
+   */
+  protected ReactiveLdaptiveTemplate getBindLdaptiveTemplate() {
+    if (isNull(bindLdaptiveTemplate)) {
+      ConnectionFactory connectionFactory;
+      if (nonNull(getAuthenticationManager().getBindAuthenticator())) {
+        connectionFactory = getAuthenticationManager().getBindAuthenticator()
+            .getInitializedConnectionFactory();
+      } else {
+        ConnectionConfig config = ConnectionConfig.copy(getAuthenticationManager()
+            .getApplicationLdaptiveTemplate()
+            .getConnectionFactory()
+            .getConnectionConfig());
+        config.setConnectionInitializers();
+        connectionFactory = new DefaultConnectionFactory(config);
+      }
+      bindLdaptiveTemplate = new ReactiveLdaptiveTemplate(connectionFactory);
+      if (nonNull(getAuthenticationManager().getAuthenticationProperties().getBindPool())) {
+        bindLdaptiveTemplate.setBindTimeout(getAuthenticationManager()
+            .getAuthenticationProperties().getBindPool().getBindTimeout());
+      }
+    }
+    return bindLdaptiveTemplate;
+  }
+
+  /**
+   * Closes the pooled bind connections of the authentication manager, if there are any.
+   */
+  public void close() {
+    getAuthenticationManager().close();
+  }
+
+  @Override
+  public Mono<Authentication> authenticate(Authentication authentication) {
+    String name = getAuthenticationManager().getName(authentication);
+    logger.debug("Authenticating user '" + name + "' reactively ...");
+    String password = Optional.ofNullable(authentication.getCredentials())
+        .map(String::valueOf)
+        .orElse(null);
+    String clientAddress = getAuthenticationManager().getClientAddressResolver()
+        .convert(authentication);
+    LdaptiveLoginThrottle loginThrottle = getAuthenticationManager().getLoginThrottle();
+    if (nonNull(loginThrottle)) {
+      try {
+        loginThrottle.checkAllowed(name, clientAddress);
+      } catch (LdaptiveLoginThrottledException e) {
+        return Mono.error(e);
+      }
+    }
+    Mono<Authentication> result = getVerifiedUserDetails(name, password)
+        .map(this::toAuthentication)
+        .onErrorMap(LdaptiveException.class, getAuthenticationManager()::getBindException);
+    if (isNull(loginThrottle)) {
+      return result;
+    }
+    return result
+        .doOnNext(auth -> loginThrottle.loginSucceeded(name))
+        .doOnError(
+            e -> e instanceof BadCredentialsException || e instanceof UsernameNotFoundException,
+            e -> loginThrottle.loginFailed(name, clientAddress));
+  }
+
+  /**
+   * Gets the user details and verifies the credentials. An empty password is rejected without any
+   * ldap operation. If the credential cache of the authentication manager contains the
+   * credentials, the cached user details are returned without a bind.
+   *
+   * @param name the name (username or email)
+   * @param password the password
+   * @return the user details
+   */
+  protected Mono<LdaptiveUserDetails> getVerifiedUserDetails(String name, String password) {
+    if (isNull(password) || password.isEmpty()) {
+      return Mono.error(new BadCredentialsException("Password is required."));
+    }
+    LdaptiveCredentialCache credentialCache = getAuthenticationManager().getCredentialCache();
+    Mono<LdaptiveUserDetails> userDetails = Mono.defer(() -> getUsername(name))
+        .flatMap(username -> bind(username, password)
+            .then(Mono.defer(() -> loadUserDetails(username, password))));
+    if (isNull(credentialCache)) {
+      return userDetails;
+    }
+    return findCachedUserDetails(
+        credentialCache, getAuthenticationManager().getUserDetailsService(), name, password)
+        .switchIfEmpty(userDetails
+            .doOnNext(details -> {
+              if (getAuthenticationManager().isCacheable(details)) {
+                credentialCache.put(name, password, details);
+              }
+            }));
+  }
+
+  /**
+   * Loads the user details after the credentials are verified by a bind or before they are
+   * verified by a compare of the password attribute. The user and its groups are searched with
+   * the reactive ldaptive template of {@link #getLdaptiveTemplate(String, String)}.
+   *
+   * @param username the username
+   * @param password the password
+   * @return the user details
+   */
+  protected Mono<LdaptiveUserDetails> loadUserDetails(String username, String password) {
+    ReactiveLdaptiveTemplate ldaptiveTemplate = getLdaptiveTemplate(username, password);
+    LdaptiveUserDetailsService userDetailsService = getUserDetailsService(ldaptiveTemplate);
+    return findUser(ldaptiveTemplate, userDetailsService, username)
+        .flatMap(ldapEntry -> checkPassword(ldapEntry, password))
+        .flatMap(ldapEntry -> getAuthorities(ldaptiveTemplate, userDetailsService, ldapEntry)
+            .map(authorities -> userDetailsService
+                .createUserDetails(ldapEntry, username, authorities)));
+  }
+
+  /**
+   * Finds the cached user details, if the credential cache contains the credentials. If the
+   * remember-me token should be verified, it's read reactively from the entry of the user and the
+   * cached login is removed, if the token has changed.
+   *
+   * @param credentialCache the credential cache
+   * @param userDetailsService the user details service
+   * @param name the name (username or email)
+   * @param password the password
+   * @return the cached user details or empty
+   */
+  protected Mono<LdaptiveUserDetails> findCachedUserDetails(
+      LdaptiveCredentialCache credentialCache,
+      LdaptiveUserDetailsService userDetailsService,
+      String name,
+      String password) {
+    Optional<LdaptiveUserDetails> cached = credentialCache.findUserDetails(name, password);
+    if (cached.isEmpty()) {
+      return Mono.empty();
+    }
+    LdaptiveUserDetails userDetails = cached.get();
+    if (!getAuthenticationManager().getAuthenticationProperties().getCredentialCache()
+        .isVerifyRememberMeToken()) {
+      return Mono.just(userDetails);
+    }
+    if (isNull(userDetails.getDn())) {
+      credentialCache.evict(name);
+      return Mono.empty();
+    }
+    return getApplicationLdaptiveTemplate()
+        .findOne(userDetailsService.createFindRememberMeTokenRequest(userDetails.getDn()))
+        .map(userDetailsService::getRememberMeToken)
+        .filter(token -> token.equals(userDetails.getPassword()))
+        .map(token -> userDetails)
+        .switchIfEmpty(Mono.fromRunnable(() -> {
+          logger.debug("Remember-me token of cached user '" + name + "' has changed.");
+          credentialCache.evict(name);
+        }));
+  }
+
+  /**
+   * Gets the username. If the given name is an email and the email to username resolver of the
+   * authentication manager is the default one, the username will be searched reactively, otherwise
+   * the custom resolver will be called on a bounded elastic scheduler.
+   *
+   * @param name the name (username or email)
+   * @return the username
+   */
+  protected Mono<String> getUsername(String name) {
+    if (isNull(name)) {
+      return Mono.error(new UsernameNotFoundException("Name is required."));
+    }
+    if (getAuthenticationManager().getEmailToUsernameResolver()
+        instanceof EmailToUsernameResolverByLdapAttribute resolver) {
+      if (!resolver.isValidEmail(name) || !resolver.areRequiredPropertiesPresent()) {
+        return Mono.just(name);
+      }
+      Optional<String> cached = resolver.findCachedUsername(name);
+      if (cached.isPresent()) {
+        return Mono.just(cached.get());
+      }
+      return getApplicationLdaptiveTemplate()
+          .findAll(resolver.createSearchRequest(name))
+          .take(2)
+          .collectList()
+          .mapNotNull(ldapEntries -> resolver.getUsername(name, ldapEntries).orElse(null))
+          .onErrorResume(LdaptiveException.class, e -> {
+            if (e.getResultCode() == ResultCode.SIZE_LIMIT_EXCEEDED) {
+              // more than two users have this email
+              resolver.cacheUnknownEmail(name);
+            } else {
+              logger.warn("Resolve username by email '" + name + "' failed.", e);
+            }
+            return Mono.empty();
+          })
+          .defaultIfEmpty(name);
+    }
+    return Mono
+        .fromCallable(() -> getAuthenticationManager().getEmailToUsernameResolver()
+            .getUsernameByEmail(name)
+            .orElse(name))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Binds with the credentials of the user, if no password attribute is set.
+   *
+   * @param username the username
+   * @param password the password
+   * @return empty mono or an error, if the bind fails
+   */
+  protected Mono<Void> bind(String username, String password) {
+    if (!getAuthenticationManager().bindWithAuthentication()) {
+      return Mono.empty();
+    }
+    if (isNull(password) || password.isEmpty()) {
+      return Mono.error(new BadCredentialsException("Password is required."));
+    }
+    String bindDn = getAuthenticationManager().getUsernameToBindDnConverter().convert(username);
+    return getBindLdaptiveTemplate()
+        .bind(new SimpleBindRequest(bindDn, password))
+        .filter(Boolean::booleanValue)
+        .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Password doesn't match.")))
+        .then();
+  }
+
+  /**
+   * Finds the ldap entry of the user.
+   *
+   * @param ldaptiveTemplate the reactive ldaptive template
+   * @param userDetailsService the user details service
+   * @param username the username
+   * @return the ldap entry of the user
+   */
+  protected Mono<LdapEntry> findUser(
+      ReactiveLdaptiveTemplate ldaptiveTemplate,
+      LdaptiveUserDetailsService userDetailsService,
+      String username) {
+    return ldaptiveTemplate
+        .findOne(userDetailsService.createFindUserRequest(username))
+        .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException(
+            String.format("%s not found.", username))));
+  }
+
+  /**
+   * Checks the password with a compare operation, if a password attribute is set.
+   *
+   * @param user the ldap entry of the user
+   * @param password the password
+   * @return the ldap entry of the user or an error, if the password doesn't match
+   */
+  protected Mono<LdapEntry> checkPassword(LdapEntry user, String password) {
+    if (getAuthenticationManager().bindWithAuthentication()) {
+      return Mono.just(user);
+    }
+    if (isNull(getAuthenticationManager().getPasswordEncoder())) {
+      return Mono.error(new IllegalStateException("No password encoder is present."));
+    }
+    return getApplicationLdaptiveTemplate()
+        .compare(CompareRequest.builder()
+            .dn(user.getDn())
+            .name(getAuthenticationManager().getAuthenticationProperties().getPasswordAttribute())
+            .value(getAuthenticationManager().getPasswordEncoder().encode(password))
+            .build())
+        .filter(Boolean::booleanValue)
+        .map(matches -> user)
+        .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Password doesn't match.")));
+  }
+
+  /**
+   * Gets the authorities of the user. Only the groups that contain the user are searched, if they
+   * are not in the group membership cache. The nested groups are searched on a bounded elastic
+   * scheduler; all other strategies don't need a further ldap operation.
+   *
+   * @param ldaptiveTemplate the reactive ldaptive template
+   * @param userDetailsService the user details service
+   * @param user the ldap entry of the user
+   * @return the authorities
+   */
+  protected Mono<Collection<? extends GrantedAuthority>> getAuthorities(
+      ReactiveLdaptiveTemplate ldaptiveTemplate,
+      LdaptiveUserDetailsService userDetailsService,
+      LdapEntry user) {
+    if (GroupFetchStrategy.GROUP_CONTAINS_USERS == getAuthenticationManager()
+        .getAuthenticationProperties().getGroupFetchStrategy()) {
+      return Mono.justOrEmpty(userDetailsService.findCachedAuthoritiesByGroupsWithUser(user))
+          .switchIfEmpty(Mono.defer(() -> ldaptiveTemplate
+              .findAll(userDetailsService.createFindGroupsWithUserRequest(user))
+              .collectList()
+              .map(groups -> userDetailsService.getAuthoritiesByGroupsWithUser(user, groups))));
+    }
+    if (GroupFetchStrategy.NESTED_GROUPS == getAuthenticationManager()
+        .getAuthenticationProperties().getGroupFetchStrategy()) {
+      return Mono
+          .<Collection<? extends GrantedAuthority>>fromCallable(
+              () -> userDetailsService.getAuthorities(user))
+          .subscribeOn(Schedulers.boundedElastic());
+    }
+    return Mono.fromSupplier(() -> userDetailsService.getAuthorities(user));
+  }
+
+  /**
+   * Checks the account control and converts the user details into the authentication.
+   *
+   * @param userDetails the user details
+   * @return the authentication
+   */
+  protected Authentication toAuthentication(LdaptiveUserDetails userDetails) {
+    getAuthenticationManager().checkAccountControl(userDetails);
+    if (nonNull(getAuthenticationManager().getTokenConverter())) {
+      return getAuthenticationManager().getTokenConverter().convert(userDetails);
+    }
+    return new LdaptiveAuthenticationToken(userDetails);
   }
 
 }
@@ -16,41 +16,214 @@
 
 package org.bremersee.spring.security.ldaptive.authentication.provider;
 
-import static org.bremersee.ldaptive.LdaptiveEntryMapper.getAttributeValue;
+import static org.bremersee.ldaptive.transcoder.UserAccountControlValueTranscoder.ACCOUNT_DISABLED;
+import static org.bremersee.ldaptive.transcoder.UserAccountControlValueTranscoder.DONT_EXPIRE_PASSWORD;
+import static org.bremersee.ldaptive.transcoder.UserAccountControlValueTranscoder.LOCKOUT;
+import static org.bremersee.ldaptive.transcoder.UserAccountControlValueTranscoder.PASSWORD_EXPIRED;
+import static org.bremersee.ldaptive.transcoder.UserAccountControlValueTranscoder.isSet;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import org.bremersee.ldaptive.transcoder.FileTimePrimitiveValueTranscoder;
 import org.bremersee.ldaptive.transcoder.UserAccountControlValueTranscoder;
+import org.bremersee.ldaptive.transcoder.ValueTranscoderRegistry;
 import org.bremersee.spring.security.ldaptive.authentication.AccountControlEvaluator;
+import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
 
 /**
- * Evaluator of the ldap attribute {@code userAccountControl} of an Active Directory.
+ * Evaluator of the account attributes of an Active Directory: {@code userAccountControl},
+ * {@code msDS-User-Account-Control-Computed} (if it was requested), {@code accountExpires},
+ * {@code lockoutTime} and {@code pwdLastSet}.
+ *
+ * <p>All states are evaluated in a single pass over the attributes of the ldap entry (see
+ * {@link #evaluate(LdapEntry)}); the values are decoded directly from their bytes.
+ *
+ * <p>A lockout time is only valid for the lockout duration of the domain (the default is 30
+ * minutes). The maximum password age of the domain is only evaluated, if it is set; otherwise
+ * only a password, that must be changed, counts as expired.
  *
  * @author Christian Bremer
  */
 public class ActiveDirectoryAccountControlEvaluator implements AccountControlEvaluator {
 
+  /**
+   * The attribute name of the account expiration time.
+   */
+  public static final String ACCOUNT_EXPIRES = "accountExpires";
+
+  /**
+   * The attribute name of the lockout time.
+   */
+  public static final String LOCKOUT_TIME = "lockoutTime";
+
+  /**
+   * The attribute name of the time, the password was set.
+   */
+  public static final String PWD_LAST_SET = "pwdLastSet";
+
+  /**
+   * The default lockout duration.
+   */
+  public static final Duration DEFAULT_LOCKOUT_DURATION = Duration.ofMinutes(30);
+
+  private static final FileTimePrimitiveValueTranscoder FILE_TIME_TRANSCODER
+      = ValueTranscoderRegistry.getDefault().getInstance(FileTimePrimitiveValueTranscoder.class);
+
+  private final Duration lockoutDuration;
+
+  private final Duration maxPasswordAge;
+
+  private final Clock clock;
+
+  /**
+   * Instantiates a new active directory account control evaluator with the default lockout
+   * duration and without maximum password age.
+   */
+  public ActiveDirectoryAccountControlEvaluator() {
+    this(DEFAULT_LOCKOUT_DURATION, null, Clock.systemUTC());
+  }
+
+  /**
+   * Instantiates a new active directory account control evaluator.
+   *
+   * @param lockoutDuration the lockout duration of the domain; if it is {@code null}, the account
+   *     is locked until the lockout time is reset
+   * @param maxPasswordAge the maximum password age of the domain; if it is {@code null}, it is not
+   *     evaluated
+   * @param clock the clock
+   */
+  public ActiveDirectoryAccountControlEvaluator(
+      Duration lockoutDuration,
+      Duration maxPasswordAge,
+      Clock clock) {
+    this.lockoutDuration = lockoutDuration;
+    this.maxPasswordAge = maxPasswordAge;
+    this.clock = Objects.requireNonNull(clock, "Clock is required.");
+  }
+
+  /**
+   * Gets the required attributes. The constructed attribute
+   * {@code msDS-User-Account-Control-Computed} is not part of it, because the Active Directory
+   * returns it only on a search with object scope.
+   *
+   * @return the required attributes
+   */
+  @Override
+  public Collection<String> getRequiredAttributes() {
+    return List.of(
+        UserAccountControlValueTranscoder.ATTRIBUTE_NAME,
+        ACCOUNT_EXPIRES,
+        LOCKOUT_TIME,
+        PWD_LAST_SET);
+  }
+
   @Override
   public boolean isAccountNonExpired(LdapEntry ldapEntry) {
-    return true;
+    return evaluate(ldapEntry).accountNonExpired();
   }
 
   @Override
   public boolean isAccountNonLocked(LdapEntry ldapEntry) {
-    return true;
+    return evaluate(ldapEntry).accountNonLocked();
   }
 
   @Override
   public boolean isCredentialsNonExpired(LdapEntry ldapEntry) {
-    return true;
+    return evaluate(ldapEntry).credentialsNonExpired();
   }
 
   @Override
   public boolean isEnabled(LdapEntry ldapEntry) {
-    Integer value = getAttributeValue(
-        ldapEntry,
-        UserAccountControlValueTranscoder.ATTRIBUTE_NAME,
-        new UserAccountControlValueTranscoder(),
-        null);
-    return UserAccountControlValueTranscoder.isUserAccountEnabled(value, true);
+    return evaluate(ldapEntry).enabled();
+  }
+
+  @Override
+  public AccountControl evaluate(LdapEntry ldapEntry) {
+    int userAccountControl = 0;
+    int computedUserAccountControl = 0;
+    long accountExpires = 0L;
+    long lockoutTime = 0L;
+    long pwdLastSet = -1L;
+    if (ldapEntry != null) {
+      for (LdapAttribute attribute : ldapEntry.getAttributes()) {
+        String name = attribute.getName();
+        byte[] value = attribute.getBinaryValue();
+        if (UserAccountControlValueTranscoder.ATTRIBUTE_NAME.equalsIgnoreCase(name)) {
+          userAccountControl = UserAccountControlValueTranscoder
+              .decodeUserAccountControlValue(value);
+        } else if (UserAccountControlValueTranscoder.COMPUTED_ATTRIBUTE_NAME
+            .equalsIgnoreCase(name)) {
+          computedUserAccountControl = UserAccountControlValueTranscoder
+              .decodeUserAccountControlValue(value);
+        } else if (ACCOUNT_EXPIRES.equalsIgnoreCase(name)) {
+          accountExpires = FILE_TIME_TRANSCODER.decodeFileTime(value, 0L);
+        } else if (LOCKOUT_TIME.equalsIgnoreCase(name)) {
+          lockoutTime = FILE_TIME_TRANSCODER.decodeFileTime(value, 0L);
+        } else if (PWD_LAST_SET.equalsIgnoreCase(name)) {
+          pwdLastSet = FILE_TIME_TRANSCODER.decodeFileTime(value, -1L);
+        }
+      }
+    }
+    long now = clock.millis();
+    int flags = userAccountControl | computedUserAccountControl;
+    return new AccountControl(
+        !isExpired(accountExpires, now),
+        !isSet(flags, LOCKOUT) && !isLocked(lockoutTime, now),
+        !isSet(flags, PASSWORD_EXPIRED)
+            && (isSet(userAccountControl, DONT_EXPIRE_PASSWORD)
+            || !isPasswordExpired(pwdLastSet, now)),
+        !isSet(userAccountControl, ACCOUNT_DISABLED));
+  }
+
+  /**
+   * Determines whether the account is expired. The values {@code 0} and
+   * {@link FileTimePrimitiveValueTranscoder#NEVER} mean, that the account never expires.
+   *
+   * @param accountExpires the file time of the attribute {@code accountExpires}
+   * @param now the current time in milliseconds since the epoch
+   * @return {@code true} if the account is expired, otherwise {@code false}
+   */
+  protected boolean isExpired(long accountExpires, long now) {
+    return accountExpires > 0L
+        && accountExpires != FileTimePrimitiveValueTranscoder.NEVER
+        && FileTimePrimitiveValueTranscoder.toEpochMillis(accountExpires) <= now;
+  }
+
+  /**
+   * Determines whether the account is locked.
+   *
+   * @param lockoutTime the file time of the attribute {@code lockoutTime}
+   * @param now the current time in milliseconds since the epoch
+   * @return {@code true} if the account is locked, otherwise {@code false}
+   */
+  protected boolean isLocked(long lockoutTime, long now) {
+    if (lockoutTime <= 0L) {
+      return false;
+    }
+    return lockoutDuration == null
+        || FileTimePrimitiveValueTranscoder.toEpochMillis(lockoutTime)
+        + lockoutDuration.toMillis() > now;
+  }
+
+  /**
+   * Determines whether the password is expired. The value {@code 0} means, that the password must
+   * be changed; a negative value means, that the attribute is not present.
+   *
+   * @param pwdLastSet the file time of the attribute {@code pwdLastSet}
+   * @param now the current time in milliseconds since the epoch
+   * @return {@code true} if the password is expired, otherwise {@code false}
+   */
+  protected boolean isPasswordExpired(long pwdLastSet, long now) {
+    if (pwdLastSet < 0L) {
+      return false;
+    }
+    return pwdLastSet == 0L
+        || (maxPasswordAge != null
+        && FileTimePrimitiveValueTranscoder.toEpochMillis(pwdLastSet)
+        + maxPasswordAge.toMillis() <= now);
   }
 }
@@ -16,10 +16,12 @@
 
 package org.bremersee.spring.security.ldaptive.userdetails;
 
+import java.util.Collection;
 import java.util.Objects;
 import lombok.AccessLevel;
 import lombok.Getter;
 import org.bremersee.spring.security.ldaptive.authentication.AccountControlEvaluator;
+import org.bremersee.spring.security.ldaptive.authentication.AccountControlEvaluator.AccountControl;
 import org.bremersee.spring.security.ldaptive.authentication.provider.NoAccountControlEvaluator;
 import org.ldaptive.LdapEntry;
 
@@ -69,6 +71,11 @@ public class LdaptiveEvaluatedRememberMeTokenProvider implements LdaptiveRemembe
     return getAccessControlValue(ldapEntry) + ldapEntry.getDn();
   }
 
+  @Override
+  public Collection<String> getRequiredAttributes() {
+    return accountControlEvaluator.getRequiredAttributes();
+  }
+
   /**
    * Gets access control value.
    *
@@ -76,11 +83,12 @@ public class LdaptiveEvaluatedRememberMeTokenProvider implements LdaptiveRemembe
    * @return the access control value
    */
   protected String getAccessControlValue(LdapEntry ldapEntry) {
+    AccountControl accountControl = accountControlEvaluator.evaluate(ldapEntry);
     return String.format("%s:%s:%s:%s-",
-        accountControlEvaluator.isAccountNonExpired(ldapEntry),
-        accountControlEvaluator.isAccountNonLocked(ldapEntry),
-        accountControlEvaluator.isCredentialsNonExpired(ldapEntry),
-        accountControlEvaluator.isEnabled(ldapEntry));
+        accountControl.accountNonExpired(),
+        accountControl.accountNonLocked(),
+        accountControl.credentialsNonExpired(),
+        accountControl.enabled());
   }
 
 }
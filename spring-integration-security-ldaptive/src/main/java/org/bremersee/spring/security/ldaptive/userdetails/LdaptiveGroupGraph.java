@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.userdetails;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import org.bremersee.ldaptive.cache.LdaptiveCache;
+import org.bremersee.ldaptive.cache.LruLdaptiveCache;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupCacheProperties;
+
+/**
+ * The memoized graph of the group memberships, that is used with the group fetch strategy
+ * {@code NESTED_GROUPS}. It maps a member value (the dn or the formatted username of a user or the
+ * dn of a group) to the groups, that contain the member directly.
+ *
+ * <p>The graph is shared by all user details services of an authentication manager, so the
+ * expansion of a group, that was already expanded for another user, is served from the cache. The
+ * edges are cached with the max size and the time to live of the group cache properties.
+ *
+ * @author Christian Bremer
+ */
+public class LdaptiveGroupGraph {
+
+  /**
+   * The maximum nesting depth.
+   */
+  public static final int MAX_DEPTH = 32;
+
+  private final LdaptiveCache<String, Set<Group>> edges;
+
+  /**
+   * Instantiates a new group graph.
+   *
+   * @param properties the group cache properties
+   */
+  public LdaptiveGroupGraph(GroupCacheProperties properties) {
+    this(new LruLdaptiveCache<>(properties.getMaxSize(), properties.getTimeToLive()));
+  }
+
+  /**
+   * Instantiates a new group graph.
+   *
+   * @param edges the cache of the groups by member value
+   */
+  public LdaptiveGroupGraph(LdaptiveCache<String, Set<Group>> edges) {
+    this.edges = Objects.requireNonNull(edges, "Edges cache is required.");
+  }
+
+  /**
+   * Gets the groups, that contain the given member, from the cache or from the loader. This is
+   * used, if the ldap server resolves the transitive membership by itself (like Active Directory
+   * with {@code LDAP_MATCHING_RULE_IN_CHAIN}).
+   *
+   * @param memberValue the member value
+   * @param loader the loader of the groups
+   * @return the groups
+   */
+  public Set<Group> getGroups(String memberValue, Function<String, Set<Group>> loader) {
+    String key = normalize(memberValue);
+    Set<Group> groups = edges.get(key);
+    if (groups == null) {
+      groups = Set.copyOf(loader.apply(memberValue));
+      edges.put(key, groups);
+    }
+    return groups;
+  }
+
+  /**
+   * Expands the groups, that contain the given member, transitively. The graph is traversed
+   * breadth first; the groups of a member value, that are not cached, are loaded with the given
+   * loader (one search per member value). Cycles are detected, so every group is expanded only
+   * once.
+   *
+   * @param memberValue the member value
+   * @param loader the loader of the groups, that contain the given member value directly
+   * @return the groups, that contain the member directly or indirectly
+   */
+  public Set<Group> expand(String memberValue, Function<String, Set<Group>> loader) {
+    Map<String, Group> result = new LinkedHashMap<>();
+    List<String> level = List.of(memberValue);
+    for (int depth = 0; depth < MAX_DEPTH && !level.isEmpty(); depth++) {
+      List<String> next = new ArrayList<>();
+      for (String value : level) {
+        for (Group group : getGroups(value, loader)) {
+          if (result.putIfAbsent(normalize(group.dn()), group) == null) {
+            next.add(group.dn());
+          }
+        }
+      }
+      level = next;
+    }
+    return Set.copyOf(result.values());
+  }
+
+  /**
+   * Removes all cached edges.
+   */
+  public void clear() {
+    edges.clear();
+  }
+
+  /**
+   * Normalizes the given member value.
+   *
+   * @param memberValue the member value
+   * @return the normalized member value
+   */
+  public static String normalize(String memberValue) {
+    return memberValue.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * A group of the graph.
+   *
+   * @param dn the dn of the group
+   * @param name the name of the group
+   */
+  public record Group(String dn, String name) {
+
+  }
+
+}
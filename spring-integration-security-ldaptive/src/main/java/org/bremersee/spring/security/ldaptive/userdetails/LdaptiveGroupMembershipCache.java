@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.spring.security.ldaptive.userdetails;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bremersee.ldaptive.cache.LdaptiveCache;
+import org.bremersee.ldaptive.cache.LruLdaptiveCache;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupCacheProperties;
+
+/**
+ * The cache of the group memberships, that is used with the group fetch strategy
+ * {@code GROUP_CONTAINS_USERS}. It maps a member value (the dn or the formatted username of a
+ * user) to the names of the groups, that contain the member.
+ *
+ * <p>The groups of a member are loaded on demand and cached with a time to live. If the refresher
+ * is started (see {@link #startRefresher(Duration, Supplier)}), all groups with their members are
+ * loaded periodically in the background instead, and the group memberships are served from this
+ * snapshot without any search. Members, that are not in the snapshot, are still searched on
+ * demand.
+ *
+ * @author Christian Bremer
+ */
+public class LdaptiveGroupMembershipCache implements AutoCloseable {
+
+  private final Log logger = LogFactory.getLog(this.getClass());
+
+  private final LdaptiveCache<String, Set<String>> cache;
+
+  private volatile Map<String, Set<String>> snapshot;
+
+  private ScheduledExecutorService refresher;
+
+  /**
+   * Instantiates a new group membership cache.
+   *
+   * @param properties the group cache properties
+   */
+  public LdaptiveGroupMembershipCache(GroupCacheProperties properties) {
+    this(new LruLdaptiveCache<>(properties.getMaxSize(), properties.getTimeToLive()));
+  }
+
+  /**
+   * Instantiates a new group membership cache.
+   *
+   * @param cache the cache of the group names by member value
+   */
+  public LdaptiveGroupMembershipCache(LdaptiveCache<String, Set<String>> cache) {
+    this.cache = Objects.requireNonNull(cache, "Cache is required.");
+  }
+
+  /**
+   * Finds the names of the groups, that contain the given member. The snapshot of all group
+   * memberships is asked first. A member, that is not covered by the snapshot, is unknown (it may
+   * be a new member or the member value may be formatted differently), so the groups, that are
+   * cached on demand, are returned then.
+   *
+   * @param memberValue the member value (the dn or the formatted username of the user)
+   * @return the group names or empty, if they are not cached
+   */
+  public Optional<Set<String>> findGroupNames(String memberValue) {
+    String key = normalize(memberValue);
+    Map<String, Set<String>> groupsByMember = snapshot;
+    if (groupsByMember != null && groupsByMember.containsKey(key)) {
+      return Optional.of(groupsByMember.get(key));
+    }
+    return Optional.ofNullable(cache.get(key));
+  }
+
+  /**
+   * Puts the names of the groups, that contain the given member, into the cache.
+   *
+   * @param memberValue the member value (the dn or the formatted username of the user)
+   * @param groupNames the group names
+   */
+  public void put(String memberValue, Collection<String> groupNames) {
+    cache.put(normalize(memberValue), Set.copyOf(groupNames));
+  }
+
+  /**
+   * Replaces the snapshot of all group memberships.
+   *
+   * @param groupsByMember the group names by member value
+   */
+  public void refresh(Map<String, Set<String>> groupsByMember) {
+    Map<String, Set<String>> normalized = new HashMap<>();
+    groupsByMember.forEach((member, groupNames) -> normalized
+        .computeIfAbsent(normalize(member), key -> new HashSet<>())
+        .addAll(groupNames));
+    normalized.replaceAll((member, groupNames) -> Set.copyOf(groupNames));
+    snapshot = Map.copyOf(normalized);
+    cache.clear();
+  }
+
+  /**
+   * Starts the background refresher, that loads all group memberships immediately and then with
+   * the given interval. If loading fails, the previous snapshot is kept.
+   *
+   * @param interval the refresh interval
+   * @param loader the loader of the group names by member value
+   */
+  public synchronized void startRefresher(
+      Duration interval,
+      Supplier<Map<String, Set<String>>> loader) {
+    if (refresher != null) {
+      throw new IllegalStateException("Refresher is already started.");
+    }
+    refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "ldaptive-group-membership-refresher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    refresher.scheduleWithFixedDelay(() -> {
+      try {
+        refresh(loader.get());
+      } catch (RuntimeException e) {
+        logger.error("Refreshing group memberships failed.", e);
+      }
+    }, 0L, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Removes the cached groups of the given member.
+   *
+   * @param memberValue the member value
+   */
+  public void evict(String memberValue) {
+    cache.evict(normalize(memberValue));
+  }
+
+  /**
+   * Removes all cached group memberships including the snapshot.
+   */
+  public void clear() {
+    snapshot = null;
+    cache.clear();
+  }
+
+  /**
+   * Stops the background refresher.
+   */
+  @Override
+  public synchronized void close() {
+    if (refresher != null) {
+      refresher.shutdownNow();
+      refresher = null;
+    }
+  }
+
+  private static String normalize(String memberValue) {
+    return memberValue.toLowerCase(Locale.ROOT);
+  }
+
+}
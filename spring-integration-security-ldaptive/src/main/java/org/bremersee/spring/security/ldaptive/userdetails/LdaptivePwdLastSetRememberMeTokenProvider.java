@@ -16,7 +16,10 @@
 
 package org.bremersee.spring.security.ldaptive.userdetails;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import lombok.AccessLevel;
 import lombok.Getter;
 import org.bremersee.spring.security.ldaptive.authentication.AccountControlEvaluator;
@@ -88,4 +91,17 @@ public class LdaptivePwdLastSetRememberMeTokenProvider
         .orElseGet(() -> LdaptiveRememberMeTokenProvider.invalid().getRememberMeToken(ldapEntry));
   }
 
+  @Override
+  public Collection<String> getRequiredAttributes() {
+    Set<String> attributes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    attributes.addAll(super.getRequiredAttributes());
+    attributes.add(getPwdLastSetAttributeName());
+    return attributes;
+  }
+
+  @Override
+  public boolean isPasswordChangeDetected() {
+    return true;
+  }
+
 }
@@ -16,6 +16,10 @@
 
 package org.bremersee.spring.security.ldaptive.userdetails;
 
+import static java.util.Objects.isNull;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -36,6 +40,39 @@ public interface LdaptiveRememberMeTokenProvider {
    */
   String getRememberMeToken(LdapEntry ldapEntry);
 
+  /**
+   * Gets the attributes of the ldap entry, that are required to calculate the remember-me token.
+   * The default requests all user attributes.
+   *
+   * @return the required attributes; an empty collection, if no attributes are required
+   */
+  default Collection<String> getRequiredAttributes() {
+    return List.of("*");
+  }
+
+  /**
+   * Determines whether the remember-me token changes, if the password of the user is changed. The
+   * default returns {@code false}.
+   *
+   * @return {@code true}, if a changed password changes the remember-me token, otherwise
+   *     {@code false}
+   */
+  default boolean isPasswordChangeDetected() {
+    return false;
+  }
+
+  /**
+   * Determines whether the given remember-me token is one of the invalid remember-me token
+   * provider, that never matches.
+   *
+   * @param rememberMeToken the remember-me token
+   * @return {@code true}, if the remember-me token is invalid, otherwise {@code false}
+   */
+  static boolean isInvalid(String rememberMeToken) {
+    return isNull(rememberMeToken)
+        || rememberMeToken.startsWith(InvalidRememberMeTokenProvider.INVALID_TOKEN_PREFIX);
+  }
+
   /**
    * Gets the invalid ldaptive remember-me token provider.
    *
@@ -53,6 +90,8 @@ public interface LdaptiveRememberMeTokenProvider {
   @NoArgsConstructor(access = AccessLevel.PRIVATE)
   class InvalidRememberMeTokenProvider implements LdaptiveRememberMeTokenProvider {
 
+    private static final String INVALID_TOKEN_PREFIX = "invalid:";
+
     private static final InvalidRememberMeTokenProvider INSTANCE = new InvalidRememberMeTokenProvider();
 
     /**
@@ -66,7 +105,12 @@ public interface LdaptiveRememberMeTokenProvider {
 
     @Override
     public final String getRememberMeToken(LdapEntry ldapEntry) {
-      return UUID.randomUUID().toString();
+      return INVALID_TOKEN_PREFIX + UUID.randomUUID();
+    }
+
+    @Override
+    public Collection<String> getRequiredAttributes() {
+      return List.of();
     }
   }
 
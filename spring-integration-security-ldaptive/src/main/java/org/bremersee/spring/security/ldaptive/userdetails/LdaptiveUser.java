@@ -115,7 +115,41 @@ public class LdaptiveUser extends SerLdapEntry
       boolean accountNonLocked,
       boolean credentialsNonExpired,
       boolean enabled) {
-    super(ldapEntry);
+    this(ldapEntry, null, username, firstName, lastName, email, authorities, password,
+        accountNonExpired, accountNonLocked, credentialsNonExpired, enabled);
+  }
+
+  /**
+   * Instantiates a new ldaptive user, that retains only the given attributes of the ldap entry.
+   *
+   * @param ldapEntry the ldap entry
+   * @param retainedAttributes the attributes of the ldap entry to retain; if it is {@code null}
+   *     or empty, all attributes are retained
+   * @param username the username
+   * @param firstName the first name
+   * @param lastName the last name
+   * @param email the email
+   * @param authorities the authorities
+   * @param password the password
+   * @param accountNonExpired the account non expired
+   * @param accountNonLocked the account non-locked
+   * @param credentialsNonExpired the credentials non expired
+   * @param enabled the enabled
+   */
+  public LdaptiveUser(
+      LdapEntry ldapEntry,
+      Collection<String> retainedAttributes,
+      String username,
+      String firstName,
+      String lastName,
+      String email,
+      Collection<? extends GrantedAuthority> authorities,
+      String password,
+      boolean accountNonExpired,
+      boolean accountNonLocked,
+      boolean credentialsNonExpired,
+      boolean enabled) {
+    super(ldapEntry, retainedAttributes);
     this.username = username;
     this.firstName = firstName;
     this.lastName = lastName;
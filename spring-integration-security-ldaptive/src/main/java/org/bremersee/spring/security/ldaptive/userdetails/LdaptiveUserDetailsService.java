@@ -17,12 +17,20 @@
 package org.bremersee.spring.security.ldaptive.userdetails;
 
 import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNullElseGet;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -32,12 +40,18 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.bremersee.ldaptive.LdaptiveEntryMapper;
 import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.ldaptive.cache.LdaptiveCache;
 import org.bremersee.spring.security.ldaptive.authentication.AccountControlEvaluator;
+import org.bremersee.spring.security.ldaptive.authentication.AccountControlEvaluator.AccountControl;
 import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupCacheProperties;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupFetchStrategy;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveCredentialCache;
 import org.bremersee.spring.security.ldaptive.authentication.provider.NoAccountControlEvaluator;
 import org.ldaptive.FilterTemplate;
 import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
+import org.ldaptive.ReturnAttributes;
 import org.ldaptive.SearchRequest;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -60,6 +74,17 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
    */
   protected static final String USERNAME_PLACEHOLDER = "${username}";
 
+  /**
+   * The oid of the matching rule {@code LDAP_MATCHING_RULE_IN_CHAIN} of Active Directory.
+   */
+  protected static final String LDAP_MATCHING_RULE_IN_CHAIN = "1.2.840.113556.1.4.1941";
+
+  /**
+   * The pattern of a ranged attribute name (like {@code member;range=0-1499}).
+   */
+  private static final Pattern RANGE_PATTERN = Pattern.compile(
+      ";range=(\\d+)-(\\*|\\d+)", Pattern.CASE_INSENSITIVE);
+
   /**
    * The logger.
    */
@@ -90,6 +115,27 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
    */
   private LdaptiveRememberMeTokenProvider rememberMeTokenProvider;
 
+  /**
+   * The group membership cache (can be {@code null}).
+   */
+  private LdaptiveGroupMembershipCache groupMembershipCache;
+
+  /**
+   * The group graph, that is used with the group fetch strategy {@code NESTED_GROUPS}.
+   */
+  private LdaptiveGroupGraph groupGraph;
+
+  /**
+   * The cache of verified credentials (can be {@code null}).
+   */
+  private LdaptiveCredentialCache credentialCache;
+
+  /**
+   * The cache of the user details, that are validated with the remember-me token (can be
+   * {@code null}).
+   */
+  private LdaptiveCache<String, LdaptiveUserDetails> rememberMeCache;
+
   /**
    * Instantiates a ldaptive user details service.
    *
@@ -106,7 +152,8 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
     Assert.notNull(getLdaptiveTemplate(), "Ldaptive template is required.");
     setGrantedAuthoritiesMapper(new SimpleAuthorityMapper());
     if (nonNull(authenticationProperties.getAccountControlEvaluator())) {
-      setAccountControlEvaluator(authenticationProperties.getAccountControlEvaluator().get());
+      setAccountControlEvaluator(authenticationProperties.getAccountControlEvaluator()
+          .apply(authenticationProperties));
     }
     if (isEmpty(getAuthenticationProperties().getPasswordLastSetAttribute())) {
       setRememberMeTokenProvider(
@@ -116,6 +163,10 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
           new LdaptivePwdLastSetRememberMeTokenProvider(getAccountControlEvaluator(),
               getAuthenticationProperties().getPasswordLastSetAttribute()));
     }
+    if (GroupFetchStrategy.NESTED_GROUPS == getAuthenticationProperties().getGroupFetchStrategy()) {
+      setGroupGraph(new LdaptiveGroupGraph(requireNonNullElseGet(
+          getAuthenticationProperties().getGroupCache(), GroupCacheProperties::new)));
+    }
   }
 
   /**
@@ -153,14 +204,112 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
     }
   }
 
+  /**
+   * Sets group membership cache. It's only used with the group fetch strategy
+   * {@code GROUP_CONTAINS_USERS}; {@code null} disables caching.
+   *
+   * @param groupMembershipCache the group membership cache
+   */
+  public void setGroupMembershipCache(LdaptiveGroupMembershipCache groupMembershipCache) {
+    this.groupMembershipCache = groupMembershipCache;
+  }
+
+  /**
+   * Sets group graph. It's only used with the group fetch strategy {@code NESTED_GROUPS}.
+   *
+   * @param groupGraph the group graph
+   */
+  public void setGroupGraph(LdaptiveGroupGraph groupGraph) {
+    if (nonNull(groupGraph)) {
+      this.groupGraph = groupGraph;
+    }
+  }
+
+  /**
+   * Sets credential cache. The cached logins of a loaded user are removed, if its remember-me
+   * token has changed; {@code null} disables this.
+   *
+   * @param credentialCache the credential cache
+   */
+  public void setCredentialCache(LdaptiveCredentialCache credentialCache) {
+    this.credentialCache = credentialCache;
+  }
+
+  /**
+   * Sets remember-me cache. If it is set, {@link #loadUserByUsername(String)} returns the cached
+   * user details (with the cached authorities), as long as the remember-me token, that is
+   * calculated from a read of only the required attributes of the user, hasn't changed. Otherwise,
+   * the user is loaded completely. It's set on the user details service of the remember-me
+   * services; {@code null} disables it. The cache is bypassed, if the remember-me token provider
+   * can't produce a stable token (the invalid provider or the pwdLastSet provider, if the entry of
+   * the user has no such attribute), because such a cached user would be loaded again anyway.
+   *
+   * @param rememberMeCache the remember-me cache
+   */
+  public void setRememberMeCache(LdaptiveCache<String, LdaptiveUserDetails> rememberMeCache) {
+    this.rememberMeCache = rememberMeCache;
+  }
+
   @Override
   public LdaptiveUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    if (nonNull(rememberMeCache)
+        && getRememberMeTokenProvider() != LdaptiveRememberMeTokenProvider.invalid()) {
+      String key = username.toLowerCase(Locale.ROOT);
+      LdaptiveUserDetails cached = rememberMeCache.get(key);
+      if (nonNull(cached)) {
+        boolean valid = findRememberMeToken(cached.getDn())
+            .filter(token -> token.equals(cached.getPassword()))
+            .isPresent();
+        if (valid) {
+          logger.debug("Remember-me token of user '" + username + "' is unchanged.");
+          return cached;
+        }
+        rememberMeCache.evict(key);
+      }
+      LdaptiveUserDetails userDetails = loadUser(username);
+      if (!LdaptiveRememberMeTokenProvider.isInvalid(userDetails.getPassword())) {
+        rememberMeCache.put(key, userDetails);
+      }
+      return userDetails;
+    }
+    return loadUser(username);
+  }
+
+  /**
+   * Loads the user with its authorities.
+   *
+   * @param username the username
+   * @return the user details
+   * @throws UsernameNotFoundException if the user is not found
+   */
+  protected LdaptiveUserDetails loadUser(String username) throws UsernameNotFoundException {
     logger.debug("Loading user '" + username + "' ...");
     LdapEntry ldapEntry = findUser(username)
         .orElseThrow(() -> new UsernameNotFoundException(String.format("%s not found.", username)));
-    Collection<? extends GrantedAuthority> authorities = getAuthorities(ldapEntry);
+    LdaptiveUserDetails userDetails = createUserDetails(
+        ldapEntry, username, getAuthorities(ldapEntry));
+    if (nonNull(credentialCache)) {
+      credentialCache.evictIfChanged(userDetails);
+    }
+    return userDetails;
+  }
+
+  /**
+   * Creates the user details from the given ldap entry and authorities.
+   *
+   * @param ldapEntry the ldap entry of the user
+   * @param username the username that is used, if the ldap entry doesn't contain one
+   * @param authorities the authorities
+   * @return the user details
+   */
+  public LdaptiveUserDetails createUserDetails(
+      LdapEntry ldapEntry,
+      String username,
+      Collection<? extends GrantedAuthority> authorities) {
+    AccountControl accountControl = getAccountControlEvaluator().evaluate(ldapEntry);
     return new LdaptiveUser(
         ldapEntry,
+        getAuthenticationProperties().getRetainedAttributes(),
         Optional.ofNullable(getAuthenticationProperties().getUsernameAttribute())
             .map(ldapEntry::getAttribute)
             .map(LdapAttribute::getStringValue)
@@ -179,10 +328,10 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
             .orElse(null),
         authorities,
         getRememberMeTokenProvider().getRememberMeToken(ldapEntry),
-        getAccountControlEvaluator().isAccountNonExpired(ldapEntry),
-        getAccountControlEvaluator().isAccountNonLocked(ldapEntry),
-        getAccountControlEvaluator().isCredentialsNonExpired(ldapEntry),
-        getAccountControlEvaluator().isEnabled(ldapEntry)
+        accountControl.accountNonExpired(),
+        accountControl.accountNonLocked(),
+        accountControl.credentialsNonExpired(),
+        accountControl.enabled()
     );
   }
 
@@ -206,6 +355,69 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
    * @return the user
    */
   public Optional<LdapEntry> findUser(String username) {
+    return getLdaptiveTemplate().findOne(createFindUserRequest(username));
+  }
+
+  /**
+   * Finds the current remember-me token of the user with the given dn. Only the attributes, that
+   * are required by the remember-me token provider, are read from the entry of the user.
+   *
+   * @param dn the dn of the user
+   * @return the remember-me token or empty, if the user doesn't exist anymore
+   */
+  public Optional<String> findRememberMeToken(String dn) {
+    if (isEmpty(dn)) {
+      return Optional.empty();
+    }
+    return getLdaptiveTemplate().findOne(createFindRememberMeTokenRequest(dn))
+        .map(this::getRememberMeToken);
+  }
+
+  /**
+   * Determines whether a changed password of the given user can be detected by comparing its
+   * remember-me token. That's only the case, if the remember-me token provider detects password
+   * changes (like the pwdLastSet provider) and the token of the user isn't an invalid one (the
+   * pwdLastSet provider returns an invalid token, if the attribute is missing).
+   *
+   * @param userDetails the user details
+   * @return {@code true}, if a changed password can be detected, otherwise {@code false}
+   */
+  public boolean isPasswordChangeDetectable(LdaptiveUserDetails userDetails) {
+    return getRememberMeTokenProvider().isPasswordChangeDetected()
+        && !LdaptiveRememberMeTokenProvider.isInvalid(userDetails.getPassword());
+  }
+
+  /**
+   * Gets the remember-me token of the given ldap entry from the remember-me token provider.
+   *
+   * @param ldapEntry the ldap entry of the user
+   * @return the remember-me token
+   */
+  public String getRememberMeToken(LdapEntry ldapEntry) {
+    return getRememberMeTokenProvider().getRememberMeToken(ldapEntry);
+  }
+
+  /**
+   * Creates the search request, that reads the attributes, that are required by the remember-me
+   * token provider, from the entry with the given dn.
+   *
+   * @param dn the dn of the user
+   * @return the search request
+   */
+  public SearchRequest createFindRememberMeTokenRequest(String dn) {
+    Collection<String> attributes = getRememberMeTokenProvider().getRequiredAttributes();
+    return SearchRequest.objectScopeSearchRequest(dn, isEmpty(attributes)
+        ? ReturnAttributes.NONE.value()
+        : attributes.toArray(new String[0]));
+  }
+
+  /**
+   * Creates the search request to find the user.
+   *
+   * @param username the username or the dn of the user
+   * @return the search request
+   */
+  public SearchRequest createFindUserRequest(String username) {
     SearchRequest searchRequest = isDn(username)
         ? SearchRequest.objectScopeSearchRequest(username)
         : SearchRequest.builder()
@@ -217,7 +429,67 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
             .scope(getAuthenticationProperties().getUserFindOneSearchScope())
             .sizeLimit(1)
             .build();
-    return getLdaptiveTemplate().findOne(searchRequest);
+    String[] userAttributes = getRequestedUserAttributes();
+    if (userAttributes.length > 0) {
+      searchRequest.setReturnAttributes(userAttributes);
+    }
+    return searchRequest;
+  }
+
+  /**
+   * Creates the search request to find the user by username or email with one search. The filter
+   * combines the filter to find the user by username with the filter to find the user by email.
+   *
+   * @param name the username or the email
+   * @return the search request
+   */
+  public SearchRequest createFindUserByUsernameOrEmailRequest(String name) {
+    SearchRequest searchRequest = SearchRequest.builder()
+        .dn(getAuthenticationProperties().getUserBaseDn())
+        .filter(FilterTemplate.builder()
+            .filter(String.format("(|%s(&(objectClass=%s)(%s={0})))",
+                getAuthenticationProperties().getUserFindOneFilter(),
+                getAuthenticationProperties().getUserObjectClass(),
+                getAuthenticationProperties().getEmailAttribute()))
+            .parameters(name)
+            .build())
+        .scope(getAuthenticationProperties().getUserFindOneSearchScope())
+        .sizeLimit(2)
+        .build();
+    String[] userAttributes = getRequestedUserAttributes();
+    if (userAttributes.length > 0) {
+      searchRequest.setReturnAttributes(userAttributes);
+    }
+    return searchRequest;
+  }
+
+  /**
+   * Gets the attributes, that are requested to find the user. If no retained attributes are
+   * configured, all attributes are requested. Otherwise, the retained attributes and the
+   * attributes, that are required to create the user details, are requested.
+   *
+   * @return the requested attributes; an empty array, if all attributes are requested
+   */
+  protected String[] getRequestedUserAttributes() {
+    LdaptiveAuthenticationProperties properties = getAuthenticationProperties();
+    if (isEmpty(properties.getRetainedAttributes())) {
+      return new String[0];
+    }
+    Set<String> attributes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    attributes.addAll(properties.getRetainedAttributes());
+    attributes.addAll(getAccountControlEvaluator().getRequiredAttributes());
+    Stream.of(
+            properties.getUsernameAttribute(),
+            properties.getFirstNameAttribute(),
+            properties.getLastNameAttribute(),
+            properties.getEmailAttribute(),
+            properties.getPasswordLastSetAttribute(),
+            properties.getGroupFetchStrategy() == GroupFetchStrategy.USER_CONTAINS_GROUPS
+                ? properties.getMemberAttribute()
+                : null)
+        .filter(attribute -> !isEmpty(attribute))
+        .forEach(attributes::add);
+    return attributes.toArray(new String[0]);
   }
 
   /**
@@ -232,6 +504,7 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
       case NONE -> Set.of();
       case USER_CONTAINS_GROUPS -> getAuthoritiesByGroupsInUser(user);
       case GROUP_CONTAINS_USERS -> getAuthoritiesByGroupsWithUser(user);
+      case NESTED_GROUPS -> getAuthoritiesByNestedGroups(user);
     };
   }
 
@@ -261,17 +534,270 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
    * @return the roles by groups with user
    */
   protected Collection<? extends GrantedAuthority> getAuthoritiesByGroupsWithUser(LdapEntry user) {
-    Collection<? extends GrantedAuthority> authorities = getLdaptiveTemplate()
-        .findAll(
-            SearchRequest.builder()
-                .dn(getAuthenticationProperties().getGroupBaseDn())
-                .filter(FilterTemplate.builder()
-                    .filter(getAuthorityFilter(user))
-                    .build())
-                .scope(getAuthenticationProperties().getGroupSearchScope())
-                .build())
-        .stream()
+    return findCachedAuthoritiesByGroupsWithUser(user)
+        .orElseGet(() -> getAuthoritiesByGroupsWithUser(user, getLdaptiveTemplate()
+            .findAll(createFindGroupsWithUserRequest(user))));
+  }
+
+  /**
+   * Gets the authorities of the groups, that contain the user directly or indirectly. If the
+   * matching rule in chain is enabled, the ldap server resolves the nested groups with one search;
+   * otherwise, the group graph is expanded breadth first with one search per uncached member. In
+   * both cases the result is served from the shared group graph, if possible.
+   *
+   * @param user the user
+   * @return the authorities
+   */
+  protected Collection<? extends GrantedAuthority> getAuthoritiesByNestedGroups(LdapEntry user) {
+    Set<LdaptiveGroupGraph.Group> groups;
+    if (getAuthenticationProperties().isMatchingRuleInChain()) {
+      groups = getGroupGraph().getGroups(user.getDn(), this::findGroupsInChain);
+    } else {
+      groups = getGroupGraph().expand(getGroupMemberValue(user), this::findGroupsByMember);
+    }
+    return getAuthoritiesByNames(groups.stream()
+        .map(LdaptiveGroupGraph.Group::name)
+        .collect(Collectors.toSet()));
+  }
+
+  /**
+   * Finds all groups, that contain the given member directly or indirectly, with the matching rule
+   * {@code LDAP_MATCHING_RULE_IN_CHAIN}.
+   *
+   * @param memberDn the dn of the member
+   * @return the groups
+   */
+  protected Set<LdaptiveGroupGraph.Group> findGroupsInChain(String memberDn) {
+    return getLdaptiveTemplate().findAll(createFindGroupsInChainRequest(memberDn)).stream()
+        .map(group -> new LdaptiveGroupGraph.Group(group.getDn(), getAuthorityName(group)))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Creates the search request to find all groups, that contain the given member directly or
+   * indirectly, with the matching rule {@code LDAP_MATCHING_RULE_IN_CHAIN}.
+   *
+   * @param memberDn the dn of the member
+   * @return the search request
+   */
+  public SearchRequest createFindGroupsInChainRequest(String memberDn) {
+    String groupIdAttribute = getAuthenticationProperties().getGroupIdAttribute();
+    return SearchRequest.builder()
+        .dn(getAuthenticationProperties().getGroupBaseDn())
+        .filter(FilterTemplate.builder()
+            .filter(String.format("(&(objectClass=%s)(%s:%s:={0}))",
+                getAuthenticationProperties().getGroupObjectClass(),
+                getAuthenticationProperties().getGroupMemberAttribute(),
+                LDAP_MATCHING_RULE_IN_CHAIN))
+            .parameters(memberDn)
+            .build())
+        .scope(getAuthenticationProperties().getGroupSearchScope())
+        .returnAttributes(isEmpty(groupIdAttribute)
+            ? ReturnAttributes.NONE.value()
+            : new String[]{groupIdAttribute})
+        .build();
+  }
+
+  /**
+   * Finds the groups, that contain the given member directly. The member attribute of the groups
+   * is not requested, so the (possibly large) member lists are not transferred; this also works
+   * with the Active Directory, which returns the members of large groups as ranged attribute (like
+   * {@code member;range=0-1499}).
+   *
+   * @param memberValue the member value (the dn or the formatted username of a user or the dn of a
+   *     group)
+   * @return the groups
+   */
+  protected Set<LdaptiveGroupGraph.Group> findGroupsByMember(String memberValue) {
+    return getLdaptiveTemplate()
+        .findAll(createFindGroupsByMemberRequest(memberValue)).stream()
+        .map(group -> new LdaptiveGroupGraph.Group(group.getDn(), getAuthorityName(group)))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Creates the search request to find the groups, that contain the given member directly. Only
+   * the group id attribute is requested.
+   *
+   * @param memberValue the member value
+   * @return the search request
+   */
+  public SearchRequest createFindGroupsByMemberRequest(String memberValue) {
+    String groupIdAttribute = getAuthenticationProperties().getGroupIdAttribute();
+    return SearchRequest.builder()
+        .dn(getAuthenticationProperties().getGroupBaseDn())
+        .filter(FilterTemplate.builder()
+            .filter(String.format("(&(objectClass=%s)(%s={0}))",
+                getAuthenticationProperties().getGroupObjectClass(),
+                getAuthenticationProperties().getGroupMemberAttribute()))
+            .parameters(memberValue)
+            .build())
+        .scope(getAuthenticationProperties().getGroupSearchScope())
+        .returnAttributes(isEmpty(groupIdAttribute)
+            ? ReturnAttributes.NONE.value()
+            : new String[]{groupIdAttribute})
+        .build();
+  }
+
+  /**
+   * Finds the authorities of the groups, that contain the user, in the group membership cache.
+   *
+   * @param user the user
+   * @return the authorities or empty, if there is no group membership cache or if the groups of
+   *     the user are not cached
+   */
+  public Optional<Collection<? extends GrantedAuthority>> findCachedAuthoritiesByGroupsWithUser(
+      LdapEntry user) {
+    return Optional.ofNullable(getGroupMembershipCache())
+        .flatMap(cache -> cache.findGroupNames(getGroupMemberValue(user)))
+        .map(this::getAuthoritiesByNames);
+  }
+
+  /**
+   * Gets the authorities of the given groups, that contain the user. The group names are put into
+   * the group membership cache, if there is one.
+   *
+   * @param user the user
+   * @param groups the groups, that contain the user
+   * @return the authorities
+   */
+  public Collection<? extends GrantedAuthority> getAuthoritiesByGroupsWithUser(
+      LdapEntry user,
+      Collection<LdapEntry> groups) {
+    Set<String> groupNames = Stream.ofNullable(groups)
+        .flatMap(Collection::stream)
         .map(this::getAuthorityName)
+        .collect(Collectors.toSet());
+    if (nonNull(getGroupMembershipCache())) {
+      getGroupMembershipCache().put(getGroupMemberValue(user), groupNames);
+    }
+    return getAuthoritiesByNames(groupNames);
+  }
+
+  /**
+   * Finds all groups page by page and returns the names of the groups by their member values. This
+   * is used to load the snapshot of the group membership cache. The members of large groups, that
+   * are returned as ranged attribute by the Active Directory (like {@code member;range=0-1499}),
+   * are read range by range.
+   *
+   * @return the group names by member value
+   */
+  public Map<String, Set<String>> findGroupMemberships() {
+    int pageSize = requireNonNullElseGet(
+        getAuthenticationProperties().getGroupCache(), GroupCacheProperties::new).getPageSize();
+    Map<String, Set<String>> groupsByMember = new HashMap<>();
+    try (Stream<LdapEntry> groups = getLdaptiveTemplate()
+        .findAllPaged(createFindAllGroupsRequest(), pageSize)) {
+      groups.forEach(group -> {
+        String groupName = getAuthorityName(group);
+        getGroupMembers(group).forEach(member -> groupsByMember
+            .computeIfAbsent(member, key -> new HashSet<>())
+            .add(groupName));
+      });
+    }
+    return groupsByMember;
+  }
+
+  /**
+   * Gets the members of the given group. If the group contains a ranged member attribute (like
+   * {@code member;range=0-1499}), the remaining ranges are read from the entry of the group until
+   * the last range (like {@code member;range=1500-*}) is returned.
+   *
+   * @param group the group
+   * @return the member values
+   */
+  protected Collection<String> getGroupMembers(LdapEntry group) {
+    String groupMemberAttribute = getAuthenticationProperties().getGroupMemberAttribute();
+    LdapAttribute members = group.getAttribute(groupMemberAttribute);
+    if (nonNull(members)) {
+      return members.getStringValues();
+    }
+    Collection<String> values = new ArrayList<>();
+    LdapAttribute range = findRangedAttribute(group, groupMemberAttribute);
+    while (nonNull(range)) {
+      values.addAll(range.getStringValues());
+      Matcher matcher = RANGE_PATTERN.matcher(range.getName());
+      if (!matcher.find() || "*".equals(matcher.group(2))) {
+        break;
+      }
+      long next = Long.parseLong(matcher.group(2)) + 1;
+      range = getLdaptiveTemplate()
+          .findOne(SearchRequest.objectScopeSearchRequest(group.getDn(),
+              new String[]{groupMemberAttribute + ";range=" + next + "-*"}))
+          .map(entry -> findRangedAttribute(entry, groupMemberAttribute))
+          .orElse(null);
+    }
+    return values;
+  }
+
+  private static LdapAttribute findRangedAttribute(LdapEntry entry, String attributeName) {
+    String prefix = attributeName.toLowerCase(Locale.ROOT) + ";range=";
+    return entry.getAttributes().stream()
+        .filter(attribute -> attribute.getName().toLowerCase(Locale.ROOT).startsWith(prefix))
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Creates the search request to find all groups with their members.
+   *
+   * @return the search request
+   */
+  public SearchRequest createFindAllGroupsRequest() {
+    String groupIdAttribute = getAuthenticationProperties().getGroupIdAttribute();
+    String groupMemberAttribute = getAuthenticationProperties().getGroupMemberAttribute();
+    return SearchRequest.builder()
+        .dn(getAuthenticationProperties().getGroupBaseDn())
+        .filter(FilterTemplate.builder()
+            .filter(String.format("(objectClass=%s)",
+                getAuthenticationProperties().getGroupObjectClass()))
+            .build())
+        .scope(getAuthenticationProperties().getGroupSearchScope())
+        .returnAttributes(isEmpty(groupIdAttribute)
+            ? new String[]{groupMemberAttribute}
+            : new String[]{groupIdAttribute, groupMemberAttribute})
+        .build();
+  }
+
+  /**
+   * Creates the search request to find the groups that contain the user.
+   *
+   * @param user the user
+   * @return the search request
+   */
+  public SearchRequest createFindGroupsWithUserRequest(LdapEntry user) {
+    return SearchRequest.builder()
+        .dn(getAuthenticationProperties().getGroupBaseDn())
+        .filter(FilterTemplate.builder()
+            .filter(getAuthorityFilter(user))
+            .build())
+        .scope(getAuthenticationProperties().getGroupSearchScope())
+        .build();
+  }
+
+  /**
+   * Gets the authorities of the given groups.
+   *
+   * @param groups the groups
+   * @return the authorities
+   */
+  public Collection<? extends GrantedAuthority> getAuthoritiesByGroups(
+      Collection<LdapEntry> groups) {
+    return getAuthoritiesByNames(Stream.ofNullable(groups)
+        .flatMap(Collection::stream)
+        .map(this::getAuthorityName)
+        .collect(Collectors.toSet()));
+  }
+
+  /**
+   * Gets the authorities of the given group names.
+   *
+   * @param groupNames the group names
+   * @return the authorities
+   */
+  protected Collection<? extends GrantedAuthority> getAuthoritiesByNames(
+      Collection<String> groupNames) {
+    Collection<? extends GrantedAuthority> authorities = groupNames.stream()
         .map(SimpleGrantedAuthority::new)
         .collect(Collectors.toSet());
     return getGrantedAuthoritiesMapper().mapAuthorities(authorities);
@@ -286,18 +812,26 @@ public class LdaptiveUserDetailsService implements UserDetailsService {
   protected String getAuthorityFilter(LdapEntry user) {
     String groupObjectClass = getAuthenticationProperties().getGroupObjectClass();
     String groupMemberAttribute = getAuthenticationProperties().getGroupMemberAttribute();
-    String groupMemberValue;
+    return String.format("(&(objectClass=%s)(%s=%s))",
+        groupObjectClass, groupMemberAttribute, getGroupMemberValue(user));
+  }
+
+  /**
+   * Gets the value of the user in the member attribute of a group: the dn of the user or the
+   * formatted username, if a group member format is set.
+   *
+   * @param user the user
+   * @return the group member value
+   */
+  protected String getGroupMemberValue(LdapEntry user) {
     String groupMemberFormat = getAuthenticationProperties().getGroupMemberFormat();
     if (isEmpty(groupMemberFormat)) {
-      groupMemberValue = user.getDn();
-    } else {
-      String username = user.getAttribute(getAuthenticationProperties().getUsernameAttribute())
-          .getStringValue();
-      groupMemberValue = groupMemberFormat
-          .replaceFirst(Pattern.quote(USERNAME_PLACEHOLDER), username);
+      return user.getDn();
     }
-    return String.format("(&(objectClass=%s)(%s=%s))",
-        groupObjectClass, groupMemberAttribute, groupMemberValue);
+    String username = user.getAttribute(getAuthenticationProperties().getUsernameAttribute())
+        .getStringValue();
+    return groupMemberFormat
+        .replaceFirst(Pattern.quote(USERNAME_PLACEHOLDER), username);
   }
 
   /**
@@ -1,11 +1,16 @@
 package org.bremersee.spring.security.ldaptive.authentication;
 
+import java.time.Duration;
+import java.time.Instant;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.ldaptive.transcoder.FileTimePrimitiveValueTranscoder;
 import org.bremersee.spring.security.ldaptive.authentication.provider.ActiveDirectoryAccountControlEvaluator;
 import org.bremersee.spring.security.ldaptive.authentication.provider.NoAccountControlEvaluator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
 
 /**
  * The type Account control evaluator property test.
@@ -27,4 +32,38 @@ class AccountControlEvaluatorPropertyTest {
         .assertThat(AccountControlEvaluatorProperty.ACTIVE_DIRECTORY.get().getClass())
         .isEqualTo(ActiveDirectoryAccountControlEvaluator.class);
   }
-}
\ No newline at end of file
+
+  /**
+   * Apply.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void apply(SoftAssertions softly) {
+    long lockoutTime = FileTimePrimitiveValueTranscoder.toFileTime(
+        Instant.now().minus(Duration.ofMinutes(45L)).toEpochMilli());
+    LdapEntry user = LdapEntry.builder()
+        .dn("cn=junit,cn=users,dc=example,dc=org")
+        .attributes(new LdapAttribute(
+            ActiveDirectoryAccountControlEvaluator.LOCKOUT_TIME, String.valueOf(lockoutTime)))
+        .build();
+    LdaptiveAuthenticationProperties properties = new LdaptiveAuthenticationProperties();
+
+    softly
+        .assertThat(AccountControlEvaluatorProperty.ACTIVE_DIRECTORY.apply(properties)
+            .isAccountNonLocked(user))
+        .isTrue();
+
+    properties.setLockoutDuration(Duration.ofHours(1L));
+    softly
+        .assertThat(AccountControlEvaluatorProperty.ACTIVE_DIRECTORY.apply(properties)
+            .isAccountNonLocked(user))
+        .isFalse();
+
+    properties.setLockoutDuration(Duration.ZERO);
+    softly
+        .assertThat(AccountControlEvaluatorProperty.ACTIVE_DIRECTORY.apply(properties)
+            .isAccountNonLocked(user))
+        .isFalse();
+  }
+}
@@ -4,16 +4,24 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.util.List;
 import java.util.Optional;
+import org.bremersee.ldaptive.DefaultLdaptiveErrorHandler;
 import org.bremersee.ldaptive.LdaptiveException;
 import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.EmailCacheProperties;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
 import org.ldaptive.SearchScope;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -98,6 +106,88 @@ class EmailToUsernameResolverByLdapAttributeTest {
     assertThat(actual).isEmpty();
   }
 
+  /**
+   * Gets username by email from cache.
+   */
+  @Test
+  void getUsernameByEmailFromCache() {
+    doReturn("ou=people,dc=bremersee,dc=org").when(properties).getUserBaseDn();
+    doReturn(SearchScope.ONELEVEL).when(properties).getUserFindOneSearchScope();
+    doReturn("person").when(properties).getUserObjectClass();
+    doReturn("mail").when(properties).getEmailAttribute();
+    doReturn("uid").when(properties).getUsernameAttribute();
+    EmailCacheProperties emailCache = new EmailCacheProperties();
+    emailCache.setEnabled(true);
+    doReturn(emailCache).when(properties).getEmailCache();
+    EmailToUsernameResolverByLdapAttribute cachingTarget
+        = new EmailToUsernameResolverByLdapAttribute(properties, ldaptiveTemplate);
+
+    ArgumentCaptor<SearchRequest> searchCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+    doReturn(List.of(createUser()))
+        .when(ldaptiveTemplate)
+        .findAll(searchCaptor.capture());
+    assertThat(cachingTarget.getUsernameByEmail("junit@example.com"))
+        .hasValue("junit");
+    assertThat(cachingTarget.getUsernameByEmail("junit@example.com"))
+        .hasValue("junit");
+    assertThat(cachingTarget.findCachedUsername("JUnit@example.com"))
+        .hasValue("junit");
+    assertThat(searchCaptor.getValue().getSizeLimit())
+        .isEqualTo(2);
+    assertThat(searchCaptor.getValue().getReturnAttributes())
+        .containsExactly("uid");
+
+    doReturn(List.of())
+        .when(ldaptiveTemplate)
+        .findAll(any());
+    assertThat(cachingTarget.getUsernameByEmail("anna@example.com"))
+        .isEmpty();
+    assertThat(cachingTarget.getUsernameByEmail("anna@example.com"))
+        .isEmpty();
+    assertThat(cachingTarget.findCachedUsername("anna@example.com"))
+        .hasValue("anna@example.com");
+    verify(ldaptiveTemplate, times(2))
+        .findAll(any());
+
+    cachingTarget.evict("junit@example.com");
+    assertThat(cachingTarget.findCachedUsername("junit@example.com"))
+        .isEmpty();
+    cachingTarget.clear();
+    assertThat(cachingTarget.findCachedUsername("anna@example.com"))
+        .isEmpty();
+
+    cachingTarget.cacheUnknownEmail("Anna@example.com");
+    assertThat(cachingTarget.findCachedUsername("anna@example.com"))
+        .hasValue("anna@example.com");
+  }
+
+  /**
+   * Gets no username by email because the email is ambiguous.
+   */
+  @Test
+  void getNoUsernameByEmailBecauseOfSizeLimitExceeded() {
+    doReturn("ou=people,dc=bremersee,dc=org").when(properties).getUserBaseDn();
+    doReturn(SearchScope.ONELEVEL).when(properties).getUserFindOneSearchScope();
+    doReturn("person").when(properties).getUserObjectClass();
+    doReturn("mail").when(properties).getEmailAttribute();
+    doReturn("uid").when(properties).getUsernameAttribute();
+    EmailCacheProperties emailCache = new EmailCacheProperties();
+    emailCache.setEnabled(true);
+    doReturn(emailCache).when(properties).getEmailCache();
+    EmailToUsernameResolverByLdapAttribute cachingTarget
+        = new EmailToUsernameResolverByLdapAttribute(properties, ldaptiveTemplate);
+
+    doThrow(new DefaultLdaptiveErrorHandler()
+        .map(new LdapException(ResultCode.SIZE_LIMIT_EXCEEDED, "test")))
+        .when(ldaptiveTemplate)
+        .findAll(any());
+
+    assertThat(cachingTarget.getUsernameByEmail("junit@example.com"))
+        .isEmpty();
+    assertThat(cachingTarget.findCachedUsername("junit@example.com"))
+        .hasValue("junit@example.com");
+  }
+
   private LdapEntry createUser() {
     LdapEntry entry = new LdapEntry();
     entry.setDn("cn=junit,ou=people,dc=bremersee,dc=org");
@@ -16,15 +16,19 @@
 
 package org.bremersee.spring.security.ldaptive.authentication;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.util.ArrayList;
 import java.util.List;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.bremersee.spring.security.core.EmailToUsernameResolver;
 import org.bremersee.spring.security.ldaptive.app.TestConfiguration;
+import org.bremersee.spring.security.ldaptive.authentication.provider.OpenLdapTemplate;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.ldaptive.ConnectionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
@@ -40,6 +44,7 @@ import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunctions;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
 
 /**
  * The ldaptive authentication manager spring boot test.
@@ -66,6 +71,9 @@ class LdaptiveAuthenticationManagerSpringBootTest {
   @Autowired
   private EmailToUsernameResolver emailToUsernameResolver;
 
+  @Autowired
+  private ConnectionFactory connectionFactory;
+
   @LocalServerPort
   private int port;
 
@@ -127,6 +135,74 @@ class LdaptiveAuthenticationManagerSpringBootTest {
         .containsExactlyInAnyOrderElementsOf(expectedRoles);
   }
 
+  /**
+   * Authenticate with bind pool.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void authenticateWithBindPool(SoftAssertions softly) {
+    LdaptiveAuthenticationProperties properties = new OpenLdapTemplate();
+    properties.setUserBaseDn("ou=people,dc=bremersee,dc=org");
+    properties.getBindPool().setEnabled(true);
+    properties.getBindPool().setMaxPoolSize(2);
+    LdaptiveAuthenticationManager target = new LdaptiveAuthenticationManager(
+        connectionFactory.getConnectionConfig(),
+        properties);
+    target.init();
+    try {
+      // wrong password: authentication fails
+      softly
+          .assertThatExceptionOfType(BadCredentialsException.class)
+          .isThrownBy(() -> target
+              .authenticate(new UsernamePasswordAuthenticationToken("anna", "secret")));
+
+      // authenticate successfully several times on the pooled connections
+      for (int i = 0; i < 3; i++) {
+        LdaptiveAuthentication authenticationToken = target
+            .authenticate(new UsernamePasswordAuthenticationToken("anna", "topsecret"));
+        softly
+            .assertThat(authenticationToken.isAuthenticated())
+            .isTrue();
+        softly
+            .assertThat(authenticationToken.getName())
+            .isEqualTo("anna");
+      }
+
+    } finally {
+      target.close();
+    }
+  }
+
+  /**
+   * Authenticate reactively.
+   */
+  @Test
+  void authenticateReactively() {
+    ReactiveLdaptiveAuthenticationManager target = new ReactiveLdaptiveAuthenticationManager(
+        authenticationManager);
+
+    // wrong password: authentication fails
+    StepVerifier
+        .create(target.authenticate(new UsernamePasswordAuthenticationToken("anna", "secret")))
+        .expectError(BadCredentialsException.class)
+        .verify();
+
+    // authenticate successfully
+    StepVerifier
+        .create(target.authenticate(new UsernamePasswordAuthenticationToken(
+            "anna.livia@bremersee.org", "topsecret")))
+        .assertNext(authentication -> {
+          assertThat(authentication.isAuthenticated()).isTrue();
+          assertThat(authentication.getName()).isEqualTo("anna");
+          assertThat(new ArrayList<GrantedAuthority>(authentication.getAuthorities()))
+              .containsExactlyInAnyOrder(
+                  new SimpleGrantedAuthority("ROLE_developers"),
+                  new SimpleGrantedAuthority("ROLE_managers"));
+        })
+        .verifyComplete();
+  }
+
   /**
    * Say hello endpoint.
    *
@@ -8,9 +8,12 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +22,7 @@ import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.bremersee.ldaptive.DefaultLdaptiveErrorHandler;
 import org.bremersee.ldaptive.LdaptiveException;
 import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.BindPoolProperties;
 import org.bremersee.spring.security.ldaptive.authentication.provider.ActiveDirectoryTemplate;
 import org.bremersee.spring.security.ldaptive.authentication.provider.OpenLdapTemplate;
 import org.bremersee.spring.security.ldaptive.authentication.provider.UserContainsGroupsTemplate;
@@ -35,6 +39,10 @@ import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
 import org.ldaptive.LdapException;
 import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchScope;
+import org.ldaptive.filter.FilterParseException;
+import org.ldaptive.filter.FilterParser;
 import org.mockito.ArgumentCaptor;
 import org.springframework.security.authentication.AccountExpiredException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -116,6 +124,37 @@ class LdaptiveAuthenticationManagerTest {
         .isNotNull();
   }
 
+  /**
+   * Gets ldaptive template with empty password.
+   */
+  @Test
+  void getLdaptiveTemplateWithEmptyPassword() {
+    LdaptiveTemplate ldaptiveTemplate = new LdaptiveTemplate(
+        new DefaultConnectionFactory(new ConnectionConfig("ldap://localhost:389")));
+    LdaptiveAuthenticationManager target = new LdaptiveAuthenticationManager(
+        ldaptiveTemplate,
+        new ActiveDirectoryTemplate());
+    target.setUsernameToBindDnConverter(username -> username);
+    target.init();
+    assertThatExceptionOfType(BadCredentialsException.class)
+        .isThrownBy(() -> target.getLdapTemplate("junit", ""));
+  }
+
+  /**
+   * The bind authenticator rejects an empty password without a bind.
+   */
+  @Test
+  void bindAuthenticatorRejectsEmptyPassword() {
+    try (LdaptiveBindAuthenticator target = new LdaptiveBindAuthenticator(
+        new ConnectionConfig("ldap://localhost:389"),
+        new BindPoolProperties())) {
+      assertThatExceptionOfType(LdaptiveException.class)
+          .isThrownBy(() -> target.authenticate("uid=junit", ""))
+          .extracting(LdaptiveException::getResultCode)
+          .isEqualTo(ResultCode.INVALID_CREDENTIALS);
+    }
+  }
+
   /**
    * Gets user details service.
    */
@@ -333,6 +372,298 @@ class LdaptiveAuthenticationManagerTest {
             .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret")));
   }
 
+  /**
+   * Authenticate with optimized login by email.
+   *
+   * @param softly the softly
+   * @throws FilterParseException the filter parse exception
+   */
+  @Test
+  void authenticateWithOptimizedLoginByEmail(SoftAssertions softly) throws FilterParseException {
+    ConnectionConfig connectionConfig = new ConnectionConfig("ldap://localhost:389");
+    ConnectionFactory connectionFactory = new DefaultConnectionFactory(connectionConfig);
+    LdaptiveTemplate ldaptiveTemplate = spy(new LdaptiveTemplate(connectionFactory));
+    UserContainsGroupsTemplate properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setPasswordAttribute("userPassword");
+    properties.setAccountControlEvaluator(null);
+    properties.setOptimizedLogin(true);
+    LdaptiveAuthenticationManager target = spy(new LdaptiveAuthenticationManager(
+        ldaptiveTemplate, properties));
+    List<LdaptiveLoginTimings> timings = new ArrayList<>();
+    target.setLoginTimingsConsumer(timings::add);
+
+    PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    doAnswer(invocationOnMock -> invocationOnMock.getArgument(0))
+        .when(passwordEncoder)
+        .encode(anyString());
+    target.setPasswordEncoder(passwordEncoder);
+
+    target.init();
+
+    LdapEntry user = createUser();
+    ArgumentCaptor<SearchRequest> searchCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+    doReturn(List.of(user))
+        .when(ldaptiveTemplate)
+        .findAll(searchCaptor.capture());
+    doReturn(true)
+        .when(ldaptiveTemplate)
+        .compare(any());
+
+    LdaptiveAuthentication actual = target
+        .authenticate(new UsernamePasswordAuthenticationToken("junit@example.com", "secret"));
+
+    assertActual(actual, softly);
+    softly
+        .assertThat(searchCaptor.getValue().getFilter())
+        .isEqualTo(FilterParser.parse("(|(&(objectClass=inetOrgPerson)(uid=junit@example.com))"
+            + "(&(objectClass=inetOrgPerson)(mail=junit@example.com)))"));
+    softly
+        .assertThat(searchCaptor.getValue().getSizeLimit())
+        .isEqualTo(2);
+    verify(ldaptiveTemplate, never())
+        .findOne(any());
+    softly
+        .assertThat(timings)
+        .hasSize(1)
+        .allMatch(LdaptiveLoginTimings::successful);
+  }
+
+  /**
+   * Authenticate with optimized login and bind.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void authenticateWithOptimizedLoginAndBind(SoftAssertions softly) {
+    ConnectionConfig connectionConfig = new ConnectionConfig("ldap://localhost:389");
+    ConnectionFactory connectionFactory = new DefaultConnectionFactory(connectionConfig);
+    LdaptiveTemplate ldaptiveTemplate = spy(new LdaptiveTemplate(connectionFactory));
+    UserContainsGroupsTemplate properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setOptimizedLogin(true);
+    LdaptiveAuthenticationManager target = spy(new LdaptiveAuthenticationManager(
+        ldaptiveTemplate, properties));
+    List<LdaptiveLoginTimings> timings = new ArrayList<>();
+    target.setLoginTimingsConsumer(timings::add);
+
+    target.init();
+
+    doReturn(ldaptiveTemplate)
+        .doThrow(new DefaultLdaptiveErrorHandler()
+            .map(new LdapException(ResultCode.INVALID_CREDENTIALS, "Invalid credentials")))
+        .when(target)
+        .createUserLdaptiveTemplate(anyString(), anyString());
+    LdapEntry user = createUser();
+    doReturn(Optional.of(user), Optional.of(user), Optional.empty())
+        .when(ldaptiveTemplate)
+        .findOne(any());
+
+    LdaptiveAuthentication actual = target
+        .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret"));
+    assertActual(actual, softly);
+
+    assertThatExceptionOfType(BadCredentialsException.class)
+        .isThrownBy(() -> target
+            .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret")));
+    assertThatExceptionOfType(BadCredentialsException.class)
+        .isThrownBy(() -> target
+            .authenticate(new UsernamePasswordAuthenticationToken("junit", "")));
+    assertThatExceptionOfType(BadCredentialsException.class)
+        .isThrownBy(() -> target
+            .authenticate(new UsernamePasswordAuthenticationToken("unknown", "secret")));
+
+    softly
+        .assertThat(timings)
+        .extracting(LdaptiveLoginTimings::successful)
+        .containsExactly(true, false, false);
+    softly
+        .assertThat(timings.get(1).fetchAuthorities())
+        .isZero();
+  }
+
+  /**
+   * Authenticate with login throttle.
+   */
+  @Test
+  void authenticateWithLoginThrottle() {
+    ConnectionConfig connectionConfig = new ConnectionConfig("ldap://localhost:389");
+    ConnectionFactory connectionFactory = new DefaultConnectionFactory(connectionConfig);
+    LdaptiveTemplate ldaptiveTemplate = spy(new LdaptiveTemplate(connectionFactory));
+    UserContainsGroupsTemplate properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setPasswordAttribute("userPassword");
+    properties.getLoginThrottle().setEnabled(true);
+    properties.getLoginThrottle().setFreeAttempts(1);
+    properties.getLoginThrottle().setInitialDelay(Duration.ofMinutes(1L));
+    LdaptiveAuthenticationManager target = new LdaptiveAuthenticationManager(
+        ldaptiveTemplate, properties);
+    target.setPasswordEncoder(mock(PasswordEncoder.class));
+    target.setClientAddressResolver(authentication -> "192.168.1.10");
+    target.init();
+
+    doReturn(Optional.empty())
+        .when(ldaptiveTemplate)
+        .findOne(any());
+
+    assertThatExceptionOfType(UsernameNotFoundException.class)
+        .isThrownBy(() -> target
+            .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret")));
+    assertThatExceptionOfType(LdaptiveLoginThrottledException.class)
+        .isThrownBy(() -> target
+            .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret")));
+    verify(ldaptiveTemplate, times(1))
+        .findOne(any());
+  }
+
+  /**
+   * Authenticate with credential cache.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void authenticateWithCredentialCache(SoftAssertions softly) {
+    ConnectionConfig connectionConfig = new ConnectionConfig("ldap://localhost:389");
+    ConnectionFactory connectionFactory = new DefaultConnectionFactory(connectionConfig);
+    LdaptiveTemplate ldaptiveTemplate = spy(new LdaptiveTemplate(connectionFactory));
+    UserContainsGroupsTemplate properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setPasswordAttribute("userPassword");
+    properties.setAccountControlEvaluator(null);
+    properties.setPasswordLastSetAttribute("pwdLastSet");
+    properties.getCredentialCache().setEnabled(true);
+    LdaptiveAuthenticationManager target = new LdaptiveAuthenticationManager(
+        ldaptiveTemplate, properties);
+    PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    doAnswer(invocationOnMock -> invocationOnMock.getArgument(0))
+        .when(passwordEncoder)
+        .encode(anyString());
+    target.setPasswordEncoder(passwordEncoder);
+    target.init();
+
+    doReturn(Optional.of(createUserWithPwdLastSet()))
+        .when(ldaptiveTemplate)
+        .findOne(any());
+    doReturn(true, false)
+        .when(ldaptiveTemplate)
+        .compare(any());
+
+    LdaptiveAuthentication actual = target
+        .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret"));
+    assertActual(actual, softly);
+    actual = target
+        .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret"));
+    assertActual(actual, softly);
+    // the second login only reads the remember-me token
+    verify(ldaptiveTemplate, times(2))
+        .findOne(any());
+    verify(ldaptiveTemplate, times(1))
+        .compare(any());
+
+    // a different password is verified by the ldap server
+    assertThatExceptionOfType(BadCredentialsException.class)
+        .isThrownBy(() -> target
+            .authenticate(new UsernamePasswordAuthenticationToken("junit", "other")));
+    verify(ldaptiveTemplate, times(2))
+        .compare(any());
+  }
+
+  /**
+   * Authenticate with credential cache and changed remember-me token.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void authenticateWithCredentialCacheAndChangedRememberMeToken(SoftAssertions softly) {
+    ConnectionConfig connectionConfig = new ConnectionConfig("ldap://localhost:389");
+    ConnectionFactory connectionFactory = new DefaultConnectionFactory(connectionConfig);
+    LdaptiveTemplate ldaptiveTemplate = spy(new LdaptiveTemplate(connectionFactory));
+    UserContainsGroupsTemplate properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setPasswordAttribute("userPassword");
+    properties.setAccountControlEvaluator(null);
+    properties.setPasswordLastSetAttribute("pwdLastSet");
+    properties.getCredentialCache().setEnabled(true);
+    LdaptiveAuthenticationManager target = new LdaptiveAuthenticationManager(
+        ldaptiveTemplate, properties);
+    PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    doAnswer(invocationOnMock -> invocationOnMock.getArgument(0))
+        .when(passwordEncoder)
+        .encode(anyString());
+    target.setPasswordEncoder(passwordEncoder);
+    target.init();
+
+    ArgumentCaptor<SearchRequest> searchCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+    doReturn(
+        Optional.of(createUserWithPwdLastSet()),
+        Optional.empty(),
+        Optional.of(createUserWithPwdLastSet()))
+        .when(ldaptiveTemplate)
+        .findOne(searchCaptor.capture());
+    doReturn(true)
+        .when(ldaptiveTemplate)
+        .compare(any());
+
+    LdaptiveAuthentication actual = target
+        .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret"));
+    assertActual(actual, softly);
+    // the remember-me token can't be read, so the cached login is removed
+    actual = target
+        .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret"));
+    assertActual(actual, softly);
+    verify(ldaptiveTemplate, times(3))
+        .findOne(any());
+    verify(ldaptiveTemplate, times(2))
+        .compare(any());
+    SearchRequest tokenRequest = searchCaptor.getAllValues().get(1);
+    softly.assertThat(tokenRequest.getBaseDn())
+        .isEqualTo(USER_DN);
+    softly.assertThat(tokenRequest.getSearchScope())
+        .isEqualTo(SearchScope.OBJECT);
+  }
+
+  /**
+   * Authenticate with credential cache without detection of password changes.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void authenticateWithCredentialCacheWithoutPasswordChangeDetection(SoftAssertions softly) {
+    ConnectionConfig connectionConfig = new ConnectionConfig("ldap://localhost:389");
+    ConnectionFactory connectionFactory = new DefaultConnectionFactory(connectionConfig);
+    LdaptiveTemplate ldaptiveTemplate = spy(new LdaptiveTemplate(connectionFactory));
+    UserContainsGroupsTemplate properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setPasswordAttribute("userPassword");
+    properties.setAccountControlEvaluator(null);
+    properties.getCredentialCache().setEnabled(true);
+    LdaptiveAuthenticationManager target = new LdaptiveAuthenticationManager(
+        ldaptiveTemplate, properties);
+    PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    doAnswer(invocationOnMock -> invocationOnMock.getArgument(0))
+        .when(passwordEncoder)
+        .encode(anyString());
+    target.setPasswordEncoder(passwordEncoder);
+    target.init();
+
+    doReturn(Optional.of(createUser()))
+        .when(ldaptiveTemplate)
+        .findOne(any());
+    doReturn(true)
+        .when(ldaptiveTemplate)
+        .compare(any());
+
+    LdaptiveAuthentication actual = target
+        .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret"));
+    assertActual(actual, softly);
+    // the remember-me token doesn't change with the password, so the login isn't cached
+    actual = target
+        .authenticate(new UsernamePasswordAuthenticationToken("junit", "secret"));
+    assertActual(actual, softly);
+    verify(ldaptiveTemplate, times(2))
+        .compare(any());
+  }
+
   /**
    * Check account control.
    *
@@ -473,4 +804,11 @@ class LdaptiveAuthenticationManagerTest {
     return entry;
   }
 
+  private LdapEntry createUserWithPwdLastSet() {
+    LdapEntry entry = createUser();
+    entry.addAttributes(LdapAttribute.builder()
+        .name("pwdLastSet").values("133000000000000000").build());
+    return entry;
+  }
+
 }
\ No newline at end of file
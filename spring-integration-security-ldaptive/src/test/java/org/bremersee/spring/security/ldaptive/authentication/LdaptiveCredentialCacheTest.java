@@ -0,0 +1,139 @@
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.CredentialCacheProperties;
+import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveUserDetails;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The ldaptive credential cache test.
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class LdaptiveCredentialCacheTest {
+
+  /**
+   * Put and find user details.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void putAndFindUserDetails(SoftAssertions softly) {
+    LdaptiveCredentialCache target = new LdaptiveCredentialCache(new CredentialCacheProperties());
+    LdaptiveUserDetails userDetails = createUserDetails("token");
+
+    target.put("junit", "secret", userDetails);
+    softly
+        .assertThat(target.findUserDetails("JUnit", "secret"))
+        .hasValue(userDetails);
+    softly
+        .assertThat(target.findUserDetails("junit", "wrong"))
+        .isEmpty();
+    softly
+        .assertThat(target.findUserDetails("junit", ""))
+        .isEmpty();
+
+    target.put("anna", "", userDetails);
+    softly
+        .assertThat(target.findUserDetails("anna", ""))
+        .isEmpty();
+
+    target.evict("junit");
+    softly
+        .assertThat(target.findUserDetails("junit", "secret"))
+        .isEmpty();
+  }
+
+  /**
+   * Evict if changed.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void evictIfChanged(SoftAssertions softly) {
+    LdaptiveCredentialCache target = new LdaptiveCredentialCache(new CredentialCacheProperties());
+    LdaptiveUserDetails userDetails = createUserDetails("token");
+    target.put("junit", "secret", userDetails);
+    target.put("junit@example.com", "secret", userDetails);
+
+    target.evictIfChanged(createUserDetails("token"));
+    softly
+        .assertThat(target.findUserDetails("junit", "secret"))
+        .hasValue(userDetails);
+
+    target.evictIfChanged(createUserDetails("changed"));
+    softly
+        .assertThat(target.findUserDetails("junit", "secret"))
+        .isEmpty();
+    softly
+        .assertThat(target.findUserDetails("junit@example.com", "secret"))
+        .isEmpty();
+  }
+
+  /**
+   * Rotate secret.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void rotateSecret(SoftAssertions softly) {
+    CredentialCacheProperties properties = new CredentialCacheProperties();
+    properties.setTimeToLive(Duration.ofDays(7L));
+    properties.setSecretRotationInterval(Duration.ofHours(1L));
+    MutableClock clock = new MutableClock();
+    LdaptiveCredentialCache target = new LdaptiveCredentialCache(properties, clock);
+    LdaptiveUserDetails userDetails = createUserDetails("token");
+
+    target.put("junit", "secret", userDetails);
+    clock.plus(Duration.ofMinutes(59L));
+    softly
+        .assertThat(target.findUserDetails("junit", "secret"))
+        .hasValue(userDetails);
+    clock.plus(Duration.ofMinutes(1L));
+    softly
+        .assertThat(target.findUserDetails("junit", "secret"))
+        .isEmpty();
+  }
+
+  private static LdaptiveUserDetails createUserDetails(String rememberMeToken) {
+    LdaptiveUserDetails userDetails = mock(LdaptiveUserDetails.class);
+    doReturn("junit").when(userDetails).getUsername();
+    doReturn("junit@example.com").when(userDetails).getEmail();
+    doReturn(rememberMeToken).when(userDetails).getPassword();
+    return userDetails;
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+    void plus(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+
+}
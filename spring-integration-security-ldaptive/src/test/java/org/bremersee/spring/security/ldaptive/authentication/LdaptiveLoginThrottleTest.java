@@ -0,0 +1,198 @@
+package org.bremersee.spring.security.ldaptive.authentication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.LoginThrottleProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The ldaptive login throttle test.
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class LdaptiveLoginThrottleTest {
+
+  private static final String CLIENT_ADDRESS = "192.168.1.10";
+
+  /**
+   * Check allowed with back-off.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void checkAllowedWithBackOff(SoftAssertions softly) {
+    MutableClock clock = new MutableClock();
+    LoginThrottleProperties properties = new LoginThrottleProperties();
+    LdaptiveLoginThrottle target = new LdaptiveLoginThrottle(
+        properties, new InMemoryLdaptiveLoginAttemptStore(100), clock);
+
+    for (int i = 0; i < 3; i++) {
+      target.checkAllowed("junit", CLIENT_ADDRESS);
+      target.loginFailed("junit", CLIENT_ADDRESS);
+    }
+    softly
+        .assertThatExceptionOfType(LdaptiveLoginThrottledException.class)
+        .isThrownBy(() -> target.checkAllowed("JUnit", CLIENT_ADDRESS))
+        .extracting(LdaptiveLoginThrottledException::getRetryAfter)
+        .isEqualTo(Duration.ofSeconds(1L));
+
+    clock.plus(Duration.ofSeconds(1L));
+    target.checkAllowed("junit", CLIENT_ADDRESS);
+    target.loginFailed("junit", CLIENT_ADDRESS);
+    softly
+        .assertThatExceptionOfType(LdaptiveLoginThrottledException.class)
+        .isThrownBy(() -> target.checkAllowed("junit", null))
+        .extracting(LdaptiveLoginThrottledException::getRetryAfter)
+        .isEqualTo(Duration.ofSeconds(2L));
+
+    // other users from the same address are not affected yet
+    target.checkAllowed("anna", CLIENT_ADDRESS);
+
+    softly
+        .assertThat(target.getAllowedAttempts())
+        .isEqualTo(5L);
+    softly
+        .assertThat(target.getRejectedAttempts())
+        .isEqualTo(2L);
+
+    clock.plus(properties.getFailureTimeToLive());
+    target.checkAllowed("junit", CLIENT_ADDRESS);
+  }
+
+  /**
+   * Check allowed by client address.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void checkAllowedByClientAddress(SoftAssertions softly) {
+    MutableClock clock = new MutableClock();
+    LoginThrottleProperties properties = new LoginThrottleProperties();
+    properties.setFreeAttemptsPerClientAddress(2);
+    LdaptiveLoginThrottle target = new LdaptiveLoginThrottle(
+        properties, new InMemoryLdaptiveLoginAttemptStore(100), clock);
+
+    target.loginFailed("junit", CLIENT_ADDRESS);
+    target.loginFailed("anna", CLIENT_ADDRESS);
+    softly
+        .assertThatExceptionOfType(LdaptiveLoginThrottledException.class)
+        .isThrownBy(() -> target.checkAllowed("peter", CLIENT_ADDRESS));
+    target.checkAllowed("peter", "192.168.1.11");
+
+    // a successful login resets only the failures of the username
+    target.loginSucceeded("junit");
+    softly
+        .assertThatExceptionOfType(LdaptiveLoginThrottledException.class)
+        .isThrownBy(() -> target.checkAllowed("junit", CLIENT_ADDRESS));
+    target.checkAllowed("junit", null);
+  }
+
+  /**
+   * Get delay.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void getDelay(SoftAssertions softly) {
+    LdaptiveLoginThrottle target = new LdaptiveLoginThrottle(new LoginThrottleProperties());
+    softly
+        .assertThat(target.getDelay(2, 3))
+        .isZero();
+    softly
+        .assertThat(target.getDelay(3, 3))
+        .isEqualTo(Duration.ofSeconds(1L));
+    softly
+        .assertThat(target.getDelay(6, 3))
+        .isEqualTo(Duration.ofSeconds(8L));
+    softly
+        .assertThat(target.getDelay(Integer.MAX_VALUE, 3))
+        .isEqualTo(Duration.ofMinutes(5L));
+  }
+
+  /**
+   * In-memory store is bounded.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void inMemoryStoreIsBounded(SoftAssertions softly) {
+    InMemoryLdaptiveLoginAttemptStore target = new InMemoryLdaptiveLoginAttemptStore(3, 1);
+    Instant now = Instant.parse("2024-01-01T00:00:00Z");
+    Duration timeToLive = Duration.ofMinutes(15L);
+    target.recordFailure("junit", now, timeToLive);
+    target.recordFailure("anna", now, timeToLive);
+    target.recordFailure("peter", now, timeToLive);
+    target.recordFailure("junit", now.plusSeconds(1L), timeToLive);
+    target.recordFailure("hans", now.plusSeconds(2L), timeToLive);
+    softly
+        .assertThat(target.size())
+        .isEqualTo(3);
+    softly
+        .assertThat(target.get("anna"))
+        .isNull();
+    softly
+        .assertThat(target.get("junit").count())
+        .isEqualTo(2);
+
+    target.recordFailure("livia", now.plus(timeToLive).plusSeconds(1L), timeToLive);
+    softly
+        .assertThat(target.size())
+        .isEqualTo(2);
+    softly
+        .assertThat(target.get("peter"))
+        .isNull();
+  }
+
+  /**
+   * Striped in-memory store is bounded.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void stripedInMemoryStoreIsBounded(SoftAssertions softly) {
+    InMemoryLdaptiveLoginAttemptStore target = new InMemoryLdaptiveLoginAttemptStore(100);
+    Instant now = Instant.parse("2024-01-01T00:00:00Z");
+    Duration timeToLive = Duration.ofMinutes(15L);
+    for (int i = 0; i < 1000; i++) {
+      target.recordFailure("user" + i, now, timeToLive);
+    }
+    target.recordFailure("junit", now, timeToLive);
+    target.recordFailure("junit", now, timeToLive);
+    softly
+        .assertThat(target.size())
+        .isBetween(100, 100 + InMemoryLdaptiveLoginAttemptStore.DEFAULT_CONCURRENCY_LEVEL - 1);
+    softly
+        .assertThat(target.get("junit").count())
+        .isEqualTo(2);
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+    void plus(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+
+}
@@ -2,8 +2,11 @@ package org.bremersee.spring.security.ldaptive.authentication;
 
 import static org.assertj.core.api.Assertions.assertThatNoException;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import reactor.test.StepVerifier;
 
 /**
  * The type Reactive ldaptive authentication manager test.
@@ -20,4 +23,19 @@ class ReactiveLdaptiveAuthenticationManagerTest {
             mock(LdaptiveAuthenticationManager.class)));
   }
 
-}
\ No newline at end of file
+  /**
+   * Get verified user details with empty password.
+   */
+  @Test
+  void getVerifiedUserDetailsWithEmptyPassword() {
+    LdaptiveAuthenticationManager authenticationManager = mock(
+        LdaptiveAuthenticationManager.class);
+    ReactiveLdaptiveAuthenticationManager target = new ReactiveLdaptiveAuthenticationManager(
+        authenticationManager);
+    StepVerifier.create(target.getVerifiedUserDetails("junit", ""))
+        .expectError(BadCredentialsException.class)
+        .verify();
+    verifyNoInteractions(authenticationManager);
+  }
+
+}
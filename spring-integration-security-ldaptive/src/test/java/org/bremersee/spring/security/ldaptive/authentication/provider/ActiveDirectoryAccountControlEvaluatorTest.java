@@ -2,16 +2,30 @@ package org.bremersee.spring.security.ldaptive.authentication.provider;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.ldaptive.transcoder.FileTimePrimitiveValueTranscoder;
 import org.bremersee.ldaptive.transcoder.UserAccountControlValueTranscoder;
+import org.bremersee.spring.security.ldaptive.authentication.AccountControlEvaluator.AccountControl;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
 
 /**
  * The type Active directory account control evaluator test.
  */
+@ExtendWith({SoftAssertionsExtension.class})
 class ActiveDirectoryAccountControlEvaluatorTest {
 
+  private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+  private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+
   private static final ActiveDirectoryAccountControlEvaluator target
       = new ActiveDirectoryAccountControlEvaluator();
 
@@ -67,4 +81,121 @@ class ActiveDirectoryAccountControlEvaluatorTest {
     assertThat(target.isEnabled(user))
         .isFalse();
   }
-}
\ No newline at end of file
+
+  /**
+   * Evaluate expired account.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void evaluateAccountExpires(SoftAssertions softly) {
+    ActiveDirectoryAccountControlEvaluator evaluator = new ActiveDirectoryAccountControlEvaluator(
+        ActiveDirectoryAccountControlEvaluator.DEFAULT_LOCKOUT_DURATION, null, CLOCK);
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.ACCOUNT_EXPIRES,
+            fileTime(NOW.minusSeconds(1L)))).accountNonExpired())
+        .isFalse();
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.ACCOUNT_EXPIRES,
+            fileTime(NOW.plusSeconds(1L)))).accountNonExpired())
+        .isTrue();
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.ACCOUNT_EXPIRES,
+            "0")).accountNonExpired())
+        .isTrue();
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.ACCOUNT_EXPIRES,
+            String.valueOf(FileTimePrimitiveValueTranscoder.NEVER))).accountNonExpired())
+        .isTrue();
+  }
+
+  /**
+   * Evaluate locked account.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void evaluateLockoutTime(SoftAssertions softly) {
+    ActiveDirectoryAccountControlEvaluator evaluator = new ActiveDirectoryAccountControlEvaluator(
+        Duration.ofMinutes(30L), null, CLOCK);
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.LOCKOUT_TIME,
+            fileTime(NOW.minusSeconds(60L)))).accountNonLocked())
+        .isFalse();
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.LOCKOUT_TIME,
+            fileTime(NOW.minus(Duration.ofHours(1L))))).accountNonLocked())
+        .isTrue();
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.LOCKOUT_TIME,
+            "0")).accountNonLocked())
+        .isTrue();
+
+    ActiveDirectoryAccountControlEvaluator unlimited = new ActiveDirectoryAccountControlEvaluator(
+        null, null, CLOCK);
+    softly
+        .assertThat(unlimited.evaluate(user(ActiveDirectoryAccountControlEvaluator.LOCKOUT_TIME,
+            fileTime(NOW.minus(Duration.ofHours(1L))))).accountNonLocked())
+        .isFalse();
+  }
+
+  /**
+   * Evaluate password last set.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void evaluatePwdLastSet(SoftAssertions softly) {
+    ActiveDirectoryAccountControlEvaluator evaluator = new ActiveDirectoryAccountControlEvaluator(
+        null, Duration.ofDays(42L), CLOCK);
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.PWD_LAST_SET,
+            "0")).credentialsNonExpired())
+        .isFalse();
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.PWD_LAST_SET,
+            fileTime(NOW.minus(Duration.ofDays(43L))))).credentialsNonExpired())
+        .isFalse();
+    softly
+        .assertThat(evaluator.evaluate(user(ActiveDirectoryAccountControlEvaluator.PWD_LAST_SET,
+            fileTime(NOW.minus(Duration.ofDays(1L))))).credentialsNonExpired())
+        .isTrue();
+    softly
+        .assertThat(target.evaluate(user(ActiveDirectoryAccountControlEvaluator.PWD_LAST_SET,
+            fileTime(NOW.minus(Duration.ofDays(4300L))))).credentialsNonExpired())
+        .isTrue();
+
+    LdapEntry dontExpire = user(ActiveDirectoryAccountControlEvaluator.PWD_LAST_SET,
+        fileTime(NOW.minus(Duration.ofDays(43L))));
+    dontExpire.addAttributes(new LdapAttribute(
+        UserAccountControlValueTranscoder.ATTRIBUTE_NAME,
+        String.valueOf(UserAccountControlValueTranscoder.getUserAccountControlValue(true, null)
+            | UserAccountControlValueTranscoder.DONT_EXPIRE_PASSWORD)));
+    softly
+        .assertThat(evaluator.evaluate(dontExpire).credentialsNonExpired())
+        .isTrue();
+  }
+
+  /**
+   * Evaluate the computed user account control.
+   */
+  @Test
+  void evaluateComputedUserAccountControl() {
+    LdapEntry user = user(UserAccountControlValueTranscoder.COMPUTED_ATTRIBUTE_NAME,
+        String.valueOf(UserAccountControlValueTranscoder.LOCKOUT
+            | UserAccountControlValueTranscoder.PASSWORD_EXPIRED));
+    assertThat(target.evaluate(user))
+        .isEqualTo(new AccountControl(true, false, false, true));
+  }
+
+  private static LdapEntry user(String attributeName, String value) {
+    return LdapEntry.builder()
+        .dn("cn=junit,cn=users,dc=example,dc=org")
+        .attributes(new LdapAttribute(attributeName, value))
+        .build();
+  }
+
+  private static String fileTime(Instant instant) {
+    return String.valueOf(FileTimePrimitiveValueTranscoder.toFileTime(instant.toEpochMilli()));
+  }
+}
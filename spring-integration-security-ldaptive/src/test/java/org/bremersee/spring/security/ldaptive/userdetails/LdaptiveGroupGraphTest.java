@@ -0,0 +1,101 @@
+package org.bremersee.spring.security.ldaptive.userdetails;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.ldaptive.cache.LruLdaptiveCache;
+import org.bremersee.spring.security.ldaptive.userdetails.LdaptiveGroupGraph.Group;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The ldaptive group graph test.
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class LdaptiveGroupGraphTest {
+
+  private static final String GROUP_BASE_DN = "ou=groups,dc=bremersee,dc=org";
+
+  private static final Group ADMINS = new Group("cn=admins," + GROUP_BASE_DN, "admins");
+
+  private static final Group STAFF = new Group("cn=staff," + GROUP_BASE_DN, "staff");
+
+  private static final Group ALL = new Group("cn=all," + GROUP_BASE_DN, "all");
+
+  private static final Map<String, Set<Group>> PARENTS = Map.of(
+      "junit", Set.of(ADMINS, STAFF),
+      ADMINS.dn(), Set.of(ALL),
+      STAFF.dn(), Set.of(ALL),
+      ALL.dn(), Set.of(STAFF)); // cycle
+
+  /**
+   * Expand.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void expand(SoftAssertions softly) {
+    LdaptiveGroupGraph target = new LdaptiveGroupGraph(
+        new LruLdaptiveCache<>(100, Duration.ofMinutes(5L)));
+    List<String> calls = new ArrayList<>();
+    Function<String, Set<Group>> loader = memberValue -> {
+      calls.add(memberValue);
+      return PARENTS.getOrDefault(LdaptiveGroupGraph.normalize(memberValue), Set.of());
+    };
+
+    softly
+        .assertThat(target.expand("JUnit", loader))
+        .containsExactlyInAnyOrder(ADMINS, STAFF, ALL);
+    softly
+        .assertThat(calls)
+        .hasSize(4);
+
+    softly
+        .assertThat(target.expand("junit", loader))
+        .containsExactlyInAnyOrder(ADMINS, STAFF, ALL);
+    softly
+        .assertThat(target.expand(STAFF.dn(), loader))
+        .containsExactlyInAnyOrder(ALL, STAFF);
+    softly
+        .assertThat(calls)
+        .hasSize(4);
+  }
+
+  /**
+   * Get groups.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void getGroups(SoftAssertions softly) {
+    LdaptiveGroupGraph target = new LdaptiveGroupGraph(
+        new LruLdaptiveCache<>(100, Duration.ofMinutes(5L)));
+    List<String> calls = new ArrayList<>();
+    Function<String, Set<Group>> loader = memberValue -> {
+      calls.add(memberValue);
+      return Set.of(ADMINS, ALL);
+    };
+
+    softly
+        .assertThat(target.getGroups("junit", loader))
+        .containsExactlyInAnyOrder(ADMINS, ALL);
+    softly
+        .assertThat(target.getGroups("JUNIT", loader))
+        .containsExactlyInAnyOrder(ADMINS, ALL);
+    softly
+        .assertThat(calls)
+        .containsExactly("junit");
+
+    target.clear();
+    target.getGroups("junit", loader);
+    softly
+        .assertThat(calls)
+        .hasSize(2);
+  }
+
+}
@@ -0,0 +1,104 @@
+package org.bremersee.spring.security.ldaptive.userdetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupCacheProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The ldaptive group membership cache test.
+ */
+@ExtendWith(SoftAssertionsExtension.class)
+class LdaptiveGroupMembershipCacheTest {
+
+  private static final String MEMBER = "uid=junit,ou=people,dc=bremersee,dc=org";
+
+  /**
+   * Put, find and evict.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void putFindAndEvict(SoftAssertions softly) {
+    LdaptiveGroupMembershipCache target = new LdaptiveGroupMembershipCache(
+        new GroupCacheProperties());
+
+    softly
+        .assertThat(target.findGroupNames(MEMBER))
+        .isEmpty();
+
+    target.put(MEMBER, List.of("tester", "developer"));
+    softly
+        .assertThat(target.findGroupNames(MEMBER.toUpperCase()))
+        .hasValue(Set.of("tester", "developer"));
+
+    target.evict(MEMBER);
+    softly
+        .assertThat(target.findGroupNames(MEMBER))
+        .isEmpty();
+  }
+
+  /**
+   * Refresh.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void refresh(SoftAssertions softly) {
+    LdaptiveGroupMembershipCache target = new LdaptiveGroupMembershipCache(
+        new GroupCacheProperties());
+    target.put(MEMBER, List.of("developer"));
+
+    target.refresh(Map.of(
+        MEMBER, Set.of("tester"),
+        MEMBER.toUpperCase(), Set.of("admin")));
+    softly
+        .assertThat(target.findGroupNames(MEMBER))
+        .hasValue(Set.of("tester", "admin"));
+    // a member, that is not in the snapshot, is unknown
+    String anna = "uid=anna,ou=people,dc=bremersee,dc=org";
+    softly
+        .assertThat(target.findGroupNames(anna))
+        .isEmpty();
+    target.put(anna, List.of());
+    softly
+        .assertThat(target.findGroupNames(anna))
+        .hasValue(Set.of());
+
+    target.clear();
+    softly
+        .assertThat(target.findGroupNames(MEMBER))
+        .isEmpty();
+  }
+
+  /**
+   * Start refresher.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Test
+  void startRefresher() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    try (LdaptiveGroupMembershipCache target = new LdaptiveGroupMembershipCache(
+        new GroupCacheProperties())) {
+      target.startRefresher(Duration.ofMinutes(1L), () -> {
+        latch.countDown();
+        return Map.of(MEMBER, Set.of("tester"));
+      });
+      assertThat(latch.await(10L, TimeUnit.SECONDS)).isTrue();
+      assertThatIllegalStateException()
+          .isThrownBy(() -> target.startRefresher(Duration.ofMinutes(1L), Map::of));
+    }
+  }
+
+}
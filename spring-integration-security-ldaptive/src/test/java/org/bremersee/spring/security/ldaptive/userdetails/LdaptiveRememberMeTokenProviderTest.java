@@ -17,6 +17,16 @@ class LdaptiveRememberMeTokenProviderTest {
   @Test
   void invalid() {
     assertThat(LdaptiveRememberMeTokenProvider.invalid().getRememberMeToken(mock(LdapEntry.class)))
-        .isNotEmpty();
+        .isNotEmpty()
+        .matches(LdaptiveRememberMeTokenProvider::isInvalid);
+  }
+
+  /**
+   * Is invalid.
+   */
+  @Test
+  void isInvalid() {
+    assertThat(LdaptiveRememberMeTokenProvider.isInvalid("true:true:true:true-uid=junit"))
+        .isFalse();
   }
 }
\ No newline at end of file
@@ -2,23 +2,45 @@ package org.bremersee.spring.security.ldaptive.userdetails;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.atIndex;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.bremersee.ldaptive.LdaptiveTemplate;
+import org.bremersee.ldaptive.cache.LruLdaptiveCache;
+import org.bremersee.ldaptive.transcoder.FileTimePrimitiveValueTranscoder;
 import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupCacheProperties;
+import org.bremersee.spring.security.ldaptive.authentication.LdaptiveAuthenticationProperties.GroupFetchStrategy;
+import org.bremersee.spring.security.ldaptive.authentication.provider.ActiveDirectoryAccountControlEvaluator;
+import org.bremersee.spring.security.ldaptive.authentication.provider.ActiveDirectoryTemplate;
 import org.bremersee.spring.security.ldaptive.authentication.provider.GroupContainsUsersTemplate;
 import org.bremersee.spring.security.ldaptive.authentication.provider.UserContainsGroupsTemplate;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchScope;
+import org.ldaptive.filter.FilterParseException;
+import org.ldaptive.filter.FilterParser;
+import org.mockito.ArgumentCaptor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -87,6 +109,170 @@ class LdaptiveUserDetailsServiceTest {
     assertActual(actual, softly);
   }
 
+  /**
+   * Load user from remember-me cache.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void loadUserFromRememberMeCache(SoftAssertions softly) {
+    LdaptiveAuthenticationProperties properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setUserRdnAttribute("uid");
+    LdaptiveUserDetailsService target = init(properties);
+    target.setRememberMeCache(new LruLdaptiveCache<>(100, Duration.ofMinutes(5L)));
+
+    LdapEntry user = createUser();
+    ArgumentCaptor<SearchRequest> searchCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+    doReturn(Optional.of(user)).when(ldaptiveTemplate).findOne(searchCaptor.capture());
+
+    LdaptiveUserDetails expected = target.loadUserByUsername("junit");
+    LdaptiveUserDetails actual = target.loadUserByUsername("JUnit");
+
+    assertActual(actual, softly);
+    softly
+        .assertThat(actual)
+        .isSameAs(expected);
+    softly
+        .assertThat(searchCaptor.getAllValues())
+        .hasSize(2)
+        .last()
+        .extracting(SearchRequest::getSearchScope, SearchRequest::getBaseDn)
+        .containsExactly(SearchScope.OBJECT, USER_DN);
+  }
+
+  /**
+   * Load user from remember-me cache with changed token.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void loadUserFromRememberMeCacheWithChangedToken(SoftAssertions softly) {
+    LdaptiveAuthenticationProperties properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setUserRdnAttribute("uid");
+    LdaptiveUserDetailsService target = init(properties);
+    target.setRememberMeCache(new LruLdaptiveCache<>(100, Duration.ofMinutes(5L)));
+    AtomicInteger counter = new AtomicInteger();
+    target.setRememberMeTokenProvider(ldapEntry -> "token" + counter.incrementAndGet());
+
+    LdapEntry user = createUser();
+    doReturn(Optional.of(user)).when(ldaptiveTemplate).findOne(any());
+
+    LdaptiveUserDetails expected = target.loadUserByUsername("junit");
+    LdaptiveUserDetails actual = target.loadUserByUsername("junit");
+
+    assertActual(actual, softly);
+    softly
+        .assertThat(actual)
+        .isNotSameAs(expected);
+    softly
+        .assertThat(actual.getPassword())
+        .isEqualTo("token3");
+    verify(ldaptiveTemplate, times(3)).findOne(any());
+
+    doReturn(Optional.empty()).when(ldaptiveTemplate).findOne(any());
+    softly
+        .assertThatExceptionOfType(UsernameNotFoundException.class)
+        .isThrownBy(() -> target.loadUserByUsername("junit"));
+  }
+
+  /**
+   * Load user from remember-me cache without stable token.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void loadUserFromRememberMeCacheWithoutStableToken(SoftAssertions softly) {
+    LdaptiveAuthenticationProperties properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setUserRdnAttribute("uid");
+    properties.setPasswordLastSetAttribute("pwdLastSet");
+    LdaptiveUserDetailsService target = init(properties);
+    LruLdaptiveCache<String, LdaptiveUserDetails> cache = new LruLdaptiveCache<>(
+        100, Duration.ofMinutes(5L));
+    target.setRememberMeCache(cache);
+
+    // the user has no pwdLastSet attribute, so the token is an invalid one
+    LdapEntry user = createUser();
+    ArgumentCaptor<SearchRequest> searchCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+    doReturn(Optional.of(user)).when(ldaptiveTemplate).findOne(searchCaptor.capture());
+
+    LdaptiveUserDetails expected = target.loadUserByUsername("junit");
+    LdaptiveUserDetails actual = target.loadUserByUsername("junit");
+    assertActual(actual, softly);
+    softly
+        .assertThat(actual)
+        .isNotSameAs(expected);
+    softly
+        .assertThat(cache.size())
+        .isZero();
+    softly
+        .assertThat(searchCaptor.getAllValues())
+        .extracting(SearchRequest::getSearchScope)
+        .containsExactly(SearchScope.ONELEVEL, SearchScope.ONELEVEL);
+
+    target.setRememberMeTokenProvider(LdaptiveRememberMeTokenProvider.invalid());
+    target.loadUserByUsername("junit");
+    softly
+        .assertThat(cache.size())
+        .isZero();
+  }
+
+  /**
+   * Create find remember-me token request with active directory.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void createFindRememberMeTokenRequestWithActiveDirectory(SoftAssertions softly) {
+    ActiveDirectoryTemplate properties = new ActiveDirectoryTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    LdaptiveUserDetailsService target = init(properties);
+
+    SearchRequest actual = target.createFindRememberMeTokenRequest(USER_DN);
+    softly
+        .assertThat(actual.getBaseDn())
+        .isEqualTo(USER_DN);
+    softly
+        .assertThat(actual.getSearchScope())
+        .isEqualTo(SearchScope.OBJECT);
+    softly
+        .assertThat(actual.getReturnAttributes())
+        .containsExactlyInAnyOrder(
+            "userAccountControl", "accountExpires", "lockoutTime", "pwdLastSet");
+  }
+
+  /**
+   * The account control evaluator and the remember-me token provider are created with the
+   * authentication properties.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void accountControlEvaluatorIsCreatedWithProperties(SoftAssertions softly) {
+    ActiveDirectoryTemplate properties = new ActiveDirectoryTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setLockoutDuration(Duration.ofHours(2L));
+    LdaptiveUserDetailsService target = init(properties);
+
+    long lockoutTime = FileTimePrimitiveValueTranscoder.toFileTime(
+        Instant.now().minus(Duration.ofHours(1L)).toEpochMilli());
+    LdapEntry user = LdapEntry.builder()
+        .dn(USER_DN)
+        .attributes(
+            new LdapAttribute(
+                ActiveDirectoryAccountControlEvaluator.LOCKOUT_TIME, String.valueOf(lockoutTime)),
+            new LdapAttribute(properties.getPasswordLastSetAttribute(), "133000000000000000"))
+        .build();
+    softly
+        .assertThat(target.getAccountControlEvaluator().isAccountNonLocked(user))
+        .isFalse();
+    softly
+        .assertThat(target.getRememberMeTokenProvider().getRememberMeToken(user).split(":"))
+        .contains("false", atIndex(1));
+  }
+
   /**
    * Load user and groups by username.
    *
@@ -115,6 +301,217 @@ class LdaptiveUserDetailsServiceTest {
     assertActual(actual, softly);
   }
 
+  /**
+   * Load user and groups from group membership cache.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void loadUserAndGroupsFromGroupMembershipCache(SoftAssertions softly) {
+    LdaptiveAuthenticationProperties properties = new GroupContainsUsersTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setGroupBaseDn(USER_BASE_DN);
+    properties.setUserRdnAttribute("uid");
+    properties.setGroupMemberFormat("${username}");
+
+    LdaptiveUserDetailsService target = init(properties);
+    target.setGroupMembershipCache(new LdaptiveGroupMembershipCache(new GroupCacheProperties()));
+
+    LdapEntry user = createUser();
+    doReturn(Optional.of(user)).when(ldaptiveTemplate).findOne(any());
+
+    LdapEntry group = createGroup();
+    doReturn(List.of(group)).when(ldaptiveTemplate).findAll(any());
+
+    assertActual(target.loadUserByUsername("junit"), softly);
+    assertActual(target.loadUserByUsername("junit"), softly);
+
+    verify(ldaptiveTemplate, times(1)).findAll(any());
+  }
+
+  /**
+   * Find group memberships.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void findGroupMemberships(SoftAssertions softly) {
+    LdaptiveAuthenticationProperties properties = new GroupContainsUsersTemplate();
+    properties.setGroupBaseDn(USER_BASE_DN);
+    LdaptiveUserDetailsService target = init(properties);
+
+    softly
+        .assertThat(target.createFindAllGroupsRequest().getReturnAttributes())
+        .containsExactly("uniqueMember");
+
+    LdapEntry group = createGroup();
+    doReturn(Stream.of(group)).when(ldaptiveTemplate).findAllPaged(any(), anyInt());
+
+    softly
+        .assertThat(target.findGroupMemberships())
+        .containsExactly(Map.entry("junit", Set.of("tester")));
+    verify(ldaptiveTemplate).findAllPaged(any(), eq(500));
+  }
+
+  /**
+   * Find group memberships with ranged member attribute.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void findGroupMembershipsWithRangedMembers(SoftAssertions softly) {
+    LdaptiveAuthenticationProperties properties = new GroupContainsUsersTemplate();
+    properties.setGroupBaseDn(USER_BASE_DN);
+    LdaptiveUserDetailsService target = init(properties);
+
+    LdapEntry group = new LdapEntry();
+    group.setDn("cn=tester," + USER_BASE_DN);
+    group.addAttributes(LdapAttribute.builder()
+        .name("uniqueMember;range=0-1").values("junit", "anna").build());
+    doReturn(Stream.of(group)).when(ldaptiveTemplate).findAllPaged(any(), anyInt());
+    LdapEntry rest = new LdapEntry();
+    rest.setDn(group.getDn());
+    rest.addAttributes(LdapAttribute.builder()
+        .name("uniqueMember;range=2-*").values("peter").build());
+    ArgumentCaptor<SearchRequest> searchCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+    doReturn(Optional.of(rest)).when(ldaptiveTemplate).findOne(searchCaptor.capture());
+
+    softly
+        .assertThat(target.findGroupMemberships())
+        .containsOnly(
+            Map.entry("junit", Set.of("tester")),
+            Map.entry("anna", Set.of("tester")),
+            Map.entry("peter", Set.of("tester")));
+    softly
+        .assertThat(searchCaptor.getValue().getReturnAttributes())
+        .containsExactly("uniqueMember;range=2-*");
+    softly
+        .assertThat(searchCaptor.getValue().getSearchScope())
+        .isEqualTo(SearchScope.OBJECT);
+  }
+
+  /**
+   * Load user and nested groups.
+   *
+   * @param softly the softly
+   * @throws FilterParseException the filter parse exception
+   */
+  @Test
+  void loadUserAndNestedGroups(SoftAssertions softly) throws FilterParseException {
+    LdaptiveAuthenticationProperties properties = new GroupContainsUsersTemplate();
+    properties.setGroupFetchStrategy(GroupFetchStrategy.NESTED_GROUPS);
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setGroupBaseDn(USER_BASE_DN);
+    properties.setUserRdnAttribute("uid");
+    properties.setGroupMemberFormat("${username}");
+
+    LdaptiveUserDetailsService target = init(properties);
+
+    SearchRequest groupsRequest = target.createFindGroupsByMemberRequest("junit");
+    softly
+        .assertThat(groupsRequest.getFilter())
+        .isEqualTo(FilterParser.parse(
+            "(&(objectClass=groupOfUniqueNames)(uniqueMember=junit))"));
+    softly
+        .assertThat(groupsRequest.getReturnAttributes())
+        .containsExactly("1.1");
+
+    LdapEntry user = createUser();
+    doReturn(Optional.of(user)).when(ldaptiveTemplate).findOne(any());
+
+    LdapEntry tester = new LdapEntry();
+    tester.setDn("cn=tester," + USER_BASE_DN);
+    LdapEntry staff = new LdapEntry();
+    staff.setDn("cn=staff," + USER_BASE_DN);
+    doReturn(List.of(tester), List.of(staff), List.of())
+        .when(ldaptiveTemplate).findAll(any());
+
+    LdaptiveUserDetails actual = target.loadUserByUsername("junit");
+    softly
+        .assertThat(actual.getAuthorities())
+        .extracting(GrantedAuthority::getAuthority)
+        .containsExactlyInAnyOrder("ROLE_tester", "ROLE_staff");
+
+    actual = target.loadUserByUsername("junit");
+    softly
+        .assertThat(actual.getAuthorities())
+        .extracting(GrantedAuthority::getAuthority)
+        .containsExactlyInAnyOrder("ROLE_tester", "ROLE_staff");
+
+    verify(ldaptiveTemplate, times(3)).findAll(any());
+  }
+
+  /**
+   * Load user and nested groups in chain.
+   *
+   * @param softly the softly
+   * @throws FilterParseException the filter parse exception
+   */
+  @Test
+  void loadUserAndNestedGroupsInChain(SoftAssertions softly) throws FilterParseException {
+    LdaptiveAuthenticationProperties properties = new GroupContainsUsersTemplate();
+    properties.setGroupFetchStrategy(GroupFetchStrategy.NESTED_GROUPS);
+    properties.setMatchingRuleInChain(true);
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setGroupBaseDn(USER_BASE_DN);
+    properties.setGroupObjectClass("group");
+    properties.setGroupMemberAttribute("member");
+    properties.setUserRdnAttribute("uid");
+
+    LdaptiveUserDetailsService target = init(properties);
+
+    softly
+        .assertThat(target.createFindGroupsInChainRequest(USER_DN).getFilter())
+        .isEqualTo(FilterParser.parse(
+            "(&(objectClass=group)(member:1.2.840.113556.1.4.1941:=" + USER_DN + "))"));
+
+    LdapEntry user = createUser();
+    doReturn(Optional.of(user)).when(ldaptiveTemplate).findOne(any());
+
+    LdapEntry tester = new LdapEntry();
+    tester.setDn("cn=tester," + USER_BASE_DN);
+    LdapEntry staff = new LdapEntry();
+    staff.setDn("cn=staff," + USER_BASE_DN);
+    doReturn(List.of(tester, staff)).when(ldaptiveTemplate).findAll(any());
+
+    LdaptiveUserDetails actual = target.loadUserByUsername("junit");
+    softly
+        .assertThat(actual.getAuthorities())
+        .extracting(GrantedAuthority::getAuthority)
+        .containsExactlyInAnyOrder("ROLE_tester", "ROLE_staff");
+
+    verify(ldaptiveTemplate, times(1)).findAll(any());
+  }
+
+  /**
+   * Load user with retained attributes.
+   *
+   * @param softly the softly
+   */
+  @Test
+  void loadUserWithRetainedAttributes(SoftAssertions softly) {
+    LdaptiveAuthenticationProperties properties = new UserContainsGroupsTemplate();
+    properties.setUserBaseDn(USER_BASE_DN);
+    properties.setUserRdnAttribute("uid");
+    properties.setRetainedAttributes(List.of("mail", "telephoneNumber"));
+    LdaptiveUserDetailsService target = init(properties);
+
+    softly
+        .assertThat(target.createFindUserRequest("junit").getReturnAttributes())
+        .containsExactlyInAnyOrder("givenName", "mail", "memberOf", "sn", "telephoneNumber", "uid");
+
+    LdapEntry user = createUser();
+    doReturn(Optional.of(user)).when(ldaptiveTemplate).findOne(any());
+
+    LdaptiveUserDetails actual = target.loadUserByUsername("junit");
+
+    assertThat(actual).isInstanceOf(LdaptiveUser.class);
+    assertActual(actual, softly);
+    softly
+        .assertThat(((LdaptiveUser) actual).getAttributes())
+        .containsOnlyKeys("mail");
+  }
+
   private void assertActual(LdaptiveUserDetails actual, SoftAssertions softly) {
     softly
         .assertThat(actual.getDn())